@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+/** A <code>String</code> converter that can append its result to a
+ * <code>StringBuilder</code> instead of returning a new <code>String</code>.
+ * The built-in <code>*ToString</code> converters that can write their text
+ * without creating a <code>String</code> implement this interface.
+ * {@link StringOutput} uses it to write conversions to any <code>Appendable</code>,
+ * or as UTF-8 to a <code>ByteBuffer</code>.
+ *
+ * @param <S> The source object type
+ */
+public interface AppendingConverter<S> extends Converter<S, String> {
+    /** Appends <code>convert(obj)</code> to <code>sb</code>.
+     *
+     * @param obj The source <code>Object</code> to convert
+     * @param sb The <code>StringBuilder</code> to append to
+     * @return <code>sb</code>
+     * @throws ConversionException
+     */
+    public StringBuilder appendTo(S obj, StringBuilder sb) throws ConversionException;
+}
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** An exact <code>BigDecimal</code> and <code>BigInteger</code> formatter.
+ * <p>The value is rounded on its unscaled digits and scale, and the digits are
+ * laid out with the prefixes, suffixes, grouping, separators, and minimum and
+ * maximum digit counts of a <code>DecimalFormat</code> pattern. The output is
+ * identical to <code>DecimalFormat</code>, without converting the value to a
+ * <code>double</code>. Patterns that this class cannot reproduce, such as
+ * exponent and percent patterns, are formatted with a per-thread
+ * <code>DecimalFormat</code>.</p>
+ * <p>Instances are immutable and thread-safe.</p>
+ */
+public class BigDecimalFormat {
+
+    private static final int MAX_INSTANCES = 256;
+    private static final ConcurrentHashMap<Key, BigDecimalFormat> instances = new ConcurrentHashMap<Key, BigDecimalFormat>();
+    private static final String[] samples = {"0", "-0.0001", "0.5", "-7", "12.0625", "1E+3", "-1234.5", "1234567.891", "98765432109876543210.1234567"};
+
+    /** Returns a shared <code>BigDecimalFormat</code> instance.
+     *
+     * @param pattern The <code>DecimalFormat</code> pattern, or <code>null</code>
+     * for the locale's number format
+     * @param locale The locale whose symbols are used
+     * @return The <code>BigDecimalFormat</code> instance
+     * @throws IllegalArgumentException if <code>pattern</code> is invalid
+     */
+    public static BigDecimalFormat getInstance(String pattern, Locale locale) {
+        Key key = new Key(pattern, locale);
+        BigDecimalFormat result = instances.get(key);
+        if (result == null) {
+            if (instances.size() >= MAX_INSTANCES) {
+                instances.clear();
+            }
+            result = new BigDecimalFormat(pattern, locale);
+            BigDecimalFormat existing = instances.putIfAbsent(key, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private final String pattern;
+    private final Layout layout;
+    private final NumberFormat prototype;
+    private final ThreadLocal<NumberFormat> numberFormat = new ThreadLocal<NumberFormat>() {
+        @Override
+        protected NumberFormat initialValue() {
+            return (NumberFormat) prototype.clone();
+        }
+    };
+
+    /** Creates a formatter.
+     *
+     * @param pattern The <code>DecimalFormat</code> pattern, or <code>null</code>
+     * for the locale's number format
+     * @param locale The locale whose symbols are used
+     * @throws IllegalArgumentException if <code>pattern</code> is invalid
+     */
+    public BigDecimalFormat(String pattern, Locale locale) {
+        this.pattern = pattern;
+        this.prototype = pattern == null ? NumberFormat.getNumberInstance(locale) : new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+        this.layout = Layout.create(prototype);
+    }
+
+    /** Returns <code>value</code> formatted with this object's pattern.
+     *
+     * @param value The value to format
+     * @return The formatted <code>String</code>
+     * @throws ArithmeticException if the pattern's rounding mode is
+     * <code>UNNECESSARY</code> and <code>value</code> needs rounding
+     */
+    public String format(BigDecimal value) {
+        if (layout == null) {
+            return numberFormat.get().format(value);
+        }
+        return layout.format(value);
+    }
+
+    /** Returns <code>value</code> formatted with this object's pattern.
+     *
+     * @param value The value to format
+     * @return The formatted <code>String</code>
+     */
+    public String format(BigInteger value) {
+        if (layout == null) {
+            return numberFormat.get().format(value);
+        }
+        return layout.format(new BigDecimal(value));
+    }
+
+    /** Returns the pattern, or <code>null</code> for the locale's number format. */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /** The settings of a <code>DecimalFormat</code>. */
+    private static final class Layout {
+        private String positivePrefix;
+        private String positiveSuffix;
+        private String negativePrefix;
+        private String negativeSuffix;
+        private int groupingSize;
+        private char groupingSeparator;
+        private char decimalSeparator;
+        private boolean decimalSeparatorAlwaysShown;
+        private int zeroOffset;
+        private int minimumIntegerDigits;
+        private int minimumFractionDigits;
+        private int maximumFractionDigits;
+        private RoundingMode roundingMode;
+
+        /** Returns the layout of <code>nf</code>, or <code>null</code> if it cannot be reproduced. */
+        private static Layout create(NumberFormat nf) {
+            if (!(nf instanceof DecimalFormat)) {
+                return null;
+            }
+            DecimalFormat df = (DecimalFormat) nf;
+            if (df.getMultiplier() != 1 || df.getMaximumIntegerDigits() != Integer.MAX_VALUE) {
+                return null;
+            }
+            DecimalFormatSymbols dfs = df.getDecimalFormatSymbols();
+            Layout layout = new Layout();
+            layout.positivePrefix = df.getPositivePrefix();
+            layout.positiveSuffix = df.getPositiveSuffix();
+            layout.negativePrefix = df.getNegativePrefix();
+            layout.negativeSuffix = df.getNegativeSuffix();
+            layout.groupingSize = df.isGroupingUsed() ? df.getGroupingSize() : 0;
+            layout.groupingSeparator = dfs.getGroupingSeparator();
+            layout.decimalSeparator = dfs.getDecimalSeparator();
+            layout.decimalSeparatorAlwaysShown = df.isDecimalSeparatorAlwaysShown();
+            layout.zeroOffset = dfs.getZeroDigit() - '0';
+            layout.minimumIntegerDigits = df.getMinimumIntegerDigits();
+            layout.minimumFractionDigits = df.getMinimumFractionDigits();
+            layout.maximumFractionDigits = df.getMaximumFractionDigits();
+            layout.roundingMode = df.getRoundingMode();
+            if (layout.roundingMode == RoundingMode.UNNECESSARY) {
+                return null;
+            }
+            // Exponent patterns and other features fail these checks
+            for (String sample : samples) {
+                BigDecimal value = new BigDecimal(sample);
+                if (!layout.format(value).equals(df.format(value))) {
+                    return null;
+                }
+            }
+            return layout;
+        }
+
+        private String format(BigDecimal value) {
+            boolean negative = value.signum() < 0;
+            BigDecimal abs = value.abs();
+            if (abs.scale() > maximumFractionDigits) {
+                RoundingMode mode = roundingMode;
+                if (negative && mode == RoundingMode.CEILING) {
+                    mode = RoundingMode.FLOOR;
+                } else if (negative && mode == RoundingMode.FLOOR) {
+                    mode = RoundingMode.CEILING;
+                }
+                abs = abs.setScale(maximumFractionDigits, mode);
+            } else if (abs.scale() < 0) {
+                abs = abs.setScale(0);
+            }
+            String digits;
+            int scale = abs.scale();
+            int end;
+            if (abs.signum() == 0) {
+                digits = "";
+                end = 0;
+                scale = minimumFractionDigits;
+            } else {
+                digits = abs.unscaledValue().toString();
+                end = digits.length();
+                // Drop trailing zeros beyond the minimum fraction digits
+                while (scale > minimumFractionDigits && digits.charAt(end - 1) == '0') {
+                    end--;
+                    scale--;
+                }
+            }
+            int integerLength = Math.max(end - scale, 0);
+            int integerCount = Math.max(integerLength, minimumIntegerDigits);
+            int fractionCount = Math.max(scale, minimumFractionDigits);
+            StringBuilder sb = new StringBuilder(integerCount + integerCount / 3 + fractionCount + 8);
+            sb.append(negative ? negativePrefix : positivePrefix);
+            int padding = integerCount - integerLength;
+            for (int i = 0; i < integerCount; i++) {
+                sb.append((char) ((i < padding ? '0' : digits.charAt(i - padding)) + zeroOffset));
+                int remaining = integerCount - i - 1;
+                if (groupingSize > 0 && remaining > 0 && remaining % groupingSize == 0) {
+                    sb.append(groupingSeparator);
+                }
+            }
+            if (integerCount == 0 && fractionCount == 0) {
+                sb.append((char) ('0' + zeroOffset));
+            }
+            if (fractionCount > 0 || decimalSeparatorAlwaysShown) {
+                sb.append(decimalSeparator);
+            }
+            for (int i = end - scale; i < end - scale + fractionCount; i++) {
+                sb.append((char) ((i < 0 || i >= end ? '0' : digits.charAt(i)) + zeroOffset));
+            }
+            return sb.append(negative ? negativeSuffix : positiveSuffix).toString();
+        }
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final Locale locale;
+
+        private Key(String pattern, Locale locale) {
+            this.pattern = pattern;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return (pattern == null ? that.pattern == null : pattern.equals(that.pattern)) && locale.equals(that.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern == null ? 0 : pattern.hashCode() * 31) + locale.hashCode();
+        }
+    }
+}
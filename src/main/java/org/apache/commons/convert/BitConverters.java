@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** <code>BitSet</code> Converter classes. Bits are packed and unpacked a word
+ * at a time with {@link BitPacking}.
+ */
+public class BitConverters implements ConverterLoader {
+
+    public void loadConverters() {
+        Converters.loadContainedConverters(BitConverters.class);
+    }
+
+    /**
+     * An object that converts a <code>BitSet</code> to a <code>boolean</code>
+     * array of <code>BitSet.length()</code> elements.
+     */
+    public static class BitSetToBooleanArray extends AbstractConverter<BitSet, boolean[]> {
+        public BitSetToBooleanArray() {
+            super(BitSet.class, boolean[].class);
+        }
+
+        public boolean[] convert(BitSet obj) throws ConversionException {
+            return BitPacking.toBooleans(obj);
+        }
+    }
+
+    /**
+     * An object that converts a <code>BitSet</code> to a bit-packed
+     * <code>byte</code> array, as <code>BitSet.toByteArray()</code> does.
+     */
+    public static class BitSetToByteArray extends AbstractConverter<BitSet, byte[]> {
+        public BitSetToByteArray() {
+            super(BitSet.class, byte[].class);
+        }
+
+        public byte[] convert(BitSet obj) throws ConversionException {
+            return BitPacking.toBytes(BitPacking.toWords(obj), obj.length());
+        }
+    }
+
+    /**
+     * An object that converts a <code>BitSet</code> to a fixed-size
+     * <code>List</code> of <code>Boolean</code>s, backed by a
+     * <code>boolean</code> array.
+     */
+    public static class BitSetToList extends AbstractConverter<BitSet, List<Boolean>> {
+        public BitSetToList() {
+            super(BitSet.class, List.class);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return Util.instanceOf(sourceClass, BitSet.class) && (targetClass == List.class || targetClass == Collection.class);
+        }
+
+        public List<Boolean> convert(BitSet obj) throws ConversionException {
+            return PrimitiveLists.asList(BitPacking.toBooleans(obj));
+        }
+    }
+
+    /**
+     * An object that converts a <code>BitSet</code> to <code>long</code>
+     * words, as <code>BitSet.toLongArray()</code> does.
+     */
+    public static class BitSetToLongArray extends AbstractConverter<BitSet, long[]> {
+        public BitSetToLongArray() {
+            super(BitSet.class, long[].class);
+        }
+
+        public long[] convert(BitSet obj) throws ConversionException {
+            return BitPacking.toWords(obj);
+        }
+    }
+
+    /**
+     * An object that converts a <code>boolean</code> array to a
+     * <code>BitSet</code>.
+     */
+    public static class BooleanArrayToBitSet extends AbstractConverter<boolean[], BitSet> {
+        public BooleanArrayToBitSet() {
+            super(boolean[].class, BitSet.class);
+        }
+
+        public BitSet convert(boolean[] obj) throws ConversionException {
+            return BitPacking.toBitSet(BitPacking.toWords(obj));
+        }
+    }
+
+    /**
+     * An object that converts a bit-packed <code>byte</code> array to a
+     * <code>BitSet</code>, as <code>BitSet.valueOf(byte[])</code> does.
+     */
+    public static class ByteArrayToBitSet extends AbstractConverter<byte[], BitSet> {
+        public ByteArrayToBitSet() {
+            super(byte[].class, BitSet.class);
+        }
+
+        public BitSet convert(byte[] obj) throws ConversionException {
+            return BitPacking.toBitSet(BitPacking.toWords(obj));
+        }
+    }
+
+    /**
+     * An object that converts a <code>Collection</code> of <code>Boolean</code>s
+     * to a <code>BitSet</code>, with bit <i>n</i> set if element <i>n</i> is
+     * <code>true</code>.
+     */
+    public static class CollectionToBitSet extends AbstractConverter<Collection<?>, BitSet> {
+        public CollectionToBitSet() {
+            super(Util.<Class<Collection<?>>>cast(Collection.class), BitSet.class);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return Util.instanceOf(sourceClass, Collection.class) && targetClass == BitSet.class;
+        }
+
+        public BitSet convert(Collection<?> obj) throws ConversionException {
+            boolean[] bits = (boolean[]) PrimitiveLists.copyArray(obj, boolean[].class);
+            if (bits == null) {
+                bits = new boolean[obj.size()];
+                if (obj instanceof List && obj instanceof RandomAccess) {
+                    List<?> list = (List<?>) obj;
+                    for (int i = 0; i < bits.length; i++) {
+                        bits[i] = bit(list.get(i));
+                    }
+                } else {
+                    int index = 0;
+                    for (Object element : obj) {
+                        bits[index++] = bit(element);
+                    }
+                }
+            }
+            return BitPacking.toBitSet(BitPacking.toWords(bits));
+        }
+
+        private static boolean bit(Object element) throws ConversionException {
+            if (element instanceof Boolean) {
+                return ((Boolean) element).booleanValue();
+            }
+            throw new ConversionException("Not a Boolean: " + element);
+        }
+    }
+
+    /**
+     * An object that converts <code>long</code> words to a <code>BitSet</code>,
+     * as <code>BitSet.valueOf(long[])</code> does.
+     */
+    public static class LongArrayToBitSet extends AbstractConverter<long[], BitSet> {
+        public LongArrayToBitSet() {
+            super(long[].class, BitSet.class);
+        }
+
+        public BitSet convert(long[] obj) throws ConversionException {
+            return BitPacking.toBitSet(obj);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/** Bit packing between <code>boolean[]</code>, <code>long[]</code> words,
+ * <code>byte[]</code> and <code>BitSet</code>.
+ * <p>Bit <i>n</i> is bit <code>n % 64</code> of word <code>n / 64</code>, and bit
+ * <code>n % 8</code> of byte <code>n / 8</code>, as in
+ * <code>BitSet.toLongArray()</code> and <code>BitSet.toByteArray()</code>.
+ * Words are read and written whole. A <code>BitSet</code> is read and written a
+ * run of set bits at a time, with <code>nextSetBit</code>,
+ * <code>nextClearBit</code> and <code>set(int, int)</code>.</p>
+ */
+public class BitPacking {
+
+    /** Returns <code>bits</code> packed into words.
+     *
+     * @param bits The bits
+     * @return <code>(bits.length + 63) / 64</code> words
+     */
+    public static long[] toWords(boolean[] bits) {
+        long[] words = new long[(bits.length + 63) >>> 6];
+        int full = bits.length >>> 6;
+        for (int i = 0; i < full; i++) {
+            long word = 0;
+            int base = i << 6;
+            for (int j = 0; j < 64; j++) {
+                word |= (bits[base + j] ? 1L : 0L) << j;
+            }
+            words[i] = word;
+        }
+        if (full < words.length) {
+            long word = 0;
+            int base = full << 6;
+            for (int j = 0; base + j < bits.length; j++) {
+                word |= (bits[base + j] ? 1L : 0L) << j;
+            }
+            words[full] = word;
+        }
+        return words;
+    }
+
+    /** Returns the first <code>length</code> bits of <code>words</code>.
+     *
+     * @param words The words
+     * @param length The number of bits
+     * @return The bits
+     * @throws IllegalArgumentException if <code>words</code> has fewer than
+     * <code>length</code> bits
+     */
+    public static boolean[] toBooleans(long[] words, int length) {
+        if (length < 0 || length > (long) words.length << 6) {
+            throw new IllegalArgumentException("Cannot read " + length + " bits from " + words.length + " words");
+        }
+        boolean[] bits = new boolean[length];
+        for (int i = 0, base = 0; base < length; i++, base += 64) {
+            long word = words[i];
+            int end = Math.min(64, length - base);
+            if (word == 0) {
+                continue;
+            }
+            if (word == -1L) {
+                Arrays.fill(bits, base, base + end, true);
+                continue;
+            }
+            for (int j = 0; j < end; j++) {
+                bits[base + j] = (word & (1L << j)) != 0;
+            }
+        }
+        return bits;
+    }
+
+    /** Returns the first <code>length</code> bits of <code>words</code> as bytes.
+     *
+     * @param words The words
+     * @param length The number of bits
+     * @return <code>(length + 7) / 8</code> bytes
+     * @throws IllegalArgumentException if <code>words</code> has fewer than
+     * <code>length</code> bits
+     */
+    public static byte[] toBytes(long[] words, int length) {
+        if (length < 0 || length > (long) words.length << 6) {
+            throw new IllegalArgumentException("Cannot read " + length + " bits from " + words.length + " words");
+        }
+        byte[] bytes = new byte[(length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        if ((length & 7) != 0) {
+            // Clear the bits past length in the last byte
+            bytes[bytes.length - 1] &= (byte) ((1 << (length & 7)) - 1);
+        }
+        return bytes;
+    }
+
+    /** Returns <code>bytes</code> packed into words.
+     *
+     * @param bytes The bytes
+     * @return <code>(bytes.length + 7) / 8</code> words
+     */
+    public static long[] toWords(byte[] bytes) {
+        long[] words = new long[(bytes.length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return words;
+    }
+
+    /** Returns the bits of <code>set</code> as words, as
+     * <code>BitSet.toLongArray()</code> does.
+     *
+     * @param set The bits
+     * @return <code>(set.length() + 63) / 64</code> words
+     */
+    public static long[] toWords(BitSet set) {
+        int length = set.length();
+        long[] words = new long[(length + 63) >>> 6];
+        for (int start = set.nextSetBit(0); start >= 0;) {
+            int end = set.nextClearBit(start);
+            setRange(words, start, end);
+            start = end < length ? set.nextSetBit(end) : -1;
+        }
+        return words;
+    }
+
+    /** Returns the bits of <code>set</code>.
+     *
+     * @param set The bits
+     * @return <code>set.length()</code> bits
+     */
+    public static boolean[] toBooleans(BitSet set) {
+        int length = set.length();
+        boolean[] bits = new boolean[length];
+        for (int start = set.nextSetBit(0); start >= 0;) {
+            int end = set.nextClearBit(start);
+            Arrays.fill(bits, start, end, true);
+            start = end < length ? set.nextSetBit(end) : -1;
+        }
+        return bits;
+    }
+
+    /** Returns a <code>BitSet</code> of the bits in <code>words</code>, as
+     * <code>BitSet.valueOf(long[])</code> does.
+     *
+     * @param words The words
+     * @return The bits
+     */
+    public static BitSet toBitSet(long[] words) {
+        int last = words.length - 1;
+        while (last >= 0 && words[last] == 0) {
+            last--;
+        }
+        BitSet set = new BitSet((last + 1) << 6);
+        for (int i = 0; i <= last; i++) {
+            long word = words[i];
+            int base = i << 6;
+            while (word != 0) {
+                int start = Long.numberOfTrailingZeros(word);
+                int run = Long.numberOfTrailingZeros(~(word >>> start));
+                set.set(base + start, base + start + run);
+                if (start + run == 64) {
+                    break;
+                }
+                word &= -1L << (start + run);
+            }
+        }
+        return set;
+    }
+
+    /** Sets bits <code>[from, to)</code> in <code>words</code>. */
+    private static void setRange(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    private BitPacking() {}
+}
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A <code>SimpleDateFormat</code> pattern formatter that caches the text
+ * rendered for the current minute or second.
+ * <p>When a pattern's second and millisecond fields are fixed-width digits, the
+ * rendered text of a minute is kept as a template, and values within that minute
+ * are formatted by writing the second and millisecond digits into a copy of the
+ * template. Patterns with variable-width second fields are cached per second, and
+ * all other patterns per millisecond. The output is identical to
+ * <code>SimpleDateFormat</code>.</p>
+ * <p>Instances are thread-safe. The template is immutable and is published through a
+ * volatile field, so no locks are taken.</p>
+ */
+public class CachedDateFormat {
+
+    private static final int MAX_INSTANCES = 256;
+    private static final ConcurrentHashMap<Key, CachedDateFormat> instances = new ConcurrentHashMap<Key, CachedDateFormat>();
+
+    /** Returns a shared <code>CachedDateFormat</code> instance.
+     *
+     * @param pattern The <code>SimpleDateFormat</code> pattern
+     * @param locale The locale used for formatting
+     * @param timeZone The time zone used for formatting
+     * @return The <code>CachedDateFormat</code> instance
+     * @throws IllegalArgumentException if <code>pattern</code> is invalid
+     */
+    public static CachedDateFormat getInstance(String pattern, Locale locale, TimeZone timeZone) {
+        Key key = new Key(pattern, locale, timeZone);
+        CachedDateFormat result = instances.get(key);
+        if (result == null) {
+            if (instances.size() >= MAX_INSTANCES) {
+                instances.clear();
+            }
+            result = new CachedDateFormat(pattern, locale, timeZone);
+            CachedDateFormat existing = instances.putIfAbsent(new Key(pattern, locale, result.timeZone), result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+
+    private final String pattern;
+    private final Locale locale;
+    private final TimeZone timeZone;
+    private final ThreadLocal<DateFormat> dateFormat = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            DateFormat df = new SimpleDateFormat(pattern, locale);
+            df.setTimeZone(timeZone);
+            return df;
+        }
+    };
+    private volatile Template template;
+
+    public CachedDateFormat(String pattern, Locale locale, TimeZone timeZone) {
+        // Validate the pattern
+        new SimpleDateFormat(pattern, locale);
+        this.pattern = pattern;
+        this.locale = locale;
+        this.timeZone = (TimeZone) timeZone.clone();
+    }
+
+    /** Returns <code>time</code> formatted with this object's pattern.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @return The formatted <code>String</code>
+     */
+    public String format(long time) {
+        Template current = this.template;
+        if (current != null && time >= current.start && time < current.end) {
+            return current.format(time);
+        }
+        DateFormat df = dateFormat.get();
+        String result = df.format(new Date(time));
+        int offset = timeZone.getOffset(time);
+        Template next = Template.create(df, time - Iso8601Format.floorMod(time + offset, 60000), 60000, timeZone);
+        if (next == null && offset % 1000 == 0) {
+            next = Template.create(df, time - Iso8601Format.floorMod(time, 1000), 1000, timeZone);
+        }
+        if (next == null) {
+            next = new Template(time, time + 1, result.toCharArray(), -1, -1);
+        }
+        this.template = next;
+        return result;
+    }
+
+    /** Appends <code>time</code> to <code>sb</code>, formatted with this object's
+     * pattern. Times covered by the cached text are appended without creating a
+     * <code>String</code>.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @param sb The <code>StringBuilder</code> to append to
+     * @return <code>sb</code>
+     */
+    public StringBuilder format(long time, StringBuilder sb) {
+        Template current = this.template;
+        if (current != null && time >= current.start && time < current.end) {
+            return current.appendTo(time, sb);
+        }
+        return sb.append(format(time));
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /** Rendered text for a range of times, with the positions of the second
+     * and millisecond digits.
+     */
+    private static final class Template {
+        private final long start;
+        private final long end;
+        private final char[] chars;
+        private final int secondIndex;
+        private final int millisIndex;
+
+        private Template(long start, long end, char[] chars, int secondIndex, int millisIndex) {
+            this.start = start;
+            this.end = end;
+            this.chars = chars;
+            this.secondIndex = secondIndex;
+            this.millisIndex = millisIndex;
+        }
+
+        /** Returns a template for <code>[start, start + length)</code>, or <code>null</code>
+         * if the text in that range depends on more than the second and millisecond digits.
+         */
+        private static Template create(DateFormat df, long start, long length, TimeZone timeZone) {
+            long last = start + length - 1;
+            if (timeZone.getOffset(start) != timeZone.getOffset(last)
+                    || timeZone.inDaylightTime(new Date(start)) != timeZone.inDaylightTime(new Date(last))) {
+                return null;
+            }
+            String first = df.format(new Date(start));
+            String other = df.format(new Date(last - 12));
+            if (first.length() != other.length()) {
+                return null;
+            }
+            int secondIndex = -1;
+            int millisIndex = -1;
+            int i = 0;
+            while (i < first.length()) {
+                if (first.charAt(i) == other.charAt(i)) {
+                    i++;
+                    continue;
+                }
+                int runStart = i;
+                while (i < first.length() && first.charAt(i) != other.charAt(i)) {
+                    i++;
+                }
+                String run = other.substring(runStart, i);
+                if (run.length() > 5 || !first.substring(runStart, i).equals("00000".substring(0, i - runStart))) {
+                    return null;
+                }
+                if (run.equals("59") && secondIndex < 0 && length == 60000) {
+                    secondIndex = runStart;
+                } else if (run.equals("987") && millisIndex < 0) {
+                    millisIndex = runStart;
+                } else if (run.equals("59987") && secondIndex < 0 && millisIndex < 0 && length == 60000) {
+                    secondIndex = runStart;
+                    millisIndex = runStart + 2;
+                } else {
+                    return null;
+                }
+            }
+            Template result = new Template(start, start + length, first.toCharArray(), secondIndex, millisIndex);
+            long sample = start + length / 2 + 345;
+            return result.format(sample).equals(df.format(new Date(sample))) ? result : null;
+        }
+
+        private String format(long time) {
+            if (secondIndex < 0 && millisIndex < 0) {
+                return new String(chars);
+            }
+            char[] buffer = chars.clone();
+            int elapsed = (int) (time - start);
+            if (secondIndex >= 0) {
+                Iso8601Format.append(buffer, secondIndex, elapsed / 1000, 2);
+            }
+            if (millisIndex >= 0) {
+                Iso8601Format.append(buffer, millisIndex, elapsed % 1000, 3);
+            }
+            return new String(buffer);
+        }
+
+        private StringBuilder appendTo(long time, StringBuilder sb) {
+            int index = sb.length();
+            sb.append(chars);
+            int elapsed = (int) (time - start);
+            if (secondIndex >= 0) {
+                setDigits(sb, index + secondIndex, elapsed / 1000, 2);
+            }
+            if (millisIndex >= 0) {
+                setDigits(sb, index + millisIndex, elapsed % 1000, 3);
+            }
+            return sb;
+        }
+
+        private static void setDigits(StringBuilder sb, int index, int value, int width) {
+            for (int i = index + width - 1; i >= index; i--) {
+                sb.setCharAt(i, (char) ('0' + value % 10));
+                value /= 10;
+            }
+        }
+    }
+
+    private static final class Key {
+        private final String pattern;
+        private final Locale locale;
+        private final TimeZone timeZone;
+
+        private Key(String pattern, Locale locale, TimeZone timeZone) {
+            this.pattern = pattern;
+            this.locale = locale;
+            this.timeZone = timeZone;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return pattern.equals(that.pattern) && locale.equals(that.locale) && timeZone.getID().equals(that.timeZone.getID())
+                    && (timeZone == that.timeZone || timeZone.hasSameRules(that.timeZone));
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + locale.hashCode()) * 31 + timeZone.getID().hashCode();
+        }
+    }
+}
@@ -0,0 +1,622 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/** Formatter and parser for {@link DateTimeConverters#CALENDAR_FORMAT}
+ * (<code>EEE MMM dd HH:mm:ss.SSS z yyyy</code>), the format produced by
+ * <code>java.util.Date.toString()</code>.
+ * <p>The results are identical to those of a <code>SimpleDateFormat</code> created
+ * with <code>CALENDAR_FORMAT</code>, but the pattern is not interpreted for every
+ * conversion. Day, month and time zone names are kept in lookup tables that are built
+ * once per locale, and calendar fields are computed with a per-thread
+ * <code>GregorianCalendar</code> so that time zone and calendar rules are exactly the
+ * ones <code>SimpleDateFormat</code> uses.</p>
+ * <p>Only the canonical layout is handled. Anything else - extra white space,
+ * names that are not in the tables, non-ASCII digits, a locale that does not use the
+ * Gregorian calendar - is reported as {@link #NO_MATCH} or <code>null</code> and the
+ * caller is expected to fall back to <code>SimpleDateFormat</code>.</p>
+ */
+public class CalendarFormat {
+
+    /**
+     * Returned by the <code>parse</code> methods when the string could not be parsed.
+     */
+    public static final long NO_MATCH = Long.MIN_VALUE;
+
+    private static final int MAX_DIGITS = 6;
+    private static final ConcurrentHashMap<Locale, Symbols> symbolsMap = new ConcurrentHashMap<Locale, Symbols>();
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    /** Returns <code>time</code> formatted as {@link DateTimeConverters#CALENDAR_FORMAT}.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @param timeZone The time zone used for formatting
+     * @param locale The locale used for day, month and time zone names
+     * @return The formatted <code>String</code>, or <code>null</code> if
+     * <code>locale</code> is not supported
+     */
+    public static String format(long time, TimeZone timeZone, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (!symbols.formattable) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        s.calendar.setTimeZone(timeZone);
+        s.calendar.setTimeInMillis(time);
+        int length = symbols.getChars(s.calendar, s);
+        return new String(s.buffer, 0, length);
+    }
+
+    /** Appends <code>time</code> to <code>sb</code>, formatted as
+     * {@link #format(long, TimeZone, Locale)} formats it.
+     *
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param time The time in milliseconds since the epoch
+     * @param timeZone The time zone used for formatting
+     * @param locale The locale used for day, month and time zone names
+     * @return <code>sb</code>, or <code>null</code> if <code>locale</code> is
+     * not supported. Nothing is appended if the locale is not supported.
+     */
+    public static StringBuilder append(StringBuilder sb, long time, TimeZone timeZone, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (!symbols.formattable) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        s.calendar.setTimeZone(timeZone);
+        s.calendar.setTimeInMillis(time);
+        int length = symbols.getChars(s.calendar, s);
+        return sb.append(s.buffer, 0, length);
+    }
+
+    /** Returns <code>calendar</code> formatted as {@link DateTimeConverters#CALENDAR_FORMAT},
+     * using the default locale. Like <code>SimpleDateFormat.setCalendar</code>, the calendar's own
+     * time zone is used.
+     *
+     * @param calendar The <code>Calendar</code> to format
+     * @return The formatted <code>String</code>, or <code>null</code> if
+     * <code>calendar</code> or the default locale is not supported
+     */
+    public static String format(Calendar calendar) {
+        if (calendar.getClass() != GregorianCalendar.class) {
+            return null;
+        }
+        Symbols symbols = getSymbols(Locale.getDefault());
+        if (!symbols.formattable) {
+            return null;
+        }
+        calendar.setTimeInMillis(calendar.getTimeInMillis());
+        Scratch s = scratch.get();
+        int length = symbols.getChars(calendar, s);
+        return new String(s.buffer, 0, length);
+    }
+
+    /** Appends <code>calendar</code> to <code>sb</code>, formatted as
+     * {@link #format(Calendar)} formats it.
+     *
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param calendar The <code>Calendar</code> to format
+     * @return <code>sb</code>, or <code>null</code> if <code>calendar</code> or the
+     * default locale is not supported. Nothing is appended if they are not supported.
+     */
+    public static StringBuilder append(StringBuilder sb, Calendar calendar) {
+        if (calendar.getClass() != GregorianCalendar.class) {
+            return null;
+        }
+        Symbols symbols = getSymbols(Locale.getDefault());
+        if (!symbols.formattable) {
+            return null;
+        }
+        calendar.setTimeInMillis(calendar.getTimeInMillis());
+        Scratch s = scratch.get();
+        int length = symbols.getChars(calendar, s);
+        return sb.append(s.buffer, 0, length);
+    }
+
+    /** Parses a {@link DateTimeConverters#CALENDAR_FORMAT} <code>String</code>.
+     *
+     * @param text The <code>String</code> to parse
+     * @param timeZone The time zone of the equivalent <code>SimpleDateFormat</code>
+     * @param locale The locale of the equivalent <code>SimpleDateFormat</code>
+     * @return The time in milliseconds since the epoch, or {@link #NO_MATCH}
+     */
+    public static long parse(String text, TimeZone timeZone, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (!symbols.parseable) {
+            return NO_MATCH;
+        }
+        return symbols.parse(text, timeZone, scratch.get().calendar);
+    }
+
+    private static Symbols getSymbols(Locale locale) {
+        Symbols symbols = symbolsMap.get(locale);
+        if (symbols == null) {
+            symbols = new Symbols(locale);
+            Symbols existing = symbolsMap.putIfAbsent(locale, symbols);
+            if (existing != null) {
+                symbols = existing;
+            }
+        }
+        return symbols;
+    }
+
+    /** Returns the value of the ASCII digits in <code>text</code> between <code>start</code>
+     * and <code>end</code>, or -1 if the range is empty, too long, or contains other characters.
+     */
+    private static int digits(String text, int start, int end) {
+        if (end <= start || end - start > MAX_DIGITS) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Returns the index of the name in <code>names</code> that starts at <code>start</code>
+     * and is followed by a space, or -1.
+     */
+    private static int matchName(String text, int start, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            if (name != null && text.startsWith(name, start)) {
+                int end = start + name.length();
+                if (end < text.length() && text.charAt(end) == ' ') {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static String fold(String str) {
+        char[] chars = new char[str.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = fold(str.charAt(i));
+        }
+        return new String(chars);
+    }
+
+    private static void append(char[] buffer, int index, int value, int width) {
+        for (int i = index + width - 1; i >= index; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class Scratch {
+        private final GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("GMT"), Locale.ROOT);
+        private char[] buffer = new char[64];
+
+        private char[] buffer(int length) {
+            if (buffer.length < length) {
+                buffer = new char[length];
+            }
+            return buffer;
+        }
+    }
+
+    private static final class ZoneNames {
+        private final int rawOffset;
+        private final int dstSavings;
+        private final String standard;
+        private final String daylight;
+
+        private ZoneNames(TimeZone timeZone, Locale locale) {
+            this.rawOffset = timeZone.getRawOffset();
+            this.dstSavings = timeZone.getDSTSavings();
+            this.standard = timeZone.getDisplayName(false, TimeZone.SHORT, locale);
+            this.daylight = timeZone.getDisplayName(true, TimeZone.SHORT, locale);
+        }
+    }
+
+    /** Per-locale lookup tables. */
+    private static final class Symbols {
+        private static final String[] SAMPLE_ZONES = {"America/Los_Angeles", "Europe/Berlin", "Asia/Kolkata", "Australia/Lord_Howe", "UTC", "GMT"};
+        private static final long[] SAMPLE_TIMES = {0L, 1000000000123L, 1310000000999L, 1330000000000L, -1000000000000L, 253402300799999L, -62135769600000L};
+
+        private final Locale locale;
+        /** Short month names, indexed by <code>Calendar.MONTH</code>. */
+        private final String[] months = new String[12];
+        /** Short weekday names, indexed by <code>Calendar.DAY_OF_WEEK</code>. */
+        private final String[] weekdays = new String[8];
+        private final String[][] zoneStrings;
+        private final Map<String, Integer> zoneRows = new HashMap<String, Integer>();
+        private final AtomicReferenceArray<TimeZone> rowZones;
+        private final ConcurrentHashMap<String, ZoneNames> zoneNamesMap = new ConcurrentHashMap<String, ZoneNames>();
+        // Open addressing table of folded zone names. The value is
+        // row * 5 + name index, or -1 when SimpleDateFormat would match a
+        // shorter name first.
+        private final char[][] keys;
+        private final int[] positions;
+        private final boolean formattable;
+        private final boolean parseable;
+
+        private Symbols(Locale locale) {
+            this.locale = locale;
+            this.zoneStrings = DateFormatSymbols.getInstance(locale).getZoneStrings();
+            this.rowZones = new AtomicReferenceArray<TimeZone>(zoneStrings.length);
+            Map<String, Integer> firstPositions = new HashMap<String, Integer>();
+            for (int row = 0; row < zoneStrings.length; row++) {
+                String[] names = zoneStrings[row];
+                if (!zoneRows.containsKey(names[0])) {
+                    zoneRows.put(names[0], row);
+                }
+                for (int index = 1; index < 5 && index < names.length; index++) {
+                    if (names[index] != null) {
+                        String key = fold(names[index]);
+                        if (!firstPositions.containsKey(key)) {
+                            firstPositions.put(key, row * 5 + index);
+                        }
+                    }
+                }
+            }
+            int size = Integer.highestOneBit(Math.max(firstPositions.size(), 1) * 2) * 2;
+            this.keys = new char[size][];
+            this.positions = new int[size];
+            for (Map.Entry<String, Integer> entry : firstPositions.entrySet()) {
+                String key = entry.getKey();
+                int position = entry.getValue();
+                for (int length = 0; length < key.length(); length++) {
+                    Integer prefix = firstPositions.get(key.substring(0, length));
+                    if (prefix != null && prefix < position) {
+                        position = -1;
+                        break;
+                    }
+                }
+                int slot = hash(key, 0, key.length()) & (size - 1);
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & (size - 1);
+                }
+                keys[slot] = key.toCharArray();
+                positions[slot] = position;
+            }
+            boolean supported = Calendar.getInstance(locale).getClass() == GregorianCalendar.class;
+            if (supported) {
+                SimpleDateFormat monthFormat = new SimpleDateFormat("MMM", locale);
+                SimpleDateFormat weekdayFormat = new SimpleDateFormat("EEE", locale);
+                monthFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+                weekdayFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+                Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("GMT"), locale);
+                cal.clear();
+                cal.set(2001, Calendar.JANUARY, 15);
+                for (int month = 0; month < 12; month++) {
+                    cal.set(Calendar.MONTH, month);
+                    months[month] = monthFormat.format(cal.getTime());
+                }
+                for (int day = 1; day < 8; day++) {
+                    cal.set(Calendar.DAY_OF_WEEK, day);
+                    weekdays[day] = weekdayFormat.format(cal.getTime());
+                }
+            }
+            this.formattable = supported && checkFormat();
+            this.parseable = this.formattable && checkNames() && checkParse();
+        }
+
+        private static int hash(CharSequence chars, int start, int end) {
+            int h = 0;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + fold(chars.charAt(i));
+            }
+            return h ^ (h >>> 16);
+        }
+
+        /** Verifies that <code>SimpleDateFormat</code> parses each of our names as the same
+         * field value, consuming exactly the name.
+         */
+        private boolean checkNames() {
+            Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("GMT"), locale);
+            for (int month = 0; month < 12; month++) {
+                Date date = parseName("MMM", months[month]);
+                if (date == null) {
+                    return false;
+                }
+                cal.setTime(date);
+                if (cal.get(Calendar.MONTH) != month) {
+                    return false;
+                }
+            }
+            for (int day = 1; day < 8; day++) {
+                Date date = parseName("EEE", weekdays[day]);
+                if (date == null) {
+                    return false;
+                }
+                cal.setTime(date);
+                if (cal.get(Calendar.DAY_OF_WEEK) != day) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private Date parseName(String pattern, String name) {
+            SimpleDateFormat df = new SimpleDateFormat(pattern, locale);
+            df.setTimeZone(TimeZone.getTimeZone("GMT"));
+            ParsePosition pos = new ParsePosition(0);
+            Date date = df.parse(name + " 1", pos);
+            return pos.getIndex() == name.length() ? date : null;
+        }
+
+        private boolean checkFormat() {
+            Scratch s = new Scratch();
+            for (String id : SAMPLE_ZONES) {
+                TimeZone tz = TimeZone.getTimeZone(id);
+                SimpleDateFormat df = new SimpleDateFormat(DateTimeConverters.CALENDAR_FORMAT, locale);
+                df.setTimeZone(tz);
+                for (long time : SAMPLE_TIMES) {
+                    s.calendar.setTimeZone(tz);
+                    s.calendar.setTimeInMillis(time);
+                    int length = getChars(s.calendar, s);
+                    if (!df.format(new Date(time)).equals(new String(s.buffer, 0, length))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        private boolean checkParse() {
+            Scratch s = new Scratch();
+            for (String id : SAMPLE_ZONES) {
+                TimeZone tz = TimeZone.getTimeZone(id);
+                SimpleDateFormat df = new SimpleDateFormat(DateTimeConverters.CALENDAR_FORMAT, locale);
+                df.setTimeZone(tz);
+                for (long time : SAMPLE_TIMES) {
+                    String text = df.format(new Date(time));
+                    long parsed = parse(text, tz, s.calendar);
+                    if (parsed != NO_MATCH) {
+                        try {
+                            df = new SimpleDateFormat(DateTimeConverters.CALENDAR_FORMAT, locale);
+                            df.setTimeZone(tz);
+                            if (df.parse(text).getTime() != parsed) {
+                                return false;
+                            }
+                        } catch (ParseException e) {
+                            return false;
+                        }
+                    }
+                }
+            }
+            return true;
+        }
+
+        private String zoneName(TimeZone timeZone, boolean daylight) {
+            ZoneNames names = zoneNamesMap.get(timeZone.getID());
+            if (names == null || names.rawOffset != timeZone.getRawOffset() || names.dstSavings != timeZone.getDSTSavings()) {
+                names = new ZoneNames(timeZone, locale);
+                zoneNamesMap.put(timeZone.getID(), names);
+            }
+            return daylight ? names.daylight : names.standard;
+        }
+
+        /** Writes <code>cal</code> into <code>s.buffer</code> and returns the length. */
+        private int getChars(Calendar cal, Scratch s) {
+            String weekday = weekdays[cal.get(Calendar.DAY_OF_WEEK)];
+            String month = months[cal.get(Calendar.MONTH)];
+            String zone = zoneName(cal.getTimeZone(), cal.get(Calendar.DST_OFFSET) != 0);
+            int year = cal.get(Calendar.YEAR);
+            int yearDigits = 4;
+            for (int i = 10000; i <= year && yearDigits < 10; i *= 10) {
+                yearDigits++;
+            }
+            int length = weekday.length() + month.length() + zone.length() + yearDigits + 19;
+            char[] buffer = s.buffer(length);
+            int i = 0;
+            weekday.getChars(0, weekday.length(), buffer, i);
+            i += weekday.length();
+            buffer[i++] = ' ';
+            month.getChars(0, month.length(), buffer, i);
+            i += month.length();
+            buffer[i++] = ' ';
+            append(buffer, i, cal.get(Calendar.DAY_OF_MONTH), 2);
+            buffer[i + 2] = ' ';
+            append(buffer, i + 3, cal.get(Calendar.HOUR_OF_DAY), 2);
+            buffer[i + 5] = ':';
+            append(buffer, i + 6, cal.get(Calendar.MINUTE), 2);
+            buffer[i + 8] = ':';
+            append(buffer, i + 9, cal.get(Calendar.SECOND), 2);
+            buffer[i + 11] = '.';
+            append(buffer, i + 12, cal.get(Calendar.MILLISECOND), 3);
+            buffer[i + 15] = ' ';
+            i += 16;
+            zone.getChars(0, zone.length(), buffer, i);
+            i += zone.length();
+            buffer[i++] = ' ';
+            append(buffer, i, year, yearDigits);
+            return length;
+        }
+
+        private long parse(String text, TimeZone timeZone, GregorianCalendar cal) {
+            int weekday = matchName(text, 0, weekdays);
+            if (weekday < 0) {
+                return NO_MATCH;
+            }
+            int i = weekdays[weekday].length() + 1;
+            int month = matchName(text, i, months);
+            if (month < 0) {
+                return NO_MATCH;
+            }
+            i += months[month].length() + 1;
+            int end = text.indexOf(' ', i);
+            int day = digits(text, i, end);
+            i = end + 1;
+            end = text.indexOf(':', i);
+            int hour = digits(text, i, end);
+            i = end + 1;
+            end = text.indexOf(':', i);
+            int minute = digits(text, i, end);
+            i = end + 1;
+            end = text.indexOf('.', i);
+            int second = digits(text, i, end);
+            i = end + 1;
+            end = text.indexOf(' ', i);
+            int millisecond = digits(text, i, end);
+            if ((day | hour | minute | second | millisecond) < 0) {
+                return NO_MATCH;
+            }
+            int zoneStart = end + 1;
+            int zoneEnd = text.lastIndexOf(' ');
+            int year = digits(text, zoneEnd + 1, text.length());
+            if (zoneEnd <= zoneStart || year < 0) {
+                return NO_MATCH;
+            }
+            cal.clear();
+            int zoneOffset = 0;
+            int dstOffset = 0;
+            boolean setZoneOffset = false;
+            boolean setDstOffset = false;
+            if (text.regionMatches(true, zoneStart, "GMT", 0, 3)) {
+                // Custom "GMT" and "GMT+hh:mm" zones have an explicit offset
+                int length = zoneEnd - zoneStart;
+                if (length == 9 && text.charAt(zoneStart + 6) == ':') {
+                    int hours = digits(text, zoneStart + 4, zoneStart + 6);
+                    int minutes = digits(text, zoneStart + 7, zoneStart + 9);
+                    char sign = text.charAt(zoneStart + 3);
+                    if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59 || (sign != '+' && sign != '-')) {
+                        return NO_MATCH;
+                    }
+                    zoneOffset = (hours * 60 + minutes) * 60000;
+                    if (sign == '-') {
+                        zoneOffset = -zoneOffset;
+                    }
+                } else if (length != 3) {
+                    return NO_MATCH;
+                }
+                cal.setTimeZone(timeZone);
+                setZoneOffset = true;
+                setDstOffset = true;
+            } else {
+                int position = matchZone(text, zoneStart, zoneEnd, timeZone);
+                if (position < 0) {
+                    return NO_MATCH;
+                }
+                int row = position / 5;
+                int index = position % 5;
+                String[] names = zoneStrings[row];
+                TimeZone zone = rowZone(row);
+                boolean useSameName = index <= 2 && names[index].equalsIgnoreCase(names[index + 2]);
+                dstOffset = index >= 3 ? zone.getDSTSavings() : 0;
+                setDstOffset = !(useSameName || (index >= 3 && dstOffset == 0));
+                cal.setTimeZone(zone);
+            }
+            // Same field order as SimpleDateFormat, so the calendar resolves the fields the same way
+            cal.set(Calendar.DAY_OF_WEEK, weekday);
+            cal.set(Calendar.MONTH, month);
+            cal.set(Calendar.DAY_OF_MONTH, day);
+            cal.set(Calendar.HOUR_OF_DAY, hour);
+            cal.set(Calendar.MINUTE, minute);
+            cal.set(Calendar.SECOND, second);
+            cal.set(Calendar.MILLISECOND, millisecond);
+            if (setZoneOffset) {
+                cal.set(Calendar.ZONE_OFFSET, zoneOffset);
+            }
+            if (setDstOffset) {
+                cal.set(Calendar.DST_OFFSET, dstOffset);
+            }
+            cal.set(Calendar.YEAR, year);
+            return cal.getTimeInMillis();
+        }
+
+        private TimeZone rowZone(int row) {
+            TimeZone zone = rowZones.get(row);
+            if (zone == null) {
+                zone = TimeZone.getTimeZone(zoneStrings[row][0]);
+                rowZones.set(row, zone);
+            }
+            return zone;
+        }
+
+        /** Returns the position of the zone name between <code>start</code> and <code>end</code>,
+         * searching in the same order as <code>SimpleDateFormat</code>: the names of the
+         * formatter's time zone, the names of the default time zone, then all names.
+         */
+        private int matchZone(String text, int start, int end, TimeZone timeZone) {
+            int position = matchRow(text, start, end, timeZone.getID());
+            if (position == -2) {
+                position = matchRow(text, start, end, TimeZone.getDefault().getID());
+            }
+            if (position != -2) {
+                return position;
+            }
+            int slot = hash(text, start, end) & (keys.length - 1);
+            char[] key;
+            while ((key = keys[slot]) != null) {
+                if (key.length == end - start) {
+                    int i = 0;
+                    while (i < key.length && key[i] == fold(text.charAt(start + i))) {
+                        i++;
+                    }
+                    if (i == key.length) {
+                        return positions[slot];
+                    }
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        /** Returns the position of the first name of zone <code>id</code> that matches,
+         * -1 if the matching name is not followed by the year, or -2 if no name matches.
+         */
+        private int matchRow(String text, int start, int end, String id) {
+            Integer row = zoneRows.get(id);
+            if (row == null) {
+                return -2;
+            }
+            String[] names = zoneStrings[row];
+            for (int index = 1; index < 5 && index < names.length; index++) {
+                String name = names[index];
+                if (name != null && text.regionMatches(true, start, name, 0, name.length())) {
+                    return name.length() == end - start ? row * 5 + index : -1;
+                }
+            }
+            return -2;
+        }
+    }
+
+    private CalendarFormat() {}
+}
@@ -19,15 +19,26 @@
 package org.apache.commons.convert;
 
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.RandomAccess;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 /** Collection <code>Converter</code> classes. */
 public class CollectionConverters implements ConverterLoader {
@@ -40,9 +51,17 @@ public class CollectionConverters implements ConverterLoader {
         Converters.registerConverter(new GenericSingletonToSet<Map>(Map.class));
     }
 
-    private static class ArrayClassToArrayList<S, T> extends AbstractConverter<S, T> {
-        public ArrayClassToArrayList(Class<S> sourceClass, Class<T> targetClass) {
+    /**
+     * An abstract array to <code>Collection</code> converter class. Elements are
+     * copied with an {@link ArrayElements} for the source's component type, into a
+     * collection created with room for all of them.
+     */
+    private static abstract class ArrayClassToCollection<S, T> extends AbstractConverter<S, T> {
+        private final ArrayElements elements;
+
+        public ArrayClassToCollection(Class<S> sourceClass, Class<T> targetClass) {
             super(sourceClass, targetClass);
+            this.elements = ArrayElements.forComponentType(sourceClass.getComponentType());
         }
 
         public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
@@ -50,61 +69,142 @@ public class CollectionConverters implements ConverterLoader {
         }
 
         public T convert(S obj) throws ConversionException {
-            List<Object> list = new ArrayList<Object>();
-            int len = Array.getLength(obj);
-            for (int i = 0; i < len; i++) {
-                list.add(Array.get(obj, i));
-            }
-            return Util.<T>cast(list);
+            Collection<Object> collection = newCollection(elements.length(obj));
+            elements.addTo(obj, collection);
+            return Util.<T>cast(collection);
+        }
+
+        protected abstract Collection<Object> newCollection(int size) throws ConversionException;
+    }
+
+    private static class ArrayClassToArrayList<S, T> extends ArrayClassToCollection<S, T> {
+        public ArrayClassToArrayList(Class<S> sourceClass, Class<T> targetClass) {
+            super(sourceClass, targetClass);
+        }
+
+        protected Collection<Object> newCollection(int size) {
+            return new ArrayList<Object>(size);
         }
     }
 
-    private static class ArrayClassToHashSet<S, T> extends AbstractConverter<S, T> {
+    private static class ArrayClassToHashSet<S, T> extends ArrayClassToCollection<S, T> {
         public ArrayClassToHashSet(Class<S> sourceClass, Class<T> targetClass) {
             super(sourceClass, targetClass);
         }
 
+        protected Collection<Object> newCollection(int size) {
+            return new HashSet<Object>(CollectionFactory.hashCapacity(size));
+        }
+    }
+
+    /**
+     * An object that converts an array to an immutable <code>List</code> from
+     * {@link ImmutableCollections}, backed by an exactly sized copy of the array.
+     * It is not loaded by default.
+     */
+    public static class ArrayToImmutableList<S> extends AbstractConverter<S, List<?>> {
+        public ArrayToImmutableList(Class<S> sourceClass) {
+            super(sourceClass, List.class);
+        }
+
         public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+            return sourceClass == this.getSourceClass() && (targetClass == List.class || targetClass == Collection.class);
         }
 
-        public T convert(S obj) throws ConversionException {
-            Set<Object> set = new HashSet<Object>();
-            int len = Array.getLength(obj);
-            for (int i = 0; i < len; i++) {
-                set.add(Array.get(obj, i));
+        public List<?> convert(S obj) throws ConversionException {
+            return ImmutableCollections.wrapList(boxedCopy(obj));
+        }
+    }
+
+    /**
+     * An object that converts an array to an immutable <code>Set</code> from
+     * {@link ImmutableCollections}. It is not loaded by default.
+     */
+    public static class ArrayToImmutableSet<S> extends AbstractConverter<S, Set<?>> {
+        public ArrayToImmutableSet(Class<S> sourceClass) {
+            super(sourceClass, Set.class);
+        }
+
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return sourceClass == this.getSourceClass() && targetClass == Set.class;
+        }
+
+        public Set<?> convert(S obj) throws ConversionException {
+            if (obj instanceof Object[]) {
+                return ImmutableCollections.wrapSet((Object[]) obj);
             }
-            return Util.<T>cast(set);
+            return ImmutableCollections.wrapSet(boxedCopy(obj));
         }
     }
 
-    private static class ArrayClassToList<S, T> extends AbstractConverter<S, T> {
-        public ArrayClassToList(Class<S> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+    /**
+     * An object that converts an array to an immutable, array-backed
+     * <code>NavigableSet</code> from {@link SortedCollections}, in the natural
+     * ordering of the elements. It is not loaded by default.
+     */
+    public static class ArrayToSortedArraySet<S> extends AbstractConverter<S, NavigableSet<?>> {
+        public ArrayToSortedArraySet(Class<S> sourceClass) {
+            super(sourceClass, NavigableSet.class);
         }
 
         public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+            return sourceClass == this.getSourceClass() && (targetClass == NavigableSet.class || targetClass == SortedSet.class);
+        }
+
+        public NavigableSet<?> convert(S obj) throws ConversionException {
+            return SortedCollections.wrap(sortedDistinct(obj), null);
+        }
+    }
+
+    /** Returns a copy of <code>array</code> as an <code>Object</code> array,
+     * boxing primitive elements. */
+    private static Object[] boxedCopy(Object array) {
+        if (array instanceof Object[]) {
+            return ((Object[]) array).clone();
+        }
+        return PrimitiveLists.asList(array).toArray();
+    }
+
+    /**
+     * An object that converts an enum array to an <code>EnumSet</code>. Arrays
+     * that contain <code>null</code> are converted to a <code>HashSet</code>.
+     */
+    private static class EnumArrayToEnumSet<S, T> extends ArrayClassToHashSet<S, T> {
+        private final Class<?> componentType;
+
+        public EnumArrayToEnumSet(Class<S> sourceClass, Class<T> targetClass) {
+            super(sourceClass, targetClass);
+            this.componentType = sourceClass.getComponentType();
         }
 
-        @SuppressWarnings("unchecked")
         public T convert(S obj) throws ConversionException {
-            List<Object> list = null;
-            try {
-                list = (List<Object>) this.getTargetClass().newInstance();
-            } catch (Exception e) {
-                throw new ConversionException(e);
+            Object[] array = (Object[]) obj;
+            for (Object element : array) {
+                if (element == null) {
+                    return super.convert(obj);
+                }
             }
-            int len = Array.getLength(obj);
-            for (int i = 0; i < len; i++) {
-                list.add(Array.get(obj, i));
+            EnumSet<?> set = toEnumSet(componentType, array);
+            return Util.<T>cast(set);
+        }
+
+        private static <E extends Enum<E>> EnumSet<E> toEnumSet(Class<?> enumClass, Object[] array) {
+            Class<E> type = Util.cast(enumClass);
+            EnumSet<E> set = EnumSet.noneOf(type);
+            for (Object element : array) {
+                set.add(type.cast(element));
             }
-            return Util.<T>cast(list);
+            return set;
         }
     }
 
-    private static class ArrayClassToSet<S, T> extends AbstractConverter<S, T> {
-        public ArrayClassToSet(Class<S> sourceClass, Class<T> targetClass) {
+    /**
+     * An object that converts an array to a <code>TreeSet</code>. The elements
+     * are sorted once, or not at all if they are in order, and the tree is built
+     * from them in linear time.
+     */
+    private static class ArrayToTreeSet<S, T> extends AbstractConverter<S, T> {
+        public ArrayToTreeSet(Class<S> sourceClass, Class<T> targetClass) {
             super(sourceClass, targetClass);
         }
 
@@ -112,19 +212,311 @@ public class CollectionConverters implements ConverterLoader {
             return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
         }
 
-        @SuppressWarnings("unchecked")
         public T convert(S obj) throws ConversionException {
-            Set<Object> set = new HashSet<Object>();
+            return Util.<T>cast(SortedCollections.toTreeSet(sortedDistinct(obj)));
+        }
+    }
+
+    private static class ArrayClassToList<S, T> extends ArrayClassToCollection<S, T> {
+        private final CollectionFactory<Collection<Object>> factory;
+
+        public ArrayClassToList(Class<S> sourceClass, Class<T> targetClass) {
+            super(sourceClass, targetClass);
+            this.factory = CollectionFactory.forClass(targetClass);
+        }
+
+        protected Collection<Object> newCollection(int size) throws ConversionException {
+            return factory.newInstance(size);
+        }
+    }
+
+    private static class ArrayClassToSet<S, T> extends ArrayClassToCollection<S, T> {
+        private final CollectionFactory<Collection<Object>> factory;
+
+        public ArrayClassToSet(Class<S> sourceClass, Class<T> targetClass) {
+            super(sourceClass, targetClass);
+            this.factory = CollectionFactory.forClass(targetClass);
+        }
+
+        protected Collection<Object> newCollection(int size) throws ConversionException {
+            return factory.newInstance(size);
+        }
+    }
+
+    /** Returns the distinct elements of <code>array</code> in their natural
+     * ordering. Elements that cannot be compared are a <code>ConversionException</code>. */
+    private static Object[] sortedDistinct(Object array) throws ConversionException {
+        try {
+            return SortedCollections.sortedDistinct(array, null);
+        } catch (ClassCastException e) {
+            throw new ConversionException(e);
+        } catch (NullPointerException e) {
+            throw new ConversionException(e);
+        }
+    }
+
+    /**
+     * Creates instances of a concrete collection or map class with room for a
+     * number of elements. The constructor is looked up once, preferring an
+     * <code>(int)</code> capacity constructor to the no-arg constructor. Common
+     * JDK classes are created without reflection.
+     */
+    static abstract class CollectionFactory<T> {
+        static <T> CollectionFactory<T> forClass(Class<?> targetClass) {
+            if (targetClass == ArrayList.class) {
+                return Util.cast(new CollectionFactory<ArrayList<Object>>() {
+                    ArrayList<Object> newInstance(int size) {
+                        return new ArrayList<Object>(size);
+                    }
+                });
+            }
+            if (targetClass == HashSet.class) {
+                return Util.cast(new CollectionFactory<HashSet<Object>>() {
+                    HashSet<Object> newInstance(int size) {
+                        return new HashSet<Object>(hashCapacity(size));
+                    }
+                });
+            }
+            if (targetClass == LinkedHashSet.class) {
+                return Util.cast(new CollectionFactory<LinkedHashSet<Object>>() {
+                    LinkedHashSet<Object> newInstance(int size) {
+                        return new LinkedHashSet<Object>(hashCapacity(size));
+                    }
+                });
+            }
+            if (targetClass == ArrayDeque.class) {
+                return Util.cast(new CollectionFactory<ArrayDeque<Object>>() {
+                    ArrayDeque<Object> newInstance(int size) {
+                        return new ArrayDeque<Object>(size);
+                    }
+                });
+            }
+            if (targetClass == TreeSet.class) {
+                return Util.cast(new CollectionFactory<TreeSet<Object>>() {
+                    TreeSet<Object> newInstance(int size) {
+                        return new TreeSet<Object>();
+                    }
+                });
+            }
+            if (targetClass == HashMap.class) {
+                return Util.cast(new CollectionFactory<HashMap<Object, Object>>() {
+                    HashMap<Object, Object> newInstance(int size) {
+                        return new HashMap<Object, Object>(hashCapacity(size));
+                    }
+                });
+            }
+            if (targetClass == LinkedHashMap.class) {
+                return Util.cast(new CollectionFactory<LinkedHashMap<Object, Object>>() {
+                    LinkedHashMap<Object, Object> newInstance(int size) {
+                        return new LinkedHashMap<Object, Object>(hashCapacity(size));
+                    }
+                });
+            }
+            if (targetClass == TreeMap.class) {
+                return Util.cast(new CollectionFactory<TreeMap<Object, Object>>() {
+                    TreeMap<Object, Object> newInstance(int size) {
+                        return new TreeMap<Object, Object>();
+                    }
+                });
+            }
+            try {
+                return new ConstructorFactory<T>(targetClass.getConstructor(Integer.TYPE), true);
+            } catch (NoSuchMethodException e) {
+            }
             try {
-                set = (Set<Object>) this.getTargetClass().newInstance();
+                return new ConstructorFactory<T>(targetClass.getConstructor(), false);
+            } catch (final NoSuchMethodException e) {
+                // Fail when an instance is needed, as Class.newInstance() did
+                return new CollectionFactory<T>() {
+                    T newInstance(int size) throws ConversionException {
+                        throw new ConversionException(e);
+                    }
+                };
+            }
+        }
+
+        /** The capacity <code>HashSet(Collection)</code> uses, so that adding
+         * <code>size</code> elements does not rehash. */
+        static int hashCapacity(int size) {
+            return Math.max((int) (size / .75f) + 1, 16);
+        }
+
+        abstract T newInstance(int size) throws ConversionException;
+    }
+
+    private static final class ConstructorFactory<T> extends CollectionFactory<T> {
+        private final Constructor<?> constructor;
+        private final boolean capacity;
+        private final boolean hashed;
+
+        private ConstructorFactory(Constructor<?> constructor, boolean capacity) {
+            this.constructor = constructor;
+            this.capacity = capacity;
+            Class<?> c = constructor.getDeclaringClass();
+            this.hashed = HashSet.class.isAssignableFrom(c) || HashMap.class.isAssignableFrom(c) || Hashtable.class.isAssignableFrom(c);
+            try {
+                // Skip the access check on each call
+                constructor.setAccessible(true);
+            } catch (SecurityException e) {
+            }
+        }
+
+        T newInstance(int size) throws ConversionException {
+            try {
+                if (capacity) {
+                    // Some bounded collections reject a capacity of 0
+                    return Util.<T>cast(constructor.newInstance(hashed ? hashCapacity(size) : Math.max(size, 1)));
+                }
+                return Util.<T>cast(constructor.newInstance());
             } catch (Exception e) {
                 throw new ConversionException(e);
             }
-            int len = Array.getLength(obj);
-            for (int i = 0; i < len; i++) {
-                set.add(Array.get(obj, i));
+        }
+    }
+
+    /**
+     * Reads the elements of arrays of one component type without reflection.
+     * Primitive elements are boxed in a loop over the typed array, and
+     * <code>Object</code> arrays are added in bulk.
+     */
+    private static abstract class ArrayElements {
+        private static ArrayElements forComponentType(Class<?> componentType) {
+            if (componentType == Boolean.TYPE) {
+                return new BooleanElements();
+            }
+            if (componentType == Byte.TYPE) {
+                return new ByteElements();
+            }
+            if (componentType == Character.TYPE) {
+                return new CharElements();
+            }
+            if (componentType == Double.TYPE) {
+                return new DoubleElements();
+            }
+            if (componentType == Float.TYPE) {
+                return new FloatElements();
+            }
+            if (componentType == Integer.TYPE) {
+                return new IntElements();
+            }
+            if (componentType == Long.TYPE) {
+                return new LongElements();
+            }
+            if (componentType == Short.TYPE) {
+                return new ShortElements();
+            }
+            return new ObjectElements();
+        }
+
+        protected abstract int length(Object array);
+
+        protected abstract void addTo(Object array, Collection<Object> collection);
+    }
+
+    private static final class BooleanElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((boolean[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (boolean value : (boolean[]) array) {
+                collection.add(Boolean.valueOf(value));
+            }
+        }
+    }
+
+    private static final class ByteElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((byte[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (byte value : (byte[]) array) {
+                collection.add(Byte.valueOf(value));
+            }
+        }
+    }
+
+    private static final class CharElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((char[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (char value : (char[]) array) {
+                collection.add(Character.valueOf(value));
+            }
+        }
+    }
+
+    private static final class DoubleElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((double[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (double value : (double[]) array) {
+                collection.add(Double.valueOf(value));
+            }
+        }
+    }
+
+    private static final class FloatElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((float[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (float value : (float[]) array) {
+                collection.add(Float.valueOf(value));
+            }
+        }
+    }
+
+    private static final class IntElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((int[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (int value : (int[]) array) {
+                collection.add(Integer.valueOf(value));
+            }
+        }
+    }
+
+    private static final class LongElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((long[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (long value : (long[]) array) {
+                collection.add(Long.valueOf(value));
+            }
+        }
+    }
+
+    private static final class ObjectElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((Object[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            // ArrayList copies the whole array at once
+            collection.addAll(Arrays.asList((Object[]) array));
+        }
+    }
+
+    private static final class ShortElements extends ArrayElements {
+        protected int length(Object array) {
+            return ((short[]) array).length;
+        }
+
+        protected void addTo(Object array, Collection<Object> collection) {
+            for (short value : (short[]) array) {
+                collection.add(Short.valueOf(value));
             }
-            return Util.<T>cast(set);
         }
     }
 
@@ -200,10 +592,23 @@ public class CollectionConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * An abstract class that converts a <code>Collection</code> to a primitive
+     * array. Elements of the component type's wrapper class are unboxed, and
+     * other <code>Number</code> elements are narrowed or widened directly, with
+     * values out of the component type's range rejected. <code>String</code>
+     * elements of integral arrays are parsed directly. Other elements are
+     * converted to the wrapper class, with a converter looked up once for each
+     * run of elements of the same class. <code>RandomAccess</code> lists are
+     * indexed rather than iterated.
+     */
     @SuppressWarnings("unchecked")
-    private static class CollectionToBooleanArray<T> extends AbstractConverter<Collection, T> {
-        public CollectionToBooleanArray(Class<Collection> sourceClass, Class<T> targetClass) {
+    private static abstract class CollectionToPrimitiveArray<T> extends AbstractConverter<Collection, T> {
+        private final Class<?> wrapperClass;
+
+        protected CollectionToPrimitiveArray(Class<Collection> sourceClass, Class<T> targetClass, Class<?> wrapperClass) {
             super(sourceClass, targetClass);
+            this.wrapperClass = wrapperClass;
         }
 
         public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
@@ -211,153 +616,204 @@ public class CollectionConverters implements ConverterLoader {
         }
 
         public T convert(Collection obj) throws ConversionException {
-            boolean[] array = new boolean[obj.size()];
-            int index = 0;
-            Iterator<Boolean> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().booleanValue();
-                index++;
+            Object copy = PrimitiveLists.copyArray(obj, getTargetClass());
+            if (copy != null) {
+                return Util.<T>cast(copy);
+            }
+            int size = obj.size();
+            Object array = newArray(size);
+            ElementConverter elements = new ElementConverter(wrapperClass);
+            if (obj instanceof List && obj instanceof RandomAccess) {
+                List<?> list = (List<?>) obj;
+                for (int i = 0; i < size; i++) {
+                    set(array, i, list.get(i), elements);
+                }
+            } else {
+                int index = 0;
+                for (Object element : obj) {
+                    set(array, index++, element, elements);
+                }
             }
             return Util.<T>cast(array);
         }
+
+        /** Returns a new array of the target class. */
+        protected abstract Object newArray(int size);
+
+        /** Stores <code>element</code> at <code>index</code> in <code>array</code>,
+         * converting it with <code>elements</code> if necessary. */
+        protected abstract void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException;
+    }
+
+    /**
+     * Converts collection elements to a target class, looking up a converter
+     * when the element class differs from the previous element's. Numbers are
+     * narrowed to primitive targets as a {@link NumberConverters.Narrowing#CHECKED}
+     * converter narrows them, and strings are parsed to integral targets with
+     * {@link IntegerParser}, without a boxed result.
+     */
+    private static final class ElementConverter {
+        private final Class<?> targetClass;
+        private Class<?> elementClass;
+        private Converter<Object, Object> converter;
+
+        private ElementConverter(Class<?> targetClass) {
+            this.targetClass = targetClass;
+        }
+
+        private Object convert(Object element) throws ConversionException {
+            if (element == null) {
+                throw new ConversionException("Cannot convert a null element to " + targetClass.getName());
+            }
+            Class<?> sourceClass = element.getClass();
+            if (sourceClass != elementClass) {
+                converter = Util.cast(Converters.getConverter(sourceClass, targetClass));
+                elementClass = sourceClass;
+            }
+            return converter.convert(element);
+        }
+
+        /** Returns <code>element</code> as a <code>long</code> in <code>[min, max]</code>. */
+        private long toLong(Object element, long min, long max) throws ConversionException {
+            if (element instanceof String) {
+                long value;
+                try {
+                    value = IntegerParser.parseLong((String) element);
+                } catch (NumberFormatException e) {
+                    throw new ConversionException(e);
+                }
+                return NumberConverters.NumberToNumber.checkRange(value, element, min, max);
+            }
+            Number number = (Number) (element instanceof Number ? element : convert(element));
+            return NumberConverters.NumberToNumber.checkedLongValue(number, min, max);
+        }
+
+        private double toDouble(Object element) throws ConversionException {
+            return NumberConverters.NumberToNumber.checkedDoubleValue((Number) (element instanceof Number ? element : convert(element)));
+        }
+
+        private float toFloat(Object element) throws ConversionException {
+            return NumberConverters.NumberToNumber.checkedFloatValue((Number) (element instanceof Number ? element : convert(element)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static class CollectionToBooleanArray<T> extends CollectionToPrimitiveArray<T> {
+        public CollectionToBooleanArray(Class<Collection> sourceClass, Class<T> targetClass) {
+            super(sourceClass, targetClass, Boolean.class);
+        }
+
+        protected Object newArray(int size) {
+            return new boolean[size];
+        }
+
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((boolean[]) array)[index] = element instanceof Boolean ? ((Boolean) element).booleanValue() : ((Boolean) elements.convert(element)).booleanValue();
+        }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToByteArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToByteArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToByteArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Byte.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new byte[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            byte[] array = new byte[obj.size()];
-            int index = 0;
-            Iterator<Byte> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().byteValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((byte[]) array)[index] = element instanceof Byte ? ((Byte) element).byteValue() : (byte) elements.toLong(element, Byte.MIN_VALUE, Byte.MAX_VALUE);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToCharArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToCharArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToCharArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Character.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new char[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            char[] array = new char[obj.size()];
-            int index = 0;
-            Iterator<Character> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().charValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((char[]) array)[index] = element instanceof Character ? ((Character) element).charValue() : ((Character) elements.convert(element)).charValue();
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToDoubleArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToDoubleArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToDoubleArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Double.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new double[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            double[] array = new double[obj.size()];
-            int index = 0;
-            Iterator<Double> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().doubleValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((double[]) array)[index] = element instanceof Double ? ((Double) element).doubleValue() : elements.toDouble(element);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToFloatArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToFloatArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToFloatArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Float.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new float[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            float[] array = new float[obj.size()];
-            int index = 0;
-            Iterator<Float> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().floatValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((float[]) array)[index] = element instanceof Float ? ((Float) element).floatValue() : elements.toFloat(element);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToIntArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToIntArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToIntArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Integer.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new int[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            int[] array = new int[obj.size()];
-            int index = 0;
-            Iterator<Integer> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().intValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((int[]) array)[index] = element instanceof Integer ? ((Integer) element).intValue() : (int) elements.toLong(element, Integer.MIN_VALUE, Integer.MAX_VALUE);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToLongArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToLongArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToLongArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Long.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new long[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            long[] array = new long[obj.size()];
-            int index = 0;
-            Iterator<Long> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().longValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((long[]) array)[index] = element instanceof Long ? ((Long) element).longValue() : elements.toLong(element, Long.MIN_VALUE, Long.MAX_VALUE);
         }
     }
 
+    /**
+     * An object that converts a <code>Collection</code> to an array of the target
+     * class. Elements that are not instances of the component type throw
+     * <code>ConversionException</code>.
+     */
     @SuppressWarnings("unchecked")
     private static class CollectionToObjectArray<T> extends AbstractConverter<Collection, T> {
+        private final Class<?> componentType;
+
         public CollectionToObjectArray(Class<Collection> sourceClass, Class<T> targetClass) {
             super(sourceClass, targetClass);
+            this.componentType = targetClass.getComponentType();
         }
 
         public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
@@ -365,29 +821,29 @@ public class CollectionConverters implements ConverterLoader {
         }
 
         public T convert(Collection obj) throws ConversionException {
-            return Util.<T>cast(obj.toArray());
+            if (componentType == Object.class) {
+                return Util.<T>cast(obj.toArray());
+            }
+            try {
+                return Util.<T>cast(obj.toArray((Object[]) Array.newInstance(componentType, obj.size())));
+            } catch (ArrayStoreException e) {
+                throw new ConversionException(e);
+            }
         }
     }
 
     @SuppressWarnings("unchecked")
-    private static class CollectionToShortArray<T> extends AbstractConverter<Collection, T> {
+    private static class CollectionToShortArray<T> extends CollectionToPrimitiveArray<T> {
         public CollectionToShortArray(Class<Collection> sourceClass, Class<T> targetClass) {
-            super(sourceClass, targetClass);
+            super(sourceClass, targetClass, Short.class);
         }
 
-        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
-            return sourceClass == this.getSourceClass() && targetClass == this.getTargetClass();
+        protected Object newArray(int size) {
+            return new short[size];
         }
 
-        public T convert(Collection obj) throws ConversionException {
-            short[] array = new short[obj.size()];
-            int index = 0;
-            Iterator<Short> iterator = obj.iterator();
-            while (iterator.hasNext()) {
-                array[index] = iterator.next().shortValue();
-                index++;
-            }
-            return Util.<T>cast(array);
+        protected void set(Object array, int index, Object element, ElementConverter elements) throws ConversionException {
+            ((short[]) array)[index] = element instanceof Short ? ((Short) element).shortValue() : (short) elements.toLong(element, Short.MIN_VALUE, Short.MAX_VALUE);
         }
     }
 
@@ -425,11 +881,17 @@ public class CollectionConverters implements ConverterLoader {
             if (!(sourceClass.getComponentType() instanceof Object)) {
                 return null;
             }
+            if (targetClass == TreeSet.class || SortedSet.class.isAssignableFrom(targetClass) && targetClass.isAssignableFrom(TreeSet.class)) {
+                return Util.cast(new ArrayToTreeSet<S, T>(sourceClass, targetClass));
+            }
             if ((targetClass.getModifiers() & Modifier.ABSTRACT) == 0) {
                 return Util.cast(new ArrayClassToSet<S, T>(sourceClass, targetClass));
-            } else {
-                return Util.cast(new ArrayClassToHashSet<S, T>(sourceClass, targetClass));
             }
+            Class<?> componentType = sourceClass.getComponentType();
+            if (componentType.isEnum() && targetClass.isAssignableFrom(EnumSet.class)) {
+                return Util.cast(new EnumArrayToEnumSet<S, T>(sourceClass, targetClass));
+            }
+            return Util.cast(new ArrayClassToHashSet<S, T>(sourceClass, targetClass));
         }
 
         public void loadConverters() {
@@ -32,4 +32,36 @@ public class ConversionException extends RuntimeException {
     public ConversionException(Throwable cause) {
         super(cause);
     }
+
+    /** Returns an exception for input that could not be converted. The exception
+     * has no stack trace, and its message - <code>prefix</code>, <code>input</code>
+     * and <code>suffix</code> - is not built until it is requested.
+     */
+    static ConversionException invalidInput(String prefix, Object input, String suffix) {
+        return new InvalidInput(prefix, input, suffix);
+    }
+
+    /** A stackless exception with a lazily built message. */
+    private static final class InvalidInput extends ConversionException {
+        private final String prefix;
+        private final Object input;
+        private final String suffix;
+
+        private InvalidInput(String prefix, Object input, String suffix) {
+            super((String) null);
+            this.prefix = prefix;
+            this.input = input;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public String getMessage() {
+            return prefix + input + suffix;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
@@ -96,7 +96,9 @@ public class Converters {
     /**
      * Converts the given source object to <code>targetClass</code>. If no converter exists or
      * if the selected converter fails to convert for some reason (malformed, invalid source object)
-     * then this method will return the <code>defaultValue</code> instead
+     * then this method will return the <code>defaultValue</code> instead.
+     * Converters that implement {@link TryConverter} reject the source without
+     * throwing an exception
      * @param source the source object to convert
      * @param defaultValue the default value to return should anything go wrong
      * @param targetClass the target type to which you wish to convert
@@ -105,8 +107,15 @@ public class Converters {
      * @return the coverted value or <code>defaultValue</code> if anything goes wrong
      */
     public static <S, T> T convert(S source, T defaultValue, Class<T> targetClass) {
+        Converter<S, T> converter = Util.cast(getConverterOrNull(source.getClass(), targetClass));
+        if (converter == null) {
+            return defaultValue;
+        }
+        if (converter instanceof TryConverter) {
+            return ((TryConverter<S, T>) converter).tryConvert(source, defaultValue);
+        }
         try {
-            return convert(source, targetClass);
+            return converter.convert(source);
         } catch (ConversionException e) {
             return defaultValue;
         }
@@ -22,6 +22,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.text.DateFormat;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -35,6 +36,14 @@ public class DateTimeConverters implements ConverterLoader {
      * Calendar format string: <code>EEE MMM dd HH:mm:ss.SSS z yyyy</code>. 
      */
     public static final String CALENDAR_FORMAT = "EEE MMM dd HH:mm:ss.SSS z yyyy";
+    /**
+     * Format string that selects ISO-8601 extended format, as written and read by
+     * {@link Iso8601Format}: <code>yyyy-MM-dd'T'HH:mm:ss</code>, with a fraction only
+     * when it is not zero, and an offset. Dates use the proleptic Gregorian calendar.
+     * This is not a <code>SimpleDateFormat</code> pattern; the date, calendar and
+     * timestamp converters handle it themselves.
+     */
+    public static final String ISO_8601_FORMAT = "ISO-8601";
     /**
      * JDBC DATE format string: <code>yyyy-MM-dd</code>. 
      */
@@ -44,6 +53,18 @@ public class DateTimeConverters implements ConverterLoader {
      */
     public static final String JDBC_TIME_FORMAT = "HH:mm:ss";
 
+    /**
+     * Returns <code>true</code> if <code>formatString</code> selects
+     * {@link DateTimeConverters#CALENDAR_FORMAT}, which is handled by {@link CalendarFormat}.
+     * 
+     * @param formatString
+     *            optional format string
+     * @return <code>true</code> if the calendar format is used
+     */
+    protected static boolean isCalendarFormat(String formatString) {
+        return formatString == null || CALENDAR_FORMAT.equals(formatString);
+    }
+
     /**
      * Returns an initialized DateFormat object.
      * 
@@ -146,17 +167,28 @@ public class DateTimeConverters implements ConverterLoader {
     /**
      * An object that converts a <code>Calendar</code> to a <code>String</code>.
      */
-    public static class CalendarToString extends AbstractLocalizedConverter<Calendar, String> {
+    public static class CalendarToString extends AbstractLocalizedConverter<Calendar, String> implements AppendingConverter<Calendar> {
         public CalendarToString() {
             super(Calendar.class, String.class);
         }
 
+        public StringBuilder appendTo(Calendar obj, StringBuilder sb) throws ConversionException {
+            if (CalendarFormat.append(sb, obj) != null) {
+                return sb;
+            }
+            return sb.append(convert(obj));
+        }
+
         /**
          * Converts <code>obj</code> to a <code>String</code> formatted as
          * {@link DateTimeConverters#CALENDAR_FORMAT}. The returned string is
          * referenced to the default time zone.
          */
         public String convert(Calendar obj) throws ConversionException {
+            String result = CalendarFormat.format(obj);
+            if (result != null) {
+                return result;
+            }
             DateFormat df = new SimpleDateFormat(CALENDAR_FORMAT);
             df.setCalendar(obj);
             return df.format(obj.getTime());
@@ -169,6 +201,12 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public String convert(Calendar obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                return Iso8601Format.format(obj.getTimeInMillis(), obj.getTimeZone());
+            }
+            if (isCalendarFormat(formatString)) {
+                return convert(obj);
+            }
             DateFormat df = toDateTimeFormat(formatString == null ? CALENDAR_FORMAT : formatString, timeZone, locale);
             df.setCalendar(obj);
             return df.format(obj.getTime());
@@ -260,9 +298,22 @@ public class DateTimeConverters implements ConverterLoader {
      * An object that converts a <code>java.util.Date</code> to a
      * <code>String</code>.
      */
-    public static class DateToString extends AbstractLocalizedConverter<Date, String> {
+    public static class DateToString extends AbstractLocalizedConverter<Date, String> implements AppendingConverter<Date> {
+        private final boolean cached;
+
         public DateToString() {
+            this(false);
+        }
+
+        /**
+         * @param cached
+         *            if <code>true</code>, format strings are rendered with a
+         *            {@link CachedDateFormat}, which is faster for streams of
+         *            increasing values
+         */
+        public DateToString(boolean cached) {
             super(Date.class, String.class);
+            this.cached = cached;
         }
 
         @Override
@@ -270,14 +321,20 @@ public class DateTimeConverters implements ConverterLoader {
             return Date.class.equals(sourceClass) && String.class.equals(targetClass);
         }
 
+        public StringBuilder appendTo(Date obj, StringBuilder sb) throws ConversionException {
+            if (CalendarFormat.append(sb, obj.getTime(), TimeZone.getDefault(), Locale.getDefault()) != null) {
+                return sb;
+            }
+            return sb.append(convert(obj));
+        }
+
         /**
          * Converts <code>obj</code> to a <code>String</code> formatted as
          * {@link DateTimeConverters#CALENDAR_FORMAT}. The returned string is
          * referenced to the default time zone.
          */
         public String convert(Date obj) throws ConversionException {
-            DateFormat df = new SimpleDateFormat(CALENDAR_FORMAT);
-            return df.format(obj);
+            return convert(obj, Locale.getDefault(), TimeZone.getDefault(), null);
         }
 
         /**
@@ -287,6 +344,18 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public String convert(Date obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                return Iso8601Format.format(obj.getTime(), timeZone);
+            }
+            if (isCalendarFormat(formatString)) {
+                String result = CalendarFormat.format(obj.getTime(), timeZone, Locale.getDefault());
+                if (result != null) {
+                    return result;
+                }
+            } else if (cached && !Util.isEmpty(formatString)) {
+                // toDateTimeFormat formats patterns in the default locale
+                return CachedDateFormat.getInstance(formatString, Locale.getDefault(), timeZone).format(obj.getTime());
+            }
             DateFormat df = toDateTimeFormat(formatString == null ? CALENDAR_FORMAT : formatString, timeZone, locale);
             return df.format(obj);
         }
@@ -345,6 +414,39 @@ public class DateTimeConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * An object that converts between date/time classes through a
+     * {@link TemporalValue}. The source is decoded into a per-thread
+     * <code>TemporalValue</code>, so a conversion allocates only the result.
+     */
+    public static class GenericTemporalConverter<S, T> extends AbstractConverter<S, T> {
+        private static final ThreadLocal<TemporalValue> holder = new ThreadLocal<TemporalValue>() {
+            @Override
+            protected TemporalValue initialValue() {
+                return new TemporalValue();
+            }
+        };
+        private final TemporalValue.Codec<? super S> sourceCodec;
+        private final TemporalValue.Codec<T> targetCodec;
+
+        public GenericTemporalConverter(Class<S> sourceClass, TemporalValue.Codec<? super S> sourceCodec, TemporalValue.Codec<T> targetCodec) {
+            super(sourceClass, targetCodec.getType());
+            this.sourceCodec = sourceCodec;
+            this.targetCodec = targetCodec;
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return this.getSourceClass() == sourceClass && this.getTargetClass() == targetClass;
+        }
+
+        public T convert(S obj) throws ConversionException {
+            TemporalValue value = holder.get();
+            sourceCodec.decode(obj, value);
+            return targetCodec.encode(value);
+        }
+    }
+
     /**
      * An object that converts a <code>Long</code> to a
      * <code>Calendar</code>.
@@ -464,6 +566,45 @@ public class DateTimeConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * An object that converts a <code>String</code> to a
+     * <code>java.util.Date</code>, accepting any of several format strings.
+     * The matching format string is found by a {@link MultiFormatDateParser},
+     * without a trial parse per format string. The <code>formatString</code>
+     * argument of the localized <code>convert</code> method is ignored.
+     * <p>This converter is not registered, because it has no default format strings.</p>
+     */
+    public static class MultiFormatStringToDate extends AbstractLocalizedConverter<String, Date> implements TryConverter<String, Date> {
+        private final MultiFormatDateParser parser;
+
+        public MultiFormatStringToDate(String... formatStrings) {
+            super(String.class, Date.class);
+            this.parser = new MultiFormatDateParser(formatStrings);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return String.class.equals(sourceClass) && Date.class.equals(targetClass);
+        }
+
+        public Date convert(String obj) throws ConversionException {
+            return convert(obj, Locale.getDefault(), TimeZone.getDefault(), null);
+        }
+
+        public Date tryConvert(String obj, Date defaultValue) {
+            long time = parser.parse(obj, TimeZone.getDefault());
+            return time == MultiFormatDateParser.NO_MATCH ? defaultValue : new Date(time);
+        }
+
+        public Date convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            long time = parser.parse(obj, timeZone);
+            if (time == MultiFormatDateParser.NO_MATCH) {
+                throw ConversionException.invalidInput("Unparseable date: \"", obj, "\"");
+            }
+            return new Date(time);
+        }
+    }
+
     /**
      * An object that converts a <code>java.sql.Date</code> to a
      * <code>java.util.Date</code>.
@@ -583,6 +724,12 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public Calendar convert(String obj) throws ConversionException {
+            long time = CalendarFormat.parse(obj, TimeZone.getDefault(), Locale.getDefault());
+            if (time != CalendarFormat.NO_MATCH) {
+                Calendar cal = Calendar.getInstance();
+                cal.setTimeInMillis(time);
+                return cal;
+            }
             try {
                 DateFormat df = new SimpleDateFormat(CALENDAR_FORMAT);
                 Calendar cal = Calendar.getInstance();
@@ -600,6 +747,21 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public Calendar convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                Calendar cal = Iso8601Format.parseCalendar(obj, timeZone, locale);
+                if (cal == null) {
+                    throw ConversionException.invalidInput("Invalid ISO-8601 date/time: ", obj, "");
+                }
+                return cal;
+            }
+            if (isCalendarFormat(formatString)) {
+                long time = CalendarFormat.parse(obj, timeZone, Locale.getDefault());
+                if (time != CalendarFormat.NO_MATCH) {
+                    Calendar cal = Calendar.getInstance(timeZone, locale);
+                    cal.setTimeInMillis(time);
+                    return cal;
+                }
+            }
             DateFormat df = toDateTimeFormat(formatString == null ? CALENDAR_FORMAT : formatString, timeZone, locale);
             try {
                 Date date = df.parse(obj);
@@ -616,7 +778,7 @@ public class DateTimeConverters implements ConverterLoader {
      * An object that converts a <code>String</code> to a
      * <code>java.util.Date</code>.
      */
-    public static class StringToDate extends AbstractLocalizedConverter<String, Date> {
+    public static class StringToDate extends AbstractLocalizedConverter<String, Date> implements TryConverter<String, Date> {
         public StringToDate() {
             super(String.class, Date.class);
         }
@@ -632,12 +794,17 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public Date convert(String obj) throws ConversionException {
-            try {
-                DateFormat df = new SimpleDateFormat(CALENDAR_FORMAT);
-                return df.parse(obj);
-            } catch (ParseException e) {
-                throw new ConversionException(e);
+            return convert(obj, Locale.getDefault(), TimeZone.getDefault(), null);
+        }
+
+        public Date tryConvert(String obj, Date defaultValue) {
+            long time = CalendarFormat.parse(obj, TimeZone.getDefault(), Locale.getDefault());
+            if (time != CalendarFormat.NO_MATCH) {
+                return new Date(time);
             }
+            DateFormat df = toDateTimeFormat(CALENDAR_FORMAT, TimeZone.getDefault(), Locale.getDefault());
+            Date result = df.parse(obj, new ParsePosition(0));
+            return result == null ? defaultValue : result;
         }
 
         /**
@@ -646,6 +813,19 @@ public class DateTimeConverters implements ConverterLoader {
          * {@link DateTimeConverters#CALENDAR_FORMAT}.
          */
         public Date convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                long time = Iso8601Format.parseMillis(obj, timeZone);
+                if (time == Iso8601Format.NO_MATCH) {
+                    throw ConversionException.invalidInput("Invalid ISO-8601 date/time: ", obj, "");
+                }
+                return new Date(time);
+            }
+            if (isCalendarFormat(formatString)) {
+                long time = CalendarFormat.parse(obj, timeZone, Locale.getDefault());
+                if (time != CalendarFormat.NO_MATCH) {
+                    return new Date(time);
+                }
+            }
             DateFormat df = toDateTimeFormat(formatString == null ? CALENDAR_FORMAT : formatString, timeZone, locale);
             try {
                 return df.parse(obj);
@@ -750,6 +930,13 @@ public class DateTimeConverters implements ConverterLoader {
          * </p>
          */
         public java.sql.Timestamp convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                Timestamp result = Iso8601Format.parseTimestamp(obj, timeZone);
+                if (result == null) {
+                    throw ConversionException.invalidInput("Invalid ISO-8601 date/time: ", obj, "");
+                }
+                return result;
+            }
             try {
                 // The String is referenced to the time zone represented by the timeZone
                 // argument, but the parsing code assumes a reference to UTC. So, we need
@@ -800,6 +987,36 @@ public class DateTimeConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * Creates {@link GenericTemporalConverter} instances for date/time class
+     * pairs that have no registered converter. The target class, and the source
+     * class or one of its superclasses, must have a {@link TemporalValue.Codec}.
+     */
+    public static class TemporalConverterCreator implements ConverterCreator, ConverterLoader {
+        public <S, T> Converter<S, T> createConverter(Class<S> sourceClass, Class<T> targetClass) {
+            if (targetClass.isAssignableFrom(sourceClass)) {
+                return null;
+            }
+            TemporalValue.Codec<T> targetCodec = TemporalValue.getCodec(targetClass);
+            if (targetCodec == null) {
+                return null;
+            }
+            // Calendar instances are subclasses, such as GregorianCalendar
+            TemporalValue.Codec<? super S> sourceCodec = null;
+            for (Class<?> c = sourceClass; c != null && sourceCodec == null; c = c.getSuperclass()) {
+                sourceCodec = Util.cast(TemporalValue.getCodec(c));
+            }
+            if (sourceCodec == null) {
+                return null;
+            }
+            return new GenericTemporalConverter<S, T>(sourceClass, sourceCodec, targetCodec);
+        }
+
+        public void loadConverters() {
+            Converters.registerCreator(this);
+        }
+    }
+
     /**
      * An object that converts a <code>java.sql.Timestamp</code> to a
      * <code>java.sql.Date</code>.
@@ -842,9 +1059,25 @@ public class DateTimeConverters implements ConverterLoader {
      * An object that converts a <code>java.sql.Timestamp</code> to a
      * <code>String</code>.
      */
-    public static class TimestampToString extends AbstractLocalizedConverter<java.sql.Timestamp, String> {
+    public static class TimestampToString extends AbstractLocalizedConverter<java.sql.Timestamp, String> implements AppendingConverter<java.sql.Timestamp> {
+        // Timestamp.toString() can be matched by a pattern for years 1 to 9999
+        private static final long MIN_CACHED_TIME = -62135510400000L;
+        private static final long MAX_CACHED_TIME = 253402128000000L;
+        private final boolean cached;
+
         public TimestampToString() {
+            this(false);
+        }
+
+        /**
+         * @param cached
+         *            if <code>true</code>, strings are rendered with a
+         *            {@link CachedDateFormat}, which is faster for streams of
+         *            increasing values
+         */
+        public TimestampToString(boolean cached) {
             super(java.sql.Timestamp.class, String.class);
+            this.cached = cached;
         }
 
         @Override
@@ -852,10 +1085,52 @@ public class DateTimeConverters implements ConverterLoader {
             return java.sql.Timestamp.class.equals(sourceClass) && String.class.equals(targetClass);
         }
 
+        public StringBuilder appendTo(java.sql.Timestamp obj, StringBuilder sb) throws ConversionException {
+            if (cached) {
+                return append(sb, obj.getTime(), obj.getNanos());
+            }
+            return sb.append(obj.toString());
+        }
+
         public String convert(java.sql.Timestamp obj) throws ConversionException {
+            if (cached) {
+                return format(obj.getTime(), obj.getNanos());
+            }
             return obj.toString();
         }
 
+        /**
+         * Returns the <code>Timestamp.toString()</code> text for <code>time</code> and
+         * <code>nanos</code>, using a {@link CachedDateFormat} for the date and time.
+         */
+        private static String format(long time, int nanos) {
+            return append(new StringBuilder(29), time, nanos).toString();
+        }
+
+        private static StringBuilder append(StringBuilder sb, long time, int nanos) {
+            if (time < MIN_CACHED_TIME || time > MAX_CACHED_TIME) {
+                Timestamp result = new Timestamp(time);
+                result.setNanos(nanos);
+                return sb.append(result.toString());
+            }
+            CachedDateFormat.getInstance("yyyy-MM-dd HH:mm:ss.", Locale.US, TimeZone.getDefault()).format(time, sb);
+            if (nanos == 0) {
+                return sb.append('0');
+            }
+            int digits = 9;
+            while (nanos % 10 == 0) {
+                nanos /= 10;
+                digits--;
+            }
+            for (int limit = 10; limit <= nanos; limit *= 10) {
+                digits--;
+            }
+            for (int i = 1; i < digits; i++) {
+                sb.append('0');
+            }
+            return IntegerFormat.append(sb, nanos);
+        }
+
         /**
          * Converts <code>obj</code> to a <code>String</code> using the supplied
          * time zone.
@@ -866,6 +1141,12 @@ public class DateTimeConverters implements ConverterLoader {
          * </p>
          */
         public String convert(Timestamp obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (ISO_8601_FORMAT.equals(formatString)) {
+                return Iso8601Format.format(obj.getTime(), obj.getNanos(), timeZone);
+            }
+            if (cached) {
+                return format(obj.getTime() + timeZone.getOffset(obj.getTime()), obj.getNanos());
+            }
             try {
                 // The Timestamp is referenced to UTC, but the String result needs to be
                 // referenced to the time zone represented by the timeZone argument.
@@ -886,11 +1167,15 @@ public class DateTimeConverters implements ConverterLoader {
      * An object that converts a <code>java.util.TimeZone</code> to a
      * <code>String</code> ID.
      */
-    public static class TimeZoneToString extends AbstractConverter<TimeZone, String> {
+    public static class TimeZoneToString extends AbstractConverter<TimeZone, String> implements AppendingConverter<TimeZone> {
         public TimeZoneToString() {
             super(TimeZone.class, String.class);
         }
 
+        public StringBuilder appendTo(TimeZone obj, StringBuilder sb) throws ConversionException {
+            return sb.append(obj.getID());
+        }
+
         public String convert(TimeZone obj) throws ConversionException {
             return obj.getID();
         }
@@ -0,0 +1,463 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigInteger;
+import java.util.Locale;
+
+/** Shortest round-trip formatting of <code>double</code> and <code>float</code> values.
+ * <p>The decimal is found with the Schubfach algorithm (R. Giulietti, "The Schubfach
+ * way to render doubles"): of the decimals that parse back to the same value, one
+ * with the fewest digits, and of those the closest. No <code>BigInteger</code> or
+ * floating-point arithmetic is used after the table of powers of ten is built.</p>
+ * <p>The <code>toString</code> and <code>getChars</code> methods lay the decimal
+ * out as <code>Double.toString</code> and <code>Float.toString</code> do: plain
+ * notation from 10<sup>-3</sup> up to 10<sup>7</sup>, and computerized scientific
+ * notation otherwise. Unlike the Java 6 methods, they never return more digits than
+ * needed. The localized methods lay the decimal out as
+ * <code>NumberFormat.getNumberInstance(locale)</code> does, but without its limit
+ * on fraction digits.</p>
+ */
+public class DoubleFormat {
+
+    /** The maximum number of characters written by {@link #getChars(double, char[], int)}. */
+    public static final int MAX_LENGTH = 24;
+    /** The maximum number of characters written by {@link #getChars(float, char[], int)}. */
+    public static final int MAX_FLOAT_LENGTH = 15;
+
+    private static final int PLAIN_LENGTH = 350;
+    private static final int DOUBLE_PRECISION = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << 52;
+    private static final long DOUBLE_C_TINY = 3;
+    private static final int FLOAT_PRECISION = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final long FLOAT_C_MIN = 1L << 23;
+    private static final long FLOAT_C_TINY = 8;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long MASK_63 = (1L << 63) - 1;
+    /** For each k, the high and low 63 bits of the 126-bit
+     * floor(10<sup>-k</sup> 2<sup>125 - flog2pow10(-k)</sup>) + 1. */
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+    private static final ThreadLocal<char[]> buffers = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[MAX_LENGTH];
+        }
+    };
+
+    static {
+        BigInteger mask = BigInteger.valueOf(MASK_63);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int shift = 125 - flog2pow10(-k);
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger power = BigInteger.TEN.pow(-k);
+                g = shift >= 0 ? power.shiftLeft(shift) : power.shiftRight(-shift);
+            } else {
+                g = BigInteger.ONE.shiftLeft(shift).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+            G[(k - K_MIN) * 2] = g.shiftRight(63).longValue();
+            G[(k - K_MIN) * 2 + 1] = g.and(mask).longValue();
+        }
+    }
+
+    /** Returns the shortest <code>String</code> that <code>Double.parseDouble</code>
+     * parses to <code>value</code>, laid out as in <code>Double.toString(double)</code>.
+     *
+     * @param value The value to format
+     * @return The formatted <code>String</code>
+     */
+    public static String toString(double value) {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, getChars(value, buffer, 0));
+    }
+
+    /** Returns the shortest <code>String</code> that <code>Float.parseFloat</code>
+     * parses to <code>value</code>, laid out as in <code>Float.toString(float)</code>.
+     *
+     * @param value The value to format
+     * @return The formatted <code>String</code>
+     */
+    public static String toString(float value) {
+        char[] buffer = new char[MAX_FLOAT_LENGTH];
+        return new String(buffer, 0, getChars(value, buffer, 0));
+    }
+
+    /** Appends {@link #toString(double)} to <code>sb</code>. The characters are
+     * written through a per-thread buffer, so no <code>String</code> is created.
+     *
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param value The value to format
+     * @return <code>sb</code>
+     */
+    public static StringBuilder append(StringBuilder sb, double value) {
+        char[] buffer = buffers.get();
+        return sb.append(buffer, 0, getChars(value, buffer, 0));
+    }
+
+    /** Appends {@link #toString(float)} to <code>sb</code>. The characters are
+     * written through a per-thread buffer, so no <code>String</code> is created.
+     *
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param value The value to format
+     * @return <code>sb</code>
+     */
+    public static StringBuilder append(StringBuilder sb, float value) {
+        char[] buffer = buffers.get();
+        return sb.append(buffer, 0, getChars(value, buffer, 0));
+    }
+
+    /** Writes {@link #toString(double)} into <code>buffer</code>, which must have
+     * room for {@link #MAX_LENGTH} characters at <code>index</code>.
+     *
+     * @param value The value to format
+     * @param buffer The buffer
+     * @param index The index of the first character
+     * @return The index after the last character
+     */
+    public static int getChars(double value, char[] buffer, int index) {
+        return toChars(value, buffer, index, false);
+    }
+
+    /** Writes {@link #toString(float)} into <code>buffer</code>, which must have
+     * room for {@link #MAX_FLOAT_LENGTH} characters at <code>index</code>.
+     *
+     * @param value The value to format
+     * @param buffer The buffer
+     * @param index The index of the first character
+     * @return The index after the last character
+     */
+    public static int getChars(float value, char[] buffer, int index) {
+        return toChars(value, buffer, index, false);
+    }
+
+    /** Returns the shortest round-trip decimal for <code>value</code>, formatted as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it with no
+     * limit on fraction digits.
+     *
+     * @param value The value to format
+     * @param locale The locale
+     * @return The formatted <code>String</code>, or <code>null</code> if
+     * <code>value</code> is not finite or the locale's number format is not supported
+     */
+    public static String format(double value, Locale locale) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        char[] buffer = new char[plainLength(value)];
+        return localize(buffer, toChars(value, buffer, 0, true), locale);
+    }
+
+    /** Returns the shortest round-trip decimal for <code>value</code>, formatted as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it with no
+     * limit on fraction digits.
+     *
+     * @param value The value to format
+     * @param locale The locale
+     * @return The formatted <code>String</code>, or <code>null</code> if
+     * <code>value</code> is not finite or the locale's number format is not supported
+     */
+    public static String format(float value, Locale locale) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return null;
+        }
+        char[] buffer = new char[plainLength(value)];
+        return localize(buffer, toChars(value, buffer, 0, true), locale);
+    }
+
+    /** Returns the buffer length needed for <code>value</code> in plain notation. */
+    private static int plainLength(double value) {
+        double abs = Math.abs(value);
+        return abs >= 1e-7 && abs < 1e15 ? 40 : PLAIN_LENGTH;
+    }
+
+    private static String localize(char[] buffer, int end, Locale locale) {
+        boolean negative = buffer[0] == '-';
+        int start = negative ? 1 : 0;
+        int point = start;
+        while (point < end && buffer[point] != '.') {
+            point++;
+        }
+        return IntegerFormat.format(buffer, start, point, end, negative, locale);
+    }
+
+    private static int toChars(double value, char[] buffer, int index, boolean plain) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & (DOUBLE_C_MIN - 1);
+        int bq = (int) (bits >>> DOUBLE_PRECISION - 1) & 0x7FF;
+        if (bq == 0x7FF) {
+            return append(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buffer, index);
+        }
+        if (bits < 0) {
+            buffer[index++] = '-';
+        }
+        if (bq != 0) {
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            // Integers are their own shortest decimal
+            if (0 < mq && mq < DOUBLE_PRECISION) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return layout(f, 0, buffer, index, plain);
+                }
+            }
+            return toDecimal(-mq, c, 0, DOUBLE_C_MIN, DOUBLE_Q_MIN, buffer, index, plain);
+        }
+        if (t != 0) {
+            return t < DOUBLE_C_TINY ? toDecimal(DOUBLE_Q_MIN, 10 * t, -1, DOUBLE_C_MIN, DOUBLE_Q_MIN, buffer, index, plain)
+                    : toDecimal(DOUBLE_Q_MIN, t, 0, DOUBLE_C_MIN, DOUBLE_Q_MIN, buffer, index, plain);
+        }
+        return layout(0, 0, buffer, index, plain);
+    }
+
+    private static int toChars(float value, char[] buffer, int index, boolean plain) {
+        int bits = Float.floatToRawIntBits(value);
+        long t = bits & (FLOAT_C_MIN - 1);
+        int bq = (bits >>> FLOAT_PRECISION - 1) & 0xFF;
+        if (bq == 0xFF) {
+            return append(t != 0 ? "NaN" : bits > 0 ? "Infinity" : "-Infinity", buffer, index);
+        }
+        if (bits < 0) {
+            buffer[index++] = '-';
+        }
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            long c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_PRECISION) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return layout(f, 0, buffer, index, plain);
+                }
+            }
+            return toDecimal(-mq, c, 0, FLOAT_C_MIN, FLOAT_Q_MIN, buffer, index, plain);
+        }
+        if (t != 0) {
+            return t < FLOAT_C_TINY ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, FLOAT_C_MIN, FLOAT_Q_MIN, buffer, index, plain)
+                    : toDecimal(FLOAT_Q_MIN, t, 0, FLOAT_C_MIN, FLOAT_Q_MIN, buffer, index, plain);
+        }
+        return layout(0, 0, buffer, index, plain);
+    }
+
+    /** Returns the decimal that {@link #toString(double)} writes for a finite
+     * <code>value</code>, with the scale of that text, as
+     * <code>BigDecimal.valueOf(double)</code> has; or <code>null</code> if it cannot
+     * be represented. No characters are written.
+     */
+    static FixedDecimal toFixedDecimal(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & (DOUBLE_C_MIN - 1);
+        int bq = (int) (bits >>> DOUBLE_PRECISION - 1) & 0x7FF;
+        long f = 0;
+        int e = 0;
+        if (bq != 0) {
+            int mq = -DOUBLE_Q_MIN + 1 - bq;
+            long c = DOUBLE_C_MIN | t;
+            if (0 < mq && mq < DOUBLE_PRECISION && (c >> mq) << mq == c) {
+                f = c >> mq;
+            } else {
+                f = shortest(-mq, c, DOUBLE_C_MIN, DOUBLE_Q_MIN);
+                e = decimalExponent(-mq, c, DOUBLE_C_MIN, DOUBLE_Q_MIN);
+            }
+        } else if (t != 0) {
+            long c = t < DOUBLE_C_TINY ? 10 * t : t;
+            f = shortest(DOUBLE_Q_MIN, c, DOUBLE_C_MIN, DOUBLE_Q_MIN);
+            e = decimalExponent(DOUBLE_Q_MIN, c, DOUBLE_C_MIN, DOUBLE_Q_MIN) - (c == t ? 0 : 1);
+        }
+        if (f == 0) {
+            // "0.0"
+            return FixedDecimal.valueOf(0, 1);
+        }
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = IntegerFormat.digitCount(-f);
+        int point = e + length;
+        // The text has at least one fraction digit, before any exponent
+        int scale = point > -3 && point <= 7 ? Math.max(-e, 1) : Math.max(length - 1, 1) - (point - 1);
+        return FixedDecimal.valueOf(bits < 0 ? -f : f, -e, scale);
+    }
+
+    /** Finds the shortest decimal for c 2<sup>q</sup> and lays it out. Subnormal
+     * values with few significant bits are passed in scaled up by ten, with
+     * <code>dk</code> set to -1.
+     */
+    private static int toDecimal(int q, long c, int dk, long cMin, int qMin, char[] buffer, int index, boolean plain) {
+        return layout(shortest(q, c, cMin, qMin), decimalExponent(q, c, cMin, qMin) + dk, buffer, index, plain);
+    }
+
+    /** Returns k, where the shortest decimal for c 2<sup>q</sup> is
+     * {@link #shortest(int, long, long, int)} 10<sup>k</sup>. */
+    private static int decimalExponent(int q, long c, long cMin, int qMin) {
+        return c != cMin || q == qMin ? flog10pow2(q) : flog10threeQuartersPow2(q);
+    }
+
+    /** Returns the digits of the shortest decimal for c 2<sup>q</sup>. */
+    private static long shortest(int q, long c, long cMin, int qMin) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        // The rounding interval is asymmetric at powers of two
+        long cbl = c != cMin || q == qMin ? cb - 2 : cb - 1;
+        int k = decimalExponent(q, c, cMin, qMin);
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[(k - K_MIN) * 2];
+        long g0 = G[(k - K_MIN) * 2 + 1];
+        // The value and the bounds of its rounding interval, times 4 and scaled by 10^-k
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Try one digit less
+            long sp10 = s / 10 * 10;
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return upin ? sp10 : tp10;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return uin ? s : t;
+        }
+        // Both are in the interval: take the closer, or the even one on a tie
+        long cmp = vb - (s + t << 1);
+        return cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t;
+    }
+
+    /** Writes f 10<sup>e</sup>. */
+    private static int layout(long f, int e, char[] buffer, int index, boolean plain) {
+        if (f == 0) {
+            buffer[index++] = '0';
+            if (!plain) {
+                buffer[index++] = '.';
+                buffer[index++] = '0';
+            }
+            return index;
+        }
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int length = 1;
+        for (long power = 10; length < 18 && f >= power; power *= 10) {
+            length++;
+        }
+        // The value is 0.ddd 10^point
+        int point = e + length;
+        if (point > 0 && (plain || point <= 7)) {
+            if (length <= point) {
+                IntegerFormat.getChars(f, buffer, index + length);
+                index += length;
+                for (int i = length; i < point; i++) {
+                    buffer[index++] = '0';
+                }
+                if (!plain) {
+                    buffer[index++] = '.';
+                    buffer[index++] = '0';
+                }
+                return index;
+            }
+            int end = index + length + 1;
+            IntegerFormat.getChars(f, buffer, end);
+            System.arraycopy(buffer, index + 1, buffer, index, point);
+            buffer[index + point] = '.';
+            return end;
+        }
+        if (point <= 0 && (plain || point > -3)) {
+            buffer[index++] = '0';
+            buffer[index++] = '.';
+            for (int i = point; i < 0; i++) {
+                buffer[index++] = '0';
+            }
+            int end = index + length;
+            IntegerFormat.getChars(f, buffer, end);
+            return end;
+        }
+        int end = index + length + 1;
+        IntegerFormat.getChars(f, buffer, end);
+        buffer[index] = buffer[index + 1];
+        buffer[index + 1] = '.';
+        if (length == 1) {
+            buffer[end++] = '0';
+        }
+        buffer[end++] = 'E';
+        int exponent = point - 1;
+        if (exponent < 0) {
+            buffer[end++] = '-';
+            exponent = -exponent;
+        }
+        end += exponent >= 100 ? 3 : exponent >= 10 ? 2 : 1;
+        IntegerFormat.getChars(exponent, buffer, end);
+        return end;
+    }
+
+    private static int append(String text, char[] buffer, int index) {
+        text.getChars(0, text.length(), buffer, index);
+        return index + text.length();
+    }
+
+    /** Returns the high 126 bits of g cp, rounded to odd. */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /** Returns the high 64 bits of the 128-bit product of <code>x</code> and <code>y</code>. */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /** Returns floor(log<sub>10</sub>(2<sup>e</sup>)). */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    /** Returns floor(log<sub>10</sub>(3/4 2<sup>e</sup>)). */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L - 274743187321L >> 41);
+    }
+
+    /** Returns floor(log<sub>2</sub>(10<sup>e</sup>)). */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+
+    private DoubleFormat() {}
+}
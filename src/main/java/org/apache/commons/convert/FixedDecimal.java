@@ -0,0 +1,545 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.util.Locale;
+
+/** An immutable decimal number held as a <code>long</code> unscaled value and a
+ * scale from 0 to {@link #MAX_SCALE}. The value is
+ * <code>unscaledValue &times; 10<sup>-scale</sup></code>.
+ * <p><code>FixedDecimal</code> is an exact decimal for values that fit in a
+ * <code>long</code>, such as money amounts. Parsing and formatting work on the
+ * characters directly, without an intermediate <code>BigDecimal</code>;
+ * {@link #parse(CharSequence)} allocates only the result, and
+ * {@link #getChars(char[], int)} nothing at all. Operations whose result does
+ * not fit throw <code>ArithmeticException</code>, and parsing throws
+ * <code>NumberFormatException</code>.</p>
+ * <p>As with <code>BigDecimal</code>, {@link #equals(Object)} compares the unscaled
+ * value and the scale, so 2.0 and 2.00 are not equal, while
+ * {@link #compareTo(FixedDecimal)} compares numeric values.</p>
+ */
+public final class FixedDecimal extends Number implements Comparable<FixedDecimal> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** The largest supported scale. */
+    public static final int MAX_SCALE = 18;
+    /** The maximum number of characters written by {@link #getChars(char[], int)}. */
+    public static final int MAX_LENGTH = 21;
+
+    private static final long[] POWERS = new long[MAX_SCALE + 1];
+    private static final FixedDecimal[] ZEROS = new FixedDecimal[MAX_SCALE + 1];
+
+    static {
+        POWERS[0] = 1;
+        for (int i = 1; i < POWERS.length; i++) {
+            POWERS[i] = POWERS[i - 1] * 10;
+        }
+        for (int i = 0; i < ZEROS.length; i++) {
+            ZEROS[i] = new FixedDecimal(0, i);
+        }
+    }
+
+    /** Returns a <code>FixedDecimal</code> whose value is
+     * <code>unscaledValue &times; 10<sup>-scale</sup></code>.
+     *
+     * @param unscaledValue The unscaled value
+     * @param scale The scale, from 0 to {@link #MAX_SCALE}
+     * @return The <code>FixedDecimal</code>
+     * @throws IllegalArgumentException if <code>scale</code> is out of range
+     */
+    public static FixedDecimal valueOf(long unscaledValue, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale out of range: " + scale);
+        }
+        return unscaledValue == 0 ? ZEROS[scale] : new FixedDecimal(unscaledValue, scale);
+    }
+
+    /** Returns a <code>FixedDecimal</code> with scale 0.
+     *
+     * @param value The value
+     * @return The <code>FixedDecimal</code>
+     */
+    public static FixedDecimal valueOf(long value) {
+        return valueOf(value, 0);
+    }
+
+    /** Returns the exact value of <code>value</code>. A negative scale becomes 0,
+     * and trailing zeros are removed from a scale above {@link #MAX_SCALE}.
+     *
+     * @param value The value
+     * @return The <code>FixedDecimal</code>
+     * @throws ArithmeticException if <code>value</code> cannot be represented exactly
+     */
+    public static FixedDecimal valueOf(BigDecimal value) {
+        if (value.signum() == 0) {
+            // Zero fits at any scale, however large its exponent
+            return ZEROS[Math.max(0, Math.min(value.scale(), MAX_SCALE))];
+        }
+        if (value.precision() - value.scale() > 19) {
+            throw new ArithmeticException("Overflow: " + value);
+        }
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        } else if (value.scale() > MAX_SCALE) {
+            value = value.setScale(MAX_SCALE, RoundingMode.UNNECESSARY);
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() > 63) {
+            throw new ArithmeticException("Overflow: " + value);
+        }
+        return valueOf(unscaled.longValue(), value.scale());
+    }
+
+    /** Returns the shortest decimal that converts back to <code>value</code>, as
+     * <code>BigDecimal.valueOf(double)</code> does.
+     *
+     * @param value The value
+     * @return The <code>FixedDecimal</code>
+     * @throws ArithmeticException if <code>value</code> is not finite or cannot
+     * be represented
+     */
+    public static FixedDecimal valueOf(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Not finite: " + value);
+        }
+        FixedDecimal result = DoubleFormat.toFixedDecimal(value);
+        if (result == null) {
+            throw new ArithmeticException("Overflow: " + value);
+        }
+        return result;
+    }
+
+    /** Parses a decimal number: an optional sign, digits with an optional decimal
+     * point, and an optional exponent, as accepted by <code>new BigDecimal(String)</code>
+     * but with ASCII digits only.
+     * The scale is the number of fraction digits less the exponent. Trailing zeros
+     * are removed from a scale above {@link #MAX_SCALE}.
+     *
+     * @param text The text to parse
+     * @return The <code>FixedDecimal</code>
+     * @throws NumberFormatException if <code>text</code> is not a decimal number,
+     * or its value cannot be represented
+     */
+    public static FixedDecimal parse(CharSequence text) {
+        FixedDecimal result = parse(text, text.length());
+        if (result == null) {
+            throw new NumberFormatException("For input string: \"" + text + "\"");
+        }
+        return result;
+    }
+
+    /** Parses a number in the format of <code>NumberFormat.getNumberInstance(locale)</code>.
+     * The scale is the number of fraction digits.
+     *
+     * @param text The text to parse
+     * @param locale The locale
+     * @return The <code>FixedDecimal</code>
+     * @throws NumberFormatException if <code>text</code> is not a number in that
+     * format, or its value cannot be represented
+     */
+    public static FixedDecimal parse(String text, Locale locale) {
+        FixedDecimal result = IntegerFormat.parseFixedDecimal(text, locale);
+        if (result == null) {
+            // The locale is not supported, or the text has features such as an exponent
+            NumberFormat nf = NumberFormat.getNumberInstance(locale);
+            if (nf instanceof DecimalFormat) {
+                ((DecimalFormat) nf).setParseBigDecimal(true);
+            }
+            ParsePosition position = new ParsePosition(0);
+            Number number = nf.parse(text, position);
+            if (number instanceof BigDecimal && position.getIndex() == text.length()) {
+                try {
+                    result = valueOf((BigDecimal) number);
+                } catch (ArithmeticException e) {
+                }
+            }
+        }
+        if (result == null) {
+            throw new NumberFormatException("For input string: \"" + text + "\"");
+        }
+        return result;
+    }
+
+    /** Returns the value of <code>text[0, end)</code>, or <code>null</code> if it is
+     * not a decimal number or cannot be represented.
+     */
+    static FixedDecimal parse(CharSequence text, int end) {
+        boolean negative = end > 0 && text.charAt(0) == '-';
+        int start = end > 0 && (negative || text.charAt(0) == '+') ? 1 : 0;
+        return parse(text, start, end, negative, false, '.', -1, 0);
+    }
+
+    /** Returns the value of the unsigned number in <code>text[start, end)</code>, or
+     * <code>null</code> if it is not a number or cannot be represented. A number
+     * that is not <code>localized</code> may have an exponent, as in
+     * {@link #parse(CharSequence)}. A localized number has no exponent, and its
+     * separators must be between digits; <code>groupingSeparator</code> is -1 if
+     * there is none. Digits are offset by <code>zeroOffset</code> from ASCII.
+     * The unscaled value is accumulated as a negative number, so that
+     * <code>Long.MIN_VALUE</code> can be parsed. Zeros are counted rather than
+     * accumulated until a non-zero digit follows, so that trailing zeros beyond
+     * {@link #MAX_SCALE} do not overflow.
+     */
+    static FixedDecimal parse(CharSequence text, int start, int end, boolean negative, boolean localized,
+            char decimalSeparator, int groupingSeparator, int zeroOffset) {
+        int i = start;
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        int zeros = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean digit = false;
+        for (; i < end; i++) {
+            char c = text.charAt(i);
+            int value = c - '0' - zeroOffset;
+            if (value >= 0 && value <= 9) {
+                if (value == 0) {
+                    zeros++;
+                } else {
+                    result = multiply(result, zeros + 1, limit);
+                    if (result > 0 || result < limit + value) {
+                        return null;
+                    }
+                    result -= value;
+                    zeros = 0;
+                }
+                digits++;
+                digit = true;
+                if (point) {
+                    scale++;
+                }
+            } else if (c == groupingSeparator && digit && !point && i + 1 < end) {
+                digit = false;
+            } else if (c == decimalSeparator && !point && (!localized || digit && i + 1 < end)) {
+                point = true;
+                digit = false;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (i < end) {
+            if (localized) {
+                return null;
+            }
+            char c = text.charAt(i++);
+            if (c != 'e' && c != 'E' || i == end) {
+                return null;
+            }
+            boolean negativeExponent = text.charAt(i) == '-';
+            if (negativeExponent || text.charAt(i) == '+') {
+                i++;
+            }
+            if (i == end) {
+                return null;
+            }
+            int exponent = 0;
+            for (; i < end; i++) {
+                c = text.charAt(i);
+                if (c < '0' || c > '9' || exponent > 1000) {
+                    return null;
+                }
+                exponent = exponent * 10 + c - '0';
+            }
+            scale += negativeExponent ? exponent : -exponent;
+        }
+        if (scale > MAX_SCALE) {
+            int drop = Math.min(zeros, scale - MAX_SCALE);
+            zeros -= drop;
+            scale -= drop;
+            if (scale > MAX_SCALE) {
+                if (result != 0) {
+                    return null;
+                }
+                scale = MAX_SCALE;
+            }
+        } else if (scale < 0) {
+            zeros -= scale;
+            scale = 0;
+        }
+        result = multiply(result, zeros, limit);
+        if (result > 0) {
+            return null;
+        }
+        return valueOf(negative ? result : -result, scale);
+    }
+
+    /** Returns <code>value &times; 10<sup>power</sup></code> for a value of at most
+     * zero, or 1 if the result is below <code>limit</code>. */
+    private static long multiply(long value, int power, long limit) {
+        if (value == 0 || power == 0) {
+            return value;
+        }
+        if (power > MAX_SCALE || value < limit / POWERS[power]) {
+            return 1;
+        }
+        return value * POWERS[power];
+    }
+
+    /** Returns <code>digits &times; 10<sup>-exactScale</sup></code> with the given
+     * scale, which is at least <code>exactScale</code>, or <code>null</code> if it
+     * cannot be represented. A negative scale becomes 0, and trailing zeros are
+     * removed from a scale above {@link #MAX_SCALE}.
+     */
+    static FixedDecimal valueOf(long digits, int exactScale, int scale) {
+        if (digits == 0) {
+            return ZEROS[Math.max(0, Math.min(scale, MAX_SCALE))];
+        }
+        if (scale > MAX_SCALE) {
+            scale = Math.max(exactScale, MAX_SCALE);
+            if (scale > MAX_SCALE) {
+                return null;
+            }
+        } else if (scale < 0) {
+            scale = 0;
+        }
+        int power = scale - exactScale;
+        if (power > MAX_SCALE || Math.abs(digits) > Long.MAX_VALUE / POWERS[power]) {
+            return null;
+        }
+        return valueOf(digits * POWERS[power], scale);
+    }
+
+    private final long unscaledValue;
+    private final int scale;
+
+    private FixedDecimal(long unscaledValue, int scale) {
+        this.unscaledValue = unscaledValue;
+        this.scale = scale;
+    }
+
+    public long getUnscaledValue() {
+        return unscaledValue;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int signum() {
+        return unscaledValue > 0 ? 1 : unscaledValue < 0 ? -1 : 0;
+    }
+
+    /** Returns this value with the given scale.
+     *
+     * @param newScale The scale, from 0 to {@link #MAX_SCALE}
+     * @param roundingMode The rounding mode used if digits are dropped
+     * @return The <code>FixedDecimal</code>
+     * @throws ArithmeticException if the result overflows, or rounding is
+     * needed and <code>roundingMode</code> is <code>UNNECESSARY</code>
+     */
+    public FixedDecimal setScale(int newScale, RoundingMode roundingMode) {
+        if (newScale < 0 || newScale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale out of range: " + newScale);
+        }
+        if (newScale == scale) {
+            return this;
+        }
+        if (newScale > scale) {
+            long power = POWERS[newScale - scale];
+            if (unscaledValue > Long.MAX_VALUE / power || unscaledValue < Long.MIN_VALUE / power) {
+                throw new ArithmeticException("Overflow");
+            }
+            return valueOf(unscaledValue * power, newScale);
+        }
+        return valueOf(divide(unscaledValue, POWERS[scale - newScale], roundingMode), newScale);
+    }
+
+    private static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend - quotient * divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int signum = dividend < 0 ? -1 : 1;
+        long twice = Math.abs(remainder) * 2;
+        boolean increment;
+        switch (roundingMode) {
+            case UP:
+                increment = true;
+                break;
+            case DOWN:
+                increment = false;
+                break;
+            case CEILING:
+                increment = signum > 0;
+                break;
+            case FLOOR:
+                increment = signum < 0;
+                break;
+            case HALF_UP:
+                increment = twice >= divisor;
+                break;
+            case HALF_DOWN:
+                increment = twice > divisor;
+                break;
+            case HALF_EVEN:
+                increment = twice > divisor || twice == divisor && (quotient & 1) != 0;
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return increment ? quotient + signum : quotient;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+    /** Writes this value in plain notation, with <code>scale</code> fraction digits,
+     * into <code>buffer</code>, which must have room for {@link #MAX_LENGTH}
+     * characters at <code>index</code>.
+     *
+     * @param buffer The buffer
+     * @param index The index of the first character
+     * @return The index after the last character
+     */
+    public int getChars(char[] buffer, int index) {
+        if (unscaledValue < 0) {
+            buffer[index++] = '-';
+        }
+        int digits = digitCount();
+        if (scale == 0) {
+            return IntegerFormat.getChars(unscaledValue, buffer, index + digits) + digits;
+        }
+        int end = index + Math.max(digits - scale, 1) + 1 + scale;
+        int start = IntegerFormat.getChars(unscaledValue, buffer, end);
+        int point = end - scale - 1;
+        if (start > point) {
+            // Pad the fraction with zeros, and write "0."
+            while (start > point + 1) {
+                buffer[--start] = '0';
+            }
+            buffer[point - 1] = '0';
+        } else {
+            // Move the integer digits left to make room for the point
+            System.arraycopy(buffer, start, buffer, start - 1, point - start + 1);
+        }
+        buffer[point] = '.';
+        return end;
+    }
+
+    /** Returns the number of digits in the unscaled value. */
+    private int digitCount() {
+        if (unscaledValue == Long.MIN_VALUE) {
+            return 19;
+        }
+        long abs = Math.abs(unscaledValue);
+        int count = 1;
+        while (count < POWERS.length && abs >= POWERS[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    public StringBuilder appendTo(StringBuilder sb) {
+        if (unscaledValue < 0) {
+            sb.append('-');
+        }
+        int end = sb.length() + Math.max(digitCount() - scale, 1) + (scale > 0 ? scale + 1 : 0);
+        sb.setLength(end);
+        // Work with a negative value, so that Long.MIN_VALUE needs no special case
+        long q = unscaledValue < 0 ? unscaledValue : -unscaledValue;
+        for (int i = 0; i < scale; i++) {
+            sb.setCharAt(--end, (char) ('0' - q % 10));
+            q /= 10;
+        }
+        if (scale > 0) {
+            sb.setCharAt(--end, '.');
+        }
+        do {
+            sb.setCharAt(--end, (char) ('0' - q % 10));
+            q /= 10;
+        } while (q != 0);
+        return sb;
+    }
+
+    /** Returns this value formatted as <code>NumberFormat.getNumberInstance(locale)</code>
+     * formats numbers, with <code>scale</code> fraction digits.
+     *
+     * @param locale The locale
+     * @return The formatted <code>String</code>, or <code>null</code> if the
+     * locale's number format is not supported
+     */
+    public String format(Locale locale) {
+        return IntegerFormat.format(unscaledValue, scale, locale);
+    }
+
+    @Override
+    public String toString() {
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, getChars(buffer, 0));
+    }
+
+    @Override
+    public double doubleValue() {
+        if (Math.abs(unscaledValue) < 1L << 53) {
+            // Both operands are exact, so the quotient is correctly rounded
+            return (double) unscaledValue / POWERS[scale];
+        }
+        return Double.parseDouble(toString());
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    /** Returns the integer part of this value, truncated toward zero. */
+    @Override
+    public long longValue() {
+        return unscaledValue / POWERS[scale];
+    }
+
+    public int compareTo(FixedDecimal other) {
+        if (scale == other.scale) {
+            return unscaledValue < other.unscaledValue ? -1 : unscaledValue == other.unscaledValue ? 0 : 1;
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FixedDecimal)) {
+            return false;
+        }
+        FixedDecimal that = (FixedDecimal) obj;
+        return unscaledValue == that.unscaledValue && scale == that.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (unscaledValue ^ unscaledValue >>> 32) * 31 + scale;
+    }
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** A multidimensional array held in one flat array, in row-major order.
+ * <p>{@link #of(Object, Class)} converts a rectangular nested array or
+ * collection, such as a <code>String[][]</code> or a
+ * <code>List&lt;List&lt;String&gt;&gt;</code>, to a flat array of a primitive or
+ * object component type and its shape. The element at indices
+ * <code>(i, j)</code> of a two-dimensional array is at
+ * <code>i * shape[1] + j</code>.</p>
+ */
+public final class FlatArray {
+    private final Object data;
+    private final int[] shape;
+
+    private FlatArray(Object data, int[] shape) {
+        this.data = data;
+        this.shape = shape;
+    }
+
+    /** Converts the rectangular nested array or collection <code>nested</code>
+     * to a flat array of <code>componentType</code>.
+     * <p>Each level of arrays or collections is a dimension, down to a primitive
+     * array or to elements that are not arrays or collections. Elements are
+     * converted to <code>componentType</code> with a converter looked up once for
+     * each run of elements of the same class.</p>
+     *
+     * @param nested The nested array or collection
+     * @param componentType The component type of the flat array
+     * @return The flat array and its shape
+     * @throws ConversionException if <code>nested</code> is not rectangular, or an
+     * element cannot be converted
+     */
+    public static FlatArray of(Object nested, Class<?> componentType) throws ConversionException {
+        List<Integer> dimensions = new ArrayList<Integer>();
+        long total = 1;
+        for (Object level = nested; isNested(level);) {
+            List<?> list = asList(level);
+            dimensions.add(list.size());
+            total *= list.size();
+            if (total > Integer.MAX_VALUE) {
+                throw new ConversionException("Too many elements for one array");
+            }
+            if (list.isEmpty() || !(level instanceof Object[] || level instanceof Collection)) {
+                break;
+            }
+            level = list.get(0);
+        }
+        int[] shape = new int[dimensions.size()];
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = dimensions.get(i);
+        }
+        if (shape.length == 0) {
+            throw new ConversionException("Not an array or collection: " + (nested == null ? null : nested.getClass().getName()));
+        }
+        Object data = Array.newInstance(componentType, (int) total);
+        // Every row is checked, even when a dimension is zero
+        Converter<Object, Object> converter = TypeConverters.getConverter(Object.class, TypeConverters.wrapperClass(componentType));
+        copy(nested, 0, shape, (int) total, data, 0, TypeConverters.kind(componentType), converter);
+        return new FlatArray(data, shape);
+    }
+
+    private static boolean isNested(Object obj) {
+        return obj instanceof Collection || (obj != null && obj.getClass().isArray());
+    }
+
+    /** Returns <code>obj</code> as a <code>List</code> that is cheap to index.
+     * Lists that are not <code>RandomAccess</code> are copied. */
+    private static List<?> asList(Object obj) {
+        if (obj instanceof List && obj instanceof RandomAccess) {
+            return (List<?>) obj;
+        }
+        if (obj instanceof Collection) {
+            return new ArrayList<Object>((Collection<?>) obj);
+        }
+        if (obj instanceof Object[]) {
+            return Arrays.asList((Object[]) obj);
+        }
+        return PrimitiveLists.asList(obj);
+    }
+
+    /** Copies <code>level</code>, at dimension <code>depth</code>, to
+     * <code>data</code> from <code>offset</code>. <code>size</code> is the
+     * number of elements in <code>level</code>. */
+    private static void copy(Object level, int depth, int[] shape, int size, Object data, int offset, int kind, Converter<Object, Object> converter) throws ConversionException {
+        if (!isNested(level)) {
+            throw new ConversionException("Not rectangular: expected " + shape[depth] + " elements at dimension " + depth + ", found " + level);
+        }
+        if (depth == shape.length - 1 && level.getClass() == data.getClass()) {
+            if (Array.getLength(level) != shape[depth]) {
+                throw new ConversionException("Not rectangular: expected " + shape[depth] + " elements at dimension " + depth + ", found " + Array.getLength(level));
+            }
+            System.arraycopy(level, 0, data, offset, shape[depth]);
+            return;
+        }
+        List<?> list = asList(level);
+        if (list.size() != shape[depth]) {
+            throw new ConversionException("Not rectangular: expected " + shape[depth] + " elements at dimension " + depth + ", found " + list.size());
+        }
+        if (depth == shape.length - 1) {
+            try {
+                for (int i = 0; i < shape[depth]; i++) {
+                    TypeConverters.store(data, kind, offset + i, list.get(i), converter);
+                }
+            } catch (ArrayStoreException e) {
+                throw new ConversionException(e);
+            }
+            return;
+        }
+        int stride = shape[depth] == 0 ? 0 : size / shape[depth];
+        for (int i = 0; i < shape[depth]; i++) {
+            copy(list.get(i), depth + 1, shape, stride, data, offset + i * stride, kind, converter);
+        }
+    }
+
+    /** Returns the flat array. It is not a copy.
+     *
+     * @return The flat array
+     */
+    public Object getData() {
+        return data;
+    }
+
+    /** Returns the length of each dimension.
+     *
+     * @return The shape
+     */
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    /** Returns the index in the flat array of the element at <code>indices</code>.
+     *
+     * @param indices One index for each dimension
+     * @return The index in the flat array
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public int index(int... indices) {
+        if (indices.length != shape.length) {
+            throw new IndexOutOfBoundsException("Expected " + shape.length + " indices, found " + indices.length);
+        }
+        int index = 0;
+        for (int i = 0; i < shape.length; i++) {
+            if (indices[i] < 0 || indices[i] >= shape[i]) {
+                throw new IndexOutOfBoundsException("Index " + indices[i] + " out of range for dimension " + i + " of length " + shape[i]);
+            }
+            index = index * shape[i] + indices[i];
+        }
+        return index;
+    }
+}
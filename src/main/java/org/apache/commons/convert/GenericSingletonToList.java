@@ -19,6 +19,7 @@
 package org.apache.commons.convert;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -26,11 +27,26 @@ import java.util.List;
  * <code>List</code>.
  */
 public class GenericSingletonToList<T> extends AbstractConverter<T, List<T>> {
+    private final boolean immutable;
+
     public GenericSingletonToList(Class<T> sourceClass) {
+        this(sourceClass, false);
+    }
+
+    /**
+     * @param immutable
+     *            if <code>true</code>, the object is returned in an immutable
+     *            <code>Collections.singletonList</code>
+     */
+    public GenericSingletonToList(Class<T> sourceClass, boolean immutable) {
         super(sourceClass, List.class);
+        this.immutable = immutable;
     }
 
     public List<T> convert(T obj) throws ConversionException {
+        if (immutable) {
+            return Collections.singletonList(obj);
+        }
         List<T> tempList = new ArrayList<T>();
         tempList.add(obj);
         return tempList;
@@ -18,6 +18,7 @@
  *******************************************************************************/
 package org.apache.commons.convert;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -26,11 +27,26 @@ import java.util.Set;
  * <code>Set</code>.
  */
 public class GenericSingletonToSet<T> extends AbstractConverter<T, Set<T>> {
+    private final boolean immutable;
+
     public GenericSingletonToSet(Class<T> sourceClass) {
+        this(sourceClass, false);
+    }
+
+    /**
+     * @param immutable
+     *            if <code>true</code>, the object is returned in an immutable
+     *            <code>Collections.singleton</code>
+     */
+    public GenericSingletonToSet(Class<T> sourceClass, boolean immutable) {
         super(sourceClass, Set.class);
+        this.immutable = immutable;
     }
 
     public Set<T> convert(T obj) throws ConversionException {
+        if (immutable) {
+            return Collections.singleton(obj);
+        }
         Set<T> tempSet = new HashSet<T>();
         tempSet.add(obj);
         return tempSet;
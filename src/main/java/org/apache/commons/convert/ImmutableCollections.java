@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/** Compact immutable <code>List</code>s and <code>Set</code>s.
+ * <p>Empty and one-element collections are the <code>Collections</code>
+ * singletons. Larger lists are backed by an array of exactly their size. Larger
+ * sets keep their distinct elements, in encounter order, in an array of exactly
+ * their size, which is searched linearly for small sets and through an
+ * open-addressing table of the same elements for larger ones.</p>
+ */
+public class ImmutableCollections {
+
+    /** Sets of at most this many elements have no hash table. */
+    private static final int LINEAR_SET_SIZE = 8;
+
+    /** Returns an immutable <code>List</code> of <code>elements</code>.
+     *
+     * @param elements The elements
+     * @return The list
+     */
+    public static <E> List<E> listOf(E... elements) {
+        return wrapList(elements.clone());
+    }
+
+    /** Returns an immutable <code>List</code> of <code>elements</code>.
+     *
+     * @param elements The elements
+     * @return The list
+     */
+    public static <E> List<E> listOf(Collection<? extends E> elements) {
+        return wrapList(elements.toArray());
+    }
+
+    /** Returns an immutable <code>Set</code> of the distinct <code>elements</code>.
+     *
+     * @param elements The elements
+     * @return The set
+     */
+    public static <E> Set<E> setOf(E... elements) {
+        return wrapSet(elements);
+    }
+
+    /** Returns an immutable <code>Set</code> of the distinct <code>elements</code>.
+     *
+     * @param elements The elements
+     * @return The set
+     */
+    public static <E> Set<E> setOf(Collection<? extends E> elements) {
+        return wrapSet(elements.toArray());
+    }
+
+    /** Returns an immutable <code>List</code> backed by <code>elements</code>,
+     * which the caller must not change. */
+    static <E> List<E> wrapList(Object[] elements) {
+        switch (elements.length) {
+        case 0:
+            return Collections.emptyList();
+        case 1:
+            return Collections.singletonList(Util.<E>cast(elements[0]));
+        default:
+            return new ArrayBackedList<E>(elements);
+        }
+    }
+
+    /** Returns an immutable <code>Set</code> of the distinct <code>elements</code>.
+     * <code>elements</code> is not changed or kept. */
+    static <E> Set<E> wrapSet(Object[] elements) {
+        switch (elements.length) {
+        case 0:
+            return Collections.emptySet();
+        case 1:
+            return Collections.singleton(Util.<E>cast(elements[0]));
+        default:
+        }
+        if (elements.length <= LINEAR_SET_SIZE) {
+            Object[] distinct = new Object[elements.length];
+            int size = 0;
+            for (Object element : elements) {
+                if (indexOf(distinct, size, element) < 0) {
+                    distinct[size++] = element;
+                }
+            }
+            return size == 1 ? Collections.singleton(Util.<E>cast(distinct[0])) : new ArraySet<E>(Arrays.copyOf(distinct, size), null, false);
+        }
+        Object[] table = new Object[tableSize(elements.length)];
+        Object[] distinct = new Object[elements.length];
+        int size = 0;
+        boolean hasNull = false;
+        for (Object element : elements) {
+            if (element == null) {
+                if (!hasNull) {
+                    hasNull = true;
+                    distinct[size++] = null;
+                }
+                continue;
+            }
+            int mask = table.length - 1;
+            int i = slot(element, mask);
+            while (table[i] != null && !table[i].equals(element)) {
+                i = (i + 1) & mask;
+            }
+            if (table[i] == null) {
+                table[i] = element;
+                distinct[size++] = element;
+            }
+        }
+        if (size <= LINEAR_SET_SIZE || table.length > tableSize(size)) {
+            // Duplicates left the table sparse; rebuild it for the distinct elements
+            return wrapSet(Arrays.copyOf(distinct, size));
+        }
+        return new ArraySet<E>(size == distinct.length ? distinct : Arrays.copyOf(distinct, size), table, hasNull);
+    }
+
+    private static int indexOf(Object[] elements, int size, Object o) {
+        for (int i = 0; i < size; i++) {
+            if (o == null ? elements[i] == null : o.equals(elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int slot(Object key, int mask) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** Returns a power of two table size that keeps the load factor at most 1/2. */
+    private static int tableSize(int count) {
+        int size = 4;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /** An immutable list backed by an array. */
+    @SuppressWarnings("serial")
+    private static final class ArrayBackedList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+        private final Object[] elements;
+
+        private ArrayBackedList(Object[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public E get(int index) {
+            return Util.<E>cast(elements[index]);
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return ImmutableCollections.indexOf(elements, elements.length, o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+
+        @Override
+        public Object[] toArray() {
+            return elements.clone();
+        }
+    }
+
+    /** An immutable set of distinct elements in an array, with an optional hash
+     * table of the same elements. */
+    @SuppressWarnings("serial")
+    private static final class ArraySet<E> extends AbstractSet<E> implements Serializable {
+        private final Object[] elements;
+        private final Object[] table;
+        private final boolean hasNull;
+
+        private ArraySet(Object[] elements, Object[] table, boolean hasNull) {
+            this.elements = elements;
+            this.table = table;
+            this.hasNull = hasNull;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (table == null) {
+                return indexOf(elements, elements.length, o) >= 0;
+            }
+            if (o == null) {
+                return hasNull;
+            }
+            int mask = table.length - 1;
+            for (int i = slot(o, mask); table[i] != null; i = (i + 1) & mask) {
+                if (table[i].equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int index;
+
+                public boolean hasNext() {
+                    return index < elements.length;
+                }
+
+                public E next() {
+                    if (index >= elements.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return Util.<E>cast(elements[index++]);
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public Object[] toArray() {
+            return elements.clone();
+        }
+    }
+
+    private ImmutableCollections() {}
+}
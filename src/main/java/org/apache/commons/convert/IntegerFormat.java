@@ -0,0 +1,374 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Integer-to-text writer.
+ * <p>Digits are written two at a time from a 200-character table of digit pairs.
+ * The localized methods produce the same text as
+ * <code>NumberFormat.getNumberInstance(locale)</code>, using that format's
+ * prefixes, suffixes, grouping and digits. Each locale's settings are checked
+ * against <code>NumberFormat</code> once; locales whose number format cannot be
+ * reproduced return <code>null</code>.</p>
+ */
+public class IntegerFormat {
+
+    static final char[] DIGIT_PAIRS = new char[200];
+    private static final Symbols UNSUPPORTED = new Symbols();
+    private static final ConcurrentHashMap<Locale, Symbols> symbolsMap = new ConcurrentHashMap<Locale, Symbols>();
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    /** Returns <code>value</code> as a decimal <code>String</code>, as in
+     * <code>Long.toString(long)</code>.
+     *
+     * @param value The value to format
+     * @return The formatted <code>String</code>
+     */
+    public static String toString(long value) {
+        char[] buffer = new char[20];
+        int start = getChars(value, buffer, 20);
+        if (value < 0) {
+            buffer[--start] = '-';
+        }
+        return new String(buffer, start, 20 - start);
+    }
+
+    /** Appends <code>value</code> to <code>sb</code> as a decimal number.
+     *
+     * @param sb The <code>StringBuilder</code> to append to
+     * @param value The value to format
+     * @return <code>sb</code>
+     */
+    public static StringBuilder append(StringBuilder sb, long value) {
+        // Work with negative values, as getChars does
+        long q = value < 0 ? value : -value;
+        if (value < 0) {
+            sb.append('-');
+        }
+        int end = sb.length() + digitCount(q);
+        sb.setLength(end);
+        while (q <= -100) {
+            long next = q / 100;
+            int pair = (int) (next * 100 - q) << 1;
+            q = next;
+            sb.setCharAt(--end, DIGIT_PAIRS[pair + 1]);
+            sb.setCharAt(--end, DIGIT_PAIRS[pair]);
+        }
+        int pair = (int) -q << 1;
+        sb.setCharAt(--end, DIGIT_PAIRS[pair + 1]);
+        if (q <= -10) {
+            sb.setCharAt(--end, DIGIT_PAIRS[pair]);
+        }
+        return sb;
+    }
+
+    /** Returns the number of decimal digits in the non-positive value <code>q</code>. */
+    static int digitCount(long q) {
+        int count = 1;
+        for (long bound = -10; count < 19 && q <= bound; bound *= 10) {
+            count++;
+        }
+        return count;
+    }
+
+    /** Returns <code>value</code> formatted as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it.
+     *
+     * @param value The value to format
+     * @param locale The locale
+     * @return The formatted <code>String</code>, or <code>null</code> if the
+     * locale's number format is not supported
+     */
+    public static String format(long value, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        return symbols.format(value, 0);
+    }
+
+    /** Returns <code>value</code> formatted as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it,
+     * without loss of precision.
+     *
+     * @param value The value to format
+     * @param locale The locale
+     * @return The formatted <code>String</code>, or <code>null</code> if the
+     * locale's number format is not supported
+     */
+    public static String format(BigInteger value, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        char[] digits = value.abs().toString().toCharArray();
+        return symbols.format(digits, 0, digits.length, digits.length, value.signum() < 0);
+    }
+
+    /** Formats the unsigned decimal number in <code>chars[start, end)</code> as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it, without
+     * the limit on fraction digits. The number is ASCII digits, with a
+     * <code>'.'</code> at <code>point</code> if <code>point &lt; end</code>.
+     * Returns <code>null</code> if the locale's number format is not supported.
+     */
+    static String format(char[] chars, int start, int point, int end, boolean negative, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        return symbols.format(chars, start, point, end, negative);
+    }
+
+    /** Formats <code>unscaledValue &times; 10<sup>-scale</sup></code> with
+     * <code>scale</code> fraction digits as
+     * <code>NumberFormat.getNumberInstance(locale)</code> would format it, without
+     * the limit on fraction digits. Returns <code>null</code> if the locale's number
+     * format is not supported.
+     */
+    static String format(long unscaledValue, int scale, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        return symbols.format(unscaledValue, scale);
+    }
+
+    /** Returns <code>text</code> as an optional minus sign and ASCII digits, if it
+     * is an integer in the format of <code>NumberFormat.getNumberInstance(locale)</code>.
+     * Grouping separators may appear anywhere between digits. Returns
+     * <code>null</code> for anything else, including fractions, and if the
+     * locale's number format is not supported.
+     */
+    static String unformat(String text, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        char[] buffer = new char[text.length() + 1];
+        int length = symbols.unformat(text, buffer);
+        return length < 0 ? null : new String(buffer, 0, length);
+    }
+
+    /** Returns the value of <code>text</code>, read in place, if it is a number in
+     * the format of <code>NumberFormat.getNumberInstance(locale)</code>. Grouping
+     * separators may appear anywhere between integer digits. Returns
+     * <code>null</code> if <code>text</code> is not in that format, its value cannot
+     * be represented, or the locale's number format is not supported.
+     */
+    static FixedDecimal parseFixedDecimal(String text, Locale locale) {
+        Symbols symbols = getSymbols(locale);
+        if (symbols == UNSUPPORTED) {
+            return null;
+        }
+        boolean negative = symbols.isNegative(text);
+        int start = symbols.numberStart(text, negative);
+        if (start < 0) {
+            return null;
+        }
+        int end = text.length() - (negative ? symbols.negativeSuffix : symbols.positiveSuffix).length();
+        int grouping = symbols.groupingSize > 0 ? symbols.groupingSeparator : -1;
+        return FixedDecimal.parse(text, start, end, negative, true, symbols.decimalSeparator, grouping, symbols.zeroOffset);
+    }
+
+    /** Writes the digits of the absolute value of <code>value</code> so that they end
+     * before <code>end</code>, and returns the index of the first digit.
+     */
+    static int getChars(long value, char[] buffer, int end) {
+        // Work with negative values, so that Long.MIN_VALUE needs no special case
+        long q = value < 0 ? value : -value;
+        while (q <= -100) {
+            long next = q / 100;
+            int pair = (int) (next * 100 - q) << 1;
+            q = next;
+            buffer[--end] = DIGIT_PAIRS[pair + 1];
+            buffer[--end] = DIGIT_PAIRS[pair];
+        }
+        int pair = (int) -q << 1;
+        buffer[--end] = DIGIT_PAIRS[pair + 1];
+        if (q <= -10) {
+            buffer[--end] = DIGIT_PAIRS[pair];
+        }
+        return end;
+    }
+
+    private static Symbols getSymbols(Locale locale) {
+        Symbols symbols = symbolsMap.get(locale);
+        if (symbols == null) {
+            symbols = Symbols.create(locale);
+            symbolsMap.putIfAbsent(locale, symbols);
+        }
+        return symbols;
+    }
+
+    /** A locale's integer number format settings. */
+    private static final class Symbols {
+        private String positivePrefix;
+        private String positiveSuffix;
+        private String negativePrefix;
+        private String negativeSuffix;
+        private int groupingSize;
+        private char groupingSeparator;
+        private char decimalSeparator;
+        private int zeroOffset;
+
+        private static Symbols create(Locale locale) {
+            NumberFormat nf = NumberFormat.getNumberInstance(locale);
+            if (!(nf instanceof DecimalFormat)) {
+                return UNSUPPORTED;
+            }
+            DecimalFormat df = (DecimalFormat) nf;
+            DecimalFormatSymbols dfs = df.getDecimalFormatSymbols();
+            Symbols symbols = new Symbols();
+            symbols.positivePrefix = df.getPositivePrefix();
+            symbols.positiveSuffix = df.getPositiveSuffix();
+            symbols.negativePrefix = df.getNegativePrefix();
+            symbols.negativeSuffix = df.getNegativeSuffix();
+            symbols.groupingSize = df.isGroupingUsed() ? df.getGroupingSize() : 0;
+            symbols.groupingSeparator = dfs.getGroupingSeparator();
+            symbols.decimalSeparator = dfs.getDecimalSeparator();
+            symbols.zeroOffset = dfs.getZeroDigit() - '0';
+            if (df.getMultiplier() != 1 || df.getMinimumIntegerDigits() != 1) {
+                return UNSUPPORTED;
+            }
+            long[] samples = {0, 7, -7, 999, 1000, -1234, 1234567, -12345678, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE};
+            for (long sample : samples) {
+                if (!symbols.format(sample, 0).equals(nf.format(sample))) {
+                    return UNSUPPORTED;
+                }
+            }
+            if (!symbols.format(-12345, 1).equals(nf.format(-1234.5))) {
+                return UNSUPPORTED;
+            }
+            return symbols;
+        }
+
+        private boolean isNegative(String text) {
+            return text.startsWith(negativePrefix) && text.endsWith(negativeSuffix)
+                    && text.length() >= negativePrefix.length() + negativeSuffix.length()
+                    && (negativePrefix.length() > positivePrefix.length() || negativeSuffix.length() > positiveSuffix.length());
+        }
+
+        /** Returns the index after the prefix, or -1 if <code>text</code> does not
+         * have the prefix and suffix with something between them. */
+        private int numberStart(String text, boolean negative) {
+            String prefix = negative ? negativePrefix : positivePrefix;
+            String suffix = negative ? negativeSuffix : positiveSuffix;
+            int start = prefix.length();
+            int end = text.length() - suffix.length();
+            if (end <= start || !text.startsWith(prefix) || !text.endsWith(suffix)) {
+                return -1;
+            }
+            return start;
+        }
+
+        private int unformat(String text, char[] buffer) {
+            boolean negative = isNegative(text);
+            int start = numberStart(text, negative);
+            if (start < 0) {
+                return -1;
+            }
+            int end = text.length() - (negative ? negativeSuffix : positiveSuffix).length();
+            int length = 0;
+            if (negative) {
+                buffer[length++] = '-';
+            }
+            boolean digit = false;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                int value = c - '0' - zeroOffset;
+                if (value >= 0 && value <= 9) {
+                    buffer[length++] = (char) ('0' + value);
+                    digit = true;
+                } else if (c == groupingSeparator && groupingSize > 0 && digit && i + 1 < end) {
+                    digit = false;
+                } else {
+                    return -1;
+                }
+            }
+            return length;
+        }
+
+        /** Formats <code>value &times; 10<sup>-scale</sup></code>, writing the digits
+         * from the right straight into the result. */
+        private String format(long value, int scale) {
+            String prefix = value < 0 ? negativePrefix : positivePrefix;
+            String suffix = value < 0 ? negativeSuffix : positiveSuffix;
+            // Work with negative values, as getChars does
+            long q = value < 0 ? value : -value;
+            int count = Math.max(digitCount(q) - scale, 1);
+            int separators = groupingSize > 0 ? (count - 1) / groupingSize : 0;
+            int end = prefix.length() + count + separators + (scale > 0 ? scale + 1 : 0);
+            StringBuilder sb = new StringBuilder(end + suffix.length());
+            sb.append(prefix);
+            sb.setLength(end);
+            for (int i = 0; i < scale; i++) {
+                sb.setCharAt(--end, (char) ('0' + zeroOffset - q % 10));
+                q /= 10;
+            }
+            if (scale > 0) {
+                sb.setCharAt(--end, decimalSeparator);
+            }
+            for (int i = 0; i < count; i++) {
+                if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+                    sb.setCharAt(--end, groupingSeparator);
+                }
+                sb.setCharAt(--end, (char) ('0' + zeroOffset - q % 10));
+                q /= 10;
+            }
+            return sb.append(suffix).toString();
+        }
+
+        private String format(char[] digits, int start, int point, int end, boolean negative) {
+            String prefix = negative ? negativePrefix : positivePrefix;
+            String suffix = negative ? negativeSuffix : positiveSuffix;
+            int count = point - start;
+            int separators = groupingSize > 0 ? (count - 1) / groupingSize : 0;
+            StringBuilder sb = new StringBuilder(prefix.length() + end - start + separators + suffix.length());
+            sb.append(prefix);
+            for (int i = start; i < point; i++) {
+                sb.append((char) (digits[i] + zeroOffset));
+                int remaining = point - i - 1;
+                if (groupingSize > 0 && remaining > 0 && remaining % groupingSize == 0) {
+                    sb.append(groupingSeparator);
+                }
+            }
+            if (point < end) {
+                sb.append(decimalSeparator);
+                for (int i = point + 1; i < end; i++) {
+                    sb.append((char) (digits[i] + zeroOffset));
+                }
+            }
+            return sb.append(suffix).toString();
+        }
+    }
+
+    private IntegerFormat() {}
+}
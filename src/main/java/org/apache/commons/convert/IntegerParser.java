@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+
+/** Decimal integer parser.
+ * <p>The <code>int</code> and <code>long</code> methods read eight ASCII digits at a
+ * time into a <code>long</code> word, then check and convert all eight with a few
+ * word-wide operations (SWAR). They accept exactly what <code>Integer.parseInt</code>
+ * and <code>Long.parseLong</code> accept, and throw the same
+ * <code>NumberFormatException</code>: input they do not handle, such as non-ASCII
+ * digits, more than 18 digits, or errors, is passed to the JDK method.</p>
+ * <p>{@link #parseBigInteger(String)} parses up to 18 digits into a
+ * <code>long</code>. Longer inputs are split in two, the halves are parsed
+ * recursively, and the high half is multiplied by a cached power of ten. With
+ * the sub-quadratic multiplication of newer JDKs the parse time grows with the
+ * cost of a multiplication rather than with the square of the length.</p>
+ */
+public class IntegerParser {
+
+    private static final int LONG_DIGITS = 18;
+    /** Returned by the fast paths for input they do not handle. No input of at most
+     * 18 digits has this value. */
+    private static final long NO_VALUE = Long.MIN_VALUE;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /** The number of digits in the low half of the smallest split. Inputs of up to
+     * twice this length are parsed by <code>BigInteger</code>. */
+    private static final int SPLIT_DIGITS = 512;
+    /** powers[j] is 10<sup>SPLIT_DIGITS 2<sup>j</sup></sup>. Elements are created on
+     * first use; <code>BigInteger</code> is immutable, so a race only repeats work. */
+    private static final BigInteger[] powers = new BigInteger[32];
+
+    /** Parses a decimal <code>int</code>, as <code>Integer.parseInt(text)</code> does.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value
+     * @throws NumberFormatException if <code>text</code> is not a decimal <code>int</code>
+     */
+    public static int parseInt(String text) {
+        long value = text == null ? NO_VALUE : parseSimple(text);
+        if (value != (int) value) {
+            return Integer.parseInt(text);
+        }
+        return (int) value;
+    }
+
+    /** Parses a decimal <code>int</code> from UTF-8 bytes, as
+     * <code>Integer.parseInt</code> parses the decoded text.
+     *
+     * @param bytes The bytes
+     * @param start The index of the first byte
+     * @param end The index after the last byte
+     * @return The parsed value
+     * @throws NumberFormatException if the bytes are not a decimal <code>int</code>
+     */
+    public static int parseInt(byte[] bytes, int start, int end) {
+        long value = parseSimple(bytes, start, end);
+        if (value != (int) value) {
+            return Integer.parseInt(new String(bytes, start, end - start, UTF_8));
+        }
+        return (int) value;
+    }
+
+    /** Parses a decimal <code>long</code>, as <code>Long.parseLong(text)</code> does.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value
+     * @throws NumberFormatException if <code>text</code> is not a decimal <code>long</code>
+     */
+    public static long parseLong(String text) {
+        long value = text == null ? NO_VALUE : parseSimple(text);
+        if (value == NO_VALUE) {
+            return Long.parseLong(text);
+        }
+        return value;
+    }
+
+    /** Parses a decimal <code>long</code> from UTF-8 bytes, as
+     * <code>Long.parseLong</code> parses the decoded text.
+     *
+     * @param bytes The bytes
+     * @param start The index of the first byte
+     * @param end The index after the last byte
+     * @return The parsed value
+     * @throws NumberFormatException if the bytes are not a decimal <code>long</code>
+     */
+    public static long parseLong(byte[] bytes, int start, int end) {
+        long value = parseSimple(bytes, start, end);
+        if (value == NO_VALUE) {
+            return Long.parseLong(new String(bytes, start, end - start, UTF_8));
+        }
+        return value;
+    }
+
+    /** Parses a decimal <code>int</code> as {@link #parseInt(String)} does, but
+     * returns <code>null</code> instead of throwing <code>NumberFormatException</code>.
+     * Only text with non-ASCII characters is passed to the JDK.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value, or <code>null</code>
+     */
+    public static Integer tryParseInt(String text) {
+        if (text == null) {
+            return null;
+        }
+        long value = parseSimple(text);
+        if (value == NO_VALUE) {
+            Long result = parseLongOrNull(text);
+            if (result == null) {
+                return null;
+            }
+            value = result.longValue();
+        }
+        return value == (int) value ? Integer.valueOf((int) value) : null;
+    }
+
+    /** Parses a decimal <code>long</code> as {@link #parseLong(String)} does, but
+     * returns <code>null</code> instead of throwing <code>NumberFormatException</code>.
+     * Only text with non-ASCII characters is passed to the JDK.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value, or <code>null</code>
+     */
+    public static Long tryParseLong(String text) {
+        if (text == null) {
+            return null;
+        }
+        long value = parseSimple(text);
+        if (value == NO_VALUE) {
+            return parseLongOrNull(text);
+        }
+        return Long.valueOf(value);
+    }
+
+    /** Parses a decimal integer as {@link #parseBigInteger(String)} does, but
+     * returns <code>null</code> instead of throwing <code>NumberFormatException</code>.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value, or <code>null</code>
+     */
+    public static BigInteger tryParseBigInteger(String text) {
+        int length = text.length();
+        int start = length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+') ? 1 : 0;
+        if (start == length) {
+            return null;
+        }
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c > 0x7F) {
+                try {
+                    return new BigInteger(text);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return parseBigInteger(text);
+    }
+
+    /** Parses a decimal integer, as <code>new BigInteger(text)</code> does.
+     *
+     * @param text The <code>String</code> to parse
+     * @return The parsed value
+     * @throws NumberFormatException if <code>text</code> is not a decimal integer
+     */
+    public static BigInteger parseBigInteger(String text) {
+        int length = text.length();
+        int start = 0;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            start = 1;
+        }
+        if (start == length) {
+            // Let BigInteger report the error
+            return new BigInteger(text);
+        }
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                // Non-ASCII digits, or an error
+                return new BigInteger(text);
+            }
+        }
+        boolean negative = text.charAt(0) == '-';
+        if (length - start <= LONG_DIGITS) {
+            long value = parseDigits(text, start, length);
+            return BigInteger.valueOf(negative ? -value : value);
+        }
+        BigInteger result = parse(text, start, length);
+        return negative ? result.negate() : result;
+    }
+
+    /** Returns the value of an optional sign and ASCII digits, or <code>null</code>
+     * if <code>text</code> is not a decimal <code>long</code>. Text with non-ASCII
+     * characters, which may be Unicode digits, is parsed by the JDK.
+     */
+    private static Long parseLongOrNull(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) > 0x7F) {
+                try {
+                    return Long.valueOf(Long.parseLong(text));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i = 1;
+        }
+        if (i == length) {
+            return null;
+        }
+        // Accumulate negatively, as Long.parseLong does, so that Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long value = 0;
+        for (; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < multiplyLimit) {
+                return null;
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                return null;
+            }
+            value -= digit;
+        }
+        return Long.valueOf(negative ? value : -value);
+    }
+
+    /** Returns the value of an optional sign and 1 to 18 ASCII digits, or
+     * <code>NO_VALUE</code>. */
+    private static long parseSimple(String text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            i = 1;
+        }
+        if (length == i || length - i > LONG_DIGITS) {
+            return NO_VALUE;
+        }
+        long value = 0;
+        for (; length - i >= 8; i += 8) {
+            int c0 = text.charAt(i);
+            int c1 = text.charAt(i + 1);
+            int c2 = text.charAt(i + 2);
+            int c3 = text.charAt(i + 3);
+            int c4 = text.charAt(i + 4);
+            int c5 = text.charAt(i + 5);
+            int c6 = text.charAt(i + 6);
+            int c7 = text.charAt(i + 7);
+            if ((c0 | c1 | c2 | c3 | c4 | c5 | c6 | c7) > 0x7F) {
+                return NO_VALUE;
+            }
+            long digits = eightDigits(c0 | c1 << 8 | c2 << 16 | (long) c3 << 24 | (long) (c4 | c5 << 8 | c6 << 16 | c7 << 24) << 32);
+            if (digits < 0) {
+                return NO_VALUE;
+            }
+            value = value * 100000000 + digits;
+        }
+        for (; i < length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NO_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /** Returns the value of an optional sign and 1 to 18 ASCII digits, or
+     * <code>NO_VALUE</code>. */
+    private static long parseSimple(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (end > start && (bytes[start] == '-' || bytes[start] == '+')) {
+            negative = bytes[start] == '-';
+            i++;
+        }
+        if (end == i || end - i > LONG_DIGITS) {
+            return NO_VALUE;
+        }
+        long value = 0;
+        for (; end - i >= 8; i += 8) {
+            long digits = eightDigits(getLong(bytes, i));
+            if (digits < 0) {
+                return NO_VALUE;
+            }
+            value = value * 100000000 + digits;
+        }
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return NO_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /** Returns the eight bytes at <code>index</code> as a little-endian <code>long</code>. */
+    static long getLong(byte[] bytes, int index) {
+        return (bytes[index] & 0xFFL) | (bytes[index + 1] & 0xFFL) << 8 | (bytes[index + 2] & 0xFFL) << 16
+                | (bytes[index + 3] & 0xFFL) << 24 | (bytes[index + 4] & 0xFFL) << 32 | (bytes[index + 5] & 0xFFL) << 40
+                | (bytes[index + 6] & 0xFFL) << 48 | (bytes[index + 7] & 0xFFL) << 56;
+    }
+
+    /** Returns the value of eight ASCII digits packed into a little-endian word, with
+     * the first digit in the low byte, or -1 if any byte is not a digit. */
+    static long eightDigits(long word) {
+        // Digits are 0x30 to 0x39: the high nibble is 3, and stays 3 after adding 6
+        if (((word & 0xF0F0F0F0F0F0F0F0L) | (word + 0x0606060606060606L & 0xF0F0F0F0F0F0F0F0L) >>> 4) != 0x3333333333333333L) {
+            return -1;
+        }
+        // Combine adjacent digits into pairs, pairs into fours, and fours into eight
+        word = (word & 0x0F0F0F0F0F0F0F0FL) * 2561 >>> 8;
+        word = (word & 0x00FF00FF00FF00FFL) * 6553601 >>> 16;
+        return (word & 0x0000FFFF0000FFFFL) * 42949672960001L >>> 32;
+    }
+
+    /** Returns the value of the ASCII digits <code>text[start, end)</code>, which
+     * must fit in a <code>long</code>. */
+    static long parseDigits(CharSequence text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static BigInteger parse(String text, int start, int end) {
+        int length = end - start;
+        if (length <= LONG_DIGITS) {
+            return BigInteger.valueOf(parseDigits(text, start, end));
+        }
+        if (length <= SPLIT_DIGITS * 2) {
+            return new BigInteger(text.substring(start, end));
+        }
+        int j = 0;
+        while (SPLIT_DIGITS << j + 1 < length) {
+            j++;
+        }
+        int split = end - (SPLIT_DIGITS << j);
+        return parse(text, start, split).multiply(power(j)).add(parse(text, split, end));
+    }
+
+    private static BigInteger power(int j) {
+        BigInteger result = powers[j];
+        if (result == null) {
+            result = j == 0 ? BigInteger.TEN.pow(SPLIT_DIGITS) : power(j - 1).pow(2);
+            powers[j] = result;
+        }
+        return result;
+    }
+
+    private IntegerParser() {}
+}
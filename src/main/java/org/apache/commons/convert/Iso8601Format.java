@@ -0,0 +1,432 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+/** Formatter and parser for ISO-8601 extended format dates and date-times.
+ * <p>Accepted strings are a date (<code>yyyy-MM-dd</code>), optionally followed by
+ * <code>T</code> and a time (<code>HH:mm</code>, <code>HH:mm:ss</code> or
+ * <code>HH:mm:ss.fffffffff</code> with one to nine fraction digits), optionally followed
+ * by an offset (<code>Z</code>, <code>+HH</code>, <code>+HHmm</code>, <code>+HH:mm</code>
+ * or <code>+HH:mm:ss</code>). Years outside 0000-9999 carry a sign. Strings without an
+ * offset are local to the supplied time zone. Dates use the proleptic Gregorian calendar,
+ * as ISO-8601 requires.</p>
+ * <p>Parsing and formatting work directly on the characters with fixed field positions;
+ * no regular expressions or <code>DateFormat</code> instances are involved.</p>
+ */
+public class Iso8601Format {
+
+    /**
+     * Returned by {@link #parseMillis(String, TimeZone)} when the string could not be parsed.
+     */
+    public static final long NO_MATCH = Long.MIN_VALUE;
+
+    static final int SECONDS_PER_DAY = 86400;
+    static final long MILLIS_PER_DAY = 86400000L;
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final ThreadLocal<Fields> scratch = new ThreadLocal<Fields>() {
+        @Override
+        protected Fields initialValue() {
+            return new Fields();
+        }
+    };
+
+    /** Parses an ISO-8601 <code>String</code>. Fraction digits beyond milliseconds
+     * are truncated.
+     *
+     * @param text The <code>String</code> to parse
+     * @param timeZone The time zone used when <code>text</code> has no offset
+     * @return The time in milliseconds since the epoch, or {@link #NO_MATCH}
+     */
+    public static long parseMillis(String text, TimeZone timeZone) {
+        return parseMillis((CharSequence) text, timeZone);
+    }
+
+    static long parseMillis(CharSequence text, TimeZone timeZone) {
+        Fields fields = scratch.get();
+        if (!fields.parse(text)) {
+            return NO_MATCH;
+        }
+        return fields.epochSecond(timeZone) * 1000 + fields.nano / 1000000;
+    }
+
+    /** Parses an ISO-8601 <code>String</code> to a <code>Timestamp</code>, keeping
+     * all fraction digits.
+     *
+     * @param text The <code>String</code> to parse
+     * @param timeZone The time zone used when <code>text</code> has no offset
+     * @return The <code>Timestamp</code>, or <code>null</code> if <code>text</code>
+     * could not be parsed
+     */
+    public static Timestamp parseTimestamp(String text, TimeZone timeZone) {
+        return parseTimestamp((CharSequence) text, timeZone);
+    }
+
+    static Timestamp parseTimestamp(CharSequence text, TimeZone timeZone) {
+        Fields fields = scratch.get();
+        if (!fields.parse(text)) {
+            return null;
+        }
+        Timestamp result = new Timestamp(fields.epochSecond(timeZone) * 1000);
+        result.setNanos(fields.nano);
+        return result;
+    }
+
+    /** Parses an ISO-8601 <code>String</code> to a <code>Calendar</code>. The
+     * calendar's time zone is a fixed-offset zone for the offset in <code>text</code>,
+     * or <code>timeZone</code> if <code>text</code> has no offset.
+     *
+     * @param text The <code>String</code> to parse
+     * @param timeZone The time zone used when <code>text</code> has no offset
+     * @param locale The locale of the returned calendar
+     * @return The <code>Calendar</code>, or <code>null</code> if <code>text</code>
+     * could not be parsed
+     */
+    public static Calendar parseCalendar(String text, TimeZone timeZone, Locale locale) {
+        Fields fields = scratch.get();
+        if (!fields.parse(text)) {
+            return null;
+        }
+        long time = fields.epochSecond(timeZone) * 1000 + fields.nano / 1000000;
+        TimeZone zone = timeZone;
+        if (fields.hasOffset) {
+            int offset = fields.offsetSeconds * 1000;
+            zone = offset == 0 ? new SimpleTimeZone(0, "UTC") : new SimpleTimeZone(offset, "GMT" + formatOffset(offset / 1000));
+        }
+        Calendar cal = Calendar.getInstance(zone, locale);
+        cal.setTimeInMillis(time);
+        return cal;
+    }
+
+    /** Returns <code>time</code> formatted as an ISO-8601 date-time with offset, with
+     * millisecond precision.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @param timeZone The time zone used for formatting
+     * @return The formatted <code>String</code>
+     */
+    public static String format(long time, TimeZone timeZone) {
+        return format(time, (int) floorMod(time, 1000) * 1000000, timeZone);
+    }
+
+    /** Returns <code>time</code> formatted as an ISO-8601 date-time with offset. The
+     * fraction is written in groups of three digits, and is omitted when it is zero.
+     *
+     * @param time The time in milliseconds since the epoch
+     * @param nanos The nanosecond-of-second, which replaces the milliseconds of <code>time</code>
+     * @param timeZone The time zone used for formatting
+     * @return The formatted <code>String</code>
+     */
+    public static String format(long time, int nanos, TimeZone timeZone) {
+        int offset = timeZone.getOffset(time) / 1000;
+        long local = floorDiv(time, 1000) + offset;
+        Fields fields = scratch.get();
+        char[] buffer = fields.buffer;
+        int i = appendDate(buffer, 0, floorDiv(local, SECONDS_PER_DAY));
+        int secondOfDay = (int) floorMod(local, SECONDS_PER_DAY);
+        buffer[i] = 'T';
+        append(buffer, i + 1, secondOfDay / 3600, 2);
+        buffer[i + 3] = ':';
+        append(buffer, i + 4, secondOfDay / 60 % 60, 2);
+        buffer[i + 6] = ':';
+        append(buffer, i + 7, secondOfDay % 60, 2);
+        i += 9;
+        if (nanos != 0) {
+            buffer[i++] = '.';
+            if (nanos % 1000000 == 0) {
+                append(buffer, i, nanos / 1000000, 3);
+                i += 3;
+            } else if (nanos % 1000 == 0) {
+                append(buffer, i, nanos / 1000, 6);
+                i += 6;
+            } else {
+                append(buffer, i, nanos, 9);
+                i += 9;
+            }
+        }
+        if (offset == 0) {
+            buffer[i++] = 'Z';
+        } else {
+            i = appendOffset(buffer, i, offset);
+        }
+        return new String(buffer, 0, i);
+    }
+
+    /** Returns the date of <code>time</code> in <code>timeZone</code>, formatted as
+     * an ISO-8601 date (<code>yyyy-MM-dd</code>).
+     *
+     * @param time The time in milliseconds since the epoch
+     * @param timeZone The time zone used for formatting
+     * @return The formatted <code>String</code>
+     */
+    public static String formatDate(long time, TimeZone timeZone) {
+        long local = time + timeZone.getOffset(time);
+        char[] buffer = scratch.get().buffer;
+        return new String(buffer, 0, appendDate(buffer, 0, floorDiv(local, MILLIS_PER_DAY)));
+    }
+
+    /** Returns <code>true</code> if the parsed <code>text</code> has a time of day. */
+    static boolean hasTime(String text) {
+        return text.length() > 10 && text.indexOf(':') > 0;
+    }
+
+    static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
+
+    /** Returns the number of days from 1970-01-01 to the given proleptic Gregorian date. */
+    static long epochDay(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    static int lengthOfMonth(long year, int month) {
+        if (month == 2) {
+            return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /** Returns the local time in <code>timeZone</code> as milliseconds since the epoch.
+     * Ambiguous local times resolve to the later offset, and local times in a daylight
+     * saving gap are moved forward by the length of the gap, as in <code>GregorianCalendar</code>.
+     */
+    static long localToEpochMillis(long local, TimeZone timeZone) {
+        int offset = timeZone.getOffset(local - timeZone.getRawOffset());
+        int adjusted = timeZone.getOffset(local - offset);
+        if (adjusted != offset) {
+            offset = timeZone.getOffset(local - adjusted) == adjusted ? adjusted : Math.min(offset, adjusted);
+        }
+        return local - offset;
+    }
+
+    /** Writes the proleptic Gregorian date of <code>epochDay</code> and returns the next index. */
+    static int appendDate(char[] buffer, int i, long epochDay) {
+        long z = epochDay + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            buffer[i++] = year < 0 ? '-' : '+';
+            year = Math.abs(year);
+        }
+        int width = 4;
+        for (long n = 10000; n <= year; n *= 10) {
+            width++;
+        }
+        append(buffer, i, year, width);
+        i += width;
+        buffer[i] = '-';
+        append(buffer, i + 1, month, 2);
+        buffer[i + 3] = '-';
+        append(buffer, i + 4, day, 2);
+        return i + 6;
+    }
+
+    static void append(char[] buffer, int index, long value, int width) {
+        for (int i = index + width - 1; i >= index; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int appendOffset(char[] buffer, int i, int offset) {
+        buffer[i++] = offset < 0 ? '-' : '+';
+        int abs = Math.abs(offset);
+        append(buffer, i, abs / 3600, 2);
+        buffer[i + 2] = ':';
+        append(buffer, i + 3, abs / 60 % 60, 2);
+        i += 5;
+        if (abs % 60 != 0) {
+            buffer[i] = ':';
+            append(buffer, i + 1, abs % 60, 2);
+            i += 3;
+        }
+        return i;
+    }
+
+    private static String formatOffset(int offset) {
+        char[] buffer = new char[9];
+        return new String(buffer, 0, appendOffset(buffer, 0, offset));
+    }
+
+    /** Parsed fields, reused per thread. */
+    private static final class Fields {
+        private final char[] buffer = new char[48];
+        private long year;
+        private int month;
+        private int day;
+        private int hour;
+        private int minute;
+        private int second;
+        private int nano;
+        private int offsetSeconds;
+        private boolean hasOffset;
+
+        /** Returns the value of the <code>count</code> ASCII digits at <code>start</code>, or -1. */
+        private static int digits(CharSequence text, int start, int count) {
+            if (start + count > text.length()) {
+                return -1;
+            }
+            int value = 0;
+            for (int i = start; i < start + count; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private static boolean charAt(CharSequence text, int index, char c) {
+            return index < text.length() && text.charAt(index) == c;
+        }
+
+        private boolean parse(CharSequence text) {
+            int length = text.length();
+            int i = 0;
+            boolean negative = false;
+            if (length > 0 && (text.charAt(0) == '+' || text.charAt(0) == '-')) {
+                negative = text.charAt(0) == '-';
+                i = 1;
+            }
+            int yearStart = i;
+            while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+            }
+            int yearDigits = i - yearStart;
+            if (yearDigits < 4 || yearDigits > 6 || (yearDigits > 4 && yearStart == 0)) {
+                return false;
+            }
+            year = digits(text, yearStart, yearDigits);
+            if (negative) {
+                year = -year;
+            }
+            if (!charAt(text, i, '-') || !charAt(text, i + 3, '-')) {
+                return false;
+            }
+            month = digits(text, i + 1, 2);
+            day = digits(text, i + 4, 2);
+            if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+                return false;
+            }
+            i += 6;
+            hour = minute = second = nano = 0;
+            if (i < length && (text.charAt(i) == 'T' || text.charAt(i) == 't' || text.charAt(i) == ' ')) {
+                if (!charAt(text, i + 3, ':')) {
+                    return false;
+                }
+                hour = digits(text, i + 1, 2);
+                minute = digits(text, i + 4, 2);
+                if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+                    return false;
+                }
+                i += 6;
+                if (charAt(text, i, ':')) {
+                    second = digits(text, i + 1, 2);
+                    if (second < 0 || second > 59) {
+                        return false;
+                    }
+                    i += 3;
+                    if (charAt(text, i, '.') || charAt(text, i, ',')) {
+                        int fractionStart = ++i;
+                        while (i < length && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                            i++;
+                        }
+                        int fractionDigits = i - fractionStart;
+                        if (fractionDigits < 1 || fractionDigits > 9) {
+                            return false;
+                        }
+                        nano = digits(text, fractionStart, fractionDigits);
+                        for (int n = fractionDigits; n < 9; n++) {
+                            nano *= 10;
+                        }
+                    }
+                }
+            }
+            hasOffset = i < length;
+            offsetSeconds = 0;
+            if (hasOffset) {
+                char c = text.charAt(i);
+                if (c == 'Z' || c == 'z') {
+                    i++;
+                } else if (c == '+' || c == '-') {
+                    int hours = digits(text, i + 1, 2);
+                    int minutes = 0;
+                    int seconds = 0;
+                    i += 3;
+                    if (charAt(text, i, ':')) {
+                        minutes = digits(text, i + 1, 2);
+                        i += 3;
+                        if (charAt(text, i, ':')) {
+                            seconds = digits(text, i + 1, 2);
+                            i += 3;
+                        }
+                    } else if (i < length) {
+                        minutes = digits(text, i, 2);
+                        i += 2;
+                    }
+                    if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59) {
+                        return false;
+                    }
+                    offsetSeconds = hours * 3600 + minutes * 60 + seconds;
+                    if (c == '-') {
+                        offsetSeconds = -offsetSeconds;
+                    }
+                } else {
+                    return false;
+                }
+            }
+            return i == length;
+        }
+
+        private long epochSecond(TimeZone timeZone) {
+            long local = epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+            if (hasOffset) {
+                return local - offsetSeconds;
+            }
+            if (timeZone == null) {
+                timeZone = UTC;
+            }
+            return floorDiv(localToEpochMillis(local * 1000, timeZone), 1000);
+        }
+    }
+
+    private Iso8601Format() {}
+}
@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/** ISO-8601 date/time <code>Converter</code> classes. The string formats are
+ * described in {@link Iso8601Format}.
+ * <p>These converters are not loaded by default, because they share source and
+ * target classes with {@link DateTimeConverters}. They can be used directly, or
+ * loaded in place of the default date/time converters.</p>
+ * <p>Strings without an offset are referenced to UTC by the <code>convert(obj)</code>
+ * methods and to the <code>timeZone</code> argument by the localized methods.</p>
+ */
+public class IsoDateTimeConverters implements ConverterLoader {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private static ConversionException invalid(String obj) {
+        return ConversionException.invalidInput("Invalid ISO-8601 date/time: ", obj, "");
+    }
+
+    public void loadConverters() {
+        Converters.loadContainedConverters(IsoDateTimeConverters.class);
+    }
+
+    /**
+     * An object that converts a <code>Calendar</code> to an ISO-8601
+     * <code>String</code>, using the calendar's time zone.
+     */
+    public static class CalendarToString extends AbstractLocalizedConverter<Calendar, String> {
+        public CalendarToString() {
+            super(Calendar.class, String.class);
+        }
+
+        public String convert(Calendar obj) throws ConversionException {
+            return Iso8601Format.format(obj.getTimeInMillis(), obj.getTimeZone());
+        }
+
+        public String convert(Calendar obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            return Iso8601Format.format(obj.getTimeInMillis(), timeZone);
+        }
+    }
+
+    /**
+     * An object that converts a <code>java.util.Date</code> to an ISO-8601
+     * <code>String</code>.
+     */
+    public static class DateToString extends AbstractLocalizedConverter<Date, String> {
+        public DateToString() {
+            super(Date.class, String.class);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return Date.class.equals(sourceClass) && String.class.equals(targetClass);
+        }
+
+        public String convert(Date obj) throws ConversionException {
+            return Iso8601Format.format(obj.getTime(), UTC);
+        }
+
+        public String convert(Date obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            return Iso8601Format.format(obj.getTime(), timeZone);
+        }
+    }
+
+    /**
+     * An object that converts a <code>java.sql.Date</code> to an ISO-8601
+     * date <code>String</code> (<code>yyyy-MM-dd</code>).
+     */
+    public static class SqlDateToString extends AbstractLocalizedConverter<java.sql.Date, String> {
+        public SqlDateToString() {
+            super(java.sql.Date.class, String.class);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return java.sql.Date.class.equals(sourceClass) && String.class.equals(targetClass);
+        }
+
+        /**
+         * Converts <code>obj</code> to a <code>String</code>. The date is
+         * referenced to the default time zone, as in <code>java.sql.Date.toString()</code>.
+         */
+        public String convert(java.sql.Date obj) throws ConversionException {
+            return Iso8601Format.formatDate(obj.getTime(), TimeZone.getDefault());
+        }
+
+        public String convert(java.sql.Date obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            return Iso8601Format.formatDate(obj.getTime(), timeZone);
+        }
+    }
+
+    /**
+     * An object that converts an ISO-8601 <code>String</code> to a
+     * <code>Calendar</code>. The calendar's time zone is the offset in the
+     * string, if there is one.
+     */
+    public static class StringToCalendar extends AbstractLocalizedConverter<String, Calendar> implements TryConverter<String, Calendar> {
+        public StringToCalendar() {
+            super(String.class, Calendar.class);
+        }
+
+        public Calendar tryConvert(String obj, Calendar defaultValue) {
+            Calendar result = Iso8601Format.parseCalendar(obj.trim(), UTC, Locale.getDefault());
+            return result == null ? defaultValue : result;
+        }
+
+        public Calendar convert(String obj) throws ConversionException {
+            return convert(obj, Locale.getDefault(), UTC, null);
+        }
+
+        public Calendar convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            Calendar result = Iso8601Format.parseCalendar(obj.trim(), timeZone, locale);
+            if (result == null) {
+                throw invalid(obj);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An object that converts an ISO-8601 <code>String</code> to a
+     * <code>java.util.Date</code>. Fraction digits beyond milliseconds are truncated.
+     */
+    public static class StringToDate extends AbstractLocalizedConverter<String, Date> implements TryConverter<String, Date> {
+        public StringToDate() {
+            super(String.class, Date.class);
+        }
+
+        public Date tryConvert(String obj, Date defaultValue) {
+            long time = Iso8601Format.parseMillis(obj.trim(), UTC);
+            return time == Iso8601Format.NO_MATCH ? defaultValue : new Date(time);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return String.class.equals(sourceClass) && Date.class.equals(targetClass);
+        }
+
+        public Date convert(String obj) throws ConversionException {
+            return convert(obj, null, UTC, null);
+        }
+
+        public Date convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            long time = Iso8601Format.parseMillis(obj.trim(), timeZone);
+            if (time == Iso8601Format.NO_MATCH) {
+                throw invalid(obj);
+            }
+            return new Date(time);
+        }
+    }
+
+    /**
+     * An object that converts an ISO-8601 date <code>String</code> to a
+     * <code>java.sql.Date</code>. The string must not have a time of day.
+     */
+    public static class StringToSqlDate extends AbstractLocalizedConverter<String, java.sql.Date> implements TryConverter<String, java.sql.Date> {
+        public StringToSqlDate() {
+            super(String.class, java.sql.Date.class);
+        }
+
+        public java.sql.Date tryConvert(String obj, java.sql.Date defaultValue) {
+            String trimmed = obj.trim();
+            long time = Iso8601Format.parseMillis(trimmed, TimeZone.getDefault());
+            if (time == Iso8601Format.NO_MATCH || Iso8601Format.hasTime(trimmed)) {
+                return defaultValue;
+            }
+            return new java.sql.Date(time);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return String.class.equals(sourceClass) && java.sql.Date.class.equals(targetClass);
+        }
+
+        /**
+         * Converts <code>obj</code> to a <code>java.sql.Date</code>. The date is
+         * referenced to the default time zone, as in <code>java.sql.Date.valueOf(String)</code>.
+         */
+        public java.sql.Date convert(String obj) throws ConversionException {
+            return convert(obj, null, TimeZone.getDefault(), null);
+        }
+
+        public java.sql.Date convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            String trimmed = obj.trim();
+            long time = Iso8601Format.parseMillis(trimmed, timeZone);
+            if (time == Iso8601Format.NO_MATCH || Iso8601Format.hasTime(trimmed)) {
+                throw invalid(obj);
+            }
+            return new java.sql.Date(time);
+        }
+    }
+
+    /**
+     * An object that converts an ISO-8601 <code>String</code> to a
+     * <code>java.sql.Timestamp</code>, keeping all fraction digits.
+     */
+    public static class StringToTimestamp extends AbstractLocalizedConverter<String, Timestamp> implements TryConverter<String, Timestamp> {
+        public StringToTimestamp() {
+            super(String.class, Timestamp.class);
+        }
+
+        public Timestamp tryConvert(String obj, Timestamp defaultValue) {
+            Timestamp result = Iso8601Format.parseTimestamp(obj.trim(), UTC);
+            return result == null ? defaultValue : result;
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return String.class.equals(sourceClass) && Timestamp.class.equals(targetClass);
+        }
+
+        public Timestamp convert(String obj) throws ConversionException {
+            return convert(obj, null, UTC, null);
+        }
+
+        public Timestamp convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            Timestamp result = Iso8601Format.parseTimestamp(obj.trim(), timeZone);
+            if (result == null) {
+                throw invalid(obj);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * An object that converts a <code>java.sql.Timestamp</code> to an ISO-8601
+     * <code>String</code>, keeping all fraction digits.
+     */
+    public static class TimestampToString extends AbstractLocalizedConverter<Timestamp, String> {
+        public TimestampToString() {
+            super(Timestamp.class, String.class);
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return Timestamp.class.equals(sourceClass) && String.class.equals(targetClass);
+        }
+
+        public String convert(Timestamp obj) throws ConversionException {
+            return Iso8601Format.format(obj.getTime(), obj.getNanos(), UTC);
+        }
+
+        public String convert(Timestamp obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            return Iso8601Format.format(obj.getTime(), obj.getNanos(), timeZone);
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/** A parser that accepts strings in any of several <code>SimpleDateFormat</code>
+ * patterns, and picks the matching pattern in one pass.
+ * <p>Patterns made only of fixed-width numeric fields (<code>yyyy</code>,
+ * <code>MM</code>, <code>dd</code>, <code>HH</code>, <code>mm</code>, <code>ss</code>,
+ * <code>SSS</code>) and literals are compiled into a trie keyed on character
+ * class: a digit, or a particular literal character. A string is walked through the
+ * trie once, and only the patterns whose layout it matches are parsed. Compiled
+ * patterns are strict: every field must have its full width and a valid value.</p>
+ * <p>Other patterns are parsed with <code>SimpleDateFormat</code>, using a
+ * <code>ParsePosition</code> so that a mismatch does not throw an exception. When
+ * several patterns match, the first one in the list wins.</p>
+ * <p>Instances are thread-safe.</p>
+ */
+public class MultiFormatDateParser {
+
+    /**
+     * Returned by {@link #parse(String, TimeZone)} when no pattern matches.
+     */
+    public static final long NO_MATCH = Long.MIN_VALUE;
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int[] calendarFields = {Calendar.YEAR, Calendar.MONTH, Calendar.DAY_OF_MONTH, Calendar.HOUR_OF_DAY, Calendar.MINUTE, Calendar.SECOND, Calendar.MILLISECOND};
+    private static final int[] maxValues = {9999, 12, 31, 23, 59, 59, 999};
+    private static final ThreadLocal<GregorianCalendar> scratch = new ThreadLocal<GregorianCalendar>() {
+        @Override
+        protected GregorianCalendar initialValue() {
+            return new GregorianCalendar(TimeZone.getTimeZone("GMT"), Locale.ROOT);
+        }
+    };
+
+    private final String[] patterns;
+    private final Locale locale;
+    private final Node root = new Node();
+    private final int[] fallbacks;
+    private final ThreadLocal<DateFormat[]> dateFormats = new ThreadLocal<DateFormat[]>() {
+        @Override
+        protected DateFormat[] initialValue() {
+            return new DateFormat[patterns.length];
+        }
+    };
+
+    /** Creates a parser for <code>patterns</code>, using the default locale.
+     *
+     * @param patterns The <code>SimpleDateFormat</code> patterns, in order of preference
+     * @throws IllegalArgumentException if a pattern is invalid
+     */
+    public MultiFormatDateParser(String... patterns) {
+        this(Locale.getDefault(), patterns);
+    }
+
+    /** Creates a parser for <code>patterns</code>.
+     *
+     * @param locale The locale used for patterns that are not compiled
+     * @param patterns The <code>SimpleDateFormat</code> patterns, in order of preference
+     * @throws IllegalArgumentException if a pattern is invalid
+     */
+    public MultiFormatDateParser(Locale locale, String... patterns) {
+        this.patterns = patterns.clone();
+        this.locale = locale;
+        List<Integer> fallbackList = new ArrayList<Integer>();
+        for (int i = 0; i < this.patterns.length; i++) {
+            // Validate the pattern
+            newDateFormat(this.patterns[i], locale);
+            Layout layout = Layout.compile(this.patterns[i], i);
+            if (layout == null) {
+                fallbackList.add(i);
+            } else {
+                root.add(layout, 0);
+            }
+        }
+        this.fallbacks = new int[fallbackList.size()];
+        for (int i = 0; i < fallbacks.length; i++) {
+            fallbacks[i] = fallbackList.get(i);
+        }
+    }
+
+    public String[] getPatterns() {
+        return patterns.clone();
+    }
+
+    /** Parses <code>text</code> with the first pattern that matches it.
+     *
+     * @param text The <code>String</code> to parse
+     * @param timeZone The time zone used for parsing
+     * @return The time in milliseconds since the epoch, or {@link #NO_MATCH}
+     */
+    public long parse(String text, TimeZone timeZone) {
+        Node node = root;
+        int length = text.length();
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.next(text.charAt(i));
+        }
+        int limit = patterns.length;
+        long result = NO_MATCH;
+        if (node != null && node.layouts != null) {
+            for (Layout layout : node.layouts) {
+                result = layout.parse(text, timeZone);
+                if (result != NO_MATCH) {
+                    limit = layout.index;
+                    break;
+                }
+            }
+        }
+        for (int index : fallbacks) {
+            if (index > limit) {
+                break;
+            }
+            long time = parseFallback(index, text, timeZone);
+            if (time != NO_MATCH) {
+                return time;
+            }
+        }
+        return result;
+    }
+
+    /** Returns a strict <code>SimpleDateFormat</code>, which rejects dates such as
+     * 31 February, as the compiled layouts do. */
+    private static DateFormat newDateFormat(String pattern, Locale locale) {
+        DateFormat df = new SimpleDateFormat(pattern, locale);
+        df.setLenient(false);
+        return df;
+    }
+
+    private long parseFallback(int index, String text, TimeZone timeZone) {
+        DateFormat[] formats = dateFormats.get();
+        DateFormat df = formats[index];
+        if (df == null) {
+            df = newDateFormat(patterns[index], locale);
+            formats[index] = df;
+        }
+        df.setTimeZone(timeZone);
+        ParsePosition position = new ParsePosition(0);
+        Date date = df.parse(text, position);
+        if (date == null || position.getIndex() != text.length()) {
+            return NO_MATCH;
+        }
+        return date.getTime();
+    }
+
+    /** The fixed layout of a compiled pattern. */
+    private static final class Layout {
+        private final int index;
+        private final String classes;
+        private final int[] fields;
+        private final int[] starts;
+        private final int[] widths;
+
+        private Layout(int index, String classes, int[] fields, int[] starts, int[] widths) {
+            this.index = index;
+            this.classes = classes;
+            this.fields = fields;
+            this.starts = starts;
+            this.widths = widths;
+        }
+
+        /** Returns the layout of <code>pattern</code>, or <code>null</code> if it
+         * cannot be compiled. In the returned character classes, <code>'\0'</code> is a digit.
+         */
+        private static Layout compile(String pattern, int index) {
+            StringBuilder classes = new StringBuilder();
+            List<int[]> fieldList = new ArrayList<int[]>();
+            boolean[] seen = new boolean[calendarFields.length];
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                if (c == '\'') {
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                        classes.append('\'');
+                        i += 2;
+                        continue;
+                    }
+                    // A quoted literal, in which '' is a quote, as in SimpleDateFormat
+                    i++;
+                    while (true) {
+                        int end = pattern.indexOf('\'', i);
+                        if (end < 0) {
+                            return null;
+                        }
+                        classes.append(pattern, i, end);
+                        if (end + 1 < pattern.length() && pattern.charAt(end + 1) == '\'') {
+                            classes.append('\'');
+                            i = end + 2;
+                        } else {
+                            i = end + 1;
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                int count = 1;
+                while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                    int field = "yMdHmsS".indexOf(c);
+                    int width = field < 0 ? 0 : "4222223".charAt(field) - '0';
+                    if (count != width || seen[field]) {
+                        return null;
+                    }
+                    seen[field] = true;
+                    fieldList.add(new int[] {field, classes.length(), width});
+                    for (int j = 0; j < width; j++) {
+                        classes.append('\0');
+                    }
+                } else {
+                    for (int j = 0; j < count; j++) {
+                        classes.append(c);
+                    }
+                }
+                i += count;
+            }
+            for (int j = 0; j < classes.length(); j++) {
+                char c = classes.charAt(j);
+                if (c >= '0' && c <= '9') {
+                    return null;
+                }
+            }
+            int[] fields = new int[fieldList.size()];
+            int[] starts = new int[fields.length];
+            int[] widths = new int[fields.length];
+            for (int j = 0; j < fields.length; j++) {
+                int[] field = fieldList.get(j);
+                fields[j] = field[0];
+                starts[j] = field[1];
+                widths[j] = field[2];
+            }
+            return new Layout(index, classes.toString(), fields, starts, widths);
+        }
+
+        private long parse(String text, TimeZone timeZone) {
+            GregorianCalendar cal = scratch.get();
+            cal.setTimeZone(timeZone);
+            cal.clear();
+            int year = 1970;
+            int month = 1;
+            int day = 1;
+            for (int i = 0; i < fields.length; i++) {
+                int value = 0;
+                for (int j = starts[i]; j < starts[i] + widths[i]; j++) {
+                    value = value * 10 + text.charAt(j) - '0';
+                }
+                int field = fields[i];
+                if (value > maxValues[field]) {
+                    return NO_MATCH;
+                }
+                if (field == YEAR) {
+                    year = value;
+                } else if (field == MONTH) {
+                    month = value;
+                } else if (field == DAY) {
+                    day = value;
+                }
+                cal.set(calendarFields[field], field == MONTH ? value - 1 : value);
+            }
+            long time = cal.getTimeInMillis();
+            // Reject dates that the lenient calendar rolled over
+            if (cal.get(Calendar.ERA) != GregorianCalendar.AD || cal.get(Calendar.YEAR) != year
+                    || cal.get(Calendar.MONTH) != month - 1 || cal.get(Calendar.DAY_OF_MONTH) != day) {
+                return NO_MATCH;
+            }
+            return time;
+        }
+    }
+
+    /** A trie node. Edges are keyed on a literal character, or on <code>'\0'</code>
+     * for any ASCII digit.
+     */
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Layout[] layouts;
+
+        private void add(Layout layout, int depth) {
+            if (depth == layout.classes.length()) {
+                if (layouts == null) {
+                    layouts = new Layout[] {layout};
+                } else {
+                    Layout[] grown = new Layout[layouts.length + 1];
+                    System.arraycopy(layouts, 0, grown, 0, layouts.length);
+                    grown[layouts.length] = layout;
+                    layouts = grown;
+                }
+                return;
+            }
+            char key = layout.classes.charAt(depth);
+            Node child = find(key);
+            if (child == null) {
+                child = new Node();
+                char[] grownKeys = new char[keys.length + 1];
+                Node[] grownChildren = new Node[keys.length + 1];
+                System.arraycopy(keys, 0, grownKeys, 0, keys.length);
+                System.arraycopy(children, 0, grownChildren, 0, keys.length);
+                grownKeys[keys.length] = key;
+                grownChildren[keys.length] = child;
+                keys = grownKeys;
+                children = grownChildren;
+            }
+            child.add(layout, depth + 1);
+        }
+
+        private Node find(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node next(char c) {
+            return find(c >= '0' && c <= '9' ? '\0' : c);
+        }
+    }
+}
@@ -21,8 +21,9 @@ package org.apache.commons.convert;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Locale;
 import java.util.TimeZone;
 
@@ -31,12 +32,94 @@ public class NumberConverters implements ConverterLoader {
 
     protected static final Class<?>[] classArray = {BigDecimal.class, BigInteger.class, Byte.class, Double.class, Integer.class, Float.class, Long.class, Short.class};
 
+    /**
+     * How {@link NumberToNumber} handles values that are out of the target's range.
+     */
+    public enum Narrowing {
+        /** Converts as a Java cast does: high-order bits are discarded, and
+         * floating-point values are clamped to the <code>int</code> or
+         * <code>long</code> range before being cast. */
+        UNCHECKED,
+        /** Throws <code>ConversionException</code> if the value, truncated toward
+         * zero, is out of the target's range, or is NaN. */
+        CHECKED,
+        /** Clamps the value to the target's range. NaN converts to zero. */
+        SATURATING
+    }
+
     protected static Number fromString(String str, NumberFormat nf) throws ConversionException {
-        try {
-            return nf.parse(str);
-        } catch (ParseException e) {
-            throw new ConversionException(e);
+        // Parsing with a position reports failure without a ParseException
+        Number result = nf.parse(str, new ParsePosition(0));
+        if (result == null) {
+            throw ConversionException.invalidInput("Unparseable number: \"", str, "\"");
         }
+        return result;
+    }
+
+    /** Returns a <code>DecimalFormat</code> for <code>formatString</code> that
+     * uses the symbols of <code>locale</code>, as {@link BigDecimalFormat} does. */
+    static DecimalFormat toDecimalFormat(String formatString, Locale locale) {
+        return new DecimalFormat(formatString, DecimalFormatSymbols.getInstance(locale));
+    }
+
+    /** Returns <code>true</code> if <code>Double.parseDouble(text)</code> and
+     * <code>Float.parseFloat(text)</code> accept <code>text</code>. Decimal text is
+     * checked without parsing it; only text that may be <code>NaN</code>,
+     * <code>Infinity</code> or hexadecimal is tried with the JDK.
+     */
+    static boolean isFloatingPoint(String text) {
+        int start = 0;
+        int end = text.length();
+        // Trim as String.trim() does
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int i = start;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        for (; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+            digits++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            for (i++; i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+                digits++;
+            }
+        }
+        if (digits > 0 && i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        if (digits > 0 && i < end && "fFdD".indexOf(text.charAt(i)) >= 0) {
+            i++;
+        }
+        if (digits > 0 && i == end) {
+            return true;
+        }
+        for (i = start; i < end; i++) {
+            if ("NIxX".indexOf(text.charAt(i)) >= 0) {
+                try {
+                    Double.parseDouble(text);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
     }
 
     protected static <S, T> void registerConverter(Converter<S, T> converter) {
@@ -49,14 +132,6 @@ public class NumberConverters implements ConverterLoader {
     public void loadConverters() {
         Converters.loadContainedConverters(NumberConverters.class);
         for (Class<?> sourceClass : classArray) {
-            registerConverter(new GenericNumberToBigDecimal(sourceClass));
-            registerConverter(new GenericNumberToBigInteger(sourceClass));
-            registerConverter(new GenericNumberToByte(sourceClass));
-            registerConverter(new GenericNumberToDouble(sourceClass));
-            registerConverter(new GenericNumberToInteger(sourceClass));
-            registerConverter(new GenericNumberToFloat(sourceClass));
-            registerConverter(new GenericNumberToLong(sourceClass));
-            registerConverter(new GenericNumberToShort(sourceClass));
             registerConverter(new GenericSingletonToList(sourceClass));
             registerConverter(new GenericSingletonToSet(sourceClass));
         }
@@ -79,13 +154,43 @@ public class NumberConverters implements ConverterLoader {
             if (formatString == null) {
                 return format(obj, NumberFormat.getNumberInstance(locale));
             } else {
-                return format(obj, new DecimalFormat(formatString));
+                return format(obj, toDecimalFormat(formatString, locale));
             }
         }
 
         protected abstract String format(N obj, NumberFormat nf) throws ConversionException;
     }
 
+    /**
+     * An abstract integral <code>Number</code> to <code>String</code> converter class.
+     * Values are written with {@link IntegerFormat}. A <code>NumberFormat</code> is
+     * used only for format strings, and for locales that <code>IntegerFormat</code>
+     * does not support.
+     */
+    public static abstract class AbstractIntegerToStringConverter<N extends Number> extends AbstractNumberToStringConverter<N> implements AppendingConverter<N> {
+        public AbstractIntegerToStringConverter(Class<N> sourceClass) {
+            super(sourceClass);
+        }
+
+        public StringBuilder appendTo(N obj, StringBuilder sb) throws ConversionException {
+            return IntegerFormat.append(sb, obj.longValue());
+        }
+
+        public String convert(N obj) throws ConversionException {
+            return IntegerFormat.toString(obj.longValue());
+        }
+
+        public String convert(N obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String result = IntegerFormat.format(obj.longValue(), locale);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return super.convert(obj, locale, timeZone, formatString);
+        }
+    }
+
     /**
      * An abstract <code>String</code> to <code>Number</code> converter class
      * that implements some of the <code>LocalizedConverter</code> methods. 
@@ -101,36 +206,71 @@ public class NumberConverters implements ConverterLoader {
             if (formatString == null) {
                 return convert(fromString(obj, NumberFormat.getNumberInstance(locale)));
             } else {
-                return convert(fromString(obj, new DecimalFormat(formatString)));
+                return convert(fromString(obj, toDecimalFormat(formatString, locale)));
             }
         }
     }
 
     /**
      * An object that converts a <code>BigDecimal</code> to a
-     * <code>String</code>.
+     * {@link FixedDecimal}. Values that cannot be represented exactly
+     * throw <code>ConversionException</code>.
+     */
+    public static class BigDecimalToFixedDecimal extends AbstractConverter<BigDecimal, FixedDecimal> {
+        public BigDecimalToFixedDecimal() {
+            super(BigDecimal.class, FixedDecimal.class);
+        }
+
+        public FixedDecimal convert(BigDecimal obj) throws ConversionException {
+            try {
+                return FixedDecimal.valueOf(obj);
+            } catch (ArithmeticException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a <code>BigDecimal</code> to a
+     * <code>String</code>. Localized conversions are exact, using
+     * {@link BigDecimalFormat}.
      */
     public static class BigDecimalToString extends AbstractNumberToStringConverter<BigDecimal> {
         public BigDecimalToString() {
             super(BigDecimal.class);
         }
 
+        public String convert(BigDecimal obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            return BigDecimalFormat.getInstance(formatString, locale).format(obj);
+        }
+
         protected String format(BigDecimal obj, NumberFormat nf) throws ConversionException {
-            return nf.format(obj.doubleValue());
+            return nf.format(obj);
         }
     }
 
     /**
      * An object that converts a <code>BigInteger</code> to a
-     * <code>String</code>.
+     * <code>String</code>. Localized conversions are exact, using
+     * {@link IntegerFormat} or {@link BigDecimalFormat}.
      */
     public static class BigIntegerToString extends AbstractNumberToStringConverter<BigInteger> {
         public BigIntegerToString() {
             super(BigInteger.class);
         }
 
+        public String convert(BigInteger obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String result = IntegerFormat.format(obj, locale);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return BigDecimalFormat.getInstance(formatString, locale).format(obj);
+        }
+
         protected String format(BigInteger obj, NumberFormat nf) throws ConversionException {
-            return nf.format(obj.doubleValue());
+            return nf.format(obj);
         }
     }
 
@@ -138,7 +278,7 @@ public class NumberConverters implements ConverterLoader {
      * An object that converts a <code>Byte</code> to a
      * <code>String</code>.
      */
-    public static class ByteToString extends AbstractNumberToStringConverter<Byte> {
+    public static class ByteToString extends AbstractIntegerToStringConverter<Byte> {
         public ByteToString() {
             super(Byte.class);
         }
@@ -150,32 +290,192 @@ public class NumberConverters implements ConverterLoader {
 
     /**
      * An object that converts a <code>Double</code> to a
-     * <code>String</code>.
+     * {@link FixedDecimal}, using the shortest decimal that converts back
+     * to the same value. Values that cannot be represented throw
+     * <code>ConversionException</code>.
+     */
+    public static class DoubleToFixedDecimal extends AbstractConverter<Double, FixedDecimal> {
+        public DoubleToFixedDecimal() {
+            super(Double.class, FixedDecimal.class);
+        }
+
+        public FixedDecimal convert(Double obj) throws ConversionException {
+            try {
+                return FixedDecimal.valueOf(obj.doubleValue());
+            } catch (ArithmeticException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a <code>Double</code> to a
+     * <code>String</code>. Values are written as the shortest decimal that
+     * converts back to the same value, using {@link DoubleFormat}.
      */
-    public static class DoubleToString extends AbstractNumberToStringConverter<Double> {
+    public static class DoubleToString extends AbstractNumberToStringConverter<Double> implements AppendingConverter<Double> {
         public DoubleToString() {
             super(Double.class);
         }
 
+        public StringBuilder appendTo(Double obj, StringBuilder sb) throws ConversionException {
+            return DoubleFormat.append(sb, obj.doubleValue());
+        }
+
+        public String convert(Double obj) throws ConversionException {
+            return DoubleFormat.toString(obj.doubleValue());
+        }
+
+        public String convert(Double obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String result = DoubleFormat.format(obj.doubleValue(), locale);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return super.convert(obj, locale, timeZone, formatString);
+        }
+
         protected String format(Double obj, NumberFormat nf) throws ConversionException {
             return nf.format(obj.doubleValue());
         }
     }
 
+    /**
+     * An object that converts a {@link FixedDecimal} to a
+     * <code>BigDecimal</code>.
+     */
+    public static class FixedDecimalToBigDecimal extends AbstractConverter<FixedDecimal, BigDecimal> {
+        public FixedDecimalToBigDecimal() {
+            super(FixedDecimal.class, BigDecimal.class);
+        }
+
+        public BigDecimal convert(FixedDecimal obj) throws ConversionException {
+            return obj.toBigDecimal();
+        }
+    }
+
+    /**
+     * An object that converts a {@link FixedDecimal} to a
+     * <code>Double</code>.
+     */
+    public static class FixedDecimalToDouble extends AbstractConverter<FixedDecimal, Double> {
+        public FixedDecimalToDouble() {
+            super(FixedDecimal.class, Double.class);
+        }
+
+        public Double convert(FixedDecimal obj) throws ConversionException {
+            return obj.doubleValue();
+        }
+    }
+
+    /**
+     * An object that converts a {@link FixedDecimal} to a
+     * <code>Long</code>. The fraction is truncated.
+     */
+    public static class FixedDecimalToLong extends AbstractConverter<FixedDecimal, Long> {
+        public FixedDecimalToLong() {
+            super(FixedDecimal.class, Long.class);
+        }
+
+        public Long convert(FixedDecimal obj) throws ConversionException {
+            return obj.longValue();
+        }
+    }
+
+    /**
+     * An object that converts a {@link FixedDecimal} to a
+     * <code>String</code>. Values are written in plain notation with
+     * all of their fraction digits.
+     */
+    public static class FixedDecimalToString extends AbstractNumberToStringConverter<FixedDecimal> implements AppendingConverter<FixedDecimal> {
+        public FixedDecimalToString() {
+            super(FixedDecimal.class);
+        }
+
+        public StringBuilder appendTo(FixedDecimal obj, StringBuilder sb) throws ConversionException {
+            return obj.appendTo(sb);
+        }
+
+        public String convert(FixedDecimal obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String result = obj.format(locale);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return BigDecimalFormat.getInstance(formatString, locale).format(obj.toBigDecimal());
+        }
+
+        protected String format(FixedDecimal obj, NumberFormat nf) throws ConversionException {
+            return nf.format(obj.toBigDecimal());
+        }
+    }
+
     /**
      * An object that converts a <code>Float</code> to a
-     * <code>String</code>.
+     * <code>String</code>. Values are written as the shortest decimal that
+     * converts back to the same value, using {@link DoubleFormat}.
      */
-    public static class FloatToString extends AbstractNumberToStringConverter<Float> {
+    public static class FloatToString extends AbstractNumberToStringConverter<Float> implements AppendingConverter<Float> {
         public FloatToString() {
             super(Float.class);
         }
 
+        public StringBuilder appendTo(Float obj, StringBuilder sb) throws ConversionException {
+            return DoubleFormat.append(sb, obj.floatValue());
+        }
+
+        public String convert(Float obj) throws ConversionException {
+            return DoubleFormat.toString(obj.floatValue());
+        }
+
+        public String convert(Float obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String result = DoubleFormat.format(obj.floatValue(), locale);
+                if (result != null) {
+                    return result;
+                }
+            }
+            return super.convert(obj, locale, timeZone, formatString);
+        }
+
         protected String format(Float obj, NumberFormat nf) throws ConversionException {
             return nf.format(obj.floatValue());
         }
     }
 
+    /**
+     * An object that converts a <code>Number</code> to another number class
+     * through a {@link NumberValue}. The source is decoded into a per-thread
+     * <code>NumberValue</code>, so a conversion allocates only the result.
+     */
+    public static class GenericNumberConverter<S extends Number, T> extends AbstractConverter<S, T> {
+        private static final ThreadLocal<NumberValue> holder = new ThreadLocal<NumberValue>() {
+            @Override
+            protected NumberValue initialValue() {
+                return new NumberValue();
+            }
+        };
+        private final NumberValue.Codec<T> codec;
+
+        public GenericNumberConverter(Class<S> sourceClass, NumberValue.Codec<T> codec) {
+            super(sourceClass, codec.getType());
+            this.codec = codec;
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return this.getSourceClass() == sourceClass && this.getTargetClass() == targetClass;
+        }
+
+        public T convert(S obj) throws ConversionException {
+            NumberValue value = holder.get();
+            value.set(obj);
+            return codec.encode(value);
+        }
+    }
+
     /**
      * An object that converts a <code>Number</code> to a
      * <code>BigDecimal</code>.
@@ -292,7 +592,7 @@ public class NumberConverters implements ConverterLoader {
      * An object that converts an <code>Integer</code> to a
      * <code>String</code>.
      */
-    public static class IntegerToString extends AbstractNumberToStringConverter<Integer> {
+    public static class IntegerToString extends AbstractIntegerToStringConverter<Integer> {
         public IntegerToString() {
             super(Integer.class);
         }
@@ -316,11 +616,25 @@ public class NumberConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * An object that converts a <code>Long</code> to a
+     * {@link FixedDecimal}.
+     */
+    public static class LongToFixedDecimal extends AbstractConverter<Long, FixedDecimal> {
+        public LongToFixedDecimal() {
+            super(Long.class, FixedDecimal.class);
+        }
+
+        public FixedDecimal convert(Long obj) throws ConversionException {
+            return FixedDecimal.valueOf(obj.longValue());
+        }
+    }
+
     /**
      * An object that converts a <code>Long</code> to a
      * <code>String</code>.
      */
-    public static class LongToString extends AbstractNumberToStringConverter<Long> {
+    public static class LongToString extends AbstractIntegerToStringConverter<Long> {
         public LongToString() {
             super(Long.class);
         }
@@ -330,11 +644,283 @@ public class NumberConverters implements ConverterLoader {
         }
     }
 
+    /**
+     * Creates {@link NumberToNumber} instances for pairs of the built-in number
+     * classes, and {@link GenericNumberConverter} instances for other
+     * <code>Number</code> sources and targets that have a {@link NumberValue.Codec}.
+     */
+    public static class NumberConverterCreator implements ConverterCreator, ConverterLoader {
+        public <S, T> Converter<S, T> createConverter(Class<S> sourceClass, Class<T> targetClass) {
+            if (!Number.class.isAssignableFrom(sourceClass) || targetClass.isAssignableFrom(sourceClass)) {
+                return null;
+            }
+            if (NumberToNumber.kindOf(sourceClass) >= 0 && NumberToNumber.kindOf(targetClass) >= 0) {
+                Class<Number> numberClass = Util.cast(sourceClass);
+                Class<Number> targetNumberClass = Util.cast(targetClass);
+                return Util.cast(new NumberToNumber<Number, Number>(numberClass, targetNumberClass, Narrowing.UNCHECKED));
+            }
+            NumberValue.Codec<T> codec = NumberValue.getCodec(targetClass);
+            if (codec == null) {
+                return null;
+            }
+            Class<Number> numberClass = Util.cast(sourceClass);
+            return Util.cast(new GenericNumberConverter<Number, T>(numberClass, codec));
+        }
+
+        public void loadConverters() {
+            Converters.registerCreator(this);
+        }
+    }
+
+    /**
+     * An object that converts between two of the built-in number classes
+     * (<code>Byte</code>, <code>Short</code>, <code>Integer</code>, <code>Long</code>,
+     * <code>Float</code>, <code>Double</code>, <code>BigInteger</code>,
+     * <code>BigDecimal</code>). Each pair uses the cheapest exact operation:
+     * integral values never pass through <code>double</code>, and
+     * <code>BigDecimal</code> and <code>BigInteger</code> targets are exact.
+     * Narrowing follows the {@link Narrowing} mode; <code>Float</code> and
+     * <code>Double</code> targets treat overflow to infinity as out of range.
+     */
+    public static class NumberToNumber<S extends Number, T extends Number> extends AbstractConverter<S, T> {
+        private static final int BYTE = 0;
+        private static final int SHORT = 1;
+        private static final int INTEGER = 2;
+        private static final int LONG = 3;
+        private static final int FLOAT = 4;
+        private static final int DOUBLE = 5;
+        private static final int BIG_INTEGER = 6;
+        private static final int BIG_DECIMAL = 7;
+        private static final Class<?>[] kinds = {Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class};
+        private static final long[] minValues = {Byte.MIN_VALUE, Short.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE};
+        private static final long[] maxValues = {Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE};
+        // -2^63 and 2^63 as doubles
+        private static final double LONG_RANGE_MIN = -9.223372036854775808E18;
+        private static final double LONG_RANGE_MAX = 9.223372036854775808E18;
+
+        static int kindOf(Class<?> type) {
+            for (int i = 0; i < kinds.length; i++) {
+                if (kinds[i] == type) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private final int sourceKind;
+        private final int targetKind;
+        private final Narrowing narrowing;
+
+        public NumberToNumber(Class<S> sourceClass, Class<T> targetClass, Narrowing narrowing) {
+            super(sourceClass, targetClass);
+            this.sourceKind = kindOf(sourceClass);
+            this.targetKind = kindOf(targetClass);
+            if (sourceKind < 0 || targetKind < 0) {
+                throw new IllegalArgumentException("Not a built-in number class pair: " + sourceClass.getName() + " -> " + targetClass.getName());
+            }
+            this.narrowing = narrowing;
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return this.getSourceClass() == sourceClass && this.getTargetClass() == targetClass;
+        }
+
+        public Narrowing getNarrowing() {
+            return narrowing;
+        }
+
+        public T convert(S obj) throws ConversionException {
+            Number result;
+            switch (sourceKind) {
+                case FLOAT:
+                case DOUBLE:
+                    result = fromDouble(obj.doubleValue(), obj);
+                    break;
+                case BIG_INTEGER:
+                    result = fromBigInteger((BigInteger) obj, obj);
+                    break;
+                case BIG_DECIMAL:
+                    result = fromBigDecimal((BigDecimal) obj);
+                    break;
+                default:
+                    result = fromLong(obj.longValue(), obj);
+            }
+            return Util.cast(result);
+        }
+
+        /** Returns <code>number</code> truncated toward zero, as a
+         * {@link Narrowing#CHECKED} converter narrows it to an integral class
+         * whose range is <code>[min, max]</code>.
+         *
+         * @throws ConversionException if the value is out of range, or is NaN
+         */
+        static long checkedLongValue(Number number, long min, long max) throws ConversionException {
+            long value;
+            if (number instanceof Double || number instanceof Float) {
+                double d = number.doubleValue();
+                // NaN fails both comparisons
+                if (!(d >= LONG_RANGE_MIN && d < LONG_RANGE_MAX)) {
+                    throw outOfRange(number, min, max);
+                }
+                value = (long) d;
+            } else if (number instanceof BigInteger || number instanceof BigDecimal) {
+                BigInteger integer = number instanceof BigDecimal ? ((BigDecimal) number).toBigInteger() : (BigInteger) number;
+                if (integer.bitLength() > 63) {
+                    throw outOfRange(number, min, max);
+                }
+                value = integer.longValue();
+            } else {
+                value = number.longValue();
+            }
+            return checkRange(value, number, min, max);
+        }
+
+        /** Returns <code>value</code>, the value of <code>obj</code>, if it is in
+         * <code>[min, max]</code>.
+         *
+         * @throws ConversionException if it is not
+         */
+        static long checkRange(long value, Object obj, long min, long max) throws ConversionException {
+            if (value < min || value > max) {
+                throw outOfRange(obj, min, max);
+            }
+            return value;
+        }
+
+        /** Returns <code>number</code> as a <code>double</code>. Finite values that
+         * overflow to infinity are out of range, as in {@link Narrowing#CHECKED}. */
+        static double checkedDoubleValue(Number number) throws ConversionException {
+            double value = number.doubleValue();
+            if (Double.isInfinite(value) && !(number instanceof Double || number instanceof Float)) {
+                throw new ConversionException(number + " is out of range for java.lang.Double");
+            }
+            return value;
+        }
+
+        /** Returns <code>number</code> as a <code>float</code>. Finite values that
+         * overflow to infinity are out of range, as in {@link Narrowing#CHECKED}. */
+        static float checkedFloatValue(Number number) throws ConversionException {
+            float value = number.floatValue();
+            if (Float.isInfinite(value) && !((number instanceof Double || number instanceof Float) && Double.isInfinite(number.doubleValue()))) {
+                throw new ConversionException(number + " is out of range for java.lang.Float");
+            }
+            return value;
+        }
+
+        private static ConversionException outOfRange(Object obj, long min, long max) {
+            return new ConversionException(obj + " is out of range [" + min + ", " + max + "]");
+        }
+
+        private ConversionException outOfRange(Number obj) {
+            return new ConversionException(obj + " is out of range for " + kinds[targetKind].getName());
+        }
+
+        private long narrow(long value, Number obj) {
+            long min = minValues[targetKind];
+            long max = maxValues[targetKind];
+            if (value >= min && value <= max) {
+                return value;
+            }
+            switch (narrowing) {
+                case CHECKED: throw outOfRange(obj);
+                case SATURATING: return value < min ? min : max;
+                default: return value;
+            }
+        }
+
+        private Number fromLong(long value, Number obj) {
+            switch (targetKind) {
+                case BYTE: return Byte.valueOf((byte) narrow(value, obj));
+                case SHORT: return Short.valueOf((short) narrow(value, obj));
+                case INTEGER: return Integer.valueOf((int) narrow(value, obj));
+                case LONG: return Long.valueOf(value);
+                case FLOAT: return Float.valueOf(value);
+                case DOUBLE: return Double.valueOf(value);
+                case BIG_INTEGER: return BigInteger.valueOf(value);
+                default: return BigDecimal.valueOf(value);
+            }
+        }
+
+        private Number fromDouble(double value, Number obj) {
+            switch (targetKind) {
+                case FLOAT: return Float.valueOf(Double.isInfinite(value) ? (float) value : checkFloat((float) value, obj));
+                case DOUBLE: return Double.valueOf(value);
+                case BIG_INTEGER:
+                case BIG_DECIMAL:
+                    if (Double.isNaN(value) || Double.isInfinite(value)) {
+                        throw new ConversionException(obj + " has no exact value");
+                    }
+                    BigDecimal decimal = new BigDecimal(value);
+                    return targetKind == BIG_DECIMAL ? decimal : decimal.toBigInteger();
+            }
+            // NaN fails both comparisons
+            if (narrowing == Narrowing.CHECKED && !(value >= LONG_RANGE_MIN && value < LONG_RANGE_MAX)) {
+                throw outOfRange(obj);
+            }
+            if (narrowing == Narrowing.UNCHECKED && targetKind != LONG) {
+                // A Java cast from double to byte or short goes through int
+                return fromLong((int) value, obj);
+            }
+            // The cast clamps to the long range and converts NaN to zero
+            return fromLong((long) value, obj);
+        }
+
+        private float checkFloat(float result, Number obj) {
+            if (Float.isInfinite(result) && narrowing != Narrowing.UNCHECKED) {
+                if (narrowing == Narrowing.CHECKED) {
+                    throw outOfRange(obj);
+                }
+                return result > 0 ? Float.MAX_VALUE : -Float.MAX_VALUE;
+            }
+            return result;
+        }
+
+        private double checkDouble(double result, Number obj) {
+            if (Double.isInfinite(result) && narrowing != Narrowing.UNCHECKED) {
+                if (narrowing == Narrowing.CHECKED) {
+                    throw outOfRange(obj);
+                }
+                return result > 0 ? Double.MAX_VALUE : -Double.MAX_VALUE;
+            }
+            return result;
+        }
+
+        private Number fromBigInteger(BigInteger value, Number obj) {
+            switch (targetKind) {
+                case FLOAT: return Float.valueOf(checkFloat(value.floatValue(), obj));
+                case DOUBLE: return Double.valueOf(checkDouble(value.doubleValue(), obj));
+                case BIG_INTEGER: return value;
+                case BIG_DECIMAL: return new BigDecimal(value);
+            }
+            if (value.bitLength() > 63 && narrowing != Narrowing.UNCHECKED) {
+                if (narrowing == Narrowing.CHECKED) {
+                    throw outOfRange(obj);
+                }
+                return fromLong(value.signum() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE, obj);
+            }
+            return fromLong(value.longValue(), obj);
+        }
+
+        private Number fromBigDecimal(BigDecimal value) {
+            switch (targetKind) {
+                case FLOAT: return Float.valueOf(checkFloat(value.floatValue(), value));
+                case DOUBLE: return Double.valueOf(checkDouble(value.doubleValue(), value));
+                case BIG_INTEGER: return value.toBigInteger();
+                case BIG_DECIMAL: return value;
+            }
+            if (narrowing == Narrowing.UNCHECKED || value.precision() - value.scale() < 19) {
+                return fromLong(value.longValue(), value);
+            }
+            return fromBigInteger(value.toBigInteger(), value);
+        }
+    }
+
     /**
      * An object that converts a <code>Short</code> to a
      * <code>String</code>.
      */
-    public static class ShortToString extends AbstractNumberToStringConverter<Short> {
+    public static class ShortToString extends AbstractIntegerToStringConverter<Short> {
         public ShortToString() {
             super(Short.class);
         }
@@ -348,49 +934,115 @@ public class NumberConverters implements ConverterLoader {
      * An object that converts a <code>String</code> to a
      * <code>BigDecimal</code>.
      */
-    public static class StringToBigDecimal extends AbstractStringToNumberConverter<BigDecimal> {
+    public static class StringToBigDecimal extends AbstractStringToNumberConverter<BigDecimal> implements TryConverter<String, BigDecimal> {
         public StringToBigDecimal() {
             super(BigDecimal.class);
         }
 
+        public BigDecimal tryConvert(String obj, BigDecimal defaultValue) {
+            if (!isFloatingPoint(obj)) {
+                return defaultValue;
+            }
+            double value = Double.parseDouble(obj);
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return defaultValue;
+            }
+            return BigDecimal.valueOf(value);
+        }
+
         protected BigDecimal convert(Number number) throws ConversionException {
             return BigDecimal.valueOf(number.doubleValue());
         }
 
         public BigDecimal convert(String obj) throws ConversionException {
-            return BigDecimal.valueOf(Double.valueOf(obj));
+            try {
+                return BigDecimal.valueOf(Double.valueOf(obj));
+            } catch (NumberFormatException e) {
+                throw ConversionException.invalidInput("For input string: \"", obj, "\"");
+            }
         }
     }
 
     /**
      * An object that converts a <code>String</code> to a
-     * <code>BigInteger</code>.
+     * <code>BigInteger</code>. Long inputs are parsed in sub-quadratic
+     * time, using {@link IntegerParser}.
      */
-    public static class StringToBigInteger extends AbstractStringToNumberConverter<BigInteger> {
+    public static class StringToBigInteger extends AbstractStringToNumberConverter<BigInteger> implements TryConverter<String, BigInteger> {
         public StringToBigInteger() {
             super(BigInteger.class);
         }
 
+        public BigInteger tryConvert(String obj, BigInteger defaultValue) {
+            BigInteger result = IntegerParser.tryParseBigInteger(obj);
+            return result == null ? defaultValue : result;
+        }
+
         protected BigInteger convert(Number number) throws ConversionException {
+            if (number instanceof BigDecimal) {
+                return ((BigDecimal) number).toBigInteger();
+            }
+            if (number instanceof BigInteger) {
+                return (BigInteger) number;
+            }
+            if (number instanceof Double || number instanceof Float) {
+                try {
+                    return new BigDecimal(number.doubleValue()).toBigInteger();
+                } catch (NumberFormatException e) {
+                    throw new ConversionException(e);
+                }
+            }
             return BigInteger.valueOf(number.longValue());
         }
 
         public BigInteger convert(String obj) throws ConversionException {
-            return new BigInteger(obj);
+            return IntegerParser.parseBigInteger(obj);
+        }
+
+        public BigInteger convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                String digits = IntegerFormat.unformat(obj, locale);
+                if (digits != null) {
+                    return IntegerParser.parseBigInteger(digits);
+                }
+            }
+            NumberFormat nf = formatString == null ? NumberFormat.getNumberInstance(locale) : toDecimalFormat(formatString, locale);
+            if (nf instanceof DecimalFormat) {
+                ((DecimalFormat) nf).setParseBigDecimal(true);
+            }
+            return convert(fromString(obj, nf));
         }
     }
 
     /**
      * An object that converts a <code>String</code> to a
-     * <code>Byte</code>.
+     * <code>Byte</code>, using {@link IntegerParser}.
+     * <code>NumberFormatException</code> is wrapped in a <code>ConversionException</code>.
      */
-    public static class StringToByte extends AbstractConverter<String, Byte> {
+    public static class StringToByte extends AbstractConverter<String, Byte> implements TryConverter<String, Byte> {
         public StringToByte() {
             super(String.class, Byte.class);
         }
 
+        public Byte tryConvert(String obj, Byte defaultValue) {
+            Integer value = IntegerParser.tryParseInt(obj);
+            if (value == null || value.intValue() != (byte) value.intValue()) {
+                return defaultValue;
+            }
+            return Byte.valueOf((byte) value.intValue());
+        }
+
         public Byte convert(String obj) throws ConversionException {
-            return Byte.valueOf(obj);
+            try {
+                int value = IntegerParser.parseInt(obj);
+                if (value != (byte) value) {
+                    // Let Byte report the error
+                    return Byte.valueOf(obj);
+                }
+                return Byte.valueOf((byte) value);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
         }
     }
 
@@ -398,17 +1050,76 @@ public class NumberConverters implements ConverterLoader {
      * An object that converts a <code>String</code> to a
      * <code>Double</code>.
      */
-    public static class StringToDouble extends AbstractStringToNumberConverter<Double> {
+    public static class StringToDouble extends AbstractStringToNumberConverter<Double> implements TryConverter<String, Double> {
         public StringToDouble() {
             super(Double.class);
         }
 
+        public Double tryConvert(String obj, Double defaultValue) {
+            return isFloatingPoint(obj) ? Double.valueOf(obj) : defaultValue;
+        }
+
         protected Double convert(Number number) throws ConversionException {
             return number.doubleValue();
         }
 
         public Double convert(String obj) throws ConversionException {
-            return Double.valueOf(obj);
+            try {
+                return Double.valueOf(obj);
+            } catch (NumberFormatException e) {
+                throw ConversionException.invalidInput("For input string: \"", obj, "\"");
+            }
+        }
+    }
+
+    /**
+     * An object that converts a <code>String</code> to a
+     * {@link FixedDecimal}. Values that are not decimal numbers, or that
+     * cannot be represented, throw <code>ConversionException</code>.
+     */
+    public static class StringToFixedDecimal extends AbstractStringToNumberConverter<FixedDecimal> implements TryConverter<String, FixedDecimal> {
+        public StringToFixedDecimal() {
+            super(FixedDecimal.class);
+        }
+
+        public FixedDecimal tryConvert(String obj, FixedDecimal defaultValue) {
+            FixedDecimal result = FixedDecimal.parse(obj, obj.length());
+            return result == null ? defaultValue : result;
+        }
+
+        protected FixedDecimal convert(Number number) throws ConversionException {
+            try {
+                if (number instanceof BigDecimal) {
+                    return FixedDecimal.valueOf((BigDecimal) number);
+                }
+                if (number instanceof Double) {
+                    return FixedDecimal.valueOf(number.doubleValue());
+                }
+                return FixedDecimal.valueOf(number.longValue());
+            } catch (ArithmeticException e) {
+                throw new ConversionException(e);
+            }
+        }
+
+        public FixedDecimal convert(String obj) throws ConversionException {
+            try {
+                return FixedDecimal.parse(obj);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
+        }
+
+        public FixedDecimal convert(String obj, Locale locale, TimeZone timeZone, String formatString) throws ConversionException {
+            if (formatString == null) {
+                try {
+                    return FixedDecimal.parse(obj, locale);
+                } catch (NumberFormatException e) {
+                    throw new ConversionException(e);
+                }
+            }
+            DecimalFormat df = toDecimalFormat(formatString, locale);
+            df.setParseBigDecimal(true);
+            return convert(fromString(obj, df));
         }
     }
 
@@ -416,67 +1127,113 @@ public class NumberConverters implements ConverterLoader {
      * An object that converts a <code>String</code> to a
      * <code>Float</code>.
      */
-    public static class StringToFloat extends AbstractStringToNumberConverter<Float> {
+    public static class StringToFloat extends AbstractStringToNumberConverter<Float> implements TryConverter<String, Float> {
         public StringToFloat() {
             super(Float.class);
         }
 
+        public Float tryConvert(String obj, Float defaultValue) {
+            return isFloatingPoint(obj) ? Float.valueOf(obj) : defaultValue;
+        }
+
         protected Float convert(Number number) throws ConversionException {
             return number.floatValue();
         }
 
         public Float convert(String obj) throws ConversionException {
-            return Float.valueOf(obj);
+            try {
+                return Float.valueOf(obj);
+            } catch (NumberFormatException e) {
+                throw ConversionException.invalidInput("For input string: \"", obj, "\"");
+            }
         }
     }
 
     /**
      * An object that converts a <code>String</code> to an
-     * <code>Integer</code>.
+     * <code>Integer</code>, using {@link IntegerParser}.
+     * <code>NumberFormatException</code> is wrapped in a <code>ConversionException</code>.
      */
-    public static class StringToInteger extends AbstractStringToNumberConverter<Integer> {
+    public static class StringToInteger extends AbstractStringToNumberConverter<Integer> implements TryConverter<String, Integer> {
         public StringToInteger() {
             super(Integer.class);
         }
 
+        public Integer tryConvert(String obj, Integer defaultValue) {
+            Integer result = IntegerParser.tryParseInt(obj);
+            return result == null ? defaultValue : result;
+        }
+
         protected Integer convert(Number number) throws ConversionException {
             return number.intValue();
         }
 
         public Integer convert(String obj) throws ConversionException {
-            return Integer.valueOf(obj);
+            try {
+                return IntegerParser.parseInt(obj);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
         }
     }
 
     /**
      * An object that converts a <code>String</code> to a
-     * <code>Long</code>.
+     * <code>Long</code>, using {@link IntegerParser}.
+     * <code>NumberFormatException</code> is wrapped in a <code>ConversionException</code>.
      */
-    public static class StringToLong extends AbstractStringToNumberConverter<Long> {
+    public static class StringToLong extends AbstractStringToNumberConverter<Long> implements TryConverter<String, Long> {
         public StringToLong() {
             super(Long.class);
         }
 
+        public Long tryConvert(String obj, Long defaultValue) {
+            Long result = IntegerParser.tryParseLong(obj);
+            return result == null ? defaultValue : result;
+        }
+
         protected Long convert(Number number) throws ConversionException {
             return number.longValue();
         }
 
         public Long convert(String obj) throws ConversionException {
-            return Long.valueOf(obj);
+            try {
+                return IntegerParser.parseLong(obj);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
         }
     }
 
     /**
      * An object that converts a <code>String</code> to a
-     * <code>Short</code>.
+     * <code>Short</code>, using {@link IntegerParser}.
+     * <code>NumberFormatException</code> is wrapped in a <code>ConversionException</code>.
      */
-    public static class StringToShort extends AbstractConverter<String, Short> {
+    public static class StringToShort extends AbstractConverter<String, Short> implements TryConverter<String, Short> {
         public StringToShort() {
             super(String.class, Short.class);
         }
 
+        public Short tryConvert(String obj, Short defaultValue) {
+            Integer value = IntegerParser.tryParseInt(obj);
+            if (value == null || value.intValue() != (short) value.intValue()) {
+                return defaultValue;
+            }
+            return Short.valueOf((short) value.intValue());
+        }
+
         public Short convert(String obj) throws ConversionException {
-            return Short.valueOf(obj);
+            try {
+                int value = IntegerParser.parseInt(obj);
+                if (value != (short) value) {
+                    // Let Short report the error
+                    return Short.valueOf(obj);
+                }
+                return Short.valueOf((short) value);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
         }
     }
 }
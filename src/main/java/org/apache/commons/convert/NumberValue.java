@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A mutable number, tagged as a <code>long</code>, a <code>double</code>, or an
+ * arbitrary-precision <code>Number</code>.
+ * <p><code>NumberValue</code> is the canonical intermediate for number
+ * conversions. A source number is decoded into a <code>NumberValue</code> without
+ * allocation, and each number class has a {@link Codec} that encodes a
+ * <code>NumberValue</code> into a new instance. A new number class needs one codec
+ * instead of a converter for every other number class.</p>
+ */
+public class NumberValue extends Number {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Tag for values held as a <code>long</code>. */
+    public static final int LONG = 0;
+    /** Tag for values held as a <code>double</code>. */
+    public static final int DOUBLE = 1;
+    /** Tag for values held as a <code>BigDecimal</code>, <code>BigInteger</code>, or other <code>Number</code>. */
+    public static final int OBJECT = 2;
+
+    private static final ConcurrentHashMap<Class<?>, Codec<?>> codecs = new ConcurrentHashMap<Class<?>, Codec<?>>();
+
+    static {
+        registerCodec(new Codec<BigDecimal>(BigDecimal.class) {
+            public BigDecimal encode(NumberValue value) {
+                return value.bigDecimalValue();
+            }
+        });
+        registerCodec(new Codec<BigInteger>(BigInteger.class) {
+            public BigInteger encode(NumberValue value) {
+                if (value.kind == LONG) {
+                    return BigInteger.valueOf(value.longValue);
+                }
+                if (value.kind == OBJECT && value.objectValue instanceof BigInteger) {
+                    return (BigInteger) value.objectValue;
+                }
+                if (value.kind == DOUBLE && (Double.isNaN(value.doubleValue) || Double.isInfinite(value.doubleValue))) {
+                    return BigInteger.valueOf(value.longValue());
+                }
+                return value.bigDecimalValue().toBigInteger();
+            }
+        });
+        registerCodec(new Codec<Byte>(Byte.class) {
+            public Byte encode(NumberValue value) {
+                return Byte.valueOf(value.byteValue());
+            }
+        });
+        registerCodec(new Codec<Double>(Double.class) {
+            public Double encode(NumberValue value) {
+                return value.doubleValue();
+            }
+        });
+        registerCodec(new Codec<Float>(Float.class) {
+            public Float encode(NumberValue value) {
+                return value.floatValue();
+            }
+        });
+        registerCodec(new Codec<Integer>(Integer.class) {
+            public Integer encode(NumberValue value) {
+                return value.intValue();
+            }
+        });
+        registerCodec(new Codec<Long>(Long.class) {
+            public Long encode(NumberValue value) {
+                return value.longValue();
+            }
+        });
+        registerCodec(new Codec<Short>(Short.class) {
+            public Short encode(NumberValue value) {
+                return value.shortValue();
+            }
+        });
+    }
+
+    /** Returns the codec for <code>type</code>, or <code>null</code> if there is none.
+     * Only exact class matches are returned.
+     *
+     * @param type The number class
+     * @return The codec, or <code>null</code>
+     */
+    public static <T> Codec<T> getCodec(Class<T> type) {
+        return Util.cast(codecs.get(type));
+    }
+
+    /** Registers a codec. An existing codec for the same class is not replaced.
+     *
+     * @param codec The codec to register
+     */
+    public static void registerCodec(Codec<?> codec) {
+        codecs.putIfAbsent(codec.getType(), codec);
+    }
+
+    private int kind;
+    private long longValue;
+    private double doubleValue;
+    private Number objectValue;
+
+    /** Returns {@link #LONG}, {@link #DOUBLE}, or {@link #OBJECT}. */
+    public int getKind() {
+        return kind;
+    }
+
+    /** Returns the held <code>Number</code> if the kind is {@link #OBJECT}, or <code>null</code>. */
+    public Number getObject() {
+        return objectValue;
+    }
+
+    /** Sets this value from <code>obj</code>. <code>Byte</code>, <code>Short</code>,
+     * <code>Integer</code>, <code>Long</code>, <code>AtomicInteger</code> and
+     * <code>AtomicLong</code> are held as a <code>long</code>, <code>Float</code> and
+     * <code>Double</code> as a <code>double</code>, and other classes as the object
+     * itself.
+     *
+     * @param obj The number
+     */
+    public void set(Number obj) {
+        Class<?> type = obj.getClass();
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+                || type == AtomicInteger.class || type == AtomicLong.class) {
+            setLong(obj.longValue());
+        } else if (type == Double.class || type == Float.class) {
+            setDouble(obj.doubleValue());
+        } else {
+            kind = OBJECT;
+            objectValue = obj;
+        }
+    }
+
+    public void setDouble(double value) {
+        kind = DOUBLE;
+        doubleValue = value;
+        objectValue = null;
+    }
+
+    public void setLong(long value) {
+        kind = LONG;
+        longValue = value;
+        objectValue = null;
+    }
+
+    @Override
+    public byte byteValue() {
+        switch (kind) {
+            case LONG: return (byte) longValue;
+            case DOUBLE: return (byte) doubleValue;
+            default: return objectValue.byteValue();
+        }
+    }
+
+    @Override
+    public double doubleValue() {
+        switch (kind) {
+            case LONG: return longValue;
+            case DOUBLE: return doubleValue;
+            default: return objectValue.doubleValue();
+        }
+    }
+
+    @Override
+    public float floatValue() {
+        switch (kind) {
+            case LONG: return longValue;
+            case DOUBLE: return (float) doubleValue;
+            default: return objectValue.floatValue();
+        }
+    }
+
+    @Override
+    public int intValue() {
+        switch (kind) {
+            case LONG: return (int) longValue;
+            case DOUBLE: return (int) doubleValue;
+            default: return objectValue.intValue();
+        }
+    }
+
+    @Override
+    public long longValue() {
+        switch (kind) {
+            case LONG: return longValue;
+            case DOUBLE: return (long) doubleValue;
+            default: return objectValue.longValue();
+        }
+    }
+
+    @Override
+    public short shortValue() {
+        switch (kind) {
+            case LONG: return (short) longValue;
+            case DOUBLE: return (short) doubleValue;
+            default: return objectValue.shortValue();
+        }
+    }
+
+    /** Returns the exact value as a <code>BigDecimal</code>. A <code>double</code>
+     * is converted exactly, as <code>new BigDecimal(double)</code> does. Other
+     * <code>Number</code> classes are read from their <code>toString</code>, or
+     * from <code>doubleValue</code> if that is not a decimal number.
+     *
+     * @throws NumberFormatException if the value is infinite or NaN
+     */
+    BigDecimal bigDecimalValue() {
+        switch (kind) {
+            case LONG: return BigDecimal.valueOf(longValue);
+            case DOUBLE: return new BigDecimal(doubleValue);
+            default:
+                if (objectValue instanceof BigDecimal) {
+                    return (BigDecimal) objectValue;
+                }
+                if (objectValue instanceof BigInteger) {
+                    return new BigDecimal((BigInteger) objectValue);
+                }
+                if (objectValue instanceof FixedDecimal) {
+                    return ((FixedDecimal) objectValue).toBigDecimal();
+                }
+                try {
+                    return new BigDecimal(objectValue.toString());
+                } catch (NumberFormatException e) {
+                    return new BigDecimal(objectValue.doubleValue());
+                }
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case LONG: return Long.toString(longValue);
+            case DOUBLE: return Double.toString(doubleValue);
+            default: return objectValue.toString();
+        }
+    }
+
+    /** Encodes a <code>NumberValue</code> into new instances of one number class. */
+    public static abstract class Codec<T> {
+        private final Class<T> type;
+
+        protected Codec(Class<T> type) {
+            this.type = type;
+        }
+
+        public Class<T> getType() {
+            return type;
+        }
+
+        /** Returns a new instance that represents <code>value</code>. */
+        public abstract T encode(NumberValue value);
+    }
+}
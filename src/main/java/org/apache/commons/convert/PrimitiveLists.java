@@ -0,0 +1,700 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** Fixed-size <code>List</code> views of primitive arrays, like
+ * <code>Arrays.asList</code> for object arrays.
+ * <p>A view boxes an element only when it is read, and writes through to the
+ * array. <code>toArray</code>, <code>indexOf</code> and <code>contains</code>
+ * work on the array directly, and sorting in natural order sorts the array with
+ * <code>Arrays.sort</code>. The {@link CollectionConverters} collection to
+ * primitive array converters copy a view's array without unboxing.</p>
+ * <p>Array to <code>List</code> conversions copy the array by default. Views
+ * are opt-in: call {@link #loadConverters()} before the first conversion to
+ * convert primitive arrays to <code>List</code> views instead, or use the
+ * <code>asList</code> methods or {@link ArrayToListView} directly.</p>
+ */
+public class PrimitiveLists implements ConverterLoader {
+
+    private static final Class<?>[] ARRAY_CLASSES = {boolean[].class, byte[].class, char[].class, double[].class,
+            float[].class, int[].class, long[].class, short[].class};
+
+    public void loadConverters() {
+        for (Class<?> arrayClass : ARRAY_CLASSES) {
+            Converters.registerConverter(new ArrayToListView<Object>(Util.<Class<Object>>cast(arrayClass)));
+        }
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Boolean> asList(boolean[] array) {
+        return new BooleanList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Byte> asList(byte[] array) {
+        return new ByteList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Character> asList(char[] array) {
+        return new CharList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Double> asList(double[] array) {
+        return new DoubleList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Float> asList(float[] array) {
+        return new FloatList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Integer> asList(int[] array) {
+        return new IntList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Long> asList(long[] array) {
+        return new LongList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of <code>array</code>.
+     *
+     * @param array The array
+     * @return The view
+     */
+    public static List<Short> asList(short[] array) {
+        return new ShortList(array);
+    }
+
+    /** Returns a fixed-size <code>List</code> view of the primitive array
+     * <code>array</code>.
+     *
+     * @param array The primitive array
+     * @return The view
+     * @throws IllegalArgumentException if <code>array</code> is not a primitive array
+     */
+    public static List<?> asList(Object array) {
+        if (array instanceof boolean[]) {
+            return new BooleanList((boolean[]) array);
+        }
+        if (array instanceof byte[]) {
+            return new ByteList((byte[]) array);
+        }
+        if (array instanceof char[]) {
+            return new CharList((char[]) array);
+        }
+        if (array instanceof double[]) {
+            return new DoubleList((double[]) array);
+        }
+        if (array instanceof float[]) {
+            return new FloatList((float[]) array);
+        }
+        if (array instanceof int[]) {
+            return new IntList((int[]) array);
+        }
+        if (array instanceof long[]) {
+            return new LongList((long[]) array);
+        }
+        if (array instanceof short[]) {
+            return new ShortList((short[]) array);
+        }
+        throw new IllegalArgumentException("Not a primitive array: " + array);
+    }
+
+    /** Returns a copy of the array behind <code>collection</code>, if it is a view
+     * of an array of <code>arrayClass</code>, or <code>null</code>.
+     */
+    static Object copyArray(Collection<?> collection, Class<?> arrayClass) {
+        if (collection instanceof PrimitiveList) {
+            Object array = ((PrimitiveList<?>) collection).array();
+            if (array.getClass() == arrayClass) {
+                int length = Array.getLength(array);
+                Object copy = Array.newInstance(arrayClass.getComponentType(), length);
+                System.arraycopy(array, 0, copy, 0, length);
+                return copy;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An object that converts a primitive array to a <code>List</code> view
+     * of it. It is registered by {@link PrimitiveLists#loadConverters()}.
+     */
+    public static class ArrayToListView<S> extends AbstractConverter<S, List<?>> {
+        public ArrayToListView(Class<S> sourceClass) {
+            super(sourceClass, List.class);
+            if (!sourceClass.isArray() || !sourceClass.getComponentType().isPrimitive()) {
+                throw new IllegalArgumentException("Not a primitive array class: " + sourceClass);
+            }
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return sourceClass == getSourceClass() && targetClass == List.class;
+        }
+
+        public List<?> convert(S obj) throws ConversionException {
+            return asList(obj);
+        }
+    }
+
+    /** The base class of the views. */
+    @SuppressWarnings("serial")
+    private static abstract class PrimitiveList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+        protected abstract Object array();
+
+        @Override
+        public boolean contains(Object o) {
+            return indexOf(o) >= 0;
+        }
+
+        @Override
+        public Object[] toArray() {
+            int size = size();
+            Object[] result = new Object[size];
+            for (int i = 0; i < size; i++) {
+                result[i] = get(i);
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T[] toArray(T[] a) {
+            int size = size();
+            T[] result = a.length >= size ? a : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+            for (int i = 0; i < size; i++) {
+                result[i] = (T) get(i);
+            }
+            if (result.length > size) {
+                result[size] = null;
+            }
+            return result;
+        }
+
+        /** Sorts the elements with <code>comparator</code>, through a boxed copy. */
+        @SuppressWarnings("unchecked")
+        protected void sortBoxed(Comparator<? super E> comparator) {
+            Object[] boxed = toArray();
+            Arrays.sort(boxed, (Comparator<Object>) comparator);
+            for (int i = 0; i < boxed.length; i++) {
+                set(i, (E) boxed[i]);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class BooleanList extends PrimitiveList<Boolean> {
+        private final boolean[] array;
+
+        private BooleanList(boolean[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Boolean set(int index, Boolean element) {
+            boolean old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Boolean) {
+                boolean value = (Boolean) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Boolean> comparator) {
+            if (comparator == null) {
+                // false sorts before true
+                int falses = 0;
+                for (boolean value : array) {
+                    if (!value) {
+                        falses++;
+                    }
+                }
+                Arrays.fill(array, 0, falses, false);
+                Arrays.fill(array, falses, array.length, true);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ByteList extends PrimitiveList<Byte> {
+        private final byte[] array;
+
+        private ByteList(byte[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Byte get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Byte set(int index, Byte element) {
+            byte old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Byte) {
+                byte value = (Byte) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Byte> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class CharList extends PrimitiveList<Character> {
+        private final char[] array;
+
+        private CharList(char[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Character get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Character set(int index, Character element) {
+            char old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Character) {
+                char value = (Character) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Character> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class DoubleList extends PrimitiveList<Double> {
+        private final double[] array;
+
+        private DoubleList(double[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Double get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Double set(int index, Double element) {
+            double old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Double) {
+                long bits = Double.doubleToLongBits((Double) o);
+                for (int i = 0; i < array.length; i++) {
+                    if (Double.doubleToLongBits(array[i]) == bits) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Double> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class FloatList extends PrimitiveList<Float> {
+        private final float[] array;
+
+        private FloatList(float[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Float get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Float set(int index, Float element) {
+            float old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Float) {
+                int bits = Float.floatToIntBits((Float) o);
+                for (int i = 0; i < array.length; i++) {
+                    if (Float.floatToIntBits(array[i]) == bits) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Float> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class IntList extends PrimitiveList<Integer> {
+        private final int[] array;
+
+        private IntList(int[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Integer set(int index, Integer element) {
+            int old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Integer) {
+                int value = (Integer) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Integer> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class LongList extends PrimitiveList<Long> {
+        private final long[] array;
+
+        private LongList(long[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Long get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Long set(int index, Long element) {
+            long old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Long) {
+                long value = (Long) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Long> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ShortList extends PrimitiveList<Short> {
+        private final short[] array;
+
+        private ShortList(short[] array) {
+            if (array == null) {
+                throw new NullPointerException();
+            }
+            this.array = array;
+        }
+
+        @Override
+        protected Object array() {
+            return array;
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
+
+        @Override
+        public Short get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public Short set(int index, Short element) {
+            short old = array[index];
+            array[index] = element;
+            return old;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            if (o instanceof Short) {
+                short value = (Short) o;
+                for (int i = 0; i < array.length; i++) {
+                    if (array[i] == value) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        /** Sorts the array. In natural order the primitive array is sorted directly. */
+        public void sort(Comparator<? super Short> comparator) {
+            if (comparator == null) {
+                Arrays.sort(array);
+            } else {
+                sortBoxed(comparator);
+            }
+        }
+    }
+
+    private PrimitiveLists() {}
+}
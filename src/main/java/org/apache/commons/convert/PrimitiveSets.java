@@ -0,0 +1,524 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/** Compact <code>Set</code>s of the values in primitive arrays.
+ * <p>Values in a dense range are stored in a <code>BitSet</code>, offset by the
+ * smallest value. Other values are stored in an open-addressing hash table of
+ * primitives. Elements are boxed only when they are iterated.</p>
+ * <p>The sets can be modified. The first change copies the elements to a
+ * <code>HashSet</code>, which then holds the elements, so that read-only sets stay
+ * compact.</p>
+ * <p>Array to <code>Set</code> conversions build a <code>HashSet</code> by default.
+ * Compact sets are opt-in: call {@link #loadConverters()} before the first
+ * conversion to convert <code>int</code> and <code>long</code> arrays to compact
+ * sets instead, or use the <code>of</code> methods or {@link ArrayToCompactSet}
+ * directly.</p>
+ */
+public class PrimitiveSets implements ConverterLoader {
+
+    /** Values are stored in a <code>BitSet</code> when the range of values is at most
+     * this many times the number of values. A bit set of that range and a hash
+     * table at its load factor use about the same memory. */
+    private static final int DENSITY = 64;
+
+    public void loadConverters() {
+        Converters.registerConverter(new ArrayToCompactSet<int[]>(int[].class));
+        Converters.registerConverter(new ArrayToCompactSet<long[]>(long[].class));
+    }
+
+    /** Returns a <code>Set</code> of the values in <code>array</code>.
+     *
+     * @param array The values
+     * @return The set
+     */
+    public static Set<Integer> of(int[] array) {
+        if (array.length == 0) {
+            return new IntHashSet(array);
+        }
+        int min = array[0];
+        int max = array[0];
+        for (int value : array) {
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        long range = (long) max - min + 1;
+        if (range < Integer.MAX_VALUE && range <= (long) DENSITY * array.length) {
+            BitSet bits = new BitSet((int) range);
+            for (int value : array) {
+                bits.set(value - min);
+            }
+            return new IntBitSet(bits, min);
+        }
+        return new IntHashSet(array);
+    }
+
+    /** Returns a <code>Set</code> of the values in <code>array</code>.
+     *
+     * @param array The values
+     * @return The set
+     */
+    public static Set<Long> of(long[] array) {
+        if (array.length == 0) {
+            return new LongHashSet(array);
+        }
+        long min = array[0];
+        long max = array[0];
+        for (long value : array) {
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        long span = max - min;
+        // span is negative if the range does not fit in a long
+        if (span >= 0 && span < Integer.MAX_VALUE && span + 1 <= (long) DENSITY * array.length) {
+            BitSet bits = new BitSet((int) span + 1);
+            for (long value : array) {
+                bits.set((int) (value - min));
+            }
+            return new LongBitSet(bits, min);
+        }
+        return new LongHashSet(array);
+    }
+
+    /** Returns the hash table slot for <code>value</code>. */
+    private static int slot(int value, int mask) {
+        int h = value * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /** Returns a power of two table size that keeps the load factor at most 1/2. */
+    private static int tableSize(int count) {
+        int size = 4;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * An object that converts an <code>int</code> or <code>long</code> array to a
+     * compact <code>Set</code>. It is registered by {@link PrimitiveSets#loadConverters()}.
+     */
+    public static class ArrayToCompactSet<S> extends AbstractConverter<S, Set<?>> {
+        public ArrayToCompactSet(Class<S> sourceClass) {
+            super(sourceClass, Set.class);
+            if (sourceClass != int[].class && sourceClass != long[].class) {
+                throw new IllegalArgumentException("Not an int or long array class: " + sourceClass);
+            }
+        }
+
+        @Override
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return sourceClass == getSourceClass() && targetClass == Set.class;
+        }
+
+        public Set<?> convert(S obj) throws ConversionException {
+            if (obj instanceof int[]) {
+                return of((int[]) obj);
+            }
+            return of((long[]) obj);
+        }
+    }
+
+    /**
+     * The base class of the compact sets. The compact representation is never
+     * changed: the first modification copies the elements to a
+     * <code>HashSet</code>, and every later operation uses it. Iterators over
+     * the compact representation stay valid, and their <code>remove</code>
+     * removes from the copy.
+     */
+    @SuppressWarnings("serial")
+    private static abstract class CompactSet<E> extends AbstractSet<E> implements Serializable {
+        private Set<E> copy;
+
+        protected abstract boolean containsValue(Object o);
+
+        protected abstract int compactSize();
+
+        protected abstract Iterator<E> compactIterator();
+
+        private Set<E> copy() {
+            if (copy == null) {
+                HashSet<E> result = new HashSet<E>(CollectionConverters.CollectionFactory.hashCapacity(compactSize()));
+                for (Iterator<E> iterator = compactIterator(); iterator.hasNext();) {
+                    result.add(iterator.next());
+                }
+                copy = result;
+            }
+            return copy;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return copy == null ? containsValue(o) : copy.contains(o);
+        }
+
+        @Override
+        public int size() {
+            return copy == null ? compactSize() : copy.size();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            if (copy != null) {
+                return copy.iterator();
+            }
+            final Iterator<E> iterator = compactIterator();
+            return new Iterator<E>() {
+                private E last;
+
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                public E next() {
+                    last = iterator.next();
+                    return last;
+                }
+
+                public void remove() {
+                    if (last == null) {
+                        throw new IllegalStateException();
+                    }
+                    copy().remove(last);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public boolean add(E e) {
+            return copy == null && containsValue(e) ? false : copy().add(e);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return copy().addAll(c);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return copy == null && !containsValue(o) ? false : copy().remove(o);
+        }
+
+        @Override
+        public void clear() {
+            copy = new HashSet<E>();
+        }
+    }
+
+    /** A set of <code>int</code>s in a <code>BitSet</code>, offset by the smallest value. */
+    @SuppressWarnings("serial")
+    private static final class IntBitSet extends CompactSet<Integer> {
+        private final BitSet bits;
+        private final int offset;
+        private final int size;
+
+        private IntBitSet(BitSet bits, int offset) {
+            this.bits = bits;
+            this.offset = offset;
+            this.size = bits.cardinality();
+        }
+
+        protected boolean containsValue(Object o) {
+            if (o instanceof Integer) {
+                long index = (long) ((Integer) o).intValue() - offset;
+                return index >= 0 && index < Integer.MAX_VALUE && bits.get((int) index);
+            }
+            return false;
+        }
+
+        protected int compactSize() {
+            return size;
+        }
+
+        protected Iterator<Integer> compactIterator() {
+            return new Iterator<Integer>() {
+                private int next = bits.nextSetBit(0);
+
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                public Integer next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int value = next + offset;
+                    next = bits.nextSetBit(next + 1);
+                    return value;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /** A set of <code>long</code>s in a <code>BitSet</code>, offset by the smallest value. */
+    @SuppressWarnings("serial")
+    private static final class LongBitSet extends CompactSet<Long> {
+        private final BitSet bits;
+        private final long offset;
+        private final int size;
+
+        private LongBitSet(BitSet bits, long offset) {
+            this.bits = bits;
+            this.offset = offset;
+            this.size = bits.cardinality();
+        }
+
+        protected boolean containsValue(Object o) {
+            if (o instanceof Long) {
+                long value = ((Long) o).longValue();
+                // The difference overflows for values far from the offset
+                long index = value - offset;
+                return value >= offset && index >= 0 && index < Integer.MAX_VALUE && bits.get((int) index);
+            }
+            return false;
+        }
+
+        protected int compactSize() {
+            return size;
+        }
+
+        protected Iterator<Long> compactIterator() {
+            return new Iterator<Long>() {
+                private int next = bits.nextSetBit(0);
+
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                public Long next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    long value = next + offset;
+                    next = bits.nextSetBit(next + 1);
+                    return value;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /** A set of <code>int</code>s in an open-addressing hash table. 0 marks an
+     * empty slot, so whether the set contains 0 is held separately. */
+    @SuppressWarnings("serial")
+    private static final class IntHashSet extends CompactSet<Integer> {
+        private final int[] table;
+        private final boolean hasZero;
+        private final int size;
+
+        private IntHashSet(int[] values) {
+            int[] table = new int[tableSize(values.length)];
+            int mask = table.length - 1;
+            boolean hasZero = false;
+            int size = 0;
+            for (int value : values) {
+                if (value == 0) {
+                    if (!hasZero) {
+                        hasZero = true;
+                        size++;
+                    }
+                    continue;
+                }
+                int i = slot(value, mask);
+                while (table[i] != 0 && table[i] != value) {
+                    i = (i + 1) & mask;
+                }
+                if (table[i] == 0) {
+                    table[i] = value;
+                    size++;
+                }
+            }
+            this.table = table;
+            this.hasZero = hasZero;
+            this.size = size;
+        }
+
+        protected boolean containsValue(Object o) {
+            if (o instanceof Integer) {
+                int value = ((Integer) o).intValue();
+                if (value == 0) {
+                    return hasZero;
+                }
+                int mask = table.length - 1;
+                for (int i = slot(value, mask); table[i] != 0; i = (i + 1) & mask) {
+                    if (table[i] == value) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        protected int compactSize() {
+            return size;
+        }
+
+        protected Iterator<Integer> compactIterator() {
+            return new Iterator<Integer>() {
+                private boolean zero = hasZero;
+                private int index = advance(0);
+
+                private int advance(int i) {
+                    while (i < table.length && table[i] == 0) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                public boolean hasNext() {
+                    return zero || index < table.length;
+                }
+
+                public Integer next() {
+                    if (zero) {
+                        zero = false;
+                        return 0;
+                    }
+                    if (index >= table.length) {
+                        throw new NoSuchElementException();
+                    }
+                    int value = table[index];
+                    index = advance(index + 1);
+                    return value;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /** A set of <code>long</code>s in an open-addressing hash table. 0 marks an
+     * empty slot, so whether the set contains 0 is held separately. */
+    @SuppressWarnings("serial")
+    private static final class LongHashSet extends CompactSet<Long> {
+        private final long[] table;
+        private final boolean hasZero;
+        private final int size;
+
+        private LongHashSet(long[] values) {
+            long[] table = new long[tableSize(values.length)];
+            int mask = table.length - 1;
+            boolean hasZero = false;
+            int size = 0;
+            for (long value : values) {
+                if (value == 0) {
+                    if (!hasZero) {
+                        hasZero = true;
+                        size++;
+                    }
+                    continue;
+                }
+                int i = slot((int) (value ^ (value >>> 32)), mask);
+                while (table[i] != 0 && table[i] != value) {
+                    i = (i + 1) & mask;
+                }
+                if (table[i] == 0) {
+                    table[i] = value;
+                    size++;
+                }
+            }
+            this.table = table;
+            this.hasZero = hasZero;
+            this.size = size;
+        }
+
+        protected boolean containsValue(Object o) {
+            if (o instanceof Long) {
+                long value = ((Long) o).longValue();
+                if (value == 0) {
+                    return hasZero;
+                }
+                int mask = table.length - 1;
+                for (int i = slot((int) (value ^ (value >>> 32)), mask); table[i] != 0; i = (i + 1) & mask) {
+                    if (table[i] == value) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        protected int compactSize() {
+            return size;
+        }
+
+        protected Iterator<Long> compactIterator() {
+            return new Iterator<Long>() {
+                private boolean zero = hasZero;
+                private int index = advance(0);
+
+                private int advance(int i) {
+                    while (i < table.length && table[i] == 0) {
+                        i++;
+                    }
+                    return i;
+                }
+
+                public boolean hasNext() {
+                    return zero || index < table.length;
+                }
+
+                public Long next() {
+                    if (zero) {
+                        zero = false;
+                        return 0L;
+                    }
+                    if (index >= table.length) {
+                        throw new NoSuchElementException();
+                    }
+                    long value = table[index];
+                    index = advance(index + 1);
+                    return value;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    private PrimitiveSets() {}
+}
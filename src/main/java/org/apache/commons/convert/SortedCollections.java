@@ -0,0 +1,539 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/** Sorted collections built in bulk.
+ * <p>Elements are sorted once, with the primitive sorts for primitive arrays, and
+ * duplicates are dropped. Input that is already in order, which is common, is
+ * detected with one pass and not sorted. <code>TreeSet</code>s and
+ * <code>TreeMap</code>s are then built from the sorted elements in linear time,
+ * instead of by an insertion per element, and immutable
+ * <code>NavigableSet</code>s are backed by the sorted array, searched with a
+ * binary search.</p>
+ * <p>Elements that are equal by the ordering are kept once: the first of them is
+ * kept, as <code>TreeSet.add</code> keeps it, and a map keeps the first key with
+ * the last value, as <code>TreeMap.put</code> does.</p>
+ */
+public class SortedCollections {
+
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>() {
+        public int compare(Object o1, Object o2) {
+            return ((Comparable<Object>) o1).compareTo(o2);
+        }
+    };
+
+    /** Returns an immutable <code>NavigableSet</code> of the distinct
+     * <code>elements</code>, in their natural ordering.
+     *
+     * @param elements The elements
+     * @return The set
+     */
+    public static <E extends Comparable<? super E>> NavigableSet<E> setOf(E... elements) {
+        return Util.cast(wrap(sortedDistinct(elements, null), null));
+    }
+
+    /** Returns an immutable <code>NavigableSet</code> of the distinct
+     * <code>elements</code>, ordered by <code>comparator</code>.
+     *
+     * @param elements The elements
+     * @param comparator The ordering, or <code>null</code> for the natural ordering
+     * @return The set
+     */
+    public static <E> NavigableSet<E> setOf(Collection<? extends E> elements, Comparator<? super E> comparator) {
+        Comparator<Object> order = Util.cast(comparator);
+        return Util.cast(wrap(sortedDistinct(elements.toArray(), order), order));
+    }
+
+    /** Returns a new <code>TreeSet</code> of <code>elements</code>, in their
+     * natural ordering.
+     *
+     * @param elements The elements
+     * @return The set
+     */
+    public static <E> TreeSet<E> treeSetOf(Collection<? extends E> elements) {
+        return Util.cast(toTreeSet(sortedDistinct(elements.toArray(), null)));
+    }
+
+    /** Returns a new <code>TreeMap</code> of the entries of <code>map</code>, in
+     * the natural ordering of the keys.
+     *
+     * @param map The entries
+     * @return The map
+     */
+    public static <K, V> TreeMap<K, V> treeMapOf(Map<? extends K, ? extends V> map) {
+        Object[] keys = new Object[map.size()];
+        Object[] values = new Object[keys.length];
+        int index = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            keys[index] = entry.getKey();
+            values[index++] = entry.getValue();
+        }
+        return Util.cast(toTreeMap(keys, values, null));
+    }
+
+    /** Returns a new <code>TreeSet</code> of <code>sorted</code>, which must be
+     * sorted in natural ordering without duplicates. */
+    static TreeSet<Object> toTreeSet(Object[] sorted) {
+        // TreeSet builds the tree in linear time from a SortedSet with the same comparator
+        return new TreeSet<Object>(wrap(sorted, null));
+    }
+
+    /** Returns a new <code>TreeMap</code> of <code>keys</code> and
+     * <code>values</code>, ordered by <code>comparator</code>. The arrays are
+     * not modified. */
+    static TreeMap<Object, Object> toTreeMap(Object[] keys, Object[] values, Comparator<Object> comparator) {
+        Comparator<Object> order = comparator == null ? NATURAL_ORDER : comparator;
+        int length = keys.length;
+        if (length == 1) {
+            // Checks the key's type, as TreeMap.put does
+            order.compare(keys[0], keys[0]);
+        }
+        int sorted = 1;
+        while (sorted < length && order.compare(keys[sorted - 1], keys[sorted]) < 0) {
+            sorted++;
+        }
+        if (sorted >= length) {
+            return new TreeMap<Object, Object>(new SortedEntries(keys, values, length, comparator));
+        }
+        keys = keys.clone();
+        values = values.clone();
+        if (!isOrdered(keys, sorted, order)) {
+            sortEntries(keys, values, order);
+        }
+        int size = 1;
+        for (int i = 1; i < length; i++) {
+            if (order.compare(keys[size - 1], keys[i]) == 0) {
+                values[size - 1] = values[i];
+            } else {
+                keys[size] = keys[i];
+                values[size++] = values[i];
+            }
+        }
+        return new TreeMap<Object, Object>(new SortedEntries(keys, values, size, comparator));
+    }
+
+    /** Returns the distinct elements of <code>array</code>, which may be a
+     * primitive array, sorted by <code>comparator</code>, in a new array of
+     * exactly their number. Primitive elements are always in natural ordering,
+     * and out of order ones are sorted with the primitive sorts. */
+    static Object[] sortedDistinct(Object array, Comparator<Object> comparator) {
+        if (array instanceof Object[]) {
+            return sortedDistinct((Object[]) array, comparator);
+        }
+        // Boxed values compare as the primitive sorts order them
+        Object[] boxed = PrimitiveLists.asList(array).toArray();
+        if (!isOrdered(boxed, 1, NATURAL_ORDER)) {
+            Object sorted = sortedCopy(array);
+            if (sorted == null) {
+                Arrays.sort(boxed);
+            } else {
+                PrimitiveLists.asList(sorted).toArray(boxed);
+            }
+        }
+        return distinct(boxed, NATURAL_ORDER);
+    }
+
+    /** Returns a sorted copy of the primitive <code>array</code>, or
+     * <code>null</code> for a <code>boolean</code> array. */
+    private static Object sortedCopy(Object array) {
+        if (array instanceof int[]) {
+            int[] copy = ((int[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof long[]) {
+            long[] copy = ((long[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof double[]) {
+            double[] copy = ((double[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof float[]) {
+            float[] copy = ((float[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof short[]) {
+            short[] copy = ((short[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof byte[]) {
+            byte[] copy = ((byte[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        if (array instanceof char[]) {
+            char[] copy = ((char[]) array).clone();
+            Arrays.sort(copy);
+            return copy;
+        }
+        return null;
+    }
+
+    /** Returns the distinct <code>elements</code>, sorted by
+     * <code>comparator</code>, in a new array of exactly their number. */
+    static Object[] sortedDistinct(Object[] elements, Comparator<Object> comparator) {
+        Comparator<Object> order = comparator == null ? NATURAL_ORDER : comparator;
+        int length = elements.length;
+        if (length == 1) {
+            // Checks the element's type, as TreeSet.add does
+            order.compare(elements[0], elements[0]);
+        }
+        int sorted = 1;
+        while (sorted < length && order.compare(elements[sorted - 1], elements[sorted]) < 0) {
+            sorted++;
+        }
+        Object[] result = Arrays.copyOf(elements, length, Object[].class);
+        if (sorted >= length) {
+            return result;
+        }
+        if (!isOrdered(result, sorted, order)) {
+            Arrays.sort(result, order);
+        }
+        return distinct(result, order);
+    }
+
+    /** Removes the duplicates from <code>sorted</code>, keeping the first of
+     * each run of equal elements, and returns them in an array of exactly their
+     * number. */
+    private static Object[] distinct(Object[] sorted, Comparator<Object> order) {
+        if (sorted.length == 0) {
+            return sorted;
+        }
+        int size = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (order.compare(sorted[size - 1], sorted[i]) != 0) {
+                sorted[size++] = sorted[i];
+            }
+        }
+        return trim(sorted, size);
+    }
+
+    /** Returns an immutable <code>NavigableSet</code> backed by <code>sorted</code>,
+     * which must be sorted by <code>comparator</code> without duplicates. */
+    static NavigableSet<Object> wrap(Object[] sorted, Comparator<Object> comparator) {
+        return new ArraySet(sorted, 0, sorted.length, comparator);
+    }
+
+    /** Returns <code>true</code> if <code>elements</code>, which are in strictly
+     * ascending order before <code>from</code>, are in ascending order. */
+    private static boolean isOrdered(Object[] elements, int from, Comparator<Object> order) {
+        for (int i = from; i < elements.length; i++) {
+            if (order.compare(elements[i - 1], elements[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Sorts <code>keys</code>, and <code>values</code> with them. The sort is
+     * stable. */
+    private static void sortEntries(Object[] keys, Object[] values, final Comparator<Object> order) {
+        Object[][] entries = new Object[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            entries[i] = new Object[] {keys[i], values[i]};
+        }
+        Arrays.sort(entries, new Comparator<Object[]>() {
+            public int compare(Object[] o1, Object[] o2) {
+                return order.compare(o1[0], o2[0]);
+            }
+        });
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries[i][0];
+            values[i] = entries[i][1];
+        }
+    }
+
+    private static Object[] trim(Object[] elements, int size) {
+        return size == elements.length ? elements : Arrays.copyOf(elements, size);
+    }
+
+    /** An immutable <code>NavigableSet</code> of the elements of a sorted array
+     * from <code>from</code> to <code>to</code>. Ranges of the set share the
+     * array. */
+    @SuppressWarnings("serial")
+    private static final class ArraySet extends AbstractSet<Object> implements NavigableSet<Object>, Serializable {
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+        private final Comparator<Object> comparator;
+
+        private ArraySet(Object[] elements, int from, int to, Comparator<Object> comparator) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+        }
+
+        private int compare(Object o1, Object o2) {
+            return comparator == null ? NATURAL_ORDER.compare(o1, o2) : comparator.compare(o1, o2);
+        }
+
+        /** Returns the index of the first element greater than, or if
+         * <code>inclusive</code> equal to, <code>e</code>, or <code>to</code>. */
+        private int ceilingIndex(Object e, boolean inclusive) {
+            int low = from;
+            int high = to;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int c = compare(elements[mid], e);
+                if (c > 0 || c == 0 && inclusive) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        private Object element(int index) {
+            return index >= from && index < to ? elements[index] : null;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            int index = ceilingIndex(o, true);
+            return index < to && compare(elements[index], o) == 0;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            return new ArrayIterator(from, to, 1);
+        }
+
+        public Iterator<Object> descendingIterator() {
+            return new ArrayIterator(to - 1, from - 1, -1);
+        }
+
+        public NavigableSet<Object> descendingSet() {
+            Object[] reversed = new Object[to - from];
+            for (int i = 0; i < reversed.length; i++) {
+                reversed[i] = elements[to - 1 - i];
+            }
+            return new ArraySet(reversed, 0, reversed.length, Collections.reverseOrder(comparator));
+        }
+
+        public Comparator<? super Object> comparator() {
+            return comparator;
+        }
+
+        public Object first() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return elements[from];
+        }
+
+        public Object last() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+            return elements[to - 1];
+        }
+
+        public Object lower(Object e) {
+            return element(ceilingIndex(e, true) - 1);
+        }
+
+        public Object floor(Object e) {
+            return element(ceilingIndex(e, false) - 1);
+        }
+
+        public Object ceiling(Object e) {
+            return element(ceilingIndex(e, true));
+        }
+
+        public Object higher(Object e) {
+            return element(ceilingIndex(e, false));
+        }
+
+        public Object pollFirst() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Object pollLast() {
+            throw new UnsupportedOperationException();
+        }
+
+        public NavigableSet<Object> subSet(Object fromElement, boolean fromInclusive, Object toElement, boolean toInclusive) {
+            if (compare(fromElement, toElement) > 0) {
+                throw new IllegalArgumentException("fromElement > toElement");
+            }
+            int start = ceilingIndex(fromElement, fromInclusive);
+            return new ArraySet(elements, start, Math.max(start, ceilingIndex(toElement, !toInclusive)), comparator);
+        }
+
+        public NavigableSet<Object> headSet(Object toElement, boolean inclusive) {
+            return new ArraySet(elements, from, ceilingIndex(toElement, !inclusive), comparator);
+        }
+
+        public NavigableSet<Object> tailSet(Object fromElement, boolean inclusive) {
+            return new ArraySet(elements, ceilingIndex(fromElement, inclusive), to, comparator);
+        }
+
+        public NavigableSet<Object> subSet(Object fromElement, Object toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        public NavigableSet<Object> headSet(Object toElement) {
+            return headSet(toElement, false);
+        }
+
+        public NavigableSet<Object> tailSet(Object fromElement) {
+            return tailSet(fromElement, true);
+        }
+
+        private final class ArrayIterator implements Iterator<Object> {
+            private int index;
+            private final int end;
+            private final int step;
+
+            private ArrayIterator(int start, int end, int step) {
+                this.index = start;
+                this.end = end;
+                this.step = step;
+            }
+
+            public boolean hasNext() {
+                return index != end;
+            }
+
+            public Object next() {
+                if (index == end) {
+                    throw new NoSuchElementException();
+                }
+                Object element = elements[index];
+                index += step;
+                return element;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        }
+    }
+
+    /** A <code>SortedMap</code> of sorted key and value arrays, only for
+     * building a <code>TreeMap</code> from its entries. */
+    private static final class SortedEntries extends AbstractMap<Object, Object> implements SortedMap<Object, Object> {
+        private final Object[] keys;
+        private final Object[] values;
+        private final int size;
+        private final Comparator<Object> comparator;
+
+        private SortedEntries(Object[] keys, Object[] values, int size, Comparator<Object> comparator) {
+            this.keys = keys;
+            this.values = values;
+            this.size = size;
+            this.comparator = comparator;
+        }
+
+        public Comparator<? super Object> comparator() {
+            return comparator;
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            return new AbstractSet<Map.Entry<Object, Object>>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Map.Entry<Object, Object>> iterator() {
+                    return new Iterator<Map.Entry<Object, Object>>() {
+                        private int index;
+
+                        public boolean hasNext() {
+                            return index < size;
+                        }
+
+                        public Map.Entry<Object, Object> next() {
+                            if (index >= size) {
+                                throw new NoSuchElementException();
+                            }
+                            Map.Entry<Object, Object> entry = new AbstractMap.SimpleImmutableEntry<Object, Object>(keys[index], values[index]);
+                            index++;
+                            return entry;
+                        }
+
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+            };
+        }
+
+        public Object firstKey() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return keys[0];
+        }
+
+        public Object lastKey() {
+            if (size == 0) {
+                throw new NoSuchElementException();
+            }
+            return keys[size - 1];
+        }
+
+        public SortedMap<Object, Object> subMap(Object fromKey, Object toKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        public SortedMap<Object, Object> headMap(Object toKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        public SortedMap<Object, Object> tailMap(Object fromKey) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private SortedCollections() {}
+}
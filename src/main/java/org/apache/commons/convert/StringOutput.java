@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/** Writes <code>String</code> conversions to a target instead of returning them.
+ * <p>Converters that implement {@link AppendingConverter} append their text
+ * directly; when the target is not a <code>StringBuilder</code>, the text is
+ * assembled in a per-thread buffer, so no intermediate <code>String</code> is
+ * created. Other converters are called with <code>convert</code> and the
+ * resulting <code>String</code> is written.</p>
+ */
+public class StringOutput {
+
+    private static final int MAX_CACHED_LENGTH = 4096;
+    private static final ThreadLocal<Scratch> scratch = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    /** Appends <code>converter.convert(obj)</code> to <code>sb</code>.
+     *
+     * @param converter The <code>String</code> converter
+     * @param obj The source <code>Object</code> to convert
+     * @param sb The <code>StringBuilder</code> to append to
+     * @return <code>sb</code>
+     * @throws ConversionException
+     */
+    @SuppressWarnings("unchecked")
+    public static <S> StringBuilder appendTo(Converter<S, String> converter, S obj, StringBuilder sb) throws ConversionException {
+        if (converter instanceof AppendingConverter) {
+            return ((AppendingConverter<S>) converter).appendTo(obj, sb);
+        }
+        return sb.append(converter.convert(obj));
+    }
+
+    /** Appends <code>converter.convert(obj)</code> to <code>out</code>.
+     * <code>Writer</code>s are written from a <code>char</code> array.
+     *
+     * @param converter The <code>String</code> converter
+     * @param obj The source <code>Object</code> to convert
+     * @param out The <code>Appendable</code> to append to
+     * @return <code>out</code>
+     * @throws ConversionException
+     * @throws IOException If <code>out</code> throws it
+     */
+    public static <S, A extends Appendable> A appendTo(Converter<S, String> converter, S obj, A out) throws ConversionException, IOException {
+        if (out instanceof StringBuilder) {
+            appendTo(converter, obj, (StringBuilder) out);
+            return out;
+        }
+        if (!(converter instanceof AppendingConverter)) {
+            out.append(converter.convert(obj));
+            return out;
+        }
+        Scratch s = Scratch.acquire();
+        try {
+            StringBuilder sb = appendTo(converter, obj, s.builder);
+            if (out instanceof Writer) {
+                int length = sb.length();
+                char[] chars = s.chars(length);
+                sb.getChars(0, length, chars, 0);
+                ((Writer) out).write(chars, 0, length);
+            } else {
+                out.append(sb);
+            }
+        } finally {
+            s.release();
+        }
+        return out;
+    }
+
+    /** Writes <code>converter.convert(obj)</code> to <code>buffer</code> as UTF-8,
+     * starting at the buffer's position, and advances the position.
+     *
+     * @param converter The <code>String</code> converter
+     * @param obj The source <code>Object</code> to convert
+     * @param buffer The <code>ByteBuffer</code> to write to
+     * @return <code>buffer</code>
+     * @throws ConversionException
+     * @throws BufferOverflowException If the encoded text does not fit in the
+     * remaining space. Nothing is written.
+     */
+    public static <S> ByteBuffer encodeTo(Converter<S, String> converter, S obj, ByteBuffer buffer) throws ConversionException {
+        if (!(converter instanceof AppendingConverter)) {
+            return encode(converter.convert(obj), buffer);
+        }
+        Scratch s = Scratch.acquire();
+        try {
+            return encode(appendTo(converter, obj, s.builder), buffer, s);
+        } finally {
+            s.release();
+        }
+    }
+
+    /** Writes <code>chars</code> to <code>buffer</code> as UTF-8, starting at the
+     * buffer's position, and advances the position. Unpaired surrogates are written
+     * as <code>'?'</code>, as in <code>String.getBytes</code>.
+     *
+     * @param chars The characters to write
+     * @param buffer The <code>ByteBuffer</code> to write to
+     * @return <code>buffer</code>
+     * @throws BufferOverflowException If the encoded text does not fit in the
+     * remaining space. Nothing is written.
+     */
+    public static ByteBuffer encode(CharSequence chars, ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return encode(chars, buffer, null);
+        }
+        Scratch s = Scratch.acquire();
+        try {
+            return encode(chars, buffer, s);
+        } finally {
+            s.release();
+        }
+    }
+
+    /** Encodes <code>chars</code> into <code>buffer</code>, through
+     * <code>s</code>'s byte array if the buffer has no array. */
+    private static ByteBuffer encode(CharSequence chars, ByteBuffer buffer, Scratch s) {
+        int length = chars.length();
+        int size = encodedLength(chars, length);
+        if (size > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        int position = buffer.position();
+        if (buffer.hasArray()) {
+            encode(chars, length, buffer.array(), buffer.arrayOffset() + position);
+            buffer.position(position + size);
+        } else {
+            byte[] bytes = s.bytes(size);
+            encode(chars, length, bytes, 0);
+            buffer.put(bytes, 0, size);
+        }
+        return buffer;
+    }
+
+    /** Returns the number of UTF-8 bytes in <code>chars</code>.
+     *
+     * @param chars The characters
+     * @return The number of bytes that {@link #encode(CharSequence, ByteBuffer)} writes
+     */
+    public static int encodedLength(CharSequence chars) {
+        return encodedLength(chars, chars.length());
+    }
+
+    private static int encodedLength(CharSequence chars, int length) {
+        int size = length;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    size++;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    // Two chars, four bytes
+                    size += 2;
+                    i++;
+                } else if (!isSurrogate(c)) {
+                    size += 2;
+                }
+            }
+        }
+        return size;
+    }
+
+    private static boolean isSurrogate(char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    private static void encode(CharSequence chars, int length, byte[] bytes, int index) {
+        int i = 0;
+        while (i < length) {
+            char c = chars.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            bytes[index++] = (byte) c;
+            i++;
+        }
+        for (; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                bytes[index++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[index++] = (byte) (0xC0 | c >> 6);
+                bytes[index++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                bytes[index++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[index++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[index++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[index++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (isSurrogate(c)) {
+                bytes[index++] = '?';
+            } else {
+                bytes[index++] = (byte) (0xE0 | c >> 12);
+                bytes[index++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[index++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+    }
+
+    /** Per-thread buffers. A nested call on the same thread, from a converter
+     * that writes with this class, gets its own buffers.
+     */
+    private static final class Scratch {
+        private StringBuilder builder = new StringBuilder(64);
+        private char[] chars = new char[64];
+        private byte[] bytes = new byte[64];
+        private boolean inUse;
+
+        private static Scratch acquire() {
+            Scratch s = scratch.get();
+            if (s.inUse) {
+                s = new Scratch();
+            }
+            s.inUse = true;
+            return s;
+        }
+
+        private void release() {
+            if (builder.capacity() > MAX_CACHED_LENGTH) {
+                builder = new StringBuilder(64);
+            }
+            builder.setLength(0);
+            if (chars.length > MAX_CACHED_LENGTH) {
+                chars = new char[64];
+            }
+            if (bytes.length > MAX_CACHED_LENGTH) {
+                bytes = new byte[64];
+            }
+            inUse = false;
+        }
+
+        private char[] chars(int length) {
+            if (chars.length < length) {
+                chars = new char[length];
+            }
+            return chars;
+        }
+
+        private byte[] bytes(int length) {
+            if (bytes.length < length) {
+                bytes = new byte[length];
+            }
+            return bytes;
+        }
+    }
+
+    private StringOutput() {}
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** A mutable point in time: seconds since the epoch, nanosecond-of-second, and an
+ * optional time zone.
+ * <p><code>TemporalValue</code> is the canonical intermediate for date/time
+ * conversions. Each date/time class has a {@link Codec} that decodes an instance
+ * into a <code>TemporalValue</code> and encodes a <code>TemporalValue</code> into a
+ * new instance, so a new class needs one codec instead of a converter for every
+ * other class.</p>
+ */
+public class TemporalValue {
+
+    private static final ConcurrentHashMap<Class<?>, Codec<?>> codecs = new ConcurrentHashMap<Class<?>, Codec<?>>();
+
+    static {
+        registerCodec(new Codec<Calendar>(Calendar.class) {
+            public void decode(Calendar obj, TemporalValue value) {
+                value.setEpochMilli(obj.getTimeInMillis(), obj.getTimeZone());
+            }
+
+            public Calendar encode(TemporalValue value) {
+                Calendar cal = value.timeZone == null ? Calendar.getInstance() : Calendar.getInstance(value.timeZone);
+                cal.setTimeInMillis(value.getEpochMilli());
+                return cal;
+            }
+        });
+        registerCodec(new Codec<Date>(Date.class) {
+            public void decode(Date obj, TemporalValue value) {
+                value.setEpochMilli(obj.getTime(), null);
+            }
+
+            public Date encode(TemporalValue value) {
+                return new Date(value.getEpochMilli());
+            }
+        });
+        registerCodec(new Codec<Long>(Long.class) {
+            public void decode(Long obj, TemporalValue value) {
+                value.setEpochMilli(obj.longValue(), null);
+            }
+
+            public Long encode(TemporalValue value) {
+                return value.getEpochMilli();
+            }
+        });
+        registerCodec(new Codec<java.sql.Date>(java.sql.Date.class) {
+            public void decode(java.sql.Date obj, TemporalValue value) {
+                value.setEpochMilli(obj.getTime(), null);
+            }
+
+            public java.sql.Date encode(TemporalValue value) {
+                return new java.sql.Date(value.getEpochMilli());
+            }
+        });
+        registerCodec(new Codec<java.sql.Time>(java.sql.Time.class) {
+            public void decode(java.sql.Time obj, TemporalValue value) {
+                value.setEpochMilli(obj.getTime(), null);
+            }
+
+            public java.sql.Time encode(TemporalValue value) {
+                return new java.sql.Time(value.getEpochMilli());
+            }
+        });
+        registerCodec(new Codec<Timestamp>(Timestamp.class) {
+            public void decode(Timestamp obj, TemporalValue value) {
+                value.set(Iso8601Format.floorDiv(obj.getTime(), 1000), obj.getNanos(), null);
+            }
+
+            public Timestamp encode(TemporalValue value) {
+                Timestamp result = new Timestamp(value.epochSecond * 1000);
+                result.setNanos(value.nano);
+                return result;
+            }
+        });
+    }
+
+    /** Returns the codec for <code>type</code>, or <code>null</code> if there is none.
+     * Only exact class matches are returned.
+     *
+     * @param type The date/time class
+     * @return The codec, or <code>null</code>
+     */
+    public static <T> Codec<T> getCodec(Class<T> type) {
+        return Util.cast(codecs.get(type));
+    }
+
+    /** Registers a codec. An existing codec for the same class is not replaced.
+     *
+     * @param codec The codec to register
+     */
+    public static void registerCodec(Codec<?> codec) {
+        codecs.putIfAbsent(codec.getType(), codec);
+    }
+
+    private long epochSecond;
+    private int nano;
+    private TimeZone timeZone;
+
+    public long getEpochSecond() {
+        return epochSecond;
+    }
+
+    /** Returns the time in milliseconds since the epoch. Nanoseconds beyond
+     * milliseconds are truncated. */
+    public long getEpochMilli() {
+        return epochSecond * 1000 + nano / 1000000;
+    }
+
+    public int getNano() {
+        return nano;
+    }
+
+    /** Returns the time zone, or <code>null</code> if the source had none. */
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /** Sets this value.
+     *
+     * @param epochSecond The seconds since the epoch
+     * @param nano The nanosecond-of-second, from 0 to 999,999,999
+     * @param timeZone The time zone, or <code>null</code>
+     */
+    public void set(long epochSecond, int nano, TimeZone timeZone) {
+        this.epochSecond = epochSecond;
+        this.nano = nano;
+        this.timeZone = timeZone;
+    }
+
+    /** Sets this value from milliseconds since the epoch.
+     *
+     * @param epochMilli The milliseconds since the epoch
+     * @param timeZone The time zone, or <code>null</code>
+     */
+    public void setEpochMilli(long epochMilli, TimeZone timeZone) {
+        set(Iso8601Format.floorDiv(epochMilli, 1000), (int) Iso8601Format.floorMod(epochMilli, 1000) * 1000000, timeZone);
+    }
+
+    /** Decodes instances of one class into a <code>TemporalValue</code>, and
+     * encodes a <code>TemporalValue</code> into new instances of that class.
+     */
+    public static abstract class Codec<T> {
+        private final Class<T> type;
+
+        protected Codec(Class<T> type) {
+            this.type = type;
+        }
+
+        public Class<T> getType() {
+            return type;
+        }
+
+        /** Copies <code>obj</code> into <code>value</code>. */
+        public abstract void decode(T obj, TemporalValue value);
+
+        /** Returns a new instance that represents <code>value</code>. */
+        public abstract T encode(TemporalValue value);
+    }
+}
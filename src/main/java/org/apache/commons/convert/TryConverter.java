@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+/** A converter that can report failure without throwing an exception.
+ * {@link Converters#convert(Object, Object, Class)} uses this interface, so
+ * that invalid input costs no more to reject than valid input costs to convert.
+ *
+ * @param <S> The source object type
+ * @param <T> The target object type
+ */
+public interface TryConverter<S, T> extends Converter<S, T> {
+    /** Converts <code>obj</code> to <code>T</code>, or returns <code>defaultValue</code>
+     * if <code>obj</code> cannot be converted.
+     *
+     * @param obj The source <code>Object</code> to convert
+     * @param defaultValue The value to return if <code>obj</code> cannot be converted
+     * @return The converted <code>Object</code>, or <code>defaultValue</code>
+     */
+    public T tryConvert(S obj, T defaultValue);
+}
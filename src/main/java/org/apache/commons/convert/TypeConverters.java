@@ -0,0 +1,968 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Converters between generic types.
+ * <p>{@link Converters} looks up converters by raw <code>Class</code>. This class
+ * builds a converter for a pair of <code>java.lang.reflect.Type</code>s, so that a
+ * <code>List&lt;String&gt;</code> can be converted to a <code>List&lt;Integer&gt;</code>,
+ * or a <code>Map&lt;String, String&gt;</code> to a <code>Map&lt;String, Long&gt;</code>.
+ * Element, key and value converters are resolved once, when the converter is built,
+ * and converters are cached by type. Type arguments are resolved through the
+ * source type's supertypes; where they are unknown, each element is converted by
+ * its class. <code>null</code> elements, keys and values are kept.</p>
+ * <p>Collection and map targets are built one of three ways:
+ * <ul>
+ * <li>{@link #getConverter(Type, Type)} copies the source into a new collection
+ * or map of the target type, sized for the source.</li>
+ * <li>{@link #getViewConverter(Type, Type)} returns a read-only view of the source
+ * that converts elements, keys and values when they are read, so that a large map
+ * that is only partly read is only partly converted. <code>List</code>,
+ * <code>Collection</code> and <code>Map</code> targets are views; other targets
+ * are copied.</li>
+ * <li>{@link #getImmutableConverter(Type, Type)} returns exactly sized immutable
+ * lists and sets.</li>
+ * </ul>
+ * <code>TreeSet</code>, <code>TreeMap</code> and other sorted targets are sorted
+ * once and built in bulk with {@link SortedCollections}; immutable
+ * <code>SortedSet</code> and <code>NavigableSet</code> targets are array-backed.</p>
+ * <p>Arrays and collections nest to any depth: an <code>int[][]</code> converts
+ * to a <code>List&lt;List&lt;Integer&gt;&gt;</code>, and a
+ * <code>List&lt;List&lt;String&gt;&gt;</code> to a <code>long[][]</code>, with a
+ * plan for each level. Array targets are created at their final length. See
+ * {@link FlatArray} for nested arrays as one flat array.</p>
+ * <p>A source that already has the target type is returned as is.</p>
+ */
+public class TypeConverters {
+
+    private static final ConcurrentHashMap<Key, Plan> plans = new ConcurrentHashMap<Key, Plan>();
+
+    /** Returns a <code>Converter</code> from <code>sourceType</code> to
+     * <code>targetType</code> that copies collections and maps.
+     *
+     * @param sourceType The type to convert from
+     * @param targetType The type to convert to
+     * @return A matching <code>Converter</code> instance
+     * @throws UnconvertableException if no converter exists
+     */
+    public static <S, T> Converter<S, T> getConverter(Type sourceType, Type targetType) throws UnconvertableException {
+        return Util.cast(getPlan(sourceType, targetType, Mode.COPY));
+    }
+
+    /** Returns a <code>Converter</code> from <code>sourceType</code> to
+     * <code>targetType</code> that returns views of collections and maps.
+     *
+     * @param sourceType The type to convert from
+     * @param targetType The type to convert to
+     * @return A matching <code>Converter</code> instance
+     * @throws UnconvertableException if no converter exists
+     */
+    public static <S, T> Converter<S, T> getViewConverter(Type sourceType, Type targetType) throws UnconvertableException {
+        return Util.cast(getPlan(sourceType, targetType, Mode.VIEW));
+    }
+
+    /** Returns a <code>Converter</code> from <code>sourceType</code> to
+     * <code>targetType</code> that returns <code>List</code>, <code>Collection</code>
+     * and <code>Set</code> targets as exactly sized immutable collections from
+     * {@link ImmutableCollections}. Other targets are copied.
+     *
+     * @param sourceType The type to convert from
+     * @param targetType The type to convert to
+     * @return A matching <code>Converter</code> instance
+     * @throws UnconvertableException if no converter exists
+     */
+    public static <S, T> Converter<S, T> getImmutableConverter(Type sourceType, Type targetType) throws UnconvertableException {
+        return Util.cast(getPlan(sourceType, targetType, Mode.IMMUTABLE));
+    }
+
+    /** Converts <code>source</code> from <code>sourceType</code> to
+     * <code>targetType</code>, copying collections and maps.
+     *
+     * @param source The object to convert
+     * @param sourceType The type to convert from
+     * @param targetType The type to convert to
+     * @return The converted object
+     * @throws UnconvertableException if no converter exists
+     * @throws ConversionException if the conversion fails
+     */
+    public static <T> T convert(Object source, Type sourceType, Type targetType) throws UnconvertableException, ConversionException {
+        return Util.<T>cast(getPlan(sourceType, targetType, Mode.COPY).convert(source));
+    }
+
+    /** Returns a <code>ParameterizedType</code>, for a type such as
+     * <code>List&lt;Integer&gt;</code> that is not available from a field or method.
+     *
+     * @param rawType The generic class
+     * @param typeArguments The type arguments
+     * @return The <code>ParameterizedType</code>
+     * @throws IllegalArgumentException if the number of type arguments is wrong
+     */
+    public static ParameterizedType parameterize(Class<?> rawType, Type... typeArguments) {
+        if (rawType.getTypeParameters().length != typeArguments.length) {
+            throw new IllegalArgumentException(rawType + " does not have " + typeArguments.length + " type parameters");
+        }
+        return new ParameterizedTypeImpl(rawType, typeArguments.clone());
+    }
+
+    /** How collection and map targets are built. */
+    private enum Mode {
+        COPY, VIEW, IMMUTABLE
+    }
+
+    /** Returns the erasure of <code>type</code>. */
+    static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(rawClass(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            Type[] bounds = wildcard.getLowerBounds();
+            return rawClass(bounds.length > 0 ? bounds[0] : wildcard.getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        throw new IllegalArgumentException("Unsupported type " + type);
+    }
+
+    /** Returns the type arguments of <code>superclass</code> in <code>type</code>,
+     * with <code>Object</code> for arguments that are not known.
+     */
+    static Type[] typeArguments(Type type, Class<?> superclass) {
+        Type[] result = resolveArguments(type, superclass);
+        if (result == null) {
+            result = new Type[superclass.getTypeParameters().length];
+            Arrays.fill(result, Object.class);
+        }
+        return result;
+    }
+
+    private static Type[] resolveArguments(Type type, Class<?> superclass) {
+        Class<?> rawClass = rawClass(type);
+        if (!superclass.isAssignableFrom(rawClass)) {
+            return null;
+        }
+        Type[] actual = type instanceof ParameterizedType ? ((ParameterizedType) type).getActualTypeArguments() : null;
+        if (rawClass == superclass) {
+            return actual;
+        }
+        List<Type> supertypes = new ArrayList<Type>(Arrays.asList(rawClass.getGenericInterfaces()));
+        if (rawClass.getGenericSuperclass() != null) {
+            supertypes.add(rawClass.getGenericSuperclass());
+        }
+        for (Type supertype : supertypes) {
+            Type[] arguments = resolveArguments(supertype, superclass);
+            if (arguments != null) {
+                Type[] result = new Type[arguments.length];
+                for (int i = 0; i < arguments.length; i++) {
+                    result[i] = substitute(arguments[i], rawClass.getTypeParameters(), actual);
+                }
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /** Replaces the type variables <code>variables</code> in <code>type</code>
+     * with <code>actual</code>, or with their bounds if <code>actual</code> is
+     * <code>null</code>. */
+    private static Type substitute(Type type, TypeVariable<?>[] variables, Type[] actual) {
+        if (type instanceof TypeVariable) {
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].equals(type)) {
+                    return actual == null ? rawClass(type) : actual[i];
+                }
+            }
+            return rawClass(type);
+        }
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            Type[] arguments = parameterized.getActualTypeArguments().clone();
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = substitute(arguments[i], variables, actual);
+            }
+            return new ParameterizedTypeImpl((Class<?>) parameterized.getRawType(), arguments);
+        }
+        return type;
+    }
+
+    private static Plan getPlan(Type sourceType, Type targetType, Mode mode) throws UnconvertableException {
+        Key key = new Key(sourceType, targetType, mode);
+        Plan plan = plans.get(key);
+        if (plan == null) {
+            plan = createPlan(sourceType, targetType, mode);
+            Plan existing = plans.putIfAbsent(key, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    private static Plan createPlan(Type sourceType, Type targetType, Mode mode) throws UnconvertableException {
+        Class<?> sourceClass = rawClass(sourceType);
+        Class<?> targetClass = rawClass(targetType);
+        if (targetType instanceof ParameterizedType) {
+            if (Map.class.isAssignableFrom(targetClass) && isPossibly(sourceClass, Map.class)) {
+                Type[] sourceArguments = typeArguments(sourceType, Map.class);
+                Type[] targetArguments = typeArguments(targetType, Map.class);
+                Plan keyPlan = getPlan(sourceArguments[0], targetArguments[0], mode);
+                Plan valuePlan = getPlan(sourceArguments[1], targetArguments[1], mode);
+                if (keyPlan instanceof IdentityPlan && valuePlan instanceof IdentityPlan && targetClass.isAssignableFrom(sourceClass)) {
+                    return new IdentityPlan(sourceClass, targetClass);
+                }
+                CollectionConverters.CollectionFactory<Map<Object, Object>> factory = mapFactory(targetClass);
+                if (factory == null) {
+                    throw UnconvertableException.makeNoConverterExists(sourceClass, targetClass);
+                }
+                return new MapPlan(sourceClass, targetClass, keyPlan, valuePlan, factory, mode == Mode.VIEW);
+            }
+            if (Collection.class.isAssignableFrom(targetClass) && (sourceClass.isArray() || isPossibly(sourceClass, Collection.class))) {
+                Plan elementPlan = getPlan(elementType(sourceType), typeArguments(targetType, Collection.class)[0], mode);
+                if (elementPlan instanceof IdentityPlan && targetClass.isAssignableFrom(sourceClass) && mode != Mode.IMMUTABLE) {
+                    return new IdentityPlan(sourceClass, targetClass);
+                }
+                CollectionConverters.CollectionFactory<Collection<Object>> factory = collectionFactory(targetClass);
+                if (factory == null) {
+                    throw UnconvertableException.makeNoConverterExists(sourceClass, targetClass);
+                }
+                return new CollectionPlan(sourceClass, targetClass, elementPlan, factory, mode);
+            }
+        }
+        if (mode == Mode.IMMUTABLE && (targetClass.isAssignableFrom(List.class) || targetClass == Set.class || targetClass == SortedSet.class || targetClass == NavigableSet.class)
+                && Collection.class.isAssignableFrom(targetClass) && (sourceClass.isArray() || isPossibly(sourceClass, Collection.class))) {
+            // Raw targets hold the source's elements as they are
+            return new CollectionPlan(sourceClass, targetClass, new IdentityPlan(Object.class, Object.class), collectionFactory(targetClass), mode);
+        }
+        if (targetClass.isArray() && !targetClass.isAssignableFrom(sourceClass) && (sourceClass.isArray() || isPossibly(sourceClass, Collection.class))) {
+            Type targetComponent = targetType instanceof GenericArrayType ? ((GenericArrayType) targetType).getGenericComponentType() : targetClass.getComponentType();
+            return new ArrayPlan(sourceClass, targetClass, getPlan(elementType(sourceType), targetComponent, mode));
+        }
+        // Primitive elements are read and stored boxed
+        sourceClass = wrapperClass(sourceClass);
+        targetClass = wrapperClass(targetClass);
+        if (targetClass.isAssignableFrom(sourceClass)) {
+            return new IdentityPlan(sourceClass, targetClass);
+        }
+        if (sourceClass.isArray() || Modifier.isFinal(sourceClass.getModifiers())) {
+            return new ClassPlan(Converters.getConverter(sourceClass, targetClass));
+        }
+        return new RuntimePlan(sourceClass, targetClass);
+    }
+
+    /** Returns the element type of an array or collection type. */
+    private static Type elementType(Type type) {
+        if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        Class<?> rawClass = rawClass(type);
+        if (rawClass.isArray()) {
+            return rawClass.getComponentType();
+        }
+        return typeArguments(type, Collection.class)[0];
+    }
+
+    /** Returns the wrapper class of a primitive class, or <code>type</code>. */
+    static Class<?> wrapperClass(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        return Array.get(Array.newInstance(type, 1), 0).getClass();
+    }
+
+    /** Returns <code>obj</code>, an array or collection, as a <code>List</code>
+     * that is cheap to index. Arrays and <code>RandomAccess</code> lists are
+     * wrapped or returned, not copied; other collections are copied. */
+    private static List<?> asList(Object obj) throws ConversionException {
+        if (obj instanceof List && obj instanceof RandomAccess) {
+            return (List<?>) obj;
+        }
+        if (obj instanceof Object[]) {
+            return Arrays.asList((Object[]) obj);
+        }
+        if (obj instanceof Collection) {
+            return new ArrayList<Object>((Collection<?>) obj);
+        }
+        if (obj.getClass().isArray()) {
+            return PrimitiveLists.asList(obj);
+        }
+        throw new ConversionException("Not an array or collection: " + obj.getClass().getName());
+    }
+
+    /** Returns <code>true</code> if instances of <code>sourceClass</code> may be
+     * instances of <code>type</code>. */
+    private static boolean isPossibly(Class<?> sourceClass, Class<?> type) {
+        return type.isAssignableFrom(sourceClass) || sourceClass.isAssignableFrom(type);
+    }
+
+    /** Returns a factory for collections of <code>targetClass</code>, which may be
+     * an interface, or <code>null</code>. */
+    private static CollectionConverters.CollectionFactory<Collection<Object>> collectionFactory(Class<?> targetClass) {
+        if (targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+            if (targetClass.isAssignableFrom(ArrayList.class)) {
+                return CollectionConverters.CollectionFactory.forClass(ArrayList.class);
+            }
+            if (targetClass.isAssignableFrom(HashSet.class)) {
+                return CollectionConverters.CollectionFactory.forClass(HashSet.class);
+            }
+            if (targetClass.isAssignableFrom(TreeSet.class)) {
+                return CollectionConverters.CollectionFactory.forClass(TreeSet.class);
+            }
+            if (targetClass.isAssignableFrom(ArrayDeque.class)) {
+                return CollectionConverters.CollectionFactory.forClass(ArrayDeque.class);
+            }
+            return null;
+        }
+        return CollectionConverters.CollectionFactory.forClass(targetClass);
+    }
+
+    /** Returns a factory for maps of <code>targetClass</code>, which may be an
+     * interface, or <code>null</code>. */
+    private static CollectionConverters.CollectionFactory<Map<Object, Object>> mapFactory(Class<?> targetClass) {
+        if (targetClass.isInterface() || Modifier.isAbstract(targetClass.getModifiers())) {
+            if (targetClass.isAssignableFrom(HashMap.class)) {
+                return CollectionConverters.CollectionFactory.forClass(HashMap.class);
+            }
+            if (targetClass.isAssignableFrom(TreeMap.class)) {
+                return CollectionConverters.CollectionFactory.forClass(TreeMap.class);
+            }
+            if (targetClass.isAssignableFrom(ConcurrentHashMap.class)) {
+                return CollectionConverters.CollectionFactory.forClass(ConcurrentHashMap.class);
+            }
+            return null;
+        }
+        return CollectionConverters.CollectionFactory.forClass(targetClass);
+    }
+
+    /** A converter built for a pair of types. */
+    private static abstract class Plan implements Converter<Object, Object> {
+        private final Class<?> sourceClass;
+        private final Class<?> targetClass;
+
+        protected Plan(Class<?> sourceClass, Class<?> targetClass) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+        }
+
+        public boolean canConvert(Class<?> sourceClass, Class<?> targetClass) {
+            return Util.instanceOf(sourceClass, this.sourceClass) && this.targetClass == targetClass;
+        }
+
+        public Class<?> getSourceClass() {
+            return sourceClass;
+        }
+
+        public Class<?> getTargetClass() {
+            return targetClass;
+        }
+    }
+
+    /** Returns the source object. */
+    private static final class IdentityPlan extends Plan {
+        private IdentityPlan(Class<?> sourceClass, Class<?> targetClass) {
+            super(sourceClass, targetClass);
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            return obj;
+        }
+    }
+
+    /** Converts with a converter for a source class that has no subclasses. */
+    private static final class ClassPlan extends Plan {
+        private final Converter<Object, Object> converter;
+
+        private ClassPlan(Converter<?, ?> converter) {
+            super(converter.getSourceClass(), converter.getTargetClass());
+            this.converter = Util.cast(converter);
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            return obj == null ? null : converter.convert(obj);
+        }
+    }
+
+    /** Converts with a converter for the class of each object. The converter
+     * is looked up again only when the class differs from the last object's. */
+    private static final class RuntimePlan extends Plan {
+        private volatile Resolved last;
+
+        private RuntimePlan(Class<?> sourceClass, Class<?> targetClass) {
+            super(sourceClass, targetClass);
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            if (obj == null || getTargetClass().isInstance(obj)) {
+                return obj;
+            }
+            Resolved resolved = last;
+            if (resolved == null || resolved.sourceClass != obj.getClass()) {
+                resolved = new Resolved(obj.getClass(), Converters.getConverter(obj.getClass(), getTargetClass()));
+                last = resolved;
+            }
+            return resolved.converter.convert(obj);
+        }
+    }
+
+    private static final class Resolved {
+        private final Class<?> sourceClass;
+        private final Converter<Object, Object> converter;
+
+        private Resolved(Class<?> sourceClass, Converter<?, ?> converter) {
+            this.sourceClass = sourceClass;
+            this.converter = Util.cast(converter);
+        }
+    }
+
+    /** Converts a collection, element by element. */
+    private static final class CollectionPlan extends Plan {
+        private final Plan elementPlan;
+        private final CollectionConverters.CollectionFactory<Collection<Object>> factory;
+        private final boolean view;
+        private final boolean immutableList;
+        private final boolean immutableSet;
+        private final boolean sorted;
+        private final boolean immutableSorted;
+
+        private CollectionPlan(Class<?> sourceClass, Class<?> targetClass, Plan elementPlan,
+                CollectionConverters.CollectionFactory<Collection<Object>> factory, Mode mode) {
+            super(sourceClass, targetClass);
+            this.elementPlan = elementPlan;
+            this.factory = factory;
+            this.view = mode == Mode.VIEW && targetClass.isAssignableFrom(ListView.class);
+            this.immutableList = mode == Mode.IMMUTABLE && targetClass.isAssignableFrom(List.class);
+            this.immutableSet = mode == Mode.IMMUTABLE && targetClass == Set.class;
+            this.sorted = SortedSet.class.isAssignableFrom(targetClass) && targetClass.isAssignableFrom(TreeSet.class);
+            this.immutableSorted = mode == Mode.IMMUTABLE && sorted && targetClass != TreeSet.class;
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            if (obj == null) {
+                return null;
+            }
+            if (obj.getClass().isArray()) {
+                obj = asList(obj);
+            } else if (!(obj instanceof Collection)) {
+                throw UnconvertableException.makeNoConverterExists(obj.getClass(), getTargetClass());
+            }
+            Collection<?> source = (Collection<?>) obj;
+            if (view) {
+                if (source instanceof List) {
+                    return source instanceof RandomAccess ? new RandomAccessListView((List<?>) source, elementPlan) : new ListView((List<?>) source, elementPlan);
+                }
+                if (getTargetClass().isAssignableFrom(CollectionView.class)) {
+                    return new CollectionView(source, elementPlan);
+                }
+            }
+            if (immutableList || immutableSet || sorted) {
+                Object[] elements = new Object[source.size()];
+                if (source instanceof List && source instanceof RandomAccess) {
+                    List<?> list = (List<?>) source;
+                    for (int i = 0; i < elements.length; i++) {
+                        elements[i] = elementPlan.convert(list.get(i));
+                    }
+                } else {
+                    int index = 0;
+                    for (Object element : source) {
+                        elements[index++] = elementPlan.convert(element);
+                    }
+                }
+                if (sorted) {
+                    return sortedSet(elements, immutableSorted);
+                }
+                return immutableList ? ImmutableCollections.wrapList(elements) : ImmutableCollections.wrapSet(elements);
+            }
+            Collection<Object> result = factory.newInstance(source.size());
+            if (source instanceof List && source instanceof RandomAccess) {
+                List<?> list = (List<?>) source;
+                for (int i = 0, size = list.size(); i < size; i++) {
+                    result.add(elementPlan.convert(list.get(i)));
+                }
+            } else {
+                for (Object element : source) {
+                    result.add(elementPlan.convert(element));
+                }
+            }
+            return result;
+        }
+    }
+
+    /** Returns a <code>TreeSet</code>, or if <code>immutable</code> an array-backed
+     * set, of <code>elements</code> in their natural ordering. */
+    private static Object sortedSet(Object[] elements, boolean immutable) throws ConversionException {
+        try {
+            Object[] sorted = SortedCollections.sortedDistinct(elements, null);
+            return immutable ? SortedCollections.wrap(sorted, null) : SortedCollections.toTreeSet(sorted);
+        } catch (ClassCastException e) {
+            throw new ConversionException(e);
+        } catch (NullPointerException e) {
+            throw new ConversionException(e);
+        }
+    }
+
+    /** Converts a map, entry by entry. */
+    private static final class MapPlan extends Plan {
+        private final Plan keyPlan;
+        private final Plan valuePlan;
+        private final CollectionConverters.CollectionFactory<Map<Object, Object>> factory;
+        private final boolean view;
+        private final boolean sorted;
+
+        private MapPlan(Class<?> sourceClass, Class<?> targetClass, Plan keyPlan, Plan valuePlan,
+                CollectionConverters.CollectionFactory<Map<Object, Object>> factory, boolean view) {
+            super(sourceClass, targetClass);
+            this.keyPlan = keyPlan;
+            this.valuePlan = valuePlan;
+            this.factory = factory;
+            this.view = view && targetClass.isAssignableFrom(MapView.class);
+            this.sorted = SortedMap.class.isAssignableFrom(targetClass) && targetClass.isAssignableFrom(TreeMap.class);
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            if (obj == null) {
+                return null;
+            }
+            if (!(obj instanceof Map)) {
+                throw UnconvertableException.makeNoConverterExists(obj.getClass(), getTargetClass());
+            }
+            Map<?, ?> source = (Map<?, ?>) obj;
+            if (view) {
+                return new MapView(source, keyPlan, valuePlan);
+            }
+            if (sorted) {
+                Object[] keys = new Object[source.size()];
+                Object[] values = new Object[keys.length];
+                int index = 0;
+                for (Map.Entry<?, ?> entry : source.entrySet()) {
+                    keys[index] = keyPlan.convert(entry.getKey());
+                    values[index++] = valuePlan.convert(entry.getValue());
+                }
+                try {
+                    return SortedCollections.toTreeMap(keys, values, null);
+                } catch (ClassCastException e) {
+                    throw new ConversionException(e);
+                } catch (NullPointerException e) {
+                    throw new ConversionException(e);
+                }
+            }
+            Map<Object, Object> result = factory.newInstance(source.size());
+            for (Map.Entry<?, ?> entry : source.entrySet()) {
+                result.put(keyPlan.convert(entry.getKey()), valuePlan.convert(entry.getValue()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Converts an array or collection to an array. The result is created with its
+     * final length, and each element is converted with the component plan. Elements
+     * of primitive arrays are stored with a switch on the component type, and
+     * <code>Number</code>s out of the component type's range are rejected, as the
+     * collection to primitive array converters do.
+     */
+    private static final class ArrayPlan extends Plan {
+        private final Class<?> componentType;
+        private final int kind;
+        private final Plan componentPlan;
+
+        private ArrayPlan(Class<?> sourceClass, Class<?> targetClass, Plan componentPlan) {
+            super(sourceClass, targetClass);
+            this.componentType = targetClass.getComponentType();
+            this.kind = kind(componentType);
+            this.componentPlan = componentPlan;
+        }
+
+        public Object convert(Object obj) throws ConversionException {
+            if (obj == null) {
+                return null;
+            }
+            List<?> source = asList(obj);
+            int length = source.size();
+            Object result = Array.newInstance(componentType, length);
+            if (kind == OBJECT) {
+                Object[] array = (Object[]) result;
+                try {
+                    for (int i = 0; i < length; i++) {
+                        array[i] = componentPlan.convert(source.get(i));
+                    }
+                } catch (ArrayStoreException e) {
+                    throw new ConversionException(e);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    store(result, kind, i, source.get(i), componentPlan);
+                }
+            }
+            return result;
+        }
+    }
+
+    static final int OBJECT = 0;
+    static final int BOOLEAN = 1;
+    static final int BYTE = 2;
+    static final int CHAR = 3;
+    static final int DOUBLE = 4;
+    static final int FLOAT = 5;
+    static final int INT = 6;
+    static final int LONG = 7;
+    static final int SHORT = 8;
+
+    /** Returns the store kind of an array component type. */
+    static int kind(Class<?> componentType) {
+        if (componentType == Boolean.TYPE) {
+            return BOOLEAN;
+        }
+        if (componentType == Byte.TYPE) {
+            return BYTE;
+        }
+        if (componentType == Character.TYPE) {
+            return CHAR;
+        }
+        if (componentType == Double.TYPE) {
+            return DOUBLE;
+        }
+        if (componentType == Float.TYPE) {
+            return FLOAT;
+        }
+        if (componentType == Integer.TYPE) {
+            return INT;
+        }
+        if (componentType == Long.TYPE) {
+            return LONG;
+        }
+        if (componentType == Short.TYPE) {
+            return SHORT;
+        }
+        return OBJECT;
+    }
+
+    /** Stores <code>value</code> at <code>index</code> in <code>array</code>, an
+     * array of the store kind <code>kind</code>, converting it with
+     * <code>plan</code> if it is not a <code>Number</code>, or the wrapper class
+     * of the component type. Numbers out of the component type's range are a
+     * <code>ConversionException</code>. */
+    static void store(Object array, int kind, int index, Object value, Converter<Object, Object> plan) throws ConversionException {
+        if (value == null) {
+            throw new ConversionException("Cannot store a null element in " + array.getClass().getComponentType().getName() + "[]");
+        }
+        switch (kind) {
+        case BOOLEAN:
+            ((boolean[]) array)[index] = ((Boolean) (value instanceof Boolean ? value : plan.convert(value))).booleanValue();
+            return;
+        case CHAR:
+            ((char[]) array)[index] = ((Character) (value instanceof Character ? value : plan.convert(value))).charValue();
+            return;
+        case OBJECT:
+            ((Object[]) array)[index] = plan.convert(value);
+            return;
+        default:
+        }
+        // Out of range values are rejected, as in Narrowing.CHECKED
+        Number number = (Number) (value instanceof Number ? value : plan.convert(value));
+        switch (kind) {
+        case BYTE:
+            ((byte[]) array)[index] = (byte) NumberConverters.NumberToNumber.checkedLongValue(number, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            return;
+        case DOUBLE:
+            ((double[]) array)[index] = NumberConverters.NumberToNumber.checkedDoubleValue(number);
+            return;
+        case FLOAT:
+            ((float[]) array)[index] = NumberConverters.NumberToNumber.checkedFloatValue(number);
+            return;
+        case INT:
+            ((int[]) array)[index] = number instanceof Integer ? number.intValue() : (int) NumberConverters.NumberToNumber.checkedLongValue(number, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            return;
+        case LONG:
+            ((long[]) array)[index] = number instanceof Long ? number.longValue() : NumberConverters.NumberToNumber.checkedLongValue(number, Long.MIN_VALUE, Long.MAX_VALUE);
+            return;
+        default:
+            ((short[]) array)[index] = (short) NumberConverters.NumberToNumber.checkedLongValue(number, Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+    }
+
+    /** A read-only view of a list that converts elements when they are read. */
+    private static class ListView extends AbstractList<Object> {
+        private final List<?> source;
+        private final Plan plan;
+
+        private ListView(List<?> source, Plan plan) {
+            this.source = source;
+            this.plan = plan;
+        }
+
+        @Override
+        public Object get(int index) {
+            return plan.convert(source.get(index));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+    }
+
+    private static final class RandomAccessListView extends ListView implements RandomAccess {
+        private RandomAccessListView(List<?> source, Plan plan) {
+            super(source, plan);
+        }
+    }
+
+    /** A read-only view of a collection that converts elements when they are read. */
+    private static final class CollectionView extends AbstractCollection<Object> {
+        private final Collection<?> source;
+        private final Plan plan;
+
+        private CollectionView(Collection<?> source, Plan plan) {
+            this.source = source;
+            this.plan = plan;
+        }
+
+        @Override
+        public Iterator<Object> iterator() {
+            final Iterator<?> iterator = source.iterator();
+            return new Iterator<Object>() {
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                public Object next() {
+                    return plan.convert(iterator.next());
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+    }
+
+    /** A read-only view of a map that converts keys and values when they are read.
+     * If keys are converted, <code>get</code> and <code>containsKey</code> use an
+     * index of the converted keys that is built when the map is first searched, and
+     * does not reflect keys added to the source later.
+     */
+    private static final class MapView extends AbstractMap<Object, Object> {
+        private final Map<?, ?> source;
+        private final Plan keyPlan;
+        private final Plan valuePlan;
+        /** Converted keys mapped to source keys, or <code>null</code> if keys are not converted. */
+        private final Map<Object, Object> keys;
+        private Set<Map.Entry<Object, Object>> entrySet;
+
+        /** Creates the view. Converted keys are mapped to their source keys up
+         * front, so that two source keys that convert to the same key are
+         * rejected instead of appearing as duplicate entries.
+         *
+         * @throws ConversionException if two keys convert to equal keys
+         */
+        private MapView(Map<?, ?> source, Plan keyPlan, Plan valuePlan) throws ConversionException {
+            this.source = source;
+            this.keyPlan = keyPlan;
+            this.valuePlan = valuePlan;
+            if (keyPlan instanceof IdentityPlan) {
+                this.keys = null;
+                return;
+            }
+            this.keys = new HashMap<Object, Object>(CollectionConverters.CollectionFactory.hashCapacity(source.size()));
+            for (Object key : source.keySet()) {
+                Object converted = keyPlan.convert(key);
+                if (keys.containsKey(converted)) {
+                    throw new ConversionException("Keys " + keys.get(converted) + " and " + key + " both convert to " + converted);
+                }
+                keys.put(converted, key);
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            if (keyPlan instanceof IdentityPlan) {
+                return source.containsKey(key);
+            }
+            return keys.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (keyPlan instanceof IdentityPlan) {
+                return valuePlan.convert(source.get(key));
+            }
+            Object sourceKey = keys.get(key);
+            return sourceKey == null && !keys.containsKey(key) ? null : valuePlan.convert(source.get(sourceKey));
+        }
+
+        @Override
+        public int size() {
+            return source.size();
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Map.Entry<Object, Object>>() {
+                    @Override
+                    public Iterator<Map.Entry<Object, Object>> iterator() {
+                        final Iterator<? extends Map.Entry<?, ?>> iterator = source.entrySet().iterator();
+                        return new Iterator<Map.Entry<Object, Object>>() {
+                            public boolean hasNext() {
+                                return iterator.hasNext();
+                            }
+
+                            public Map.Entry<Object, Object> next() {
+                                Map.Entry<?, ?> entry = iterator.next();
+                                return new AbstractMap.SimpleImmutableEntry<Object, Object>(keyPlan.convert(entry.getKey()), valuePlan.convert(entry.getValue()));
+                            }
+
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return source.size();
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+
+    /** A plan cache key. */
+    private static final class Key {
+        private final Type sourceType;
+        private final Type targetType;
+        private final Mode mode;
+
+        private Key(Type sourceType, Type targetType, Mode mode) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key that = (Key) obj;
+            return sourceType.equals(that.sourceType) && targetType.equals(that.targetType) && mode == that.mode;
+        }
+
+        @Override
+        public int hashCode() {
+            return (sourceType.hashCode() * 31 + targetType.hashCode()) * 31 + mode.ordinal();
+        }
+    }
+
+    /** A <code>ParameterizedType</code> that is equal to the JDK's. */
+    private static final class ParameterizedTypeImpl implements ParameterizedType {
+        private final Class<?> rawType;
+        private final Type[] typeArguments;
+
+        private ParameterizedTypeImpl(Class<?> rawType, Type[] typeArguments) {
+            this.rawType = rawType;
+            this.typeArguments = typeArguments;
+        }
+
+        public Type[] getActualTypeArguments() {
+            return typeArguments.clone();
+        }
+
+        public Type getOwnerType() {
+            return rawType.getDeclaringClass();
+        }
+
+        public Type getRawType() {
+            return rawType;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType that = (ParameterizedType) obj;
+            Type owner = getOwnerType();
+            return rawType.equals(that.getRawType()) && (owner == null ? that.getOwnerType() == null : owner.equals(that.getOwnerType()))
+                    && Arrays.equals(typeArguments, that.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            Type owner = getOwnerType();
+            return Arrays.hashCode(typeArguments) ^ (owner == null ? 0 : owner.hashCode()) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < typeArguments.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                Type argument = typeArguments[i];
+                sb.append(argument instanceof Class ? ((Class<?>) argument).getName() : argument.toString());
+            }
+            return sb.append('>').toString();
+        }
+    }
+
+    private TypeConverters() {}
+}
@@ -6,9 +6,11 @@ package org.apache.commons.convert;
  */
 public class UnconvertableException extends ConversionException {
 
+    /** Returns an exception for a missing converter. The exception has no stack
+     * trace, and its message is not built until it is requested.
+     */
     public static UnconvertableException makeNoConverterExists(Class<?> sourceType, Class<?> targetType) {
-        return new UnconvertableException("No converter exists to convert from type " + sourceType +
-                " to type " + targetType);
+        return new NoConverterExists(sourceType, targetType);
     }
 
     public UnconvertableException(String message) {
@@ -22,4 +24,26 @@ public class UnconvertableException extends ConversionException {
     public UnconvertableException(Throwable cause) {
         super(cause);
     }
+
+    @SuppressWarnings("serial")
+    private static final class NoConverterExists extends UnconvertableException {
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+
+        private NoConverterExists(Class<?> sourceType, Class<?> targetType) {
+            super((String) null);
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        @Override
+        public String getMessage() {
+            return "No converter exists to convert from type " + sourceType + " to type " + targetType;
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
 }
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/** Converters that parse UTF-8 text from byte arrays and <code>ByteBuffer</code>s,
+ * using {@link Utf8Parser}. Each byte array converter is also registered for
+ * <code>ByteBuffer</code> sources, where it parses the bytes from the buffer's
+ * position to its limit without changing the position.
+ */
+public class Utf8Converters implements ConverterLoader {
+
+    public void loadConverters() {
+        Converters.loadContainedConverters(Utf8Converters.class);
+    }
+
+    /**
+     * An abstract byte array converter class. Subclasses parse a range of the
+     * array, so that any part of an array or a <code>ByteBuffer</code> can be
+     * converted without copying.
+     */
+    public static abstract class AbstractByteArrayConverter<T> extends AbstractConverter<byte[], T> {
+        public AbstractByteArrayConverter(Class<? super T> targetClass) {
+            super(byte[].class, targetClass);
+        }
+
+        @Override
+        public void loadConverters() {
+            super.loadConverters();
+            Converters.registerConverter(new ByteBufferConverter<T>(this));
+        }
+
+        public T convert(byte[] obj) throws ConversionException {
+            return convert(obj, 0, obj.length);
+        }
+
+        /** Converts the remaining bytes of <code>buffer</code>. The buffer's
+         * position is not changed.
+         */
+        public T convert(ByteBuffer buffer) throws ConversionException {
+            if (buffer.hasArray()) {
+                int offset = buffer.arrayOffset();
+                return convert(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+            }
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            return convert(bytes, 0, bytes.length);
+        }
+
+        /** Converts <code>bytes[start, end)</code>. */
+        public abstract T convert(byte[] bytes, int start, int end) throws ConversionException;
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to a
+     * <code>BigDecimal</code>, as <code>new BigDecimal(String)</code> does.
+     */
+    public static class ByteArrayToBigDecimal extends AbstractByteArrayConverter<BigDecimal> {
+        public ByteArrayToBigDecimal() {
+            super(BigDecimal.class);
+        }
+
+        public BigDecimal convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseBigDecimal(bytes, start, end);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to a
+     * <code>Boolean</code>, as {@link BooleanConverters.StringToBoolean} does.
+     */
+    public static class ByteArrayToBoolean extends AbstractByteArrayConverter<Boolean> {
+        public ByteArrayToBoolean() {
+            super(Boolean.class);
+        }
+
+        public Boolean convert(byte[] bytes, int start, int end) throws ConversionException {
+            return Utf8Parser.parseBoolean(bytes, start, end);
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to a
+     * <code>Double</code>.
+     */
+    public static class ByteArrayToDouble extends AbstractByteArrayConverter<Double> {
+        public ByteArrayToDouble() {
+            super(Double.class);
+        }
+
+        public Double convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseDouble(bytes, start, end);
+            } catch (NumberFormatException e) {
+                throw ConversionException.invalidInput("For input string: \"", Utf8Parser.decode(bytes, start, end), "\"");
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to a
+     * {@link FixedDecimal}.
+     */
+    public static class ByteArrayToFixedDecimal extends AbstractByteArrayConverter<FixedDecimal> {
+        public ByteArrayToFixedDecimal() {
+            super(FixedDecimal.class);
+        }
+
+        public FixedDecimal convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseFixedDecimal(bytes, start, end);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to an
+     * <code>Integer</code>.
+     */
+    public static class ByteArrayToInteger extends AbstractByteArrayConverter<Integer> {
+        public ByteArrayToInteger() {
+            super(Integer.class);
+        }
+
+        public Integer convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseInt(bytes, start, end);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 byte array to a
+     * <code>Long</code>.
+     */
+    public static class ByteArrayToLong extends AbstractByteArrayConverter<Long> {
+        public ByteArrayToLong() {
+            super(Long.class);
+        }
+
+        public Long convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseLong(bytes, start, end);
+            } catch (NumberFormatException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 JDBC date byte array to a
+     * <code>java.sql.Date</code>.
+     */
+    public static class ByteArrayToSqlDate extends AbstractByteArrayConverter<java.sql.Date> {
+        public ByteArrayToSqlDate() {
+            super(java.sql.Date.class);
+        }
+
+        public java.sql.Date convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseSqlDate(bytes, start, end);
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 JDBC time byte array to a
+     * <code>java.sql.Time</code>.
+     */
+    public static class ByteArrayToSqlTime extends AbstractByteArrayConverter<Time> {
+        public ByteArrayToSqlTime() {
+            super(Time.class);
+        }
+
+        public Time convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseSqlTime(bytes, start, end);
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 JDBC timestamp byte array to a
+     * <code>java.sql.Timestamp</code>.
+     */
+    public static class ByteArrayToTimestamp extends AbstractByteArrayConverter<Timestamp> {
+        public ByteArrayToTimestamp() {
+            super(Timestamp.class);
+        }
+
+        public Timestamp convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseTimestamp(bytes, start, end);
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a UTF-8 UUID byte array to a
+     * <code>UUID</code>.
+     */
+    public static class ByteArrayToUUID extends AbstractByteArrayConverter<UUID> {
+        public ByteArrayToUUID() {
+            super(UUID.class);
+        }
+
+        public UUID convert(byte[] bytes, int start, int end) throws ConversionException {
+            try {
+                return Utf8Parser.parseUUID(bytes, start, end);
+            } catch (IllegalArgumentException e) {
+                throw new ConversionException(e);
+            }
+        }
+    }
+
+    /**
+     * An object that converts a <code>ByteBuffer</code> with a byte array
+     * converter.
+     */
+    public static class ByteBufferConverter<T> extends AbstractConverter<ByteBuffer, T> {
+        private final AbstractByteArrayConverter<T> converter;
+
+        public ByteBufferConverter(AbstractByteArrayConverter<T> converter) {
+            super(ByteBuffer.class, converter.getTargetClass());
+            this.converter = converter;
+        }
+
+        public T convert(ByteBuffer obj) throws ConversionException {
+            return converter.convert(obj);
+        }
+    }
+}
@@ -0,0 +1,446 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.TimeZone;
+import java.util.UUID;
+
+/** Parsers for text held as UTF-8 bytes.
+ * <p>Each method parses the range <code>bytes[start, end)</code> in place, without
+ * charset decoding or an intermediate <code>String</code>, and accepts exactly what
+ * the corresponding <code>String</code> method accepts: <code>Integer.parseInt</code>,
+ * <code>Double.parseDouble</code>, <code>UUID.fromString</code>,
+ * <code>java.sql.Date.valueOf</code> and so on. Input that the byte parsers do not
+ * handle, such as non-ASCII characters, unusual forms, or errors, is decoded and
+ * passed to the <code>String</code> method, so the results and exceptions are
+ * the same.</p>
+ * <p>The bulk methods parse a list of fields separated by one ASCII character, such
+ * as a comma-separated payload.</p>
+ */
+public class Utf8Parser {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /** The powers of ten that are exact <code>double</code> values. */
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /** Parses a decimal <code>int</code>, as <code>Integer.parseInt</code> does.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal <code>int</code>
+     */
+    public static int parseInt(byte[] bytes, int start, int end) {
+        return IntegerParser.parseInt(bytes, start, end);
+    }
+
+    /** Parses a decimal <code>long</code>, as <code>Long.parseLong</code> does.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal <code>long</code>
+     */
+    public static long parseLong(byte[] bytes, int start, int end) {
+        return IntegerParser.parseLong(bytes, start, end);
+    }
+
+    /** Parses a <code>double</code>, as <code>Double.parseDouble</code> does.
+     * Decimals with at most 18 significant digits whose value and power of ten are
+     * both exact <code>double</code> values are converted with one correctly rounded
+     * multiplication or division.
+     *
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    public static double parseDouble(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean point = false;
+        for (; i < end; i++) {
+            int b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (point) {
+                    exponent--;
+                }
+                if (significand == 0 && b == '0') {
+                    continue;
+                }
+                if (++digits > 18) {
+                    return Double.parseDouble(decode(bytes, start, end));
+                }
+                significand = significand * 10 + b - '0';
+            } else if (b == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (any && i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            boolean negativeExponent = i < end && bytes[i] == '-';
+            if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+                i++;
+            }
+            int value = 0;
+            int exponentStart = i;
+            for (; i < end && bytes[i] >= '0' && bytes[i] <= '9' && value < 100000; i++) {
+                value = value * 10 + bytes[i] - '0';
+            }
+            if (i == exponentStart) {
+                any = false;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (!any || i < end || significand > MAX_EXACT || exponent < -22 || exponent > 22) {
+            // Other forms (NaN, hexadecimal, suffixes, white space), errors, and inexact cases
+            return Double.parseDouble(decode(bytes, start, end));
+        }
+        double value = exponent < 0 ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /** Parses a <code>BigDecimal</code>, as <code>new BigDecimal(String)</code> does.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal number
+     */
+    public static BigDecimal parseBigDecimal(byte[] bytes, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            int b = bytes[start + i];
+            if (b < 0) {
+                return new BigDecimal(decode(bytes, start, end));
+            }
+            chars[i] = (char) b;
+        }
+        return new BigDecimal(chars, 0, chars.length);
+    }
+
+    /** Parses a {@link FixedDecimal}, as {@link FixedDecimal#parse(CharSequence)} does.
+     *
+     * @throws NumberFormatException if the bytes are not a decimal number, or its
+     * value cannot be represented
+     */
+    public static FixedDecimal parseFixedDecimal(byte[] bytes, int start, int end) {
+        return FixedDecimal.parse(new AsciiSequence(bytes, start, end));
+    }
+
+    /** Returns <code>true</code> if the bytes, trimmed of white space, equal "true"
+     * ignoring case. This is the test that
+     * {@link BooleanConverters.StringToBoolean} uses.
+     */
+    public static boolean parseBoolean(byte[] bytes, int start, int end) {
+        while (start < end && bytes[start] >= 0 && bytes[start] <= ' ') {
+            start++;
+        }
+        while (end > start && bytes[end - 1] >= 0 && bytes[end - 1] <= ' ') {
+            end--;
+        }
+        return end - start == 4 && (bytes[start] | 0x20) == 't' && (bytes[start + 1] | 0x20) == 'r'
+                && (bytes[start + 2] | 0x20) == 'u' && (bytes[start + 3] | 0x20) == 'e';
+    }
+
+    /** Parses a <code>UUID</code>, as <code>UUID.fromString</code> does.
+     *
+     * @throws IllegalArgumentException if the bytes are not a <code>UUID</code>
+     */
+    public static UUID parseUUID(byte[] bytes, int start, int end) {
+        if (end - start == 36 && bytes[start + 8] == '-' && bytes[start + 13] == '-' && bytes[start + 18] == '-' && bytes[start + 23] == '-') {
+            long time = hex(bytes, start, start + 8);
+            long version = hex(bytes, start + 9, start + 13);
+            long sequence = hex(bytes, start + 14, start + 18);
+            long variant = hex(bytes, start + 19, start + 23);
+            long node = hex(bytes, start + 24, start + 36);
+            if ((time | version | sequence | variant | node) >= 0) {
+                return new UUID(time << 32 | version << 16 | sequence, variant << 48 | node);
+            }
+        }
+        return UUID.fromString(decode(bytes, start, end));
+    }
+
+    /** Parses a JDBC date (<code>yyyy-[m]m-[d]d</code>), as
+     * <code>java.sql.Date.valueOf</code> does.
+     *
+     * @throws IllegalArgumentException if the bytes are not a JDBC date
+     */
+    @SuppressWarnings("deprecation")
+    public static java.sql.Date parseSqlDate(byte[] bytes, int start, int end) {
+        int date = date(bytes, start, end);
+        if (date >= 0) {
+            return new java.sql.Date(date / 10000 - 1900, date / 100 % 100 - 1, date % 100);
+        }
+        return java.sql.Date.valueOf(decode(bytes, start, end));
+    }
+
+    /** Parses a JDBC time (<code>hh:mm:ss</code>), as <code>java.sql.Time.valueOf</code>
+     * does.
+     *
+     * @throws IllegalArgumentException if the bytes are not a JDBC time
+     */
+    @SuppressWarnings("deprecation")
+    public static Time parseSqlTime(byte[] bytes, int start, int end) {
+        int time = end - start == 8 ? time(bytes, start) : -1;
+        if (time >= 0) {
+            return new Time(time / 10000, time / 100 % 100, time % 100);
+        }
+        return Time.valueOf(decode(bytes, start, end));
+    }
+
+    /** Parses a JDBC timestamp (<code>yyyy-[m]m-[d]d hh:mm:ss[.f...]</code>), as
+     * <code>java.sql.Timestamp.valueOf</code> does.
+     *
+     * @throws IllegalArgumentException if the bytes are not a JDBC timestamp
+     */
+    @SuppressWarnings("deprecation")
+    public static Timestamp parseTimestamp(byte[] bytes, int start, int end) {
+        int space = indexOf(bytes, start, end, ' ');
+        int date = space < 0 ? -1 : date(bytes, start, space);
+        int i = space + 1;
+        int time = date >= 0 && end - i >= 8 ? time(bytes, i) : -1;
+        if (time >= 0) {
+            i += 8;
+            int nanos = 0;
+            if (i < end && bytes[i] == '.' && end - i >= 2 && end - i <= 10) {
+                nanos = digits(bytes, i + 1, end);
+                for (int n = end - i - 1; n < 9 && nanos >= 0; n++) {
+                    nanos *= 10;
+                }
+                i = end;
+            }
+            if (i == end && nanos >= 0) {
+                return new Timestamp(date / 10000 - 1900, date / 100 % 100 - 1, date % 100, time / 10000, time / 100 % 100, time % 100, nanos);
+            }
+        }
+        return Timestamp.valueOf(decode(bytes, start, end));
+    }
+
+    /** Parses an ISO-8601 date or date-time, as
+     * {@link Iso8601Format#parseMillis(String, TimeZone)} does.
+     *
+     * @param timeZone The time zone used when the text has no offset
+     * @return The time in milliseconds since the epoch, or {@link Iso8601Format#NO_MATCH}
+     */
+    public static long parseIsoMillis(byte[] bytes, int start, int end, TimeZone timeZone) {
+        return Iso8601Format.parseMillis(new AsciiSequence(bytes, start, end), timeZone);
+    }
+
+    /** Parses an ISO-8601 date or date-time, as
+     * {@link Iso8601Format#parseTimestamp(String, TimeZone)} does.
+     *
+     * @param timeZone The time zone used when the text has no offset
+     * @return The <code>Timestamp</code>, or <code>null</code> if the bytes could
+     * not be parsed
+     */
+    public static Timestamp parseIsoTimestamp(byte[] bytes, int start, int end, TimeZone timeZone) {
+        return Iso8601Format.parseTimestamp(new AsciiSequence(bytes, start, end), timeZone);
+    }
+
+    /** Parses the <code>int</code> fields of <code>bytes[start, end)</code>, which are
+     * separated by <code>separator</code>, into <code>values</code>. An empty range
+     * has no fields, and a trailing separator is ignored.
+     *
+     * @return The number of values
+     * @throws NumberFormatException if a field is not a decimal <code>int</code>
+     * @throws IndexOutOfBoundsException if <code>values</code> is too short
+     */
+    public static int parseInts(byte[] bytes, int start, int end, char separator, int[] values) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            int fieldEnd = indexOf(bytes, i, end, separator);
+            if (fieldEnd < 0) {
+                fieldEnd = end;
+            }
+            values[count++] = IntegerParser.parseInt(bytes, i, fieldEnd);
+            i = fieldEnd;
+        }
+        return count;
+    }
+
+    /** Parses the <code>long</code> fields of <code>bytes[start, end)</code>, which are
+     * separated by <code>separator</code>, into <code>values</code>. An empty range
+     * has no fields, and a trailing separator is ignored.
+     *
+     * @return The number of values
+     * @throws NumberFormatException if a field is not a decimal <code>long</code>
+     * @throws IndexOutOfBoundsException if <code>values</code> is too short
+     */
+    public static int parseLongs(byte[] bytes, int start, int end, char separator, long[] values) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            int fieldEnd = indexOf(bytes, i, end, separator);
+            if (fieldEnd < 0) {
+                fieldEnd = end;
+            }
+            values[count++] = IntegerParser.parseLong(bytes, i, fieldEnd);
+            i = fieldEnd;
+        }
+        return count;
+    }
+
+    /** Parses the <code>double</code> fields of <code>bytes[start, end)</code>, which
+     * are separated by <code>separator</code>, into <code>values</code>. An empty
+     * range has no fields, and a trailing separator is ignored.
+     *
+     * @return The number of values
+     * @throws NumberFormatException if a field is not a number
+     * @throws IndexOutOfBoundsException if <code>values</code> is too short
+     */
+    public static int parseDoubles(byte[] bytes, int start, int end, char separator, double[] values) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            int fieldEnd = indexOf(bytes, i, end, separator);
+            if (fieldEnd < 0) {
+                fieldEnd = end;
+            }
+            values[count++] = parseDouble(bytes, i, fieldEnd);
+            i = fieldEnd;
+        }
+        return count;
+    }
+
+    static String decode(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, UTF_8);
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, char c) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the value of the one to nine ASCII digits <code>bytes[start, end)</code>, or -1. */
+    private static int digits(byte[] bytes, int start, int end) {
+        if (end <= start || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /** Returns the value of the hexadecimal digits <code>bytes[start, end)</code>, or -1. */
+    private static long hex(byte[] bytes, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int b = bytes[i];
+            int digit = b >= '0' && b <= '9' ? b - '0' : (b | 0x20) >= 'a' && (b | 0x20) <= 'f' ? (b | 0x20) - 'a' + 10 : -1;
+            if (digit < 0) {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    /** Returns a <code>yyyy-[m]m-[d]d</code> date as <code>yyyymmdd</code>, or -1. The
+     * day is checked as <code>java.sql.Date.valueOf</code> checks it, from 1 to 31. */
+    private static int date(byte[] bytes, int start, int end) {
+        if (end - start < 8 || end - start > 10 || bytes[start + 4] != '-') {
+            return -1;
+        }
+        int dash = indexOf(bytes, start + 5, end, '-');
+        if (dash < 0 || dash - start - 5 > 2 || end - dash - 1 > 2) {
+            return -1;
+        }
+        int year = digits(bytes, start, start + 4);
+        int month = digits(bytes, start + 5, dash);
+        int day = digits(bytes, dash + 1, end);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return -1;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    /** Returns the <code>hh:mm:ss</code> time at <code>start</code> as <code>hhmmss</code>, or -1. */
+    private static int time(byte[] bytes, int start) {
+        if (bytes[start + 2] != ':' || bytes[start + 5] != ':') {
+            return -1;
+        }
+        int hour = digits(bytes, start, start + 2);
+        int minute = digits(bytes, start + 3, start + 5);
+        int second = digits(bytes, start + 6, start + 8);
+        if ((hour | minute | second) < 0) {
+            return -1;
+        }
+        return hour * 10000 + minute * 100 + second;
+    }
+
+    /** A <code>CharSequence</code> view of bytes. Bytes outside the ASCII range read
+     * as <code>'\uFFFF'</code>, which no parser accepts. */
+    private static final class AsciiSequence implements CharSequence {
+        private final byte[] bytes;
+        private final int start;
+        private final int end;
+
+        private AsciiSequence(byte[] bytes, int start, int end) {
+            if (start < 0 || end > bytes.length || start > end) {
+                throw new IndexOutOfBoundsException();
+            }
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException();
+            }
+            int b = bytes[start + index];
+            return b >= 0 ? (char) b : '\uFFFF';
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        public CharSequence subSequence(int from, int to) {
+            return new AsciiSequence(bytes, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return decode(bytes, start, end);
+        }
+    }
+
+    private Utf8Parser() {}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class TestBitConverters extends TestCase {
+
+    public TestBitConverters(String name) {
+        super(name);
+    }
+
+    public void testConversions() throws Exception {
+        Random random = new Random(5);
+        for (int n = 0; n < 500; n++) {
+            int length = random.nextInt(300);
+            int density = random.nextInt(4);
+            boolean[] bits = new boolean[length];
+            BitSet expected = new BitSet();
+            long[] expectedWords = new long[(length + 63) / 64];
+            for (int i = 0; i < length; i++) {
+                bits[i] = density == 0 ? random.nextInt(20) == 0 : density == 3 ? random.nextInt(20) != 0 : random.nextBoolean();
+                if (bits[i]) {
+                    expected.set(i);
+                    expectedWords[i / 64] |= 1L << i;
+                }
+            }
+            String label = Arrays.toString(bits);
+            BitSet set = Converters.convert(bits, BitSet.class);
+            assertEquals(label, expected, set);
+            boolean[] trimmed = Arrays.copyOf(bits, expected.length());
+            assertTrue(label, Arrays.equals(trimmed, Converters.convert(set, boolean[].class)));
+            long[] words = Converters.convert(set, long[].class);
+            assertTrue(label, Arrays.equals(Arrays.copyOf(expectedWords, (expected.length() + 63) / 64), words));
+            assertTrue(label, Arrays.equals(expectedWords, BitPacking.toWords(bits)));
+            assertTrue(label, Arrays.equals(bits, BitPacking.toBooleans(expectedWords, length)));
+            assertEquals(label, expected, Converters.convert(expectedWords, BitSet.class));
+            byte[] bytes = Converters.convert(set, byte[].class);
+            assertEquals(label, (expected.length() + 7) / 8, bytes.length);
+            for (int i = 0; i < bytes.length * 8; i++) {
+                assertEquals(label, expected.get(i), (bytes[i / 8] & (1 << (i % 8))) != 0);
+            }
+            assertEquals(label, expected, Converters.convert(bytes, BitSet.class));
+            List<Boolean> list = new ArrayList<Boolean>();
+            for (boolean bit : bits) {
+                list.add(bit);
+            }
+            assertEquals(label, expected, Converters.convert(list, BitSet.class));
+            assertEquals(label, expected, Converters.convert(PrimitiveLists.asList(bits), BitSet.class));
+        }
+        BitSet set = new BitSet();
+        set.set(1);
+        set.set(3);
+        List<Boolean> list = Converters.convert(set, List.class);
+        assertEquals(Arrays.asList(false, true, false, true), list);
+        assertTrue(Arrays.equals(new boolean[] {false, true, false, true}, Converters.convert(list, boolean[].class)));
+        assertTrue(Arrays.equals(new byte[] {1, 1}, BitPacking.toBytes(new long[] {0x301}, 9)));
+        try {
+            Converters.convert(Arrays.asList(true, null), BitSet.class);
+            fail("Converted a null element");
+        } catch (ConversionException e) {
+        }
+        try {
+            BitPacking.toBooleans(new long[1], 65);
+            fail("Read 65 bits from one word");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
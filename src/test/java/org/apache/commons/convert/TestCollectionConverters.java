@@ -18,11 +18,27 @@
  *******************************************************************************/
 package org.apache.commons.convert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import junit.framework.TestCase;
 
@@ -73,5 +89,283 @@ public class TestCollectionConverters extends TestCase {
         assertArrayToCollection("short[] to List", shortArray, List.class, shortArray.length);
         String[] stringArray = {"a", "b", "c"};
         assertArrayToCollection("String[] to List", stringArray, List.class, stringArray.length);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 3), Converters.convert(intArray, List.class));
+        assertEquals(new HashSet<Integer>(Arrays.asList(0, 1, 2, 3)), Converters.convert(intArray, Set.class));
+        assertEquals(Arrays.asList(0.0, 1.0, 2.0, 3.0), Converters.convert(doubleArray, LinkedList.class));
+        assertEquals(Arrays.asList('a', 'b', 'c'), Converters.convert(charArray, ArrayList.class));
+        assertEquals(new Vector<Integer>(Arrays.asList(0, 1, 2, 3, 3)), Converters.convert(intArray, Vector.class));
+        assertEquals(Arrays.asList(1, 2), Converters.convert(new Integer[] {1, 2}, CopyOnWriteArrayList.class));
+        LinkedHashSet<?> linkedHashSet = Converters.convert(new String[] {"b", "a", "b"}, LinkedHashSet.class);
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<Object>(linkedHashSet));
+        Integer[] integerArray = {3, 1, 2};
+        assertEquals(new TreeSet<Integer>(Arrays.asList(integerArray)), Converters.convert(integerArray, TreeSet.class));
+        String[] strings = Converters.convert(Arrays.asList("x", "y"), String[].class);
+        assertTrue(Arrays.equals(new String[] {"x", "y"}, strings));
+        assertEquals(Object[].class, Converters.convert(new LinkedList<String>(Arrays.asList("x")), Object[].class).getClass());
+        assertTrue(Arrays.equals(new int[] {1, 2, 3, 4}, Converters.convert(Arrays.asList("1", "2", 3L, 4.5), int[].class)));
+        assertTrue(Arrays.equals(new long[] {5, 6}, Converters.convert(new LinkedList<String>(Arrays.asList("5", "6")), long[].class)));
+        assertTrue(Arrays.equals(new double[] {0.5, 2}, Converters.convert(Arrays.<Object>asList("0.5", 2), double[].class)));
+        assertTrue(Arrays.equals(new boolean[] {true, false}, Converters.convert(Arrays.asList("true", Boolean.FALSE), boolean[].class)));
+        try {
+            Converters.convert(Arrays.asList("1", "x"), int[].class);
+            fail("Converted \"x\" to an int");
+        } catch (ConversionException e) {
+        }
+        try {
+            Converters.convert(Arrays.asList(1, null), int[].class);
+            fail("Converted a null element to an int");
+        } catch (ConversionException e) {
+        }
+        assertTrue(Arrays.equals(new short[] {-32768, 7}, Converters.convert(Arrays.<Object>asList("-32768", new java.math.BigDecimal("7.9")), short[].class)));
+        Object[][] outOfRange = {{int[].class, 1L << 40}, {int[].class, "2147483648"}, {byte[].class, 128}, {short[].class, "-32769"},
+                {long[].class, 1e19}, {long[].class, Double.NaN}, {int[].class, java.math.BigInteger.ONE.shiftLeft(64)}, {float[].class, 1e300}};
+        for (Object[] test : outOfRange) {
+            try {
+                Converters.convert(Arrays.asList(test[1]), (Class<?>) test[0]);
+                fail("Converted " + test[1] + " to " + test[0]);
+            } catch (ConversionException e) {
+            }
+        }
+        try {
+            Converters.convert(Arrays.asList(1, 2), String[].class);
+            fail("Stored an Integer in a String[]");
+        } catch (ConversionException e) {
+            assertTrue(e.getCause() instanceof ArrayStoreException);
+        }
+    }
+
+    public void testPrimitiveLists() throws Exception {
+        int[] ints = {3, 1, 2};
+        List<Integer> view = PrimitiveLists.asList(ints);
+        assertEquals(Arrays.asList(3, 1, 2), view);
+        assertEquals(Integer.valueOf(3), view.set(0, 4));
+        assertEquals(4, ints[0]);
+        assertEquals(2, view.indexOf(2));
+        assertFalse(view.contains(2L));
+        assertTrue(Arrays.equals(new Integer[] {4, 1, 2}, view.toArray(new Integer[0])));
+        Collections.sort(view);
+        assertTrue(Arrays.equals(new int[] {1, 2, 4}, ints));
+        Collections.sort(view, Collections.reverseOrder());
+        assertTrue(Arrays.equals(new int[] {4, 2, 1}, ints));
+        try {
+            view.add(5);
+            fail("Added to a fixed-size view");
+        } catch (UnsupportedOperationException e) {
+        }
+        int[] copy = Converters.convert(view, int[].class);
+        assertNotSame(ints, copy);
+        assertTrue(Arrays.equals(ints, copy));
+        boolean[] booleans = {true, false, true};
+        Collections.sort(PrimitiveLists.asList(booleans));
+        assertTrue(Arrays.equals(new boolean[] {false, true, true}, booleans));
+        double[] doubles = {Double.NaN, -0.0, 0.0};
+        List<Double> doubleView = PrimitiveLists.asList(doubles);
+        assertEquals(0, doubleView.indexOf(Double.NaN));
+        assertEquals(2, doubleView.indexOf(0.0));
+        assertTrue(Arrays.equals(doubles, Converters.convert(doubleView, double[].class)));
+        long[] longs = {1, 2};
+        PrimitiveLists.ArrayToListView<long[]> converter = new PrimitiveLists.ArrayToListView<long[]>(long[].class);
+        assertTrue(converter.canConvert(long[].class, List.class));
+        assertFalse(converter.canConvert(long[].class, ArrayList.class));
+        List<?> longView = converter.convert(longs);
+        longs[1] = 3;
+        assertEquals(Arrays.asList(1L, 3L), longView);
+        assertEquals(Arrays.asList((short) 1), PrimitiveLists.asList((Object) new short[] {1}));
+        try {
+            PrimitiveLists.asList((Object) new Integer[] {1});
+            fail("Viewed an Integer[]");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private enum Color {RED, GREEN, BLUE}
+
+    public void testCompactSets() throws Exception {
+        Set<?> colors = Converters.convert(new Color[] {Color.BLUE, Color.RED, Color.BLUE}, Set.class);
+        assertTrue(colors instanceof EnumSet);
+        assertEquals(Arrays.asList(Color.RED, Color.BLUE), new ArrayList<Object>(colors));
+        assertEquals(new HashSet<Color>(Arrays.asList(Color.RED, null)), Converters.convert(new Color[] {Color.RED, null}, Set.class));
+        assertTrue(Converters.convert(new Color[] {Color.GREEN}, EnumSet.class).contains(Color.GREEN));
+        int[][] intArrays = {{}, {0}, {5, 3, 5, -2}, {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 7, -7}, {1000000, 0, 1000000, -1000000}};
+        for (int[] ints : intArrays) {
+            Set<Integer> expected = new HashSet<Integer>();
+            for (int value : ints) {
+                expected.add(value);
+            }
+            Set<Integer> set = PrimitiveSets.of(ints);
+            assertEquals(Arrays.toString(ints), expected, set);
+            assertEquals(Arrays.toString(ints), expected.hashCode(), set.hashCode());
+            assertEquals(expected.size(), set.size());
+            assertFalse(set.contains(1L));
+            assertFalse(set.contains(123456));
+            assertFalse(set.contains(null));
+        }
+        long[][] longArrays = {{}, {0}, {5, 3, 5, -2}, {Long.MIN_VALUE, Long.MAX_VALUE, 0}, {Long.MAX_VALUE - 1, Long.MAX_VALUE}, {1L << 40, -(1L << 40), 0}};
+        for (long[] longs : longArrays) {
+            Set<Long> expected = new HashSet<Long>();
+            for (long value : longs) {
+                expected.add(value);
+            }
+            Set<Long> set = PrimitiveSets.of(longs);
+            assertEquals(Arrays.toString(longs), expected, set);
+            assertEquals(Arrays.toString(longs), expected.hashCode(), set.hashCode());
+            assertFalse(set.contains(1));
+            assertFalse(set.contains(Long.MIN_VALUE + 1));
+        }
+        Set<Integer> set = Converters.convert(new int[] {1, 2, 3}, Set.class);
+        assertTrue(set.add(10));
+        assertFalse(set.add(1));
+        assertTrue(set.remove(2));
+        assertTrue(set.add(null));
+        assertEquals(new HashSet<Integer>(Arrays.asList(1, 3, 10, null)), set);
+        set = PrimitiveSets.of(new int[] {1, 2, 3, 4});
+        set.retainAll(Arrays.asList(2, 4));
+        assertEquals(new HashSet<Integer>(Arrays.asList(2, 4)), set);
+        assertEquals(new HashSet<Long>(Arrays.asList(8L, 9L)), Converters.convert(new long[] {9, 8}, Set.class));
+        assertTrue(Converters.convert(new int[] {1, 2, 3}, Set.class) instanceof HashSet);
+        PrimitiveSets.ArrayToCompactSet<long[]> converter = new PrimitiveSets.ArrayToCompactSet<long[]>(long[].class);
+        assertTrue(converter.canConvert(long[].class, Set.class));
+        assertFalse(converter.canConvert(long[].class, HashSet.class));
+        Set<?> compact = converter.convert(new long[] {9, 8});
+        assertFalse(compact instanceof HashSet);
+        assertEquals(new HashSet<Long>(Arrays.asList(8L, 9L)), compact);
+        try {
+            new PrimitiveSets.ArrayToCompactSet<short[]>(short[].class);
+            fail("Compact set from a short[]");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    private static void assertImmutable(Collection<Object> collection) {
+        try {
+            collection.add("x");
+            fail("Added to " + collection);
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            collection.clear();
+            assertTrue("Cleared " + collection, collection.isEmpty());
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    public void testImmutableCollections() throws Exception {
+        assertEquals(Collections.singletonList("a"), ImmutableCollections.listOf("a"));
+        assertSame(Collections.emptySet(), ImmutableCollections.setOf());
+        List<Object> list = ImmutableCollections.<Object>listOf("a", null, "b");
+        assertEquals(Arrays.asList("a", null, "b"), list);
+        assertEquals(Arrays.asList("a", null, "b").hashCode(), list.hashCode());
+        assertEquals(1, list.indexOf(null));
+        assertTrue(list instanceof RandomAccess);
+        assertImmutable(list);
+        for (int size : new int[] {2, 8, 9, 100}) {
+            List<Object> elements = new ArrayList<Object>();
+            for (int i = 0; i < size; i++) {
+                elements.add(i % 3 == 0 ? Integer.valueOf(i / 2) : Integer.valueOf(i));
+            }
+            elements.add(null);
+            elements.add(Integer.valueOf(1));
+            Set<Object> expected = new LinkedHashSet<Object>(elements);
+            Set<Object> set = ImmutableCollections.setOf(elements);
+            assertEquals(expected, set);
+            assertEquals(set, expected);
+            assertEquals(expected.hashCode(), set.hashCode());
+            assertEquals(new ArrayList<Object>(expected), new ArrayList<Object>(set));
+            assertTrue(set.contains(null));
+            assertFalse(set.contains(Integer.valueOf(-1)));
+            assertImmutable(set);
+        }
+        Set<?> set = new CollectionConverters.ArrayToImmutableSet<int[]>(int[].class).convert(new int[] {3, 1, 3});
+        assertEquals(new HashSet<Integer>(Arrays.asList(1, 3)), set);
+        String[] strings = {"x", "y"};
+        List<?> strList = new CollectionConverters.ArrayToImmutableList<String[]>(String[].class).convert(strings);
+        strings[0] = "z";
+        assertEquals(Arrays.asList("x", "y"), strList);
+        assertEquals(Arrays.asList(1.5), new CollectionConverters.ArrayToImmutableList<double[]>(double[].class).convert(new double[] {1.5}));
+        assertTrue(new CollectionConverters.ArrayToImmutableList<long[]>(long[].class).canConvert(long[].class, Collection.class));
+        assertFalse(new CollectionConverters.ArrayToImmutableList<long[]>(long[].class).canConvert(long[].class, ArrayList.class));
+        assertImmutable(Util.<Collection<Object>>cast(new GenericSingletonToList<String>(String.class, true).convert("a")));
+        assertImmutable(Util.<Collection<Object>>cast(new GenericSingletonToSet<String>(String.class, true).convert("a")));
+        List<String> mutable = new GenericSingletonToList<String>(String.class).convert("a");
+        mutable.add("b");
+    }
+
+    public void testSortedCollections() throws Exception {
+        Random random = new Random(5);
+        for (int size : new int[] {0, 1, 2, 10, 1000}) {
+            int[] ints = new int[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = random.nextInt(size + 1) - size / 2;
+            }
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            for (int value : ints) {
+                expected.add(value);
+            }
+            assertEquals(new ArrayList<Integer>(expected), new ArrayList<Object>(Converters.convert(ints, TreeSet.class)));
+            Arrays.sort(ints);
+            assertEquals(new ArrayList<Integer>(expected), new ArrayList<Object>(Converters.convert(ints, SortedSet.class)));
+            Integer[] boxed = expected.toArray(new Integer[expected.size()]);
+            assertEquals(expected, Converters.convert(boxed, NavigableSet.class));
+            Collections.reverse(Arrays.asList(boxed));
+            assertEquals(expected, SortedCollections.setOf(boxed));
+        }
+        double[] doubles = {1.5, Double.NaN, -0.0, 0.0, -1, 1.5, Double.NEGATIVE_INFINITY};
+        assertEquals(Arrays.asList(Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.5, Double.NaN), new ArrayList<Object>(Converters.convert(doubles, TreeSet.class)));
+        assertEquals(Arrays.asList('a', 'b'), new ArrayList<Object>(Converters.convert(new char[] {'b', 'a', 'b'}, TreeSet.class)));
+        assertEquals(Arrays.asList(false, true), new ArrayList<Object>(Converters.convert(new boolean[] {true, false, true}, TreeSet.class)));
+        TreeSet<?> strings = Converters.convert(new String[] {"b", "a", "c", "a"}, TreeSet.class);
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<Object>(strings));
+        assertTrue(((TreeSet<Object>) strings).add("d"));
+        try {
+            Converters.convert(new String[] {"b", null}, TreeSet.class);
+            fail("Sorted a null element");
+        } catch (ConversionException e) {
+        }
+        try {
+            Converters.convert(new Object[] {new Object()}, TreeSet.class);
+            fail("Sorted an Object");
+        } catch (ConversionException e) {
+        }
+        NavigableSet<?> set = new CollectionConverters.ArrayToSortedArraySet<long[]>(long[].class).convert(new long[] {10, 30, 20, 40, 30});
+        assertEquals(Arrays.asList(10L, 20L, 30L, 40L), new ArrayList<Object>(set));
+        NavigableSet<Long> longs = Util.cast(set);
+        assertEquals(Long.valueOf(20), longs.floor(25L));
+        assertEquals(Long.valueOf(20), longs.lower(30L));
+        assertEquals(Long.valueOf(30), longs.ceiling(30L));
+        assertEquals(Long.valueOf(40), longs.higher(30L));
+        assertNull(longs.higher(40L));
+        assertNull(longs.lower(10L));
+        assertEquals(Arrays.asList(20L, 30L), new ArrayList<Long>(longs.subSet(15L, 40L)));
+        assertEquals(Arrays.asList(20L, 30L, 40L), new ArrayList<Long>(longs.subSet(20L, true, 40L, true)));
+        assertEquals(Arrays.asList(10L), new ArrayList<Long>(longs.headSet(20L)));
+        assertEquals(Arrays.asList(30L, 40L), new ArrayList<Long>(longs.tailSet(25L)));
+        assertEquals(Arrays.asList(40L, 30L, 20L, 10L), new ArrayList<Long>(longs.descendingSet()));
+        assertEquals(Long.valueOf(30), longs.descendingSet().higher(40L));
+        assertEquals(Long.valueOf(40), longs.descendingIterator().next());
+        assertEquals(Long.valueOf(20), longs.tailSet(15L).first());
+        assertTrue(longs.contains(40L));
+        assertFalse(longs.contains(35L));
+        assertTrue(longs.subSet(15L, 20L).isEmpty());
+        try {
+            longs.add(50L);
+            fail("Added to an immutable set");
+        } catch (UnsupportedOperationException e) {
+        }
+        NavigableSet<String> byLength = SortedCollections.setOf(Arrays.asList("ccc", "a", "bb", "dd"), new Comparator<String>() {
+            public int compare(String o1, String o2) {
+                return o1.length() - o2.length();
+            }
+        });
+        assertEquals(Arrays.asList("a", "ccc"), Arrays.asList(byLength.first(), byLength.last()));
+        assertEquals("bb", byLength.floor("xx"));
+        Map<String, Integer> source = new LinkedHashMap<String, Integer>();
+        source.put("b", 1);
+        source.put("a", 2);
+        source.put("c", 3);
+        TreeMap<String, Integer> map = SortedCollections.treeMapOf(source);
+        assertEquals(new TreeMap<String, Integer>(source), map);
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<String>(map.keySet()));
+        map.put("d", 4);
+        assertEquals(4, map.size());
     }
 }
@@ -23,6 +23,7 @@ import java.text.SimpleDateFormat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 import java.util.Set;
 import java.util.TimeZone;
 
@@ -127,4 +128,268 @@ public class TestDateTimeConverters extends TestCase {
         assertConversion("TimeZoneToString", new DateTimeConverters.TimeZoneToString(), tz, tz.getID());
         assertToCollection("TimeZoneToCollection", tz);
     }
+
+    public void testCalendarFormat() throws Exception {
+        // Compare against SimpleDateFormat on a generated corpus covering
+        // many time zones, DST transitions, and years from 1 to 9999.
+        Random random = new Random(20101);
+        Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN, new Locale("es", "ES")};
+        String[] ids = TimeZone.getAvailableIDs();
+        int parsed = 0;
+        int total = 0;
+        for (Locale locale : locales) {
+            for (int i = 0; i < ids.length; i += 3) {
+                TimeZone tz = TimeZone.getTimeZone(ids[i]);
+                for (int j = 0; j < 20; j++) {
+                    long time = j < 10 ? (long) (random.nextDouble() * 4000000000000L) - 1000000000000L : (long) (random.nextDouble() * 315000000000000L) - 62000000000000L;
+                    DateFormat df = new SimpleDateFormat(DateTimeConverters.CALENDAR_FORMAT, locale);
+                    df.setTimeZone(tz);
+                    String expected = df.format(new java.util.Date(time));
+                    assertEquals("format " + time + " " + ids[i] + " " + locale, expected, CalendarFormat.format(time, tz, locale));
+                    long result = CalendarFormat.parse(expected, tz, locale);
+                    if (result != CalendarFormat.NO_MATCH) {
+                        df = new SimpleDateFormat(DateTimeConverters.CALENDAR_FORMAT, locale);
+                        df.setTimeZone(tz);
+                        assertEquals("parse " + expected + " " + ids[i] + " " + locale, df.parse(expected).getTime(), result);
+                        parsed++;
+                    }
+                    total++;
+                }
+            }
+        }
+        assertTrue("parsed " + parsed + " of " + total, parsed > total * 9 / 10);
+        TimeZone tz = TimeZone.getTimeZone("America/New_York");
+        assertEquals("GMT offset", -3600000L, CalendarFormat.parse("Thu Jan 01 00:00:00.000 GMT+01:00 1970", tz, Locale.US));
+        assertEquals("extra space", CalendarFormat.NO_MATCH, CalendarFormat.parse("Thu Jan  1 00:00:00.000 EST 1970", tz, Locale.US));
+        assertEquals("trailing text", CalendarFormat.NO_MATCH, CalendarFormat.parse("Thu Jan 01 00:00:00.000 EST 1970x", tz, Locale.US));
+        assertEquals("unknown zone", CalendarFormat.NO_MATCH, CalendarFormat.parse("Thu Jan 01 00:00:00.000 XYZ 1970", tz, Locale.US));
+    }
+
+    public void testIso8601() throws Exception {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        java.sql.Timestamp stamp = new java.sql.Timestamp(1262401445000L);
+        stamp.setNanos(123456789);
+        assertEquals("DateToString", "2010-01-02T03:04:05.123Z", new IsoDateTimeConverters.DateToString().convert(new java.util.Date(1262401445123L)));
+        assertEquals("StringToDate", new java.util.Date(1262401445123L), new IsoDateTimeConverters.StringToDate().convert("2010-01-02T03:04:05.123Z"));
+        assertEquals("TimestampToString", "2010-01-02T03:04:05.123456789Z", new IsoDateTimeConverters.TimestampToString().convert(stamp));
+        assertEquals("StringToTimestamp", stamp, new IsoDateTimeConverters.StringToTimestamp().convert("2010-01-02T03:04:05.123456789Z"));
+        java.util.Calendar parsedCal = new IsoDateTimeConverters.StringToCalendar().convert("2010-01-02T08:34:05.123+05:30");
+        assertEquals("StringToCalendar", 1262401445123L, parsedCal.getTimeInMillis());
+        assertEquals("StringToCalendar zone", 19800000, parsedCal.getTimeZone().getRawOffset());
+        assertEquals("CalendarToString", "2010-01-02T08:34:05.123+05:30", new IsoDateTimeConverters.CalendarToString().convert(parsedCal));
+        assertEquals("StringToSqlDate", java.sql.Date.valueOf("2010-01-02"), new IsoDateTimeConverters.StringToSqlDate().convert("2010-01-02"));
+        assertEquals("SqlDateToString", "2010-01-02", new IsoDateTimeConverters.SqlDateToString().convert(java.sql.Date.valueOf("2010-01-02")));
+        assertEquals("offset", 1262401445000L, Iso8601Format.parseMillis("2010-01-02T08:34:05+05:30", null));
+        assertEquals("basic offset", 1262401445000L, Iso8601Format.parseMillis("2010-01-01T22:04:05-0500", null));
+        assertEquals("hour offset", 1262401445000L, Iso8601Format.parseMillis("2010-01-01T22:04:05-05", null));
+        assertEquals("no seconds", 1262401440000L, Iso8601Format.parseMillis("2010-01-02T03:04Z", utc));
+        assertEquals("date", 1262390400000L, Iso8601Format.parseMillis("2010-01-02", utc));
+        assertEquals("comma", 1262401445500L, Iso8601Format.parseMillis("2010-01-02T03:04:05,5Z", utc));
+        assertEquals("micros", "2010-01-02T03:04:05.000001Z", Iso8601Format.format(1262401445000L, 1000, utc));
+        assertEquals("zone", "2010-01-01T19:04:05.123-08:00", Iso8601Format.format(1262401445123L, TimeZone.getTimeZone("America/Los_Angeles")));
+        assertEquals("year 0", "0000-01-01T00:00:00Z", Iso8601Format.format(-62167219200000L, utc));
+        assertEquals("year -1", "-0001-01-01T00:00:00Z", Iso8601Format.format(-62198755200000L, utc));
+        assertEquals("year 10000", "+10000-01-01T00:00:00Z", Iso8601Format.format(253402300800000L, utc));
+        assertEquals("year 10000", 253402300800000L, Iso8601Format.parseMillis("+10000-01-01T00:00:00Z", utc));
+        String[] invalid = {"", "2010", "2010-1-02", "2010-01-02T", "2010-02-29", "2010-13-01", "2010-01-02T24:00:00Z",
+                "2010-01-02T03:04:60Z", "2010-01-02T03:04:05.Z", "2010-01-02T03:04:05.1234567890Z", "2010-01-02T03:04:05+19:00",
+                "2010-01-02T03:04:05Zx", "10000-01-01", "2010-01-02T03:04:05 Z"};
+        for (String text : invalid) {
+            assertEquals(text, Iso8601Format.NO_MATCH, Iso8601Format.parseMillis(text, utc));
+        }
+        assertEquals("no offset", new java.util.Date(1262401445123L), new IsoDateTimeConverters.StringToDate().convert("2010-01-02T03:04:05.123"));
+        try {
+            new IsoDateTimeConverters.StringToDate().convert("not a date");
+            fail("StringToDate accepted an invalid string");
+        } catch (ConversionException e) {
+        }
+        try {
+            new IsoDateTimeConverters.StringToDate().convert("2010-02-29");
+            fail("StringToDate accepted an invalid date");
+        } catch (ConversionException e) {
+        }
+        // ISO_8601_FORMAT selects Iso8601Format in every date, calendar and timestamp converter
+        String iso = DateTimeConverters.ISO_8601_FORMAT;
+        java.util.Calendar cal = new DateTimeConverters.StringToCalendar().convert("2010-01-02T03:04:05Z", Locale.US, utc, iso);
+        assertEquals("StringToCalendar", 1262401445000L, cal.getTimeInMillis());
+        assertEquals("CalendarToString", "2010-01-02T03:04:05Z", new DateTimeConverters.CalendarToString().convert(cal, Locale.US, utc, iso));
+        assertEquals("DateToString", "1500-03-01T00:00:00Z", new DateTimeConverters.DateToString().convert(new java.util.Date(Iso8601Format.parseMillis("1500-03-01", utc)), Locale.US, utc, iso));
+        assertEquals("TimestampToString", "2010-01-02T03:04:05.123456789Z", new DateTimeConverters.TimestampToString().convert(stamp, Locale.US, utc, iso));
+        assertEquals("StringToTimestamp", stamp, new DateTimeConverters.StringToTimestamp().convert("2010-01-02T03:04:05.123456789Z", Locale.US, utc, iso));
+        try {
+            new DateTimeConverters.StringToCalendar().convert("2010-01-02T03:04:05Zx", Locale.US, utc, iso);
+            fail("StringToCalendar accepted an invalid string");
+        } catch (ConversionException e) {
+        }
+        try {
+            new DateTimeConverters.StringToTimestamp().convert("2010-01-02T03:04:05Zx", Locale.US, utc, iso);
+            fail("StringToTimestamp accepted an invalid string");
+        } catch (ConversionException e) {
+        }
+        try {
+            new DateTimeConverters.StringToDate().convert("2010-01-02T25:00Z", Locale.US, utc, iso);
+            fail("StringToDate accepted an invalid string");
+        } catch (ConversionException e) {
+        }
+        // Compare fields with GregorianCalendar and round trip in many time zones.
+        DateTimeConverters.DateToString dateToString = new DateTimeConverters.DateToString();
+        DateTimeConverters.StringToDate stringToDate = new DateTimeConverters.StringToDate();
+        Random random = new Random(8601);
+        String[] ids = TimeZone.getAvailableIDs();
+        for (int i = 0; i < ids.length; i += 3) {
+            TimeZone tz = TimeZone.getTimeZone(ids[i]);
+            for (int j = 0; j < 20; j++) {
+                long time = (long) (random.nextDouble() * 4000000000000L) - 1000000000000L;
+                String text = dateToString.convert(new java.util.Date(time), Locale.US, tz, DateTimeConverters.ISO_8601_FORMAT);
+                cal = java.util.Calendar.getInstance(tz, Locale.US);
+                cal.setTimeInMillis(time);
+                String expected = String.format("%04d-%02d-%02dT%02d:%02d:%02d", cal.get(java.util.Calendar.YEAR), cal.get(java.util.Calendar.MONTH) + 1,
+                        cal.get(java.util.Calendar.DAY_OF_MONTH), cal.get(java.util.Calendar.HOUR_OF_DAY), cal.get(java.util.Calendar.MINUTE), cal.get(java.util.Calendar.SECOND));
+                assertTrue(text, text.startsWith(expected));
+                assertEquals(text, time, stringToDate.convert(text, Locale.US, tz, DateTimeConverters.ISO_8601_FORMAT).getTime());
+                String local = expected + String.format(".%03d", cal.get(java.util.Calendar.MILLISECOND));
+                cal.clear();
+                cal.set(Integer.parseInt(local.substring(0, 4)), Integer.parseInt(local.substring(5, 7)) - 1, Integer.parseInt(local.substring(8, 10)),
+                        Integer.parseInt(local.substring(11, 13)), Integer.parseInt(local.substring(14, 16)), Integer.parseInt(local.substring(17, 19)));
+                cal.set(java.util.Calendar.MILLISECOND, Integer.parseInt(local.substring(20)));
+                assertEquals(tz.getID() + " " + local, cal.getTimeInMillis(), Iso8601Format.parseMillis(local, tz));
+                local = local.substring(0, 11) + String.format("%02d:%02d", random.nextInt(24), random.nextInt(60));
+                cal.set(java.util.Calendar.HOUR_OF_DAY, Integer.parseInt(local.substring(11, 13)));
+                cal.set(java.util.Calendar.MINUTE, Integer.parseInt(local.substring(14, 16)));
+                cal.set(java.util.Calendar.SECOND, 0);
+                cal.set(java.util.Calendar.MILLISECOND, 0);
+                assertEquals(tz.getID() + " " + local, cal.getTimeInMillis(), Iso8601Format.parseMillis(local, tz));
+            }
+        }
+    }
+
+    public void testCachedDateFormat() throws Exception {
+        // Compare against SimpleDateFormat on increasing values that cross
+        // second, minute, and daylight saving boundaries.
+        String[] patterns = {"yyyy-MM-dd HH:mm:ss.SSS", "HH:mm:ss", "ssSSS", "yyyyMMddHHmmssSSS", "s.S", "mm:s.SSS",
+                DateTimeConverters.CALENDAR_FORMAT, "'s' ss 'S' SSS zzzz", "ss ss", "yyyy-MM-dd"};
+        String[] ids = {"UTC", "America/New_York", "Europe/London", "Australia/Lord_Howe", "Asia/Kolkata", "America/St_Johns"};
+        Random random = new Random(1287);
+        for (String pattern : patterns) {
+            for (String id : ids) {
+                TimeZone tz = TimeZone.getTimeZone(id);
+                SimpleDateFormat sdf = new SimpleDateFormat(pattern, Locale.US);
+                sdf.setTimeZone(tz);
+                CachedDateFormat cdf = CachedDateFormat.getInstance(pattern, Locale.US, tz);
+                assertSame(pattern, cdf, CachedDateFormat.getInstance(pattern, Locale.US, tz));
+                long time = 1268546400000L - 300000 + random.nextInt(1000);
+                for (int i = 0; i < 2000; i++) {
+                    time += random.nextInt(i % 100 == 0 ? 3600000 : 700);
+                    assertEquals(id + " " + pattern, sdf.format(new java.util.Date(time)), cdf.format(time));
+                }
+            }
+        }
+        DateTimeConverters.DateToString dateToString = new DateTimeConverters.DateToString(true);
+        DateTimeConverters.TimestampToString timestampToString = new DateTimeConverters.TimestampToString(true);
+        TimeZone tz = TimeZone.getTimeZone("America/Chicago");
+        DateFormat df = DateTimeConverters.toDateTimeFormat("yyyy-MM-dd HH:mm:ss.SSS", tz, Locale.US);
+        long time = -62135769600000L;
+        for (int i = 0; i < 1000; i++) {
+            time += (long) (random.nextDouble() * 400000000000L);
+            java.sql.Timestamp stamp = new java.sql.Timestamp(time);
+            stamp.setNanos(random.nextBoolean() ? stamp.getNanos() : random.nextInt(1000000000));
+            assertEquals("DateToString", df.format(stamp), dateToString.convert(stamp, Locale.US, tz, "yyyy-MM-dd HH:mm:ss.SSS"));
+            assertEquals("TimestampToString", new DateTimeConverters.TimestampToString().convert(stamp), timestampToString.convert(stamp));
+            assertEquals("TimestampToString", new DateTimeConverters.TimestampToString().convert(stamp, Locale.US, tz), timestampToString.convert(stamp, Locale.US, tz));
+        }
+    }
+
+    public void testMultiFormatDateParser() throws Exception {
+        String[] patterns = {"yyyy-MM-dd", "dd/MM/yyyy", "MM/dd/yyyy", "yyyy-MM-dd HH:mm:ss", "yyyyMMdd",
+                "dd MMM yyyy", "yyyy-MM-dd'T'HH:mm:ss.SSS", "yyyy.MM.dd 'at' HH:mm"};
+        MultiFormatDateParser parser = new MultiFormatDateParser(Locale.US, patterns);
+        SimpleDateFormat[] formats = new SimpleDateFormat[patterns.length];
+        Random random = new Random(29);
+        for (String id : new String[] {"UTC", "America/New_York", "Europe/Berlin"}) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            for (int i = 0; i < patterns.length; i++) {
+                formats[i] = new SimpleDateFormat(patterns[i], Locale.US);
+                formats[i].setLenient(false);
+                formats[i].setTimeZone(tz);
+            }
+            for (int i = 0; i < 2000; i++) {
+                long time = (long) (random.nextDouble() * 4000000000000L) - 1000000000000L;
+                String text = formats[random.nextInt(formats.length)].format(new java.util.Date(time));
+                long expected = MultiFormatDateParser.NO_MATCH;
+                for (SimpleDateFormat format : formats) {
+                    java.text.ParsePosition position = new java.text.ParsePosition(0);
+                    java.util.Date date = format.parse(text, position);
+                    if (date != null && position.getIndex() == text.length()) {
+                        expected = date.getTime();
+                        break;
+                    }
+                }
+                assertEquals(id + " " + text, expected, parser.parse(text, tz));
+            }
+        }
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        assertEquals("day first", 1262995200000L, parser.parse("09/01/2010", utc));
+        assertEquals("month first", 1266019200000L, parser.parse("02/13/2010", utc));
+        assertEquals("fallback", 1262995200000L, parser.parse("09 Jan 2010", utc));
+        assertEquals("fallback invalid day", MultiFormatDateParser.NO_MATCH, parser.parse("31 Feb 2010", utc));
+        String[] invalid = {"", "2010-02-30", "31/31/2010", "2010-1-02", "2010-01-02 ", "20101302", "0000-01-01", "2010-01-02T03:04:05.1"};
+        for (String text : invalid) {
+            assertEquals(text, MultiFormatDateParser.NO_MATCH, parser.parse(text, utc));
+        }
+        // '' is a quote, inside and outside quoted literals
+        for (String pattern : new String[] {"yyyy-MM-dd HH 'o''clock'", "yyyy-MM-dd''HH", "'''d'''yyyy-MM-dd"}) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setTimeZone(utc);
+            String text = format.format(new java.util.Date(1262998800000L));
+            assertEquals(pattern, format.parse(text).getTime(), new MultiFormatDateParser(Locale.US, pattern).parse(text, utc));
+        }
+        assertEquals("o'clock", 1262998800000L, new MultiFormatDateParser(Locale.US, "yyyy-MM-dd HH 'o''clock'").parse("2010-01-09 01 o'clock", utc));
+        assertEquals("oclock", MultiFormatDateParser.NO_MATCH, new MultiFormatDateParser(Locale.US, "yyyy-MM-dd HH 'o''clock'").parse("2010-01-09 01 oclock", utc));
+        DateTimeConverters.MultiFormatStringToDate converter = new DateTimeConverters.MultiFormatStringToDate(patterns);
+        assertEquals("converted", new java.util.Date(1262995200000L), converter.convert("2010-01-09", Locale.US, utc));
+        try {
+            converter.convert("2010-02-30", Locale.US, utc);
+            fail("MultiFormatStringToDate accepted an invalid date");
+        } catch (ConversionException e) {
+        }
+    }
+
+    public void testTemporalValue() throws Exception {
+        new DateTimeConverters().loadConverters();
+        long currentTime = System.currentTimeMillis();
+        java.util.Calendar cal = java.util.Calendar.getInstance();
+        cal.setTimeInMillis(currentTime);
+        assertEquals("CalendarToSqlDate", new java.sql.Date(currentTime), Converters.convert(cal, java.sql.Date.class));
+        assertEquals("CalendarToSqlTime", new java.sql.Time(currentTime), Converters.convert(cal, java.sql.Time.class));
+        assertEquals("SqlTimeToTimestamp", new java.sql.Timestamp(currentTime), Converters.convert(new java.sql.Time(currentTime), java.sql.Timestamp.class));
+        java.sql.Timestamp stamp = new java.sql.Timestamp(-1500L);
+        stamp.setNanos(123456789);
+        TemporalValue value = new TemporalValue();
+        TemporalValue.getCodec(java.sql.Timestamp.class).decode(stamp, value);
+        assertEquals("epoch second", -2, value.getEpochSecond());
+        assertEquals("nano", 123456789, value.getNano());
+        assertEquals("epoch milli", stamp.getTime(), value.getEpochMilli());
+        assertEquals("round trip", stamp, TemporalValue.getCodec(java.sql.Timestamp.class).encode(value));
+    }
+
+    public void testTryConvert() throws Exception {
+        java.util.Date now = new java.util.Date();
+        TryConverter<?, ?>[] converters = {new DateTimeConverters.StringToDate(), new DateTimeConverters.MultiFormatStringToDate("yyyy-MM-dd", "yyyy-MM-dd HH:mm"),
+                new IsoDateTimeConverters.StringToCalendar(), new IsoDateTimeConverters.StringToDate(), new IsoDateTimeConverters.StringToSqlDate(),
+                new IsoDateTimeConverters.StringToTimestamp()};
+        String[] inputs = {"", "x", "2024-02-29", "2024-02-30", "2024-02-29 12:34", "2024-02-29T12:34:56.123456789+05:30", " 2024-02-29T12:34Z ",
+                new DateTimeConverters.DateToString().convert(now), "Thu Feb 29 12:34:56.789 XYZ 2024"};
+        for (TryConverter<?, ?> converter : converters) {
+            TryConverter<String, Object> tryConverter = Util.cast(converter);
+            for (String text : inputs) {
+                Object expected;
+                try {
+                    expected = tryConverter.convert(text);
+                } catch (ConversionException e) {
+                    expected = null;
+                }
+                assertEquals(converter.getClass().getName() + " \"" + text + "\"", expected, tryConverter.tryConvert(text, null));
+            }
+        }
+    }
 }
@@ -79,6 +79,14 @@ public class TestMisc extends TestCase {
             notFound = Converters.getConverter(BigDecimal.class, URL.class);
         } catch (UnconvertableException e) {}
         assertEquals("Converter not found", null, notFound);
+        UnconvertableException e = UnconvertableException.makeNoConverterExists(BigDecimal.class, URL.class);
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("No converter exists to convert from type class java.math.BigDecimal to type class java.net.URL", e.getMessage());
+        URL url = Converters.convert(BigDecimal.ONE, null, URL.class);
+        assertEquals("Default value", null, url);
+        ConversionException invalid = ConversionException.invalidInput("Unparseable date: \"", "x", "\"");
+        assertEquals(0, invalid.getStackTrace().length);
+        assertEquals("Unparseable date: \"x\"", invalid.getMessage());
     }
 
     public void testLoadContainedConvertersIgnoresException() {
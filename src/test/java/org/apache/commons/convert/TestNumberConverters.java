@@ -20,6 +20,9 @@ package org.apache.commons.convert;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
@@ -86,4 +89,496 @@ public class TestNumberConverters extends TestCase {
         assertConversion(new Long(strInteger));
         assertConversion(new Short(strShort));
     }
+
+    private static <T> void assertNumberValue(String label, T expected, Number source, Class<T> targetClass) {
+        assertEquals(label, targetClass.isInstance(source) ? source : expected, Converters.convert(source, targetClass));
+    }
+
+    public void testNumberValue() throws Exception {
+        new NumberConverters().loadConverters();
+        Number[] sources = {new BigDecimal("-1234567.89"), new BigInteger("98765432109876543210"), Byte.valueOf((byte) -7), Double.valueOf(-3.99e10),
+                Integer.valueOf(Integer.MIN_VALUE), Float.valueOf(1.5e20f), Long.valueOf(-123456789012L), Short.valueOf((short) 12345)};
+        for (Number source : sources) {
+            BigDecimal exact = source instanceof BigDecimal ? (BigDecimal) source : source instanceof BigInteger ? new BigDecimal((BigInteger) source)
+                    : source instanceof Double || source instanceof Float ? new BigDecimal(source.doubleValue()) : BigDecimal.valueOf(source.longValue());
+            assertNumberValue("BigDecimal", exact, source, BigDecimal.class);
+            assertNumberValue("BigInteger", exact.toBigInteger(), source, BigInteger.class);
+            assertNumberValue("Byte", Byte.valueOf(source.byteValue()), source, Byte.class);
+            assertNumberValue("Double", Double.valueOf(source.doubleValue()), source, Double.class);
+            assertNumberValue("Float", Float.valueOf(source.floatValue()), source, Float.class);
+            assertNumberValue("Integer", Integer.valueOf(source.intValue()), source, Integer.class);
+            assertNumberValue("Long", Long.valueOf(source.longValue()), source, Long.class);
+            assertNumberValue("Short", Short.valueOf(source.shortValue()), source, Short.class);
+            assertSame("Number", source, Converters.convert(source, Number.class));
+        }
+        assertEquals("AtomicLong", Integer.valueOf(42), Converters.convert(new java.util.concurrent.atomic.AtomicLong(42), Integer.class));
+        long big = (1L << 60) + 1;
+        assertEquals(BigDecimal.valueOf(big), Converters.convert(new java.util.concurrent.atomic.AtomicLong(big), BigDecimal.class));
+        assertEquals(BigInteger.valueOf(big), Converters.convert(new java.util.concurrent.atomic.AtomicLong(big), BigInteger.class));
+        assertEquals(BigDecimal.valueOf(big), Converters.convert(FixedDecimal.valueOf(big), BigDecimal.class));
+        assertEquals(BigInteger.valueOf(big), Converters.convert(FixedDecimal.valueOf(big), BigInteger.class));
+        NumberValue value = new NumberValue();
+        value.set(new BigDecimal("12345678901234567890.5"));
+        assertEquals(new BigInteger("12345678901234567890"), NumberValue.getCodec(BigInteger.class).encode(value));
+        value.setLong(big);
+        assertEquals(BigDecimal.valueOf(big), NumberValue.getCodec(BigDecimal.class).encode(value));
+    }
+
+    private static <S extends Number, T extends Number> void assertNarrowing(S source, Class<T> targetClass, T saturated, boolean inRange) {
+        T unchecked = new NumberConverters.NumberToNumber<S, T>(Util.<Class<S>>cast(source.getClass()), targetClass, NumberConverters.Narrowing.UNCHECKED).convert(source);
+        T result = new NumberConverters.NumberToNumber<S, T>(Util.<Class<S>>cast(source.getClass()), targetClass, NumberConverters.Narrowing.SATURATING).convert(source);
+        assertEquals(source + " saturating", saturated, result);
+        try {
+            result = new NumberConverters.NumberToNumber<S, T>(Util.<Class<S>>cast(source.getClass()), targetClass, NumberConverters.Narrowing.CHECKED).convert(source);
+            assertTrue(source + " checked", inRange);
+            assertEquals(source + " checked", saturated, result);
+            assertEquals(source + " unchecked", saturated, unchecked);
+        } catch (ConversionException e) {
+            assertFalse(source + " checked", inRange);
+        }
+    }
+
+    public void testNarrowing() throws Exception {
+        assertNarrowing(Integer.valueOf(127), Byte.class, Byte.valueOf((byte) 127), true);
+        assertNarrowing(Integer.valueOf(128), Byte.class, Byte.valueOf((byte) 127), false);
+        assertNarrowing(Long.valueOf(-32769), Short.class, Short.valueOf(Short.MIN_VALUE), false);
+        assertNarrowing(Long.valueOf(Integer.MIN_VALUE), Integer.class, Integer.valueOf(Integer.MIN_VALUE), true);
+        assertNarrowing(Double.valueOf(-128.9), Byte.class, Byte.valueOf((byte) -128), true);
+        assertNarrowing(Double.valueOf(-129.0), Byte.class, Byte.valueOf((byte) -128), false);
+        assertNarrowing(Double.valueOf(Double.NaN), Integer.class, Integer.valueOf(0), false);
+        assertNarrowing(Double.valueOf(-9.223372036854775808E18), Long.class, Long.valueOf(Long.MIN_VALUE), true);
+        assertNarrowing(Double.valueOf(9.223372036854775808E18), Long.class, Long.valueOf(Long.MAX_VALUE), false);
+        assertNarrowing(Float.valueOf(Float.POSITIVE_INFINITY), Short.class, Short.valueOf(Short.MAX_VALUE), false);
+        assertNarrowing(Double.valueOf(1e39), Float.class, Float.valueOf(Float.MAX_VALUE), false);
+        assertNarrowing(Double.valueOf(Double.NEGATIVE_INFINITY), Float.class, Float.valueOf(Float.NEGATIVE_INFINITY), true);
+        assertNarrowing(new BigInteger("9223372036854775807"), Long.class, Long.valueOf(Long.MAX_VALUE), true);
+        assertNarrowing(new BigInteger("-9223372036854775809"), Long.class, Long.valueOf(Long.MIN_VALUE), false);
+        assertNarrowing(new BigInteger("-98765432109876543210"), Byte.class, Byte.valueOf(Byte.MIN_VALUE), false);
+        assertNarrowing(BigInteger.ONE.shiftLeft(1024), Double.class, Double.valueOf(Double.MAX_VALUE), false);
+        assertNarrowing(new BigDecimal("-999999999999999999.99"), Long.class, Long.valueOf(-999999999999999999L), true);
+        assertNarrowing(new BigDecimal("1E+30"), Integer.class, Integer.valueOf(Integer.MAX_VALUE), false);
+        assertNarrowing(new BigDecimal("32767.999"), Short.class, Short.valueOf(Short.MAX_VALUE), true);
+        assertNarrowing(new BigDecimal("1E+39"), Float.class, Float.valueOf(Float.MAX_VALUE), false);
+        // Exact conversions
+        assertEquals(new BigDecimal("9007199254740993"), Converters.convert(new BigInteger("9007199254740993"), BigDecimal.class));
+        assertEquals(new BigInteger("123456789012345678901234567890"), Converters.convert(new BigDecimal("123456789012345678901234567890.5"), BigInteger.class));
+        assertEquals(new BigDecimal("0.1000000000000000055511151231257827021181583404541015625"), Converters.convert(Double.valueOf(0.1), BigDecimal.class));
+        assertEquals(Long.valueOf(9007199254740993L), Converters.convert(new BigDecimal("9007199254740993"), Long.class));
+        try {
+            Converters.convert(Double.valueOf(Double.NaN), BigDecimal.class);
+            fail("NaN converted to BigDecimal");
+        } catch (ConversionException e) {
+        }
+    }
+
+    private static BigDecimal toFixed(String text) {
+        BigDecimal value;
+        try {
+            value = new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        try {
+            if (value.scale() < 0) {
+                value = value.setScale(0);
+            } else if (value.scale() > FixedDecimal.MAX_SCALE) {
+                value = value.setScale(FixedDecimal.MAX_SCALE);
+            }
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        return value.unscaledValue().bitLength() > 63 ? null : value;
+    }
+
+    public void testFixedDecimal() throws Exception {
+        java.util.List<String> inputs = new java.util.ArrayList<String>(java.util.Arrays.asList("", "-", ".", "0", "-0", "+0.00", "1.", ".5", "-.5", "1e", "1e+", "1E3",
+                "1.50E-2", "1.0E-18", "1.0E-19", "0E-30", "12.3.4", "9223372036854775807", "9223372036854775808", "-9223372036854775808",
+                "-922337203685477580.8", "0.000000000000000001", "92233720368547758.08E2", "1e19", "1 ", "1e1000000000"));
+        java.util.Random random = new java.util.Random(13);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder(random.nextInt(4) == 0 ? "-" : "");
+            int length = random.nextInt(21) + 1;
+            int point = random.nextInt(length + 4);
+            for (int j = 0; j < length; j++) {
+                sb.append(j == point ? '.' : (char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(4) == 0) {
+                sb.append('E').append(random.nextInt(40) - 20);
+            }
+            inputs.add(sb.toString());
+        }
+        for (String text : inputs) {
+            BigDecimal expected = toFixed(text);
+            FixedDecimal value = null;
+            try {
+                value = FixedDecimal.parse(text);
+            } catch (NumberFormatException e) {
+            }
+            if (expected == null) {
+                assertNull(text, value);
+                continue;
+            }
+            assertEquals(text, expected.unscaledValue().longValue(), value.getUnscaledValue());
+            assertEquals(text, expected.scale(), value.getScale());
+            assertEquals(text, expected.toPlainString(), value.toString());
+            assertEquals(text, "x" + expected.toPlainString(), value.appendTo(new StringBuilder("x")).toString());
+            assertEquals(text, expected.doubleValue(), value.doubleValue());
+            assertEquals(text, expected.longValue(), value.longValue());
+            assertEquals(text, value, FixedDecimal.valueOf(value.toBigDecimal()));
+            assertEquals(text, 0, value.compareTo(FixedDecimal.valueOf(expected)));
+            for (Locale locale : new Locale[] {Locale.US, Locale.GERMANY, new Locale("de", "CH"), new Locale("ar", "EG")}) {
+                NumberFormat nf = NumberFormat.getNumberInstance(locale);
+                nf.setMinimumFractionDigits(value.getScale());
+                nf.setMaximumFractionDigits(value.getScale());
+                String formatted = value.format(locale);
+                assertEquals(locale + " " + text, nf.format(expected), formatted);
+                assertEquals(locale + " " + text, value, FixedDecimal.parse(formatted, locale));
+            }
+        }
+        for (double d : new double[] {0.1, -2.5e-7, 1234.5678, 1e15, -0.0}) {
+            assertEquals(String.valueOf(d), 0, BigDecimal.valueOf(d).compareTo(FixedDecimal.valueOf(d).toBigDecimal()));
+        }
+        for (int i = 0; i < 10000; i++) {
+            double d = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            if (i % 10 == 0) {
+                d = Math.rint(d);
+            }
+            FixedDecimal expected = null;
+            try {
+                expected = FixedDecimal.valueOf(new BigDecimal(DoubleFormat.toString(d)));
+            } catch (ArithmeticException e) {
+            }
+            FixedDecimal value = null;
+            try {
+                value = FixedDecimal.valueOf(d);
+            } catch (ArithmeticException e) {
+            }
+            assertEquals(String.valueOf(d), expected, value);
+        }
+        assertEquals(FixedDecimal.parse("0e59"), FixedDecimal.valueOf(new BigDecimal("0E+20")));
+        assertEquals(FixedDecimal.parse("0e-30"), FixedDecimal.valueOf(new BigDecimal("0E-30")));
+        assertEquals(FixedDecimal.valueOf(0, 2), FixedDecimal.valueOf(new BigDecimal("0.00")));
+        for (double d : new double[] {4.9e-324, 1e300, Double.NaN, Double.NEGATIVE_INFINITY}) {
+            try {
+                FixedDecimal.valueOf(d);
+                fail("Converted " + d);
+            } catch (ArithmeticException e) {
+            }
+        }
+        FixedDecimal value = FixedDecimal.valueOf(-12345, 2);
+        assertEquals(FixedDecimal.valueOf(-123, 0), value.setScale(0, java.math.RoundingMode.HALF_EVEN));
+        assertEquals(FixedDecimal.valueOf(-1235, 1), value.setScale(1, java.math.RoundingMode.HALF_UP));
+        assertEquals(FixedDecimal.valueOf(-1234, 1), value.setScale(1, java.math.RoundingMode.HALF_DOWN));
+        assertEquals(FixedDecimal.valueOf(-1234, 1), value.setScale(1, java.math.RoundingMode.CEILING));
+        assertEquals(FixedDecimal.valueOf(-123450, 3), value.setScale(3, java.math.RoundingMode.UNNECESSARY));
+        for (java.math.RoundingMode mode : java.math.RoundingMode.values()) {
+            for (long unscaled = -30; unscaled <= 30; unscaled++) {
+                FixedDecimal fixed = FixedDecimal.valueOf(unscaled, 1);
+                BigDecimal expected;
+                try {
+                    expected = fixed.toBigDecimal().setScale(0, mode);
+                } catch (ArithmeticException e) {
+                    expected = null;
+                }
+                try {
+                    assertEquals(mode + " " + fixed, expected, fixed.setScale(0, mode).toBigDecimal());
+                } catch (ArithmeticException e) {
+                    assertNull(mode + " " + fixed, expected);
+                }
+            }
+        }
+        try {
+            FixedDecimal.valueOf(Long.MAX_VALUE / 10, 0).setScale(2, java.math.RoundingMode.UNNECESSARY);
+            fail("Overflow not detected");
+        } catch (ArithmeticException e) {
+        }
+        assertEquals("12,345.670", new NumberConverters.FixedDecimalToString().convert(FixedDecimal.parse("12345.670"), Locale.US, null));
+        assertEquals("12345,67", new NumberConverters.FixedDecimalToString().convert(FixedDecimal.parse("12345.670"), Locale.GERMANY, null, "0.00"));
+        assertEquals(FixedDecimal.valueOf(1234567, 3), new NumberConverters.StringToFixedDecimal().convert("1.234,567", Locale.GERMANY, null));
+        assertEquals(FixedDecimal.valueOf(1234567, 3), new NumberConverters.StringToFixedDecimal().convert("1,234.567", Locale.US, null, "#,##0.000"));
+        assertEquals(FixedDecimal.valueOf(25, 1), Converters.getConverter(Double.class, FixedDecimal.class).convert(2.5));
+        assertEquals(new BigDecimal("-0.05"), Converters.getConverter(FixedDecimal.class, BigDecimal.class).convert(FixedDecimal.valueOf(-5, 2)));
+        assertEquals(Long.valueOf(-1), Converters.getConverter(FixedDecimal.class, Long.class).convert(FixedDecimal.valueOf(-15, 1)));
+        assertEquals(FixedDecimal.valueOf(7), Converters.getConverter(Long.class, FixedDecimal.class).convert(7L));
+        assertEquals("0.007", Converters.getConverter(FixedDecimal.class, String.class).convert(FixedDecimal.valueOf(7, 3)));
+        try {
+            Converters.getConverter(String.class, FixedDecimal.class).convert("1e19");
+            fail("Overflow not detected");
+        } catch (ConversionException e) {
+            assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+        try {
+            Converters.getConverter(BigDecimal.class, FixedDecimal.class).convert(new BigDecimal("0.1234567890123456789"));
+            fail("Inexact conversion");
+        } catch (ConversionException e) {
+        }
+    }
+
+    public void testIntegerFormat() throws Exception {
+        long[] values = {0, 1, -1, 9, 10, -99, 100, 999, -1000, 12345, Short.MIN_VALUE, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        NumberConverters.LongToString longToString = new NumberConverters.LongToString();
+        for (long value : values) {
+            assertEquals(Long.toString(value), IntegerFormat.toString(value));
+            assertEquals(Long.toString(value), IntegerFormat.append(new StringBuilder("x"), value).substring(1));
+            assertEquals(Long.toString(value), longToString.convert(value));
+        }
+        for (int i = -100000; i <= 100000; i += 7) {
+            assertEquals(Integer.toString(i), IntegerFormat.toString(i));
+        }
+        for (long power = 1; power <= 1000000000000000000L; power *= 10) {
+            for (long value : new long[] {power - 1, power, -power, 1 - power}) {
+                assertEquals(Long.toString(value), IntegerFormat.append(new StringBuilder("x"), value).substring(1));
+            }
+        }
+        BigInteger big = new BigInteger("-98765432109876543210");
+        for (Locale locale : Locale.getAvailableLocales()) {
+            NumberFormat nf = NumberFormat.getNumberInstance(locale);
+            for (long value : values) {
+                assertEquals(locale + " " + value, nf.format(value), longToString.convert(value, locale, null, null));
+            }
+            assertEquals(locale + " Byte", nf.format(-128), new NumberConverters.ByteToString().convert(Byte.MIN_VALUE, locale, null));
+            assertEquals(locale + " Short", nf.format(12345), new NumberConverters.ShortToString().convert((short) 12345, locale, null));
+            assertEquals(locale + " Integer", nf.format(-1234567), new NumberConverters.IntegerToString().convert(-1234567, locale, null));
+            String bigResult = IntegerFormat.format(big, locale);
+            if (bigResult != null) {
+                assertEquals(locale + " BigInteger", nf.format(big), bigResult);
+            }
+        }
+        assertEquals("1,234,567", longToString.convert(1234567L, Locale.US, null, null));
+        assertEquals("-98,765,432,109,876,543,210", new NumberConverters.BigIntegerToString().convert(big, Locale.US, null));
+        assertEquals("1234567.0", longToString.convert(1234567L, Locale.US, null, "0.0"));
+    }
+
+    public void testDoubleFormat() throws Exception {
+        String[][] doubles = {{"0.0", "0.0"}, {"-0.0", "-0.0"}, {"0.002", "2.0E-3"}, {"1.0E23", "1e23"}, {"4.9E-324", "4.9E-324"}, {"1.7976931348623157E308", "1.7976931348623157E308"},
+                {"1.0E7", "1e7"}, {"9999999.0", "9999999"}, {"0.001", "1e-3"}, {"1.0E-4", "1e-4"}, {"1234567.89", "1234567.89"}, {"-123.456", "-123.456"}};
+        NumberConverters.DoubleToString doubleToString = new NumberConverters.DoubleToString();
+        for (String[] pair : doubles) {
+            assertEquals(pair[0], doubleToString.convert(Double.valueOf(pair[1])));
+        }
+        assertEquals("0.30000000000000004", DoubleFormat.toString(0.1 + 0.2));
+        assertEquals("NaN", DoubleFormat.toString(Double.NaN));
+        assertEquals("-Infinity", DoubleFormat.toString(Double.NEGATIVE_INFINITY));
+        assertEquals("1.4E-45", DoubleFormat.toString(Float.MIN_VALUE));
+        assertEquals("3.4028235E38", new NumberConverters.FloatToString().convert(Float.MAX_VALUE));
+        assertEquals("1.0E10", DoubleFormat.toString(1e10f));
+        assertEquals("0.3", DoubleFormat.toString(0.3f));
+        java.util.Random random = new java.util.Random(1);
+        char[] buffer = new char[DoubleFormat.MAX_LENGTH + 1];
+        for (int i = 0; i < 20000; i++) {
+            double value = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            String text = DoubleFormat.toString(value);
+            assertEquals(text, value, Double.parseDouble(text));
+            assertTrue(text, text.length() <= Double.toString(value).length());
+            assertEquals(text, new String(buffer, 1, DoubleFormat.getChars(value, buffer, 1) - 1));
+        }
+        // Set convert.exhaustive to check every float
+        long step = Boolean.getBoolean("convert.exhaustive") ? 1 : 40009;
+        for (long bits = 0; bits <= 0xFFFFFFFFL; bits += step) {
+            float value = Float.intBitsToFloat((int) bits);
+            if (Float.isNaN(value)) {
+                continue;
+            }
+            String text = DoubleFormat.toString(value);
+            if (Float.parseFloat(text) != value || text.length() > Float.toString(value).length()) {
+                fail(Float.toString(value) + " formatted as " + text);
+            }
+        }
+        double[] values = {0, -0.0, 0.5, -1234.25, 1234567.89, 1e20, 0.000123};
+        for (Locale locale : Locale.getAvailableLocales()) {
+            NumberFormat nf = NumberFormat.getNumberInstance(locale);
+            nf.setMaximumFractionDigits(340);
+            for (double value : values) {
+                assertEquals(locale + " " + value, nf.format(value), doubleToString.convert(value, locale, null));
+            }
+        }
+        assertEquals("1.234.567,89", doubleToString.convert(1234567.89, Locale.GERMANY, null));
+        assertEquals("0.30000000000000004", doubleToString.convert(0.1 + 0.2, Locale.US, null));
+        assertEquals("1,234,567.9", new NumberConverters.FloatToString().convert(1234567.89f, Locale.US, null));
+        assertEquals("1234567.890", doubleToString.convert(1234567.89, Locale.US, null, "0.000"));
+        assertEquals("1234567,890", doubleToString.convert(1234567.89, Locale.GERMANY, null, "0.000"));
+        assertEquals("1.234", new NumberConverters.IntegerToString().convert(1234, Locale.GERMANY, null, "#,##0"));
+        assertEquals(Double.valueOf(1234.5), new NumberConverters.StringToDouble().convert("1234,5", Locale.GERMANY, null, "0.0"));
+        assertEquals(BigInteger.valueOf(1234), new NumberConverters.StringToBigInteger().convert("1.234", Locale.GERMANY, null, "#,##0"));
+    }
+
+    public void testBigDecimalFormat() throws Exception {
+        String[] patterns = {null, "#,##0.00", "0.###", "#.##", "000000", "#,##0.0#;(#)", "\u00A4#,##0.00", "#,##,###", "0.0000000000000000000000", "0.00E0", "#%"};
+        Locale[] locales = {Locale.US, Locale.GERMANY, Locale.FRANCE, new Locale("de", "CH"), new Locale("ar", "EG"), new Locale("th", "TH", "TH"), new Locale("hi", "IN")};
+        java.util.Random random = new java.util.Random(7);
+        BigDecimal[] values = new BigDecimal[300];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigDecimal(new BigInteger(random.nextInt(120) + 1, random).subtract(BigInteger.ONE.shiftLeft(20)), random.nextInt(40) - 10);
+        }
+        values[0] = new BigDecimal("0.0005");
+        values[1] = new BigDecimal("-0.0005");
+        values[2] = new BigDecimal("0E-12");
+        values[3] = new BigDecimal("-12345678901234567890123456789.987654321");
+        for (Locale locale : locales) {
+            for (String pattern : patterns) {
+                NumberFormat nf = pattern == null ? NumberFormat.getNumberInstance(locale) : new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale));
+                BigDecimalFormat format = BigDecimalFormat.getInstance(pattern, locale);
+                assertSame(format, BigDecimalFormat.getInstance(pattern, locale));
+                for (BigDecimal value : values) {
+                    assertEquals(locale + " " + pattern + " " + value, nf.format(value), format.format(value));
+                }
+                BigInteger integer = values[3].toBigInteger();
+                assertEquals(locale + " " + pattern + " " + integer, nf.format(integer), format.format(integer));
+            }
+        }
+        assertEquals("0.00", new BigDecimalFormat("0.00", Locale.US).getPattern());
+        NumberConverters.BigDecimalToString toString = new NumberConverters.BigDecimalToString();
+        assertEquals("12,345,678,901,234,567,890,123,456,789.988", toString.convert(new BigDecimal("12345678901234567890123456789.9875"), Locale.US, null));
+        assertEquals("12345678901234567890,12", toString.convert(new BigDecimal("12345678901234567890.115"), Locale.GERMANY, null, "0.00"));
+        assertEquals("9,223,372,036,854,775,807.00", new NumberConverters.BigIntegerToString().convert(BigInteger.valueOf(Long.MAX_VALUE), Locale.US, null, "#,##0.00"));
+    }
+
+    public void testIntegerParser() throws Exception {
+        java.util.Random random = new java.util.Random(11);
+        int[] lengths = {1, 17, 18, 19, 36, 1024, 1025, 2049, 5000, 30000};
+        for (int length : lengths) {
+            for (int i = 0; i < 5; i++) {
+                StringBuilder sb = new StringBuilder(i == 1 ? "-" : i == 2 ? "+" : i == 3 ? "-000" : "");
+                for (int j = 0; j < length; j++) {
+                    sb.append((char) ('0' + random.nextInt(10)));
+                }
+                String text = sb.toString();
+                assertEquals(text, new BigInteger(text), IntegerParser.parseBigInteger(text));
+            }
+        }
+        assertEquals(new BigInteger("-9223372036854775808"), IntegerParser.parseBigInteger("-9223372036854775808"));
+        assertEquals(new BigInteger("\u0661\u0662\u0663"), IntegerParser.parseBigInteger("\u0661\u0662\u0663"));
+        for (String text : new String[] {"", "-", "+", "12a", " 1", "1-2", "--1", "1.0"}) {
+            try {
+                IntegerParser.parseBigInteger(text);
+                fail("Parsed \"" + text + "\"");
+            } catch (NumberFormatException e) {
+            }
+        }
+        NumberConverters.StringToBigInteger converter = new NumberConverters.StringToBigInteger();
+        BigInteger big = new BigInteger("-98765432109876543210987654321");
+        assertEquals(big, converter.convert("-98,765,432,109,876,543,210,987,654,321", Locale.US, null));
+        assertEquals(big, converter.convert("-98.765.432.109.876.543.210.987.654.321", Locale.GERMANY, null));
+        assertEquals(big, converter.convert("-98765432109876543210987654321.75", Locale.US, null));
+        assertEquals(big.negate(), converter.convert("98765432109876543210987654321", Locale.US, null, "#,##0"));
+        assertEquals(BigInteger.valueOf(1234), converter.convert("1,234.56", Locale.US, null));
+        NumberConverters.BigIntegerToString toString = new NumberConverters.BigIntegerToString();
+        for (Locale locale : Locale.getAvailableLocales()) {
+            assertEquals(locale.toString(), big, converter.convert(toString.convert(big, locale, null), locale, null));
+        }
+    }
+
+    private static Object parse(String text, boolean asLong, boolean fromBytes) {
+        try {
+            if (fromBytes) {
+                byte[] bytes = ("xx" + text + "y").getBytes("UTF-8");
+                return asLong ? IntegerParser.parseLong(bytes, 2, bytes.length - 1) : (Object) IntegerParser.parseInt(bytes, 2, bytes.length - 1);
+            }
+            return asLong ? IntegerParser.parseLong(text) : (Object) IntegerParser.parseInt(text);
+        } catch (NumberFormatException e) {
+            return NumberFormatException.class;
+        } catch (java.io.UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static Object parseJdk(String text, boolean asLong) {
+        try {
+            return asLong ? Long.parseLong(text) : (Object) Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            return NumberFormatException.class;
+        }
+    }
+
+    public void testParseIntegers() throws Exception {
+        java.util.List<String> inputs = new java.util.ArrayList<String>(java.util.Arrays.asList("", "-", "+", "0", "-0", "+7", "12345678", "-87654321",
+                "123456789", "2147483647", "2147483648", "-2147483648", "-2147483649", "999999999999999999", "-999999999999999999",
+                "9223372036854775807", "9223372036854775808", "-9223372036854775808", "000000000000000000000012", "1234567a", "12345678a",
+                "1234:678", "12/45678", "1 2", " 12", "12 ", "--1", "1-", "\u0661\u0662\u0663", "1234567\u0130", "\u0130\u0130\u0130\u0130\u0130\u0130\u0130\u0130"));
+        java.util.Random random = new java.util.Random(5);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder(random.nextInt(4) == 0 ? "-" : "");
+            int length = random.nextInt(20) + 1;
+            for (int j = 0; j < length; j++) {
+                sb.append(random.nextInt(50) == 0 ? (char) ('0' + random.nextInt(16) - 3) : (char) ('0' + random.nextInt(10)));
+            }
+            inputs.add(sb.toString());
+        }
+        for (String text : inputs) {
+            assertEquals(text, parseJdk(text, true), parse(text, true, false));
+            assertEquals(text, parseJdk(text, true), parse(text, true, true));
+            assertEquals(text, parseJdk(text, false), parse(text, false, false));
+            assertEquals(text, parseJdk(text, false), parse(text, false, true));
+        }
+        assertEquals(Short.valueOf((short) -32768), new NumberConverters.StringToShort().convert("-32768"));
+        assertEquals(Byte.valueOf((byte) 127), new NumberConverters.StringToByte().convert("127"));
+        assertEquals(Long.valueOf(-1234567890123L), new NumberConverters.StringToLong().convert("-1234567890123"));
+        assertEquals(Integer.valueOf(2147483647), new NumberConverters.StringToInteger().convert("2147483647"));
+        Converter<?, ?>[] converters = {new NumberConverters.StringToByte(), new NumberConverters.StringToShort(), new NumberConverters.StringToInteger(), new NumberConverters.StringToLong()};
+        for (Converter<?, ?> converter : converters) {
+            for (String text : new String[] {"", "12x", "99999999999999999999"}) {
+                try {
+                    Util.<Converter<String, ?>>cast(converter).convert(text);
+                    fail(converter.getClass().getSimpleName() + " converted \"" + text + "\"");
+                } catch (ConversionException e) {
+                    assertTrue(e.getCause() instanceof NumberFormatException);
+                }
+            }
+        }
+    }
+
+    public void testTryConvert() throws Exception {
+        java.util.List<String> inputs = new java.util.ArrayList<String>(java.util.Arrays.asList("", "-", "+", "0", "-0", "127", "128", "-32769",
+                "2147483648", "-9223372036854775808", "9223372036854775808", "000000000000000000000012", "12x", "1 2", " 12", "\u0661\u0662",
+                "1.5", "-.5", "5.", ".", "1e10", "1e", "1e+", "-2.5E-7", "1.5f", "1.5d", "1.5dd", " 7 ", "NaN", "-Infinity", "Infinity1", "0x1p3",
+                "0x1", "1e400", "0.000000000000000000001", "1.2.3", "e5", "+-1", "99999999999999999999", "123456789012345678901234567890"));
+        java.util.Random random = new java.util.Random(7);
+        String alphabet = "0123456789.-+eE dfx";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(12) + 1;
+            for (int j = 0; j < length; j++) {
+                sb.append(random.nextInt(3) == 0 ? alphabet.charAt(random.nextInt(alphabet.length())) : (char) ('0' + random.nextInt(10)));
+            }
+            inputs.add(sb.toString());
+        }
+        TryConverter<?, ?>[] converters = {new NumberConverters.StringToBigDecimal(), new NumberConverters.StringToBigInteger(), new NumberConverters.StringToByte(),
+                new NumberConverters.StringToDouble(), new NumberConverters.StringToFixedDecimal(), new NumberConverters.StringToFloat(),
+                new NumberConverters.StringToInteger(), new NumberConverters.StringToLong(), new NumberConverters.StringToShort()};
+        for (TryConverter<?, ?> converter : converters) {
+            TryConverter<String, Object> tryConverter = Util.cast(converter);
+            for (String text : inputs) {
+                Object expected;
+                try {
+                    expected = tryConverter.convert(text);
+                } catch (RuntimeException e) {
+                    expected = null;
+                }
+                assertEquals(converter.getClass().getSimpleName() + " \"" + text + "\"", expected, tryConverter.tryConvert(text, null));
+            }
+        }
+        assertEquals(Integer.valueOf(-1), Converters.convert("12x", -1, Integer.class));
+        for (TryConverter<?, ?> converter : new TryConverter<?, ?>[] {new NumberConverters.StringToBigDecimal(), new NumberConverters.StringToDouble(),
+                new NumberConverters.StringToFloat()}) {
+            try {
+                Util.<TryConverter<String, Object>>cast(converter).convert("12x");
+                fail(converter.getClass().getSimpleName() + " converted \"12x\"");
+            } catch (ConversionException e) {
+                assertEquals("For input string: \"12x\"", e.getMessage());
+            }
+        }
+        assertEquals(Double.valueOf(1.5), Converters.convert("1.5", -1.0, Double.class));
+        assertEquals(Double.valueOf(-1.0), Converters.convert("1.5.", -1.0, Double.class));
+        try {
+            new NumberConverters.StringToBigInteger().convert("x12", java.util.Locale.US, null, "#,##0");
+            fail("Parsed \"x12\"");
+        } catch (ConversionException e) {
+            assertEquals("Unparseable number: \"x12\"", e.getMessage());
+            assertEquals(0, e.getStackTrace().length);
+        }
+    }
 }
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+import junit.framework.TestCase;
+
+public class TestStringOutput extends TestCase {
+
+    private static <S> void assertOutput(Converter<S, String> converter, S... values) throws Exception {
+        for (S value : values) {
+            String expected = converter.convert(value);
+            String label = converter.getClass().getSimpleName() + " " + expected;
+            assertEquals(label, "<" + expected, StringOutput.appendTo(converter, value, new StringBuilder("<")).toString());
+            assertEquals(label, expected, StringOutput.appendTo(converter, value, new StringWriter()).toString());
+            assertEquals(label, "<" + expected, StringOutput.appendTo(converter, value, new StringBuffer("<")).toString());
+            byte[] bytes = expected.getBytes("UTF-8");
+            ByteBuffer heap = ByteBuffer.allocate(bytes.length + 2);
+            heap.put((byte) '<');
+            StringOutput.encodeTo(converter, value, heap);
+            assertEquals(label, bytes.length + 1, heap.position());
+            assertTrue(label, Arrays.equals(bytes, Arrays.copyOfRange(heap.array(), 1, bytes.length + 1)));
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            StringOutput.encodeTo(converter, value, direct);
+            assertFalse(label, direct.hasRemaining());
+            direct.flip();
+            assertEquals(label, ByteBuffer.wrap(bytes), direct);
+        }
+    }
+
+    public TestStringOutput(String name) {
+        super(name);
+    }
+
+    public void testConverters() throws Exception {
+        assertOutput(new NumberConverters.IntegerToString(), 0, -1, Integer.MIN_VALUE, 123456789);
+        assertOutput(new NumberConverters.LongToString(), Long.MIN_VALUE, Long.MAX_VALUE);
+        assertOutput(new NumberConverters.ShortToString(), Short.MIN_VALUE);
+        assertOutput(new NumberConverters.ByteToString(), Byte.MAX_VALUE);
+        assertOutput(new NumberConverters.DoubleToString(), 0.0, -0.0, 1e23, Double.MIN_VALUE, Double.NaN, Double.NEGATIVE_INFINITY);
+        assertOutput(new NumberConverters.FloatToString(), 1.1f, Float.MAX_VALUE);
+        assertOutput(new NumberConverters.BigDecimalToString(), new BigDecimal("-1.50E+300"));
+        assertOutput(new NumberConverters.BigIntegerToString(), BigInteger.TEN.pow(40));
+        assertOutput(new NumberConverters.FixedDecimalToString(), FixedDecimal.valueOf(-150, 2), FixedDecimal.valueOf(Long.MIN_VALUE, 18));
+        assertOutput(new GenericToStringConverter<Boolean>(Boolean.class), true);
+        assertOutput(new NetConverters.InetAddressToString(), InetAddress.getByName("127.0.0.1"));
+        long now = System.currentTimeMillis();
+        assertOutput(new DateTimeConverters.DateToString(), new Date(now), new Date(-62135769600000L));
+        assertOutput(new DateTimeConverters.CalendarToString(), Calendar.getInstance());
+        assertOutput(new DateTimeConverters.SqlDateToString(), new java.sql.Date(now));
+        assertOutput(new DateTimeConverters.SqlTimeToString(), new Time(now));
+        assertOutput(new DateTimeConverters.TimeZoneToString(), TimeZone.getTimeZone("America/New_York"));
+        Timestamp[] timestamps = new Timestamp[5];
+        int[] nanos = {0, 1, 120000000, 123456789, 999999999};
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = new Timestamp(now + i * 1001);
+            timestamps[i].setNanos(nanos[i]);
+        }
+        assertOutput(new DateTimeConverters.TimestampToString(), timestamps);
+        assertOutput(new DateTimeConverters.TimestampToString(true), timestamps);
+        assertOutput(new DateTimeConverters.TimestampToString(true), new Timestamp(-62135769600000L));
+    }
+
+    public void testEncode() throws Exception {
+        String text = "a\u00e9\u20ac\ud83d\ude00\ud800z\udc00";
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        StringOutput.encode(text, buffer);
+        assertEquals(StringOutput.encodedLength(text), buffer.position());
+        buffer.flip();
+        assertEquals(ByteBuffer.wrap(text.getBytes("UTF-8")), buffer);
+        ByteBuffer small = ByteBuffer.allocateDirect(StringOutput.encodedLength(text) - 1);
+        try {
+            StringOutput.encode(text, small);
+            fail("Encoded into a small buffer");
+        } catch (BufferOverflowException e) {
+            assertEquals(0, small.position());
+        }
+        Converter<Object, String> plain = new AbstractConverter<Object, String>(Object.class, String.class) {
+            public String convert(Object obj) {
+                return "\u00e9" + obj;
+            }
+        };
+        assertEquals("<\u00e91", StringOutput.appendTo(plain, 1, new StringBuilder("<")).toString());
+        assertEquals("\u00e91", StringOutput.appendTo(plain, 1, new StringWriter()).toString());
+        buffer.clear();
+        StringOutput.encodeTo(plain, 1, buffer);
+        assertEquals(3, buffer.position());
+    }
+}
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+public class TestTypeConverters extends TestCase {
+
+    public List<String> stringList;
+    public Map<String, List<String>> stringListMap;
+
+    @SuppressWarnings("serial")
+    public static class Names<V> extends HashMap<String, V> {
+    }
+
+    public TestTypeConverters(String name) {
+        super(name);
+    }
+
+    private static Type fieldType(String name) throws Exception {
+        return TestTypeConverters.class.getField(name).getGenericType();
+    }
+
+    public void testEagerConversion() throws Exception {
+        ParameterizedType integerList = TypeConverters.parameterize(List.class, Integer.class);
+        assertEquals(fieldType("stringList"), TypeConverters.parameterize(List.class, String.class));
+        assertEquals(TypeConverters.parameterize(List.class, String.class), fieldType("stringList"));
+        assertEquals(fieldType("stringList").hashCode(), TypeConverters.parameterize(List.class, String.class).hashCode());
+        List<Integer> integers = TypeConverters.convert(Arrays.asList("1", "2", null), fieldType("stringList"), integerList);
+        assertEquals(Arrays.asList(1, 2, null), integers);
+        assertEquals(ArrayList.class, integers.getClass());
+        List<String> strings = Arrays.asList("x");
+        assertSame(strings, TypeConverters.convert(strings, fieldType("stringList"), fieldType("stringList")));
+        Type longSet = TypeConverters.parameterize(Set.class, Long.class);
+        assertEquals(new LinkedHashSet<Long>(Arrays.asList(3L, 4L)), TypeConverters.convert(Arrays.asList("3", "4", "3"), fieldType("stringList"), longSet));
+        Map<String, List<String>> source = new HashMap<String, List<String>>();
+        source.put("1", Arrays.asList("2", "3"));
+        Type target = TypeConverters.parameterize(TreeMap.class, Integer.class, integerList);
+        Map<Integer, List<Integer>> result = TypeConverters.convert(source, fieldType("stringListMap"), target);
+        assertEquals(TreeMap.class, result.getClass());
+        assertEquals(Arrays.asList(2, 3), result.get(1));
+        // Type arguments resolved through the supertypes of Names<String>
+        Names<String> names = new Names<String>();
+        names.put("a", "5");
+        Type namesType = TypeConverters.parameterize(Names.class, String.class);
+        Map<String, Double> doubles = TypeConverters.convert(names, namesType, TypeConverters.parameterize(Map.class, String.class, Double.class));
+        assertEquals(Double.valueOf(5), doubles.get("a"));
+        // Unknown element types are converted by the class of each element
+        List<Object> mixed = Arrays.<Object>asList("6", 7L, 8);
+        assertEquals(Arrays.asList(6, 7, 8), TypeConverters.convert(mixed, ArrayList.class, integerList));
+        try {
+            TypeConverters.convert(Arrays.asList("x"), fieldType("stringList"), integerList);
+            fail("Converted \"x\" to an Integer");
+        } catch (ConversionException e) {
+        }
+        try {
+            TypeConverters.getConverter(fieldType("stringList"), TypeConverters.parameterize(List.class, Thread.class));
+            fail("Found a String to Thread converter");
+        } catch (UnconvertableException e) {
+        }
+        try {
+            TypeConverters.parameterize(Map.class, String.class);
+            fail("Parameterized Map with one argument");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void testViews() throws Exception {
+        ParameterizedType integerList = TypeConverters.parameterize(List.class, Integer.class);
+        Converter<List<String>, List<Integer>> converter = TypeConverters.getViewConverter(fieldType("stringList"), integerList);
+        assertSame(converter, TypeConverters.getViewConverter(TypeConverters.parameterize(List.class, String.class), integerList));
+        List<String> strings = new ArrayList<String>(Arrays.asList("1", "2"));
+        List<Integer> view = converter.convert(strings);
+        assertTrue(view instanceof RandomAccess);
+        strings.set(1, "3");
+        assertEquals(Arrays.asList(1, 3), view);
+        try {
+            view.add(4);
+            fail("Added to a view");
+        } catch (UnsupportedOperationException e) {
+        }
+        Collection<Long> longs = TypeConverters.<Set<String>, Collection<Long>>getViewConverter(TypeConverters.parameterize(Set.class, String.class),
+                TypeConverters.parameterize(Collection.class, Long.class)).convert(new LinkedHashSet<String>(Arrays.asList("5", "6")));
+        assertEquals(Arrays.asList(5L, 6L), new ArrayList<Long>(longs));
+        Map<String, List<String>> source = new HashMap<String, List<String>>();
+        source.put("1", Arrays.asList("2"));
+        source.put("x", Arrays.asList("x"));
+        Map<String, List<Integer>> sameKeys = TypeConverters.<Map<String, List<String>>, Map<String, List<Integer>>>getViewConverter(fieldType("stringListMap"),
+                TypeConverters.parameterize(Map.class, String.class, integerList)).convert(source);
+        // Only the values that are read are converted
+        assertEquals(Arrays.asList(2), sameKeys.get("1"));
+        assertNull(sameKeys.get("2"));
+        assertTrue(sameKeys.containsKey("x"));
+        try {
+            sameKeys.get("x").get(0);
+            fail("Converted \"x\" to an Integer");
+        } catch (ConversionException e) {
+        }
+        source.remove("x");
+        Map<Integer, List<Integer>> view2 = TypeConverters.<Map<String, List<String>>, Map<Integer, List<Integer>>>getViewConverter(fieldType("stringListMap"),
+                TypeConverters.parameterize(Map.class, Integer.class, integerList)).convert(source);
+        assertEquals(Arrays.asList(2), view2.get(1));
+        assertFalse(view2.containsKey("1"));
+        assertEquals(1, view2.size());
+        assertEquals(Integer.valueOf(1), view2.keySet().iterator().next());
+        source.put("01", Arrays.asList("3"));
+        try {
+            TypeConverters.<Map<String, List<String>>, Map<Integer, List<Integer>>>getViewConverter(fieldType("stringListMap"),
+                    TypeConverters.parameterize(Map.class, Integer.class, integerList)).convert(source);
+            fail("Viewed \"1\" and \"01\" as duplicate Integer keys");
+        } catch (ConversionException e) {
+        }
+        source.remove("01");
+        // Targets that cannot be views are copied
+        Map<Integer, List<Integer>> copy = TypeConverters.<Map<String, List<String>>, Map<Integer, List<Integer>>>getViewConverter(fieldType("stringListMap"),
+                TypeConverters.parameterize(TreeMap.class, Integer.class, integerList)).convert(source);
+        assertEquals(TreeMap.class, copy.getClass());
+        assertEquals(view2, copy);
+    }
+
+    public void testImmutableConversion() throws Exception {
+        Type integerList = TypeConverters.parameterize(List.class, Integer.class);
+        Converter<List<String>, List<Integer>> converter = TypeConverters.getImmutableConverter(fieldType("stringList"), integerList);
+        List<Integer> integers = converter.convert(Arrays.asList("1", "2", "1"));
+        assertEquals(Arrays.asList(1, 2, 1), integers);
+        assertTrue(integers instanceof RandomAccess);
+        try {
+            integers.set(0, 5);
+            fail("Changed an immutable list");
+        } catch (UnsupportedOperationException e) {
+        }
+        List<String> strings = new ArrayList<String>(Arrays.asList("a"));
+        List<String> copy = TypeConverters.<List<String>, List<String>>getImmutableConverter(fieldType("stringList"), fieldType("stringList")).convert(strings);
+        assertNotSame(strings, copy);
+        assertEquals(strings, copy);
+        Set<Long> longs = TypeConverters.<List<String>, Set<Long>>getImmutableConverter(fieldType("stringList"), TypeConverters.parameterize(Set.class, Long.class))
+                .convert(Arrays.asList("3", "4", "3"));
+        assertEquals(new LinkedHashSet<Long>(Arrays.asList(3L, 4L)), longs);
+        try {
+            longs.remove(3L);
+            fail("Changed an immutable set");
+        } catch (UnsupportedOperationException e) {
+        }
+        String[] array = {"a", "b"};
+        List<?> rawList = TypeConverters.<String[], List<?>>getImmutableConverter(String[].class, List.class).convert(array);
+        array[0] = "c";
+        assertEquals(Arrays.asList("a", "b"), rawList);
+        try {
+            Util.<List<Object>>cast(rawList).set(0, "d");
+            fail("Changed an immutable list");
+        } catch (UnsupportedOperationException e) {
+        }
+        Set<?> rawSet = TypeConverters.<List<String>, Set<?>>getImmutableConverter(fieldType("stringList"), Set.class).convert(Arrays.asList("a", "b", "a"));
+        assertEquals(new LinkedHashSet<String>(Arrays.asList("a", "b")), rawSet);
+        try {
+            rawSet.clear();
+            fail("Changed an immutable set");
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals(Arrays.asList(1, 2), TypeConverters.<int[], List<?>>getImmutableConverter(int[].class, Collection.class).convert(new int[] {1, 2}));
+        ArrayList<Integer> arrayList = TypeConverters.<List<String>, ArrayList<Integer>>getImmutableConverter(fieldType("stringList"),
+                TypeConverters.parameterize(ArrayList.class, Integer.class)).convert(Arrays.asList("1"));
+        arrayList.add(2);
+    }
+
+    public void testSortedTargets() throws Exception {
+        Type longTreeSet = TypeConverters.parameterize(TreeSet.class, Long.class);
+        TreeSet<Long> longs = TypeConverters.convert(Arrays.asList("30", "10", "20", "10"), fieldType("stringList"), longTreeSet);
+        assertEquals(Arrays.asList(10L, 20L, 30L), new ArrayList<Long>(longs));
+        NavigableSet<Long> immutable = TypeConverters.<List<String>, NavigableSet<Long>>getImmutableConverter(fieldType("stringList"),
+                TypeConverters.parameterize(NavigableSet.class, Long.class)).convert(Arrays.asList("3", "1", "2"));
+        assertEquals(Long.valueOf(2), immutable.lower(3L));
+        try {
+            immutable.add(4L);
+            fail("Changed an immutable set");
+        } catch (UnsupportedOperationException e) {
+        }
+        Map<String, List<String>> source = new HashMap<String, List<String>>();
+        source.put("10", Arrays.asList("1"));
+        source.put("9", Arrays.asList("2"));
+        source.put("010", Arrays.asList("3"));
+        Type target = TypeConverters.parameterize(SortedMap.class, Integer.class, TypeConverters.parameterize(List.class, Integer.class));
+        SortedMap<Integer, List<Integer>> result = TypeConverters.convert(source, fieldType("stringListMap"), target);
+        assertTrue(result instanceof TreeMap);
+        assertEquals(Arrays.asList(9, 10), new ArrayList<Integer>(result.keySet()));
+        assertEquals(1, result.get(10).size());
+        try {
+            TypeConverters.convert(Arrays.asList("1", null), fieldType("stringList"), longTreeSet);
+            fail("Sorted a null element");
+        } catch (ConversionException e) {
+        }
+    }
+
+    public void testNestedArrays() throws Exception {
+        int[][] ints = {{1, 2}, {3}, {}};
+        Type integerListList = TypeConverters.parameterize(List.class, TypeConverters.parameterize(List.class, Integer.class));
+        List<List<Integer>> lists = TypeConverters.convert(ints, int[][].class, integerListList);
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3), Arrays.<Integer>asList()), lists);
+        List<List<Integer>> views = TypeConverters.<int[][], List<List<Integer>>>getViewConverter(int[][].class, integerListList).convert(ints);
+        ints[0][1] = 5;
+        assertEquals(Integer.valueOf(5), views.get(0).get(1));
+        double[][] doubles = TypeConverters.convert(new String[][] {{"1.5", "2"}, {"-3"}}, String[][].class, double[][].class);
+        assertTrue(Arrays.equals(new double[] {1.5, 2}, doubles[0]));
+        assertTrue(Arrays.equals(new double[] {-3}, doubles[1]));
+        Type stringListList = TypeConverters.parameterize(List.class, fieldType("stringList"));
+        long[][] longs = TypeConverters.convert(Arrays.asList(Arrays.asList("1", "2"), Arrays.asList("3")), stringListList, long[][].class);
+        assertTrue(Arrays.deepEquals(new long[][] {{1, 2}, {3}}, longs));
+        LinkedList<Integer> linked = new LinkedList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            linked.add(i);
+        }
+        int[] fromLinked = TypeConverters.convert(linked, LinkedList.class, int[].class);
+        assertEquals(99999, fromLinked[99999]);
+        long[][] widened = TypeConverters.convert(new int[][] {{7}}, int[][].class, long[][].class);
+        assertEquals(7L, widened[0][0]);
+        Integer[][][] cube = TypeConverters.convert(new String[][][] {{{"1"}, {"2"}}}, String[][][].class, Integer[][][].class);
+        assertEquals(Integer.valueOf(2), cube[0][1][0]);
+        try {
+            TypeConverters.convert(new String[][] {{"1", null}}, String[][].class, int[][].class);
+            fail("Stored null in an int[]");
+        } catch (ConversionException e) {
+        }
+        try {
+            TypeConverters.convert(new long[][] {{1L << 40}}, long[][].class, int[][].class);
+            fail("Narrowed 2^40 to an int");
+        } catch (ConversionException e) {
+        }
+    }
+
+    public void testFlatArray() throws Exception {
+        FlatArray matrix = FlatArray.of(new String[][] {{"1", "2", "3"}, {"4", "5", "6"}}, double.class);
+        assertTrue(Arrays.equals(new int[] {2, 3}, matrix.getShape()));
+        double[] data = (double[]) matrix.getData();
+        assertTrue(Arrays.equals(new double[] {1, 2, 3, 4, 5, 6}, data));
+        assertEquals(6.0, data[matrix.index(1, 2)]);
+        FlatArray ints = FlatArray.of(Arrays.asList(new int[] {1, 2}, new int[] {3, 4}), int.class);
+        assertTrue(Arrays.equals(new int[] {1, 2, 3, 4}, (int[]) ints.getData()));
+        FlatArray mixed = FlatArray.of(Arrays.asList(Arrays.asList(1, "2"), Arrays.asList(3.5, 4L)), long.class);
+        assertTrue(Arrays.equals(new long[] {1, 2, 3, 4}, (long[]) mixed.getData()));
+        LinkedList<List<Integer>> linkedRows = new LinkedList<List<Integer>>();
+        linkedRows.add(new LinkedList<Integer>(Arrays.asList(1, 2)));
+        linkedRows.add(new LinkedList<Integer>(Arrays.asList(3, 4)));
+        assertTrue(Arrays.equals(new int[] {1, 2, 3, 4}, (int[]) FlatArray.of(linkedRows, int.class).getData()));
+        FlatArray empty = FlatArray.of(new String[0][], double.class);
+        assertTrue(Arrays.equals(new int[] {0}, empty.getShape()));
+        FlatArray strings = FlatArray.of(new String[][][] {{{"a"}, {"b"}}}, String.class);
+        assertTrue(Arrays.equals(new int[] {1, 2, 1}, strings.getShape()));
+        assertEquals("b", ((String[]) strings.getData())[strings.index(0, 1, 0)]);
+        try {
+            FlatArray.of(new String[][] {{"1", "2"}, {"3"}}, double.class);
+            fail("Flattened a ragged array");
+        } catch (ConversionException e) {
+        }
+        try {
+            FlatArray.of(new String[][] {{}, {"3"}}, double.class);
+            fail("Flattened a ragged array with an empty first row");
+        } catch (ConversionException e) {
+        }
+        FlatArray emptyRows = FlatArray.of(new int[][] {{}, {}}, int.class);
+        assertTrue(Arrays.equals(new int[] {2, 0}, emptyRows.getShape()));
+        assertEquals(0, ((int[]) emptyRows.getData()).length);
+        try {
+            matrix.index(2, 0);
+            fail("Indexed outside the matrix");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *******************************************************************************/
+package org.apache.commons.convert;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import junit.framework.TestCase;
+
+public class TestUtf8Converters extends TestCase {
+
+    private static byte[] bytes(String text) throws Exception {
+        return ("<<" + text + ">").getBytes("UTF-8");
+    }
+
+    /** Returns the class of <code>e</code>, or of its cause if it is a
+     * <code>ConversionException</code>. Some <code>String</code> converters do not wrap
+     * parse exceptions. */
+    private static Object exceptionClass(Exception e) {
+        return e instanceof ConversionException && e.getCause() != null ? e.getCause().getClass() : e.getClass();
+    }
+
+    /** Returns the result of <code>converter</code> on <code>text</code>, or the class
+     * of the exception it throws. */
+    private static Object convert(Converter<String, ?> converter, String text) {
+        try {
+            return converter.convert(text);
+        } catch (Exception e) {
+            return exceptionClass(e);
+        }
+    }
+
+    /** Returns the result of <code>converter</code> on the UTF-8 bytes of
+     * <code>text</code> in a larger array, or the class of the exception it throws. */
+    private static Object convert(Utf8Converters.AbstractByteArrayConverter<?> converter, String text) throws Exception {
+        byte[] bytes = bytes(text);
+        try {
+            return converter.convert(bytes, 2, bytes.length - 1);
+        } catch (Exception e) {
+            return exceptionClass(e);
+        }
+    }
+
+    private static void assertSameResults(Converter<String, ?> expected, Utf8Converters.AbstractByteArrayConverter<?> converter, String... inputs) throws Exception {
+        for (String text : inputs) {
+            assertEquals(converter.getClass().getSimpleName() + " \"" + text + "\"", convert(expected, text), convert(converter, text));
+        }
+    }
+
+    public TestUtf8Converters(String name) {
+        super(name);
+    }
+
+    public void testConverters() throws Exception {
+        assertSameResults(new NumberConverters.StringToInteger(), new Utf8Converters.ByteArrayToInteger(), "0", "-2147483648", "2147483648", "12x", "", "\u0661\u0662");
+        assertSameResults(new NumberConverters.StringToLong(), new Utf8Converters.ByteArrayToLong(), "-9223372036854775808", "123456789012345678", "1e3");
+        assertSameResults(new NumberConverters.StringToDouble(), new Utf8Converters.ByteArrayToDouble(), "0", "-0", "1.5", ".5", "5.", "1e22", "1e23", "-2.5E-7",
+                "123456789012345678", "1234567890123456789", "9007199254740993", "0.1", "3.141592653589793", "NaN", "-Infinity", "0x1p3", " 7 ", "1d", "1e", "e1", ".", "", "1..2",
+                "0.000000000000000000000000000001", "1e-400", "1e400", "00000000000000000000000001.5");
+        assertSameResults(new BooleanConverters.StringToBoolean(), new Utf8Converters.ByteArrayToBoolean(), "true", " TRUE\t", "TrUe", "false", "", "tru", "truee", "\u0442rue");
+        assertSameResults(new MiscConverters.StringToUUID(), new Utf8Converters.ByteArrayToUUID(), "123e4567-e89b-12d3-a456-426614174000", "FFFFFFFF-FFFF-FFFF-FFFF-FFFFFFFFFFFF",
+                "00000000-0000-0000-0000-000000000000", "123e4567-e89b-12d3-a456-42661417400g", "1-2-3-4-5", "123e4567e89b12d3a456426614174000");
+        assertSameResults(new DateTimeConverters.StringToSqlDate(), new Utf8Converters.ByteArrayToSqlDate(), "2024-02-29", "1999-1-5", "2023-02-31", "2023-13-01", "2023-00-10",
+                "0001-01-01", "202-01-01", "2023-01-001", "2023/01/01", "2023-01-");
+        assertSameResults(new DateTimeConverters.StringToSqlTime(), new Utf8Converters.ByteArrayToSqlTime(), "00:00:00", "23:59:59", "25:61:61", "1:2:3", "12-00-00", "12:00");
+        assertSameResults(new DateTimeConverters.StringToTimestamp(), new Utf8Converters.ByteArrayToTimestamp(), "2024-02-29 12:34:56", "2024-02-29 12:34:56.1",
+                "2024-02-29 12:34:56.123456789", "2024-02-29 12:34:56.1234567890", "2024-2-9 01:02:03.5", " 2024-02-29 12:34:56 ", "2024-02-29T12:34:56", "2024-02-29 12:34:56.",
+                "2024-02-29 12:34");
+        assertEquals(new BigDecimal("-1.50E+3"), new Utf8Converters.ByteArrayToBigDecimal().convert(bytes("-1.50E+3"), 2, 10));
+        assertEquals(FixedDecimal.valueOf(-150, 2), new Utf8Converters.ByteArrayToFixedDecimal().convert(bytes("-1.50"), 2, 7));
+        Random random = new Random(3);
+        Utf8Converters.ByteArrayToDouble toDouble = new Utf8Converters.ByteArrayToDouble();
+        for (int i = 0; i < 10000; i++) {
+            double value = i % 2 == 0 ? random.nextInt(100000000) / Math.pow(10, random.nextInt(12)) : Double.longBitsToDouble(random.nextLong());
+            String text = Double.toString(value);
+            assertEquals(text, Double.valueOf(text), convert(toDouble, text));
+        }
+    }
+
+    public void testByteBuffers() throws Exception {
+        ByteBuffer heap = ByteBuffer.wrap(bytes("12345"), 2, 5).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(16);
+        direct.put(bytes("12345")).flip();
+        direct.position(2).limit(7);
+        assertEquals(Integer.valueOf(12345), Converters.convert(heap, Integer.class));
+        assertEquals(Integer.valueOf(12345), Converters.convert(direct, Integer.class));
+        assertEquals(0, heap.position());
+        assertEquals(2, direct.position());
+        assertEquals(Long.valueOf(12345), Converters.convert("12345".getBytes("UTF-8"), Long.class));
+        UUID uuid = UUID.randomUUID();
+        assertEquals(uuid, Converters.convert(ByteBuffer.wrap(uuid.toString().getBytes("UTF-8")), UUID.class));
+        try {
+            Converters.convert(ByteBuffer.wrap("x".getBytes("UTF-8")), Double.class);
+            fail("Converted \"x\"");
+        } catch (ConversionException e) {
+            assertEquals("For input string: \"x\"", e.getMessage());
+        }
+    }
+
+    public void testBulkAndIso() throws Exception {
+        byte[] bytes = bytes("1,-2,300,4000000000");
+        long[] longs = new long[4];
+        assertEquals(4, Utf8Parser.parseLongs(bytes, 2, bytes.length - 1, ',', longs));
+        assertEquals(4000000000L, longs[3]);
+        assertEquals(-2, longs[1]);
+        int[] ints = new int[3];
+        assertEquals(3, Utf8Parser.parseInts(bytes, 2, 10, ',', ints));
+        assertEquals(300, ints[2]);
+        assertEquals(0, Utf8Parser.parseInts(bytes, 2, 2, ',', ints));
+        try {
+            Utf8Parser.parseInts(bytes, 2, bytes.length - 1, ',', ints);
+            fail("Parsed an out of range int");
+        } catch (NumberFormatException e) {
+        }
+        double[] doubles = new double[3];
+        bytes = bytes("0.5;-1e3;;");
+        try {
+            Utf8Parser.parseDoubles(bytes, 2, bytes.length - 1, ';', doubles);
+            fail("Parsed an empty field");
+        } catch (NumberFormatException e) {
+        }
+        assertEquals(-1000.0, doubles[1]);
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        for (String text : new String[] {"2024-03-10T02:30", "2024-02-29T12:34:56.789+05:30", "-0001-01-01", "2024-02-30", "2024-01-01T12:00Z\u00e9"}) {
+            bytes = bytes(text);
+            assertEquals(text, Iso8601Format.parseMillis(text, zone), Utf8Parser.parseIsoMillis(bytes, 2, bytes.length - 1, zone));
+            Timestamp expected = Iso8601Format.parseTimestamp(text, zone);
+            assertEquals(text, expected, Utf8Parser.parseIsoTimestamp(bytes, 2, bytes.length - 1, zone));
+        }
+        assertEquals(Time.valueOf("01:02:03"), Utf8Parser.parseSqlTime(bytes("01:02:03"), 2, 10));
+    }
+}